@@ -262,6 +262,11 @@ public class IoTConsensusConfig {
     private final long checkpointGap;
     private final long allocateMemoryForConsensus;
     private final long allocateMemoryForQueue;
+    private final int sharedLogDispatcherThreadNum;
+    private final boolean enableBatchSyncAcrossRegions;
+    private final int batchSyncInFlightRequestsPerRegion;
+    private final long batchSyncMaxSizePerRequest;
+    private final int snapshotTransferThreadNum;
 
     private Replication(
         int maxLogEntriesNumPerBatch,
@@ -275,7 +280,12 @@ public class IoTConsensusConfig {
         long throttleTimeOutMs,
         long checkpointGap,
         long allocateMemoryForConsensus,
-        double maxMemoryRatioForQueue) {
+        double maxMemoryRatioForQueue,
+        int sharedLogDispatcherThreadNum,
+        boolean enableBatchSyncAcrossRegions,
+        int batchSyncInFlightRequestsPerRegion,
+        long batchSyncMaxSizePerRequest,
+        int snapshotTransferThreadNum) {
       this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
       this.maxSizePerBatch = maxSizePerBatch;
       this.maxPendingBatchesNum = maxPendingBatchesNum;
@@ -288,6 +298,11 @@ public class IoTConsensusConfig {
       this.checkpointGap = checkpointGap;
       this.allocateMemoryForConsensus = allocateMemoryForConsensus;
       this.allocateMemoryForQueue = (long) (allocateMemoryForConsensus * maxMemoryRatioForQueue);
+      this.sharedLogDispatcherThreadNum = sharedLogDispatcherThreadNum;
+      this.enableBatchSyncAcrossRegions = enableBatchSyncAcrossRegions;
+      this.batchSyncInFlightRequestsPerRegion = batchSyncInFlightRequestsPerRegion;
+      this.batchSyncMaxSizePerRequest = batchSyncMaxSizePerRequest;
+      this.snapshotTransferThreadNum = snapshotTransferThreadNum;
     }
 
     public int getMaxLogEntriesNumPerBatch() {
@@ -338,6 +353,26 @@ public class IoTConsensusConfig {
       return allocateMemoryForQueue;
     }
 
+    public int getSharedLogDispatcherThreadNum() {
+      return sharedLogDispatcherThreadNum;
+    }
+
+    public boolean isEnableBatchSyncAcrossRegions() {
+      return enableBatchSyncAcrossRegions;
+    }
+
+    public int getBatchSyncInFlightRequestsPerRegion() {
+      return batchSyncInFlightRequestsPerRegion;
+    }
+
+    public long getBatchSyncMaxSizePerRequest() {
+      return batchSyncMaxSizePerRequest;
+    }
+
+    public int getSnapshotTransferThreadNum() {
+      return snapshotTransferThreadNum;
+    }
+
     public static Replication.Builder newBuilder() {
       return new Replication.Builder();
     }
@@ -358,6 +393,16 @@ public class IoTConsensusConfig {
       private long checkpointGap = 500;
       private long allocateMemoryForConsensus = Runtime.getRuntime().maxMemory() / 10;
       private double maxMemoryRatioForQueue = 0.6;
+      // 0 means that every LogDispatcherThread occupies one thread
+      private int sharedLogDispatcherThreadNum = 0;
+      // whether the batches of different regions sent to the same DataNode are merged into one RPC
+      private boolean enableBatchSyncAcrossRegions = false;
+      // the number of merged RPCs that can be in flight to a DataNode is this value multiplied by
+      // the number of regions replicated to it
+      private int batchSyncInFlightRequestsPerRegion = 1;
+      private long batchSyncMaxSizePerRequest = 64 * 1024 * 1024L;
+      // number of snapshot files transferred to the new peer in parallel
+      private int snapshotTransferThreadNum = 4;
 
       public Replication.Builder setMaxLogEntriesNumPerBatch(int maxLogEntriesNumPerBatch) {
         this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
@@ -421,6 +466,33 @@ public class IoTConsensusConfig {
         return this;
       }
 
+      public Replication.Builder setSharedLogDispatcherThreadNum(int sharedLogDispatcherThreadNum) {
+        this.sharedLogDispatcherThreadNum = sharedLogDispatcherThreadNum;
+        return this;
+      }
+
+      public Replication.Builder setEnableBatchSyncAcrossRegions(
+          boolean enableBatchSyncAcrossRegions) {
+        this.enableBatchSyncAcrossRegions = enableBatchSyncAcrossRegions;
+        return this;
+      }
+
+      public Replication.Builder setBatchSyncInFlightRequestsPerRegion(
+          int batchSyncInFlightRequestsPerRegion) {
+        this.batchSyncInFlightRequestsPerRegion = batchSyncInFlightRequestsPerRegion;
+        return this;
+      }
+
+      public Replication.Builder setBatchSyncMaxSizePerRequest(long batchSyncMaxSizePerRequest) {
+        this.batchSyncMaxSizePerRequest = batchSyncMaxSizePerRequest;
+        return this;
+      }
+
+      public Replication.Builder setSnapshotTransferThreadNum(int snapshotTransferThreadNum) {
+        this.snapshotTransferThreadNum = snapshotTransferThreadNum;
+        return this;
+      }
+
       public Replication build() {
         return new Replication(
             maxLogEntriesNumPerBatch,
@@ -434,7 +506,12 @@ public class IoTConsensusConfig {
             throttleTimeOutMs,
             checkpointGap,
             allocateMemoryForConsensus,
-            maxMemoryRatioForQueue);
+            maxMemoryRatioForQueue,
+            sharedLogDispatcherThreadNum,
+            enableBatchSyncAcrossRegions,
+            batchSyncInFlightRequestsPerRegion,
+            batchSyncMaxSizePerRequest,
+            snapshotTransferThreadNum);
       }
     }
   }
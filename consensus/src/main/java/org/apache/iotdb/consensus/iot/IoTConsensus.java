@@ -22,6 +22,8 @@ package org.apache.iotdb.consensus.iot;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.client.IClientManager;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.consensus.ConsensusGroupId;
 import org.apache.iotdb.commons.exception.StartupException;
 import org.apache.iotdb.commons.service.RegisterManager;
@@ -43,10 +45,12 @@ import org.apache.iotdb.consensus.exception.ConsensusGroupNotExistException;
 import org.apache.iotdb.consensus.exception.IllegalPeerEndpointException;
 import org.apache.iotdb.consensus.exception.IllegalPeerNumException;
 import org.apache.iotdb.consensus.iot.client.AsyncIoTConsensusServiceClient;
+import org.apache.iotdb.consensus.iot.client.BatchSyncLogSender;
 import org.apache.iotdb.consensus.iot.client.IoTConsensusClientPool.AsyncIoTConsensusServiceClientPoolFactory;
 import org.apache.iotdb.consensus.iot.client.IoTConsensusClientPool.SyncIoTConsensusServiceClientPoolFactory;
 import org.apache.iotdb.consensus.iot.client.SyncIoTConsensusServiceClient;
 import org.apache.iotdb.consensus.iot.logdispatcher.IoTConsensusMemoryManager;
+import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatchScheduler;
 import org.apache.iotdb.consensus.iot.service.IoTConsensusRPCService;
 import org.apache.iotdb.consensus.iot.service.IoTConsensusRPCServiceProcessor;
 import org.apache.iotdb.rpc.RpcUtils;
@@ -64,6 +68,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class IoTConsensus implements IConsensus {
@@ -81,6 +86,14 @@ public class IoTConsensus implements IConsensus {
   private final IoTConsensusConfig config;
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
   private final IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager;
+  // null if every LogDispatcherThread occupies one thread
+  private final LogDispatchScheduler logDispatchScheduler;
+  // null if the logs of each region are sent by their own RPCs
+  private final BatchSyncLogSender batchSyncLogSender;
+  // executes the TSyncLogEntriesReqs of different regions received in one RPC in parallel, null if
+  // the logs of each region are sent by their own RPCs. It's not bounded because a request may wait
+  // for the previous requests of its region, which may be executed by other threads of this pool
+  private final ExecutorService batchSyncLogExecutor;
 
   public IoTConsensus(ConsensusConfig config, Registry registry) {
     this.thisNode = config.getThisNodeEndPoint();
@@ -102,6 +115,19 @@ public class IoTConsensus implements IConsensus {
         .init(
             config.getIoTConsensusConfig().getReplication().getAllocateMemoryForConsensus(),
             config.getIoTConsensusConfig().getReplication().getAllocateMemoryForQueue());
+    this.logDispatchScheduler =
+        this.config.getReplication().getSharedLogDispatcherThreadNum() > 0
+            ? new LogDispatchScheduler(this.config)
+            : null;
+    if (this.config.getReplication().isEnableBatchSyncAcrossRegions()) {
+      this.batchSyncLogSender = new BatchSyncLogSender(clientManager, this.config);
+      this.batchSyncLogExecutor =
+          IoTDBThreadPoolFactory.newCachedThreadPool(
+              ThreadName.IOT_CONSENSUS_BATCH_SYNC_LOG.getName());
+    } else {
+      this.batchSyncLogSender = null;
+      this.batchSyncLogExecutor = null;
+    }
   }
 
   @Override
@@ -135,6 +161,8 @@ public class IoTConsensus implements IConsensus {
                   registry.apply(consensusGroupId),
                   clientManager,
                   syncClientManager,
+                  logDispatchScheduler,
+                  batchSyncLogSender,
                   config);
           stateMachineMap.put(consensusGroupId, consensus);
           consensus.start();
@@ -147,6 +175,12 @@ public class IoTConsensus implements IConsensus {
   public void stop() {
     clientManager.close();
     stateMachineMap.values().parallelStream().forEach(IoTConsensusServerImpl::stop);
+    if (logDispatchScheduler != null) {
+      logDispatchScheduler.stop();
+    }
+    if (batchSyncLogExecutor != null) {
+      batchSyncLogExecutor.shutdownNow();
+    }
     registerManager.deregisterAll();
   }
 
@@ -215,6 +249,8 @@ public class IoTConsensus implements IConsensus {
                   registry.apply(groupId),
                   clientManager,
                   syncClientManager,
+                  logDispatchScheduler,
+                  batchSyncLogSender,
                   config);
           impl.start();
           return impl;
@@ -387,6 +423,11 @@ public class IoTConsensus implements IConsensus {
     return new ArrayList<>(stateMachineMap.keySet());
   }
 
+  /** @return null if the batches of different regions are not merged into one RPC */
+  public ExecutorService getBatchSyncLogExecutor() {
+    return batchSyncLogExecutor;
+  }
+
   public IoTConsensusServerImpl getImpl(ConsensusGroupId groupId) {
     return stateMachineMap.get(groupId);
   }
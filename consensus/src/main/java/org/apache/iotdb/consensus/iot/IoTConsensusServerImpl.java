@@ -23,6 +23,8 @@ import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.exception.ClientManagerException;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.PerformanceOverviewMetrics;
@@ -36,15 +38,21 @@ import org.apache.iotdb.consensus.common.request.IndexedConsensusRequest;
 import org.apache.iotdb.consensus.config.IoTConsensusConfig;
 import org.apache.iotdb.consensus.exception.ConsensusGroupModifyPeerException;
 import org.apache.iotdb.consensus.iot.client.AsyncIoTConsensusServiceClient;
+import org.apache.iotdb.consensus.iot.client.BatchSyncLogSender;
 import org.apache.iotdb.consensus.iot.client.SyncIoTConsensusServiceClient;
 import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatcher;
+import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatchScheduler;
+import org.apache.iotdb.consensus.iot.snapshot.SnapshotFragment;
 import org.apache.iotdb.consensus.iot.snapshot.SnapshotFragmentReader;
+import org.apache.iotdb.consensus.iot.snapshot.SnapshotTransferProgress;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerReq;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerRes;
 import org.apache.iotdb.consensus.iot.thrift.TBuildSyncLogChannelReq;
 import org.apache.iotdb.consensus.iot.thrift.TBuildSyncLogChannelRes;
 import org.apache.iotdb.consensus.iot.thrift.TCleanupTransferredSnapshotReq;
 import org.apache.iotdb.consensus.iot.thrift.TCleanupTransferredSnapshotRes;
+import org.apache.iotdb.consensus.iot.thrift.TGetSnapshotFileLengthsReq;
+import org.apache.iotdb.consensus.iot.thrift.TGetSnapshotFileLengthsRes;
 import org.apache.iotdb.consensus.iot.thrift.TInactivatePeerReq;
 import org.apache.iotdb.consensus.iot.thrift.TInactivatePeerRes;
 import org.apache.iotdb.consensus.iot.thrift.TRemoveSyncLogChannelReq;
@@ -71,6 +79,7 @@ import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -81,18 +90,23 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32;
 
 public class IoTConsensusServerImpl {
 
   private static final String CONFIGURATION_FILE_NAME = "configuration.dat";
   private static final String CONFIGURATION_TMP_FILE_NAME = "configuration.dat.tmp";
   public static final String SNAPSHOT_DIR_NAME = "snapshot";
+  private static final int SNAPSHOT_TRANSFER_MAX_RETRY_TIMES = 3;
   private static final Pattern SNAPSHOT_INDEX_PATTEN = Pattern.compile(".*[^\\d](?=(\\d+))");
   private static final PerformanceOverviewMetrics PERFORMANCE_OVERVIEW_METRICS =
       PerformanceOverviewMetrics.getInstance();
@@ -109,6 +123,8 @@ public class IoTConsensusServerImpl {
   private final IoTConsensusConfig config;
   private final ConsensusReqReader reader;
   private volatile boolean active;
+  // not null while transferring a snapshot to a new peer
+  private volatile SnapshotTransferProgress snapshotTransferProgress;
   private String newSnapshotDirName;
   private final IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager;
   private final IoTConsensusServerMetrics metrics;
@@ -122,6 +138,8 @@ public class IoTConsensusServerImpl {
       IStateMachine stateMachine,
       IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
       IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager,
+      LogDispatchScheduler logDispatchScheduler,
+      BatchSyncLogSender batchSyncLogSender,
       IoTConsensusConfig config) {
     this.active = true;
     this.storageDir = storageDir;
@@ -136,7 +154,8 @@ public class IoTConsensusServerImpl {
       persistConfiguration();
     }
     this.config = config;
-    this.logDispatcher = new LogDispatcher(this, clientManager);
+    this.logDispatcher =
+        new LogDispatcher(this, clientManager, logDispatchScheduler, batchSyncLogSender);
     reader = (ConsensusReqReader) stateMachine.read(new GetConsensusReqReaderPlan());
     long currentSearchIndex = reader.getCurrentSearchIndex();
     checkAndUpdateSafeDeletedSearchIndex();
@@ -316,32 +335,150 @@ public class IoTConsensusServerImpl {
     }
   }
 
+  /**
+   * Transfer the snapshot files to the new peer in parallel. When sending a file fails, the file is
+   * retried from the length received by the peer instead of from the beginning. The progress is
+   * only kept during this call: a new call transfers a newly taken snapshot, which has a different
+   * directory on the peer, so that nothing is resumed across calls.
+   */
   public void transitSnapshot(Peer targetPeer) throws ConsensusGroupModifyPeerException {
     File snapshotDir = new File(storageDir, newSnapshotDirName);
     List<Path> snapshotPaths = stateMachine.getSnapshotFiles(snapshotDir);
     logger.info("transit snapshots: {}", snapshotPaths);
-    try (SyncIoTConsensusServiceClient client =
-        syncClientManager.borrowClient(targetPeer.getEndpoint())) {
+    long totalSize = 0;
+    for (Path path : snapshotPaths) {
+      totalSize += path.toFile().length();
+    }
+    SnapshotTransferProgress progress = new SnapshotTransferProgress(totalSize);
+    snapshotTransferProgress = progress;
+    int threadNum =
+        Math.max(
+            1,
+            Math.min(config.getReplication().getSnapshotTransferThreadNum(), snapshotPaths.size()));
+    ExecutorService transferPool =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            threadNum,
+            ThreadName.IOT_CONSENSUS_SNAPSHOT_TRANSFER.getName() + "-" + consensusGroupId);
+    try {
+      // every thread reuses its own buffer for all the files it transfers
+      ThreadLocal<ByteBuffer> buffers =
+          ThreadLocal.withInitial(
+              () -> ByteBuffer.allocate(SnapshotFragmentReader.DEFAULT_FILE_FRAGMENT_SIZE));
+      List<Future<?>> futures = new ArrayList<>(snapshotPaths.size());
       for (Path path : snapshotPaths) {
-        SnapshotFragmentReader reader = new SnapshotFragmentReader(newSnapshotDirName, path);
+        futures.add(
+            transferPool.submit(
+                () -> {
+                  transitSnapshotFile(targetPeer, path, buffers.get(), progress);
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      logger.info(
+          "transit snapshot {} to {} finished: {}", newSnapshotDirName, targetPeer, progress);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ConsensusGroupModifyPeerException(
+          String.format("interrupted when send snapshot file to %s", targetPeer), e);
+    } catch (ExecutionException e) {
+      throw new ConsensusGroupModifyPeerException(
+          String.format("error when send snapshot file to %s", targetPeer), e.getCause());
+    } finally {
+      transferPool.shutdownNow();
+      snapshotTransferProgress = null;
+    }
+  }
+
+  private void transitSnapshotFile(
+      Peer targetPeer, Path path, ByteBuffer buffer, SnapshotTransferProgress progress)
+      throws Exception {
+    // bytes of this file counted in the progress
+    long countedSize = 0;
+    // false if the length received by the peer is unknown after a failure
+    boolean retryable = true;
+    for (int retryCount = 0; ; retryCount++) {
+      try (SyncIoTConsensusServiceClient client =
+          syncClientManager.borrowClient(targetPeer.getEndpoint())) {
+        long receivedLength;
+        try {
+          receivedLength = getReceivedSnapshotFileLength(client, targetPeer, path);
+        } catch (TException | ConsensusGroupModifyPeerException e) {
+          if (retryCount > 0) {
+            // the peer may have appended a part of the file, which can't be skipped
+            retryable = false;
+            throw e;
+          }
+          // e.g. the peer doesn't support resuming, then the whole file is sent as before and it's
+          // appended by the peer
+          logger.warn(
+              "failed to get the received length of {} from {}, send the whole file: {}",
+              path,
+              targetPeer,
+              e.getMessage());
+          receivedLength = 0;
+        }
+        if (receivedLength > countedSize) {
+          progress.addResumedSize(receivedLength - countedSize);
+          countedSize = receivedLength;
+        }
+        SnapshotFragmentReader reader =
+            new SnapshotFragmentReader(newSnapshotDirName, path, receivedLength, buffer);
         try {
           while (reader.hasNext()) {
-            TSendSnapshotFragmentReq req = reader.next().toTSendSnapshotFragmentReq();
+            SnapshotFragment fragment = reader.next();
+            TSendSnapshotFragmentReq req = fragment.toTSendSnapshotFragmentReq();
             req.setConsensusGroupId(targetPeer.getGroupId().convertToTConsensusGroupId());
             TSendSnapshotFragmentRes res = client.sendSnapshotFragment(req);
             if (!isSuccess(res.getStatus())) {
               throw new ConsensusGroupModifyPeerException(
-                  String.format("error when sending snapshot fragment to %s", targetPeer));
+                  String.format(
+                      "error when sending snapshot fragment to %s, %s",
+                      targetPeer, res.getStatus()));
+            }
+            long endOffset = fragment.getStartOffset() + fragment.getFragmentSize();
+            if (endOffset > countedSize) {
+              progress.addTransferredSize(endOffset - countedSize);
+              countedSize = endOffset;
             }
           }
         } finally {
           reader.close();
         }
+        return;
+      } catch (Exception e) {
+        if (!retryable
+            || retryCount >= SNAPSHOT_TRANSFER_MAX_RETRY_TIMES
+            || Thread.currentThread().isInterrupted()) {
+          throw e;
+        }
+        logger.warn(
+            "failed to send snapshot file {} to {} for {} times, resume it: {}",
+            path,
+            targetPeer,
+            retryCount + 1,
+            e.getMessage());
       }
-    } catch (Exception e) {
+    }
+  }
+
+  private long getReceivedSnapshotFileLength(
+      SyncIoTConsensusServiceClient client, Peer targetPeer, Path path)
+      throws TException, ConsensusGroupModifyPeerException {
+    TGetSnapshotFileLengthsRes res =
+        client.getSnapshotFileLengths(
+            new TGetSnapshotFileLengthsReq(
+                targetPeer.getGroupId().convertToTConsensusGroupId(),
+                newSnapshotDirName,
+                Collections.singletonList(path.toAbsolutePath().toString())));
+    if (!isSuccess(res.getStatus())) {
       throw new ConsensusGroupModifyPeerException(
-          String.format("error when send snapshot file to %s", targetPeer), e);
+          String.format(
+              "error when getting received snapshot files from %s, %s",
+              targetPeer, res.getStatus()));
     }
+    return res.getLengths().get(0);
   }
 
   public void receiveSnapshotFragment(
@@ -365,6 +502,54 @@ public class IoTConsensusServerImpl {
     }
   }
 
+  /**
+   * Write the fragment at the given offset of the file after verifying its checksum, so that a
+   * fragment sent again after a failure doesn't corrupt the file.
+   */
+  public void receiveSnapshotFragment(
+      String snapshotId, String originalFilePath, ByteBuffer fileChunk, long offset, long checksum)
+      throws ConsensusGroupModifyPeerException {
+    CRC32 crc32 = new CRC32();
+    crc32.update(fileChunk.duplicate());
+    if (crc32.getValue() != checksum) {
+      throw new ConsensusGroupModifyPeerException(
+          String.format(
+              "checksum mismatch of snapshot fragment %s at %d of %s",
+              originalFilePath, offset, snapshotId));
+    }
+    try {
+      String targetFilePath = calculateSnapshotPath(snapshotId, originalFilePath);
+      File targetFile = new File(storageDir, targetFilePath);
+      Path parentDir = Paths.get(targetFile.getParent());
+      if (!Files.exists(parentDir)) {
+        Files.createDirectories(parentDir);
+      }
+      try (FileChannel channel =
+          FileChannel.open(
+              targetFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = fileChunk.duplicate();
+        long position = offset;
+        while (buffer.hasRemaining()) {
+          position += channel.write(buffer, position);
+        }
+      }
+    } catch (IOException e) {
+      throw new ConsensusGroupModifyPeerException(
+          String.format("error when receiving snapshot %s", snapshotId), e);
+    }
+  }
+
+  /** @return the received lengths of the given snapshot files, 0 for the files not received */
+  public List<Long> getSnapshotFileLengths(String snapshotId, List<String> originalFilePaths)
+      throws ConsensusGroupModifyPeerException {
+    List<Long> lengths = new ArrayList<>(originalFilePaths.size());
+    for (String originalFilePath : originalFilePaths) {
+      File targetFile = new File(storageDir, calculateSnapshotPath(snapshotId, originalFilePath));
+      lengths.add(targetFile.exists() ? targetFile.length() : 0L);
+    }
+    return lengths;
+  }
+
   private String calculateSnapshotPath(String snapshotId, String originalFilePath)
       throws ConsensusGroupModifyPeerException {
     if (!originalFilePath.contains(snapshotId)) {
@@ -725,6 +910,21 @@ public class IoTConsensusServerImpl {
     return searchIndex.get();
   }
 
+  public long getSnapshotTransferredSize() {
+    SnapshotTransferProgress progress = snapshotTransferProgress;
+    return progress == null ? 0 : progress.getTransferredSize();
+  }
+
+  public long getSnapshotTransferThroughput() {
+    SnapshotTransferProgress progress = snapshotTransferProgress;
+    return progress == null ? 0 : progress.getThroughput();
+  }
+
+  public long getSnapshotTransferEtaInMs() {
+    SnapshotTransferProgress progress = snapshotTransferProgress;
+    return progress == null ? 0 : progress.getEtaInMs();
+  }
+
   public long getSyncLag() {
     long safeIndex = getCurrentSafelyDeletedSearchIndex();
     return getSearchIndex() - safeIndex;
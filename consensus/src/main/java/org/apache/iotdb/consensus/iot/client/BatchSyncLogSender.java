@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.consensus.iot.client;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.commons.client.IClientManager;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.iot.thrift.TBatchSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TBatchSyncLogEntriesRes;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesRes;
+
+import org.apache.thrift.async.AsyncMethodCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends the TSyncLogEntriesReqs of all the regions on this node that are replicated to the same
+ * DataNode through one queue. A request is sent as soon as the number of in-flight RPCs to that
+ * DataNode is below the limit, otherwise it waits and is merged with the other waiting ones into
+ * one TBatchSyncLogEntriesReq, so that the RPCs are merged under pressure without delaying the
+ * requests when the pressure is low.
+ *
+ * <p>The limit of a DataNode is the number of regions replicated to it, which are counted by {@link
+ * #register(TEndPoint)} and {@link #deregister(TEndPoint)}, multiplied by the number of in-flight
+ * requests allowed for each region.
+ */
+public class BatchSyncLogSender {
+
+  private static final Logger logger = LoggerFactory.getLogger(BatchSyncLogSender.class);
+
+  private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
+  private final int maxInFlightRequestsPerRegion;
+  private final long maxSizePerRequest;
+  private final Map<TEndPoint, Destination> destinations = new ConcurrentHashMap<>();
+
+  public BatchSyncLogSender(
+      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
+      IoTConsensusConfig config) {
+    this.clientManager = clientManager;
+    this.maxInFlightRequestsPerRegion =
+        config.getReplication().getBatchSyncInFlightRequestsPerRegion();
+    this.maxSizePerRequest = config.getReplication().getBatchSyncMaxSizePerRequest();
+  }
+
+  /** Invoked when a region starts to replicate its logs to the DataNode. */
+  public void register(TEndPoint endPoint) {
+    destinations.computeIfAbsent(endPoint, Destination::new).changeRegionNum(1);
+  }
+
+  /** Invoked when a region stops replicating its logs to the DataNode. */
+  public void deregister(TEndPoint endPoint) {
+    destinations.computeIfAbsent(endPoint, Destination::new).changeRegionNum(-1);
+  }
+
+  /**
+   * @param serializedSize estimated size of the request, used to limit the size of merged requests
+   */
+  public void send(
+      TEndPoint endPoint,
+      TSyncLogEntriesReq req,
+      long serializedSize,
+      AsyncMethodCallback<TSyncLogEntriesRes> handler) {
+    destinations
+        .computeIfAbsent(endPoint, Destination::new)
+        .send(new PendingRequest(req, serializedSize, handler));
+  }
+
+  @TestOnly
+  int getInFlightRequests(TEndPoint endPoint) {
+    Destination destination = destinations.get(endPoint);
+    if (destination == null) {
+      return 0;
+    }
+    synchronized (destination) {
+      return destination.inFlightRequests;
+    }
+  }
+
+  /** Overridden by the tests to send the requests without a client. */
+  protected void batchSyncLogEntries(
+      TEndPoint endPoint,
+      TBatchSyncLogEntriesReq req,
+      AsyncMethodCallback<TBatchSyncLogEntriesRes> handler)
+      throws Exception {
+    AsyncIoTConsensusServiceClient client = clientManager.borrowClient(endPoint);
+    client.batchSyncLogEntries(req, handler);
+  }
+
+  private static class PendingRequest {
+
+    private final TSyncLogEntriesReq req;
+    private final long serializedSize;
+    private final AsyncMethodCallback<TSyncLogEntriesRes> handler;
+
+    private PendingRequest(
+        TSyncLogEntriesReq req,
+        long serializedSize,
+        AsyncMethodCallback<TSyncLogEntriesRes> handler) {
+      this.req = req;
+      this.serializedSize = serializedSize;
+      this.handler = handler;
+    }
+  }
+
+  private class Destination {
+
+    private final TEndPoint endPoint;
+    private final Queue<PendingRequest> waitingRequests = new ArrayDeque<>();
+    private int inFlightRequests = 0;
+    private int regionNum = 0;
+
+    private Destination(TEndPoint endPoint) {
+      this.endPoint = endPoint;
+    }
+
+    private void send(PendingRequest request) {
+      List<PendingRequest> requests;
+      synchronized (this) {
+        waitingRequests.add(request);
+        requests = pollRequests();
+      }
+      if (requests != null) {
+        sendAsync(requests);
+      }
+    }
+
+    private void changeRegionNum(int delta) {
+      List<PendingRequest> requests;
+      synchronized (this) {
+        regionNum += delta;
+        requests = pollRequests();
+      }
+      if (requests != null) {
+        sendAsync(requests);
+      }
+    }
+
+    /** @return null if the waiting requests can't be sent now */
+    private List<PendingRequest> pollRequests() {
+      if (waitingRequests.isEmpty()
+          || inFlightRequests >= Math.max(regionNum, 1) * maxInFlightRequestsPerRegion) {
+        return null;
+      }
+      List<PendingRequest> requests = new ArrayList<>();
+      long size = 0;
+      // at least one request is sent even if it exceeds the size limit
+      while (!waitingRequests.isEmpty()
+          && (requests.isEmpty()
+              || size + waitingRequests.peek().serializedSize <= maxSizePerRequest)) {
+        PendingRequest request = waitingRequests.poll();
+        size += request.serializedSize;
+        requests.add(request);
+      }
+      inFlightRequests++;
+      return requests;
+    }
+
+    private void sendAsync(List<PendingRequest> requests) {
+      List<TSyncLogEntriesReq> reqs = new ArrayList<>(requests.size());
+      for (PendingRequest request : requests) {
+        reqs.add(request.req);
+      }
+      BatchSyncLogHandler handler = new BatchSyncLogHandler(this, requests);
+      try {
+        logger.debug("Send {} TSyncLogEntriesReqs to {} in one request", reqs.size(), endPoint);
+        batchSyncLogEntries(endPoint, new TBatchSyncLogEntriesReq(reqs), handler);
+      } catch (Exception e) {
+        logger.error("Can not sync logs to {} because", endPoint, e);
+        handler.onError(e);
+      }
+    }
+
+    private void onRequestFinished() {
+      List<PendingRequest> requests;
+      synchronized (this) {
+        inFlightRequests--;
+        requests = pollRequests();
+      }
+      if (requests != null) {
+        sendAsync(requests);
+      }
+    }
+  }
+
+  /** Hands the result of each merged TSyncLogEntriesReq to its own handler. */
+  private static class BatchSyncLogHandler implements AsyncMethodCallback<TBatchSyncLogEntriesRes> {
+
+    private final Destination destination;
+    private final List<PendingRequest> requests;
+
+    private BatchSyncLogHandler(Destination destination, List<PendingRequest> requests) {
+      this.destination = destination;
+      this.requests = requests;
+    }
+
+    @Override
+    public void onComplete(TBatchSyncLogEntriesRes response) {
+      destination.onRequestFinished();
+      if (response.getResListSize() != requests.size()) {
+        failAll(
+            new IllegalStateException(
+                String.format(
+                    "%d results are returned for %d TSyncLogEntriesReqs",
+                    response.getResListSize(), requests.size())));
+        return;
+      }
+      for (int i = 0; i < requests.size(); i++) {
+        requests.get(i).handler.onComplete(response.getResList().get(i));
+      }
+    }
+
+    @Override
+    public void onError(Exception exception) {
+      destination.onRequestFinished();
+      failAll(exception);
+    }
+
+    private void failAll(Exception exception) {
+      for (PendingRequest request : requests) {
+        request.handler.onError(exception);
+      }
+    }
+  }
+}
@@ -63,6 +63,7 @@ public class DispatchLogHandler implements AsyncMethodCallback<TSyncLogEntriesRe
       thread.getSyncStatus().removeBatch(batch);
       // update safely deleted search index after current sync index is updated by removeBatch
       thread.updateSafelyDeletedSearchIndex();
+      thread.onBatchSynced();
     }
     MetricService.getInstance()
         .getOrCreateHistogram(
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drives the LogDispatcherThreads of all the regions on a fixed number of threads, instead of
+ * occupying one thread for each of them. A LogDispatcherThread is scheduled when requests are
+ * offered to it or one of its batches is synced, and then dispatches one batch each time it is run
+ * without blocking, so that the workers are shared by all the (region, peer) pairs in a round-robin
+ * manner.
+ */
+public class LogDispatchScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(LogDispatchScheduler.class);
+
+  // all the registered LogDispatcherThreads are scheduled periodically to catch up with the WAL
+  // and retry the batches rejected by memory control, as nothing else will trigger them
+  private static final long CHECK_INTERVAL_IN_MS = 1000;
+
+  private final ExecutorService workers;
+  private final ScheduledExecutorService timer;
+  private final long accumulatingTimeInMs;
+  private final Map<Dispatcher, Stream> streams = new ConcurrentHashMap<>();
+
+  public LogDispatchScheduler(IoTConsensusConfig config) {
+    this(config, CHECK_INTERVAL_IN_MS);
+  }
+
+  @TestOnly
+  LogDispatchScheduler(IoTConsensusConfig config, long checkIntervalInMs) {
+    int threadNum = config.getReplication().getSharedLogDispatcherThreadNum();
+    this.workers =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            threadNum, ThreadName.LOG_DISPATCHER_WORKER.getName());
+    this.timer =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.LOG_DISPATCHER_TIMER.getName());
+    this.accumulatingTimeInMs = config.getReplication().getMaxWaitingTimeForAccumulatingBatchInMs();
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        timer, this::scheduleAll, checkIntervalInMs, checkIntervalInMs, TimeUnit.MILLISECONDS);
+    logger.info("LogDispatchScheduler starts with {} threads", threadNum);
+  }
+
+  public void register(Dispatcher dispatcher) {
+    streams.computeIfAbsent(dispatcher, Stream::new);
+    schedule(dispatcher);
+  }
+
+  public void deregister(Dispatcher dispatcher) {
+    streams.remove(dispatcher);
+  }
+
+  /** Let the given LogDispatcherThread dispatch as soon as possible. */
+  public void schedule(Dispatcher dispatcher) {
+    Stream stream = streams.get(dispatcher);
+    if (stream != null) {
+      stream.submit();
+    }
+  }
+
+  /**
+   * Let the given LogDispatcherThread dispatch after a while, so that more requests can be
+   * accumulated in one batch. Nothing is done if it has been scheduled already.
+   */
+  public void scheduleWithDelay(Dispatcher dispatcher) {
+    Stream stream = streams.get(dispatcher);
+    if (stream != null && stream.delayed.compareAndSet(false, true)) {
+      try {
+        timer.schedule(
+            () -> {
+              stream.delayed.set(false);
+              stream.submit();
+            },
+            accumulatingTimeInMs,
+            TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        stream.delayed.set(false);
+      }
+    }
+  }
+
+  private void scheduleAll() {
+    streams.values().forEach(Stream::submit);
+  }
+
+  public void stop() {
+    streams.clear();
+    timer.shutdownNow();
+    workers.shutdownNow();
+    int timeout = 10;
+    try {
+      if (!workers.awaitTermination(timeout, TimeUnit.SECONDS)) {
+        logger.error("Unable to shutdown LogDispatchScheduler after {} seconds", timeout);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.error("Unexpected Interruption when closing LogDispatchScheduler");
+    }
+  }
+
+  /** What the scheduler drives, i.e. the LogDispatcherThread of a (region, peer) pair. */
+  public interface Dispatcher {
+
+    /**
+     * Dispatch at most one batch without blocking.
+     *
+     * @return true if a batch is sent, which means there may be more to dispatch
+     */
+    boolean dispatchOnce();
+
+    Peer getPeer();
+  }
+
+  /** One (region, peer) pair, which is run by at most one worker at the same time. */
+  private class Stream implements Runnable {
+
+    private final Dispatcher dispatcher;
+    // whether it is in the queue of workers or being run
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    // whether it is submitted again while being run
+    private final AtomicBoolean signaled = new AtomicBoolean(false);
+    // whether a delayed submission is waiting in the timer
+    private final AtomicBoolean delayed = new AtomicBoolean(false);
+
+    private Stream(Dispatcher dispatcher) {
+      this.dispatcher = dispatcher;
+    }
+
+    private void submit() {
+      signaled.set(true);
+      if (scheduled.compareAndSet(false, true)) {
+        execute();
+      }
+    }
+
+    private void execute() {
+      try {
+        workers.execute(this);
+      } catch (RejectedExecutionException e) {
+        scheduled.set(false);
+      }
+    }
+
+    @Override
+    public void run() {
+      boolean dispatched = false;
+      try {
+        signaled.set(false);
+        dispatched = dispatcher.dispatchOnce();
+      } catch (Exception e) {
+        logger.error("Unexpected error in logDispatcher for peer {}", dispatcher.getPeer(), e);
+      } finally {
+        scheduled.set(false);
+      }
+      // requeue at the tail instead of dispatching in a loop, so that other streams are not starved
+      if ((dispatched || signaled.get())
+          && streams.containsKey(dispatcher)
+          && scheduled.compareAndSet(false, true)) {
+        execute();
+      }
+    }
+  }
+}
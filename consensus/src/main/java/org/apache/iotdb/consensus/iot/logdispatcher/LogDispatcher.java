@@ -30,6 +30,7 @@ import org.apache.iotdb.consensus.common.request.IndexedConsensusRequest;
 import org.apache.iotdb.consensus.config.IoTConsensusConfig;
 import org.apache.iotdb.consensus.iot.IoTConsensusServerImpl;
 import org.apache.iotdb.consensus.iot.client.AsyncIoTConsensusServiceClient;
+import org.apache.iotdb.consensus.iot.client.BatchSyncLogSender;
 import org.apache.iotdb.consensus.iot.client.DispatchLogHandler;
 import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
 import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
@@ -53,7 +54,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
-/** Manage all asynchronous replication threads and corresponding async clients */
+/**
+ * Manage all asynchronous replication threads and corresponding async clients. Each
+ * LogDispatcherThread either occupies a thread of this region, or is driven by the {@link
+ * LogDispatchScheduler} shared by all the regions if there is one.
+ */
 public class LogDispatcher {
 
   private static final Logger logger = LoggerFactory.getLogger(LogDispatcher.class);
@@ -63,6 +68,10 @@ public class LogDispatcher {
   private final String selfPeerId;
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
   private ExecutorService executorService;
+  // null if every LogDispatcherThread occupies one thread
+  private final LogDispatchScheduler scheduler;
+  // null if the logs are sent by the RPCs of this region
+  private final BatchSyncLogSender batchSyncLogSender;
 
   private boolean stopped = false;
 
@@ -71,16 +80,20 @@ public class LogDispatcher {
 
   public LogDispatcher(
       IoTConsensusServerImpl impl,
-      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager) {
+      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
+      LogDispatchScheduler scheduler,
+      BatchSyncLogSender batchSyncLogSender) {
     this.impl = impl;
     this.selfPeerId = impl.getThisNode().getEndpoint().toString();
     this.clientManager = clientManager;
+    this.scheduler = scheduler;
+    this.batchSyncLogSender = batchSyncLogSender;
     this.threads =
         impl.getConfiguration().stream()
             .filter(x -> !Objects.equals(x, impl.getThisNode()))
             .map(x -> new LogDispatcherThread(x, impl.getConfig(), DEFAULT_INITIAL_SYNC_INDEX))
             .collect(Collectors.toList());
-    if (!threads.isEmpty()) {
+    if (!threads.isEmpty() && scheduler == null) {
       initLogSyncThreadPool();
     }
   }
@@ -97,13 +110,22 @@ public class LogDispatcher {
 
   public synchronized void start() {
     if (!threads.isEmpty()) {
-      threads.forEach(executorService::submit);
+      if (scheduler != null) {
+        threads.forEach(LogDispatcherThread::startOnScheduler);
+      } else {
+        threads.forEach(executorService::submit);
+      }
     }
   }
 
   public synchronized void stop() {
     if (!threads.isEmpty()) {
       threads.forEach(LogDispatcherThread::stop);
+      if (scheduler != null) {
+        threads.forEach(scheduler::deregister);
+        stopped = true;
+        return;
+      }
       executorService.shutdownNow();
       int timeout = 10;
       try {
@@ -124,6 +146,10 @@ public class LogDispatcher {
     }
     LogDispatcherThread thread = new LogDispatcherThread(peer, impl.getConfig(), initialSyncIndex);
     threads.add(thread);
+    if (scheduler != null) {
+      thread.startOnScheduler();
+      return;
+    }
     // If the initial replica is 1, the executorService won't be initialized. And when adding
     // dispatcher thread, the executorService should be initialized manually
     if (this.executorService == null) {
@@ -147,6 +173,9 @@ public class LogDispatcher {
       return;
     }
     threads.get(threadIndex).stop();
+    if (scheduler != null) {
+      scheduler.deregister(threads.get(threadIndex));
+    }
     threads.get(threadIndex).cleanup();
     threads.remove(threadIndex);
   }
@@ -187,7 +216,7 @@ public class LogDispatcher {
     return logEntriesFromQueue.get();
   }
 
-  public class LogDispatcherThread implements Runnable {
+  public class LogDispatcherThread implements Runnable, LogDispatchScheduler.Dispatcher {
 
     private static final long PENDING_REQUEST_TAKING_TIME_OUT_IN_SEC = 10;
     private static final long START_INDEX = 1;
@@ -211,6 +240,9 @@ public class LogDispatcher {
 
     private final LogDispatcherThreadMetrics metrics;
 
+    // the batch built by the shared scheduler but not sent as the synchronization pipeline is full
+    private Batch unsentBatch;
+
     public LogDispatcherThread(Peer peer, IoTConsensusConfig config, long initialSyncIndex) {
       this.peer = peer;
       this.config = config;
@@ -224,6 +256,9 @@ public class LogDispatcher {
       this.syncStatus = new SyncStatus(controller, config, impl::getSearchIndex);
       this.walEntryIterator = reader.getReqIterator(START_INDEX);
       this.metrics = new LogDispatcherThreadMetrics(this);
+      if (batchSyncLogSender != null) {
+        batchSyncLogSender.register(peer.getEndpoint());
+      }
     }
 
     public IndexController getController() {
@@ -234,6 +269,7 @@ public class LogDispatcher {
       return controller.getCurrentIndex();
     }
 
+    @Override
     public Peer getPeer() {
       return peer;
     }
@@ -266,6 +302,13 @@ public class LogDispatcher {
       if (!success) {
         // If offer failed, the reserved memory should be released
         iotConsensusMemoryManager.free(indexedConsensusRequest.getSerializedSize(), true);
+      } else if (scheduler != null) {
+        // If write pressure is low, we simply wait a little to reduce the number of RPC
+        if (pendingEntries.size() < config.getReplication().getMaxLogEntriesNumPerBatch()) {
+          scheduler.scheduleWithDelay(this);
+        } else {
+          scheduler.schedule(this);
+        }
       }
       return success;
     }
@@ -276,6 +319,9 @@ public class LogDispatcher {
     }
 
     public void stop() {
+      if (batchSyncLogSender != null && !stopped) {
+        batchSyncLogSender.deregister(peer.getEndpoint());
+      }
       stopped = true;
       long requestSize = 0;
       for (IndexedConsensusRequest indexedConsensusRequest : pendingEntries) {
@@ -320,24 +366,10 @@ public class LogDispatcher {
               }
             }
           }
-          MetricService.getInstance()
-              .getOrCreateHistogram(
-                  Metric.STAGE.toString(),
-                  MetricLevel.IMPORTANT,
-                  Tag.NAME.toString(),
-                  Metric.IOT_CONSENSUS.toString(),
-                  Tag.TYPE.toString(),
-                  "constructBatch",
-                  Tag.REGION.toString(),
-                  peer.getGroupId().toString())
-              .update((System.nanoTime() - startTime) / batch.getLogEntries().size());
+          recordConstructBatchCost(startTime, batch);
           // we may block here if the synchronization pipeline is full
           syncStatus.addNextBatch(batch);
-          logEntriesFromWAL.addAndGet(batch.getLogEntriesNumFromWAL());
-          logEntriesFromQueue.addAndGet(
-              batch.getLogEntries().size() - batch.getLogEntriesNumFromWAL());
-          // sends batch asynchronously and migrates the retry logic into the callback handler
-          sendBatchAsync(batch, new DispatchLogHandler(this, batch));
+          sendNextBatch(batch);
         }
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
@@ -347,6 +379,71 @@ public class LogDispatcher {
       logger.info("{}: Dispatcher for {} exits", impl.getThisNode(), peer);
     }
 
+    /** Start to be driven by the shared scheduler instead of occupying a thread by run() */
+    private void startOnScheduler() {
+      logger.info("{}: Dispatcher for {} starts on shared scheduler", impl.getThisNode(), peer);
+      MetricService.getInstance().addMetricSet(metrics);
+      scheduler.register(this);
+    }
+
+    /** Invoked by the shared scheduler. */
+    @Override
+    public boolean dispatchOnce() {
+      if (stopped) {
+        return false;
+      }
+      Batch batch = unsentBatch;
+      if (batch == null) {
+        if (syncStatus.isFull()) {
+          // it will be scheduled again once a pending batch is synced
+          return false;
+        }
+        long startTime = System.nanoTime();
+        batch = getBatch(false);
+        if (batch.isEmpty()) {
+          return false;
+        }
+        recordConstructBatchCost(startTime, batch);
+      }
+      if (!syncStatus.tryAddNextBatch(batch)) {
+        // retried when scheduled again, the batch can't be rebuilt as the buffered requests in it
+        // are consumed
+        unsentBatch = batch;
+        return false;
+      }
+      unsentBatch = null;
+      sendNextBatch(batch);
+      return true;
+    }
+
+    /** Invoked once a batch is synced by the peer */
+    public void onBatchSynced() {
+      if (scheduler != null) {
+        scheduler.schedule(this);
+      }
+    }
+
+    private void recordConstructBatchCost(long startTime, Batch batch) {
+      MetricService.getInstance()
+          .getOrCreateHistogram(
+              Metric.STAGE.toString(),
+              MetricLevel.IMPORTANT,
+              Tag.NAME.toString(),
+              Metric.IOT_CONSENSUS.toString(),
+              Tag.TYPE.toString(),
+              "constructBatch",
+              Tag.REGION.toString(),
+              peer.getGroupId().toString())
+          .update((System.nanoTime() - startTime) / batch.getLogEntries().size());
+    }
+
+    private void sendNextBatch(Batch batch) {
+      logEntriesFromWAL.addAndGet(batch.getLogEntriesNumFromWAL());
+      logEntriesFromQueue.addAndGet(batch.getLogEntries().size() - batch.getLogEntriesNumFromWAL());
+      // sends batch asynchronously and migrates the retry logic into the callback handler
+      sendBatchAsync(batch, new DispatchLogHandler(this, batch));
+    }
+
     public void updateSafelyDeletedSearchIndex() {
       // update safely deleted search index to delete outdated info,
       // indicating that insert nodes whose search index are before this value can be deleted
@@ -360,6 +457,14 @@ public class LogDispatcher {
     }
 
     public Batch getBatch() {
+      return getBatch(true);
+    }
+
+    /**
+     * @param waitForWAL whether to wait for the requests not ready in WAL, otherwise the batch ends
+     *     before them
+     */
+    private Batch getBatch(boolean waitForWAL) {
       long startIndex = syncStatus.getNextSendingIndex();
       long maxIndex;
       synchronized (impl.getIndexObject()) {
@@ -395,7 +500,7 @@ public class LogDispatcher {
       // up. To prevent inconsistency here, we use the synchronized logic when calculate value of
       // `maxIndex`
       if (bufferedEntries.isEmpty()) {
-        constructBatchFromWAL(startIndex, maxIndex, batches);
+        constructBatchFromWAL(startIndex, maxIndex, batches, waitForWAL);
         batches.buildIndex();
         logger.debug(
             "{} : accumulated a {} from wal when empty", impl.getThisNode().getGroupId(), batches);
@@ -407,8 +512,8 @@ public class LogDispatcher {
         // Prevents gap between logs. For example, some requests are not written into the queue when
         // the queue is full. In this case, requests need to be loaded from the WAL
         if (startIndex != prev.getSearchIndex()) {
-          constructBatchFromWAL(startIndex, prev.getSearchIndex(), batches);
-          if (!batches.canAccumulate()) {
+          if (!constructBatchFromWAL(startIndex, prev.getSearchIndex(), batches, waitForWAL)
+              || !batches.canAccumulate()) {
             batches.buildIndex();
             logger.debug(
                 "{} : accumulated a {} from wal", impl.getThisNode().getGroupId(), batches);
@@ -431,8 +536,9 @@ public class LogDispatcher {
           // Prevents gap between logs. For example, some logs are not written into the queue when
           // the queue is full. In this case, requests need to be loaded from the WAL
           if (current.getSearchIndex() != prev.getSearchIndex() + 1) {
-            constructBatchFromWAL(prev.getSearchIndex() + 1, current.getSearchIndex(), batches);
-            if (!batches.canAccumulate()) {
+            if (!constructBatchFromWAL(
+                    prev.getSearchIndex() + 1, current.getSearchIndex(), batches, waitForWAL)
+                || !batches.canAccumulate()) {
               batches.buildIndex();
               logger.debug(
                   "gap {} : accumulated a {} from queue and wal when gap",
@@ -458,7 +564,6 @@ public class LogDispatcher {
 
     public void sendBatchAsync(Batch batch, DispatchLogHandler handler) {
       try {
-        AsyncIoTConsensusServiceClient client = clientManager.borrowClient(peer.getEndpoint());
         TSyncLogEntriesReq req =
             new TSyncLogEntriesReq(
                 selfPeerId, peer.getGroupId().convertToTConsensusGroupId(), batch.getLogEntries());
@@ -467,6 +572,11 @@ public class LogDispatcher {
             batch.getStartIndex(),
             batch.getEndIndex(),
             peer.getGroupId().convertToTConsensusGroupId());
+        if (batchSyncLogSender != null) {
+          batchSyncLogSender.send(peer.getEndpoint(), req, batch.getSerializedSize(), handler);
+          return;
+        }
+        AsyncIoTConsensusServiceClient client = clientManager.borrowClient(peer.getEndpoint());
         client.syncLogEntries(req, handler);
       } catch (Exception e) {
         logger.error("Can not sync logs to peer {} because", peer, e);
@@ -478,7 +588,9 @@ public class LogDispatcher {
       return syncStatus;
     }
 
-    private void constructBatchFromWAL(long currentIndex, long maxIndex, Batch logBatches) {
+    /** @return false if it stops at a request not ready in WAL, which is not waited for */
+    private boolean constructBatchFromWAL(
+        long currentIndex, long maxIndex, Batch logBatches, boolean waitForWAL) {
       logger.debug(
           String.format(
               "DataRegion[%s]->%s: currentIndex: %d, maxIndex: %d",
@@ -489,6 +601,9 @@ public class LogDispatcher {
       walEntryIterator.skipTo(targetIndex);
       while (targetIndex < maxIndex && logBatches.canAccumulate()) {
         logger.debug("construct from WAL for one Entry, index : {}", targetIndex);
+        if (!waitForWAL && !walEntryIterator.hasNext()) {
+          return false;
+        }
         try {
           walEntryIterator.waitForNextReady();
         } catch (InterruptedException e) {
@@ -519,6 +634,7 @@ public class LogDispatcher {
         logBatches.addTLogEntry(
             new TLogEntry(data.getSerializedRequests(), data.getSearchIndex(), true));
       }
+      return true;
     }
 
     private void constructBatchIndexedFromConsensusRequest(
@@ -53,6 +53,20 @@ public class SyncStatus {
     }
   }
 
+  /** @return true if no more batch can be added until a pending one is synced */
+  public synchronized boolean isFull() {
+    return pendingBatches.size() >= config.getReplication().getMaxPendingBatchesNum();
+  }
+
+  /** Like {@link #addNextBatch}, but returns false instead of blocking if it can't be added. */
+  public synchronized boolean tryAddNextBatch(Batch batch) {
+    if (isFull() || !iotConsensusMemoryManager.reserve(batch.getSerializedSize(), false)) {
+      return false;
+    }
+    pendingBatches.add(batch);
+    return true;
+  }
+
   /**
    * We only set a flag if this batch is not the first one. Notice, We need to confirm that the
    * batch in the parameter is actually in pendingBatches, rather than a reference to a different
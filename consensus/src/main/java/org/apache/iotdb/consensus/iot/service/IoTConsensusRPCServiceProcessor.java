@@ -32,10 +32,14 @@ import org.apache.iotdb.consensus.iot.IoTConsensusServerImpl;
 import org.apache.iotdb.consensus.iot.thrift.IoTConsensusIService;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerReq;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerRes;
+import org.apache.iotdb.consensus.iot.thrift.TBatchSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TBatchSyncLogEntriesRes;
 import org.apache.iotdb.consensus.iot.thrift.TBuildSyncLogChannelReq;
 import org.apache.iotdb.consensus.iot.thrift.TBuildSyncLogChannelRes;
 import org.apache.iotdb.consensus.iot.thrift.TCleanupTransferredSnapshotReq;
 import org.apache.iotdb.consensus.iot.thrift.TCleanupTransferredSnapshotRes;
+import org.apache.iotdb.consensus.iot.thrift.TGetSnapshotFileLengthsReq;
+import org.apache.iotdb.consensus.iot.thrift.TGetSnapshotFileLengthsRes;
 import org.apache.iotdb.consensus.iot.thrift.TInactivatePeerReq;
 import org.apache.iotdb.consensus.iot.thrift.TInactivatePeerRes;
 import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
@@ -56,7 +60,12 @@ import org.apache.thrift.async.AsyncMethodCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.AsyncIface {
@@ -73,60 +82,113 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Asy
   public void syncLogEntries(
       TSyncLogEntriesReq req, AsyncMethodCallback<TSyncLogEntriesRes> resultHandler) {
     try {
-      ConsensusGroupId groupId =
-          ConsensusGroupId.Factory.createFromTConsensusGroupId(req.getConsensusGroupId());
-      IoTConsensusServerImpl impl = consensus.getImpl(groupId);
-      if (impl == null) {
-        String message =
-            String.format(
-                "unexpected consensusGroupId %s for TSyncLogEntriesReq which size is %s",
-                groupId, req.getLogEntries().size());
-        logger.error(message);
-        TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
-        status.setMessage(message);
-        resultHandler.onComplete(new TSyncLogEntriesRes(Collections.singletonList(status)));
-        return;
-      }
-      if (impl.isReadOnly()) {
-        String message = "fail to sync logEntries because system is read-only.";
-        logger.error(message);
-        TSStatus status = new TSStatus(TSStatusCode.SYSTEM_READ_ONLY.getStatusCode());
-        status.setMessage(message);
-        resultHandler.onComplete(new TSyncLogEntriesRes(Collections.singletonList(status)));
-        return;
-      }
-      if (!impl.isActive()) {
-        TSStatus status = new TSStatus(TSStatusCode.WRITE_PROCESS_REJECT.getStatusCode());
-        status.setMessage("peer is inactive and not ready to receive sync log request");
-        resultHandler.onComplete(new TSyncLogEntriesRes(Collections.singletonList(status)));
-        return;
+      resultHandler.onComplete(syncLogEntries(req));
+    } catch (Exception e) {
+      resultHandler.onError(e);
+    }
+  }
+
+  /**
+   * The requests belong to different regions, so that they are executed in parallel. A failed
+   * request only fails its own result, and the sender retries it alone. The response is returned
+   * after all the requests are executed, which is why the sender only merges the requests that have
+   * to wait anyway.
+   */
+  @Override
+  public void batchSyncLogEntries(
+      TBatchSyncLogEntriesReq req, AsyncMethodCallback<TBatchSyncLogEntriesRes> resultHandler) {
+    ExecutorService executor = consensus.getBatchSyncLogExecutor();
+    List<CompletableFuture<TSyncLogEntriesRes>> futures = new ArrayList<>(req.getReqsSize());
+    for (TSyncLogEntriesReq syncLogEntriesReq : req.getReqs()) {
+      if (executor == null) {
+        // the option is not enabled on this node, so that the requests are executed one by one
+        futures.add(CompletableFuture.completedFuture(trySyncLogEntries(syncLogEntriesReq)));
+        continue;
       }
-      BatchIndexedConsensusRequest logEntriesInThisBatch =
-          new BatchIndexedConsensusRequest(req.peerId);
-      // We use synchronized to ensure atomicity of executing multiple logs
-      for (TLogEntry entry : req.getLogEntries()) {
-        logEntriesInThisBatch.add(
-            impl.buildIndexedConsensusRequestForRemoteRequest(
-                entry.getSearchIndex(),
-                entry.getData().stream()
-                    .map(
-                        entry.isFromWAL()
-                            ? IoTConsensusRequest::new
-                            : ByteBufferConsensusRequest::new)
-                    .collect(Collectors.toList())));
+      CompletableFuture<TSyncLogEntriesRes> future;
+      try {
+        future =
+            CompletableFuture.supplyAsync(() -> trySyncLogEntries(syncLogEntriesReq), executor)
+                .exceptionally(e -> failedSyncLogEntriesRes(syncLogEntriesReq, e));
+      } catch (RejectedExecutionException e) {
+        future = CompletableFuture.completedFuture(failedSyncLogEntriesRes(syncLogEntriesReq, e));
       }
-      IConsensusRequest deserializedRequest =
-          impl.getStateMachine().deserializeRequest(logEntriesInThisBatch);
-      TSStatus writeStatus =
-          impl.syncLog(logEntriesInThisBatch.getSourcePeerId(), deserializedRequest);
-      logger.debug(
-          "execute TSyncLogEntriesReq for {} with result {}",
-          req.consensusGroupId,
-          writeStatus.subStatus);
-      resultHandler.onComplete(new TSyncLogEntriesRes(writeStatus.subStatus));
+      futures.add(future);
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+        .thenRun(
+            () ->
+                resultHandler.onComplete(
+                    new TBatchSyncLogEntriesRes(
+                        futures.stream()
+                            .map(CompletableFuture::join)
+                            .collect(Collectors.toList()))));
+  }
+
+  private TSyncLogEntriesRes trySyncLogEntries(TSyncLogEntriesReq req) {
+    try {
+      return syncLogEntries(req);
     } catch (Exception e) {
-      resultHandler.onError(e);
+      return failedSyncLogEntriesRes(req, e);
+    }
+  }
+
+  private TSyncLogEntriesRes failedSyncLogEntriesRes(TSyncLogEntriesReq req, Throwable e) {
+    logger.error("execute TSyncLogEntriesReq for {} failed", req.consensusGroupId, e);
+    TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    status.setMessage(e.getMessage());
+    return new TSyncLogEntriesRes(Collections.singletonList(status));
+  }
+
+  private TSyncLogEntriesRes syncLogEntries(TSyncLogEntriesReq req) throws Exception {
+    ConsensusGroupId groupId =
+        ConsensusGroupId.Factory.createFromTConsensusGroupId(req.getConsensusGroupId());
+    IoTConsensusServerImpl impl = consensus.getImpl(groupId);
+    if (impl == null) {
+      String message =
+          String.format(
+              "unexpected consensusGroupId %s for TSyncLogEntriesReq which size is %s",
+              groupId, req.getLogEntries().size());
+      logger.error(message);
+      TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      status.setMessage(message);
+      return new TSyncLogEntriesRes(Collections.singletonList(status));
+    }
+    if (impl.isReadOnly()) {
+      String message = "fail to sync logEntries because system is read-only.";
+      logger.error(message);
+      TSStatus status = new TSStatus(TSStatusCode.SYSTEM_READ_ONLY.getStatusCode());
+      status.setMessage(message);
+      return new TSyncLogEntriesRes(Collections.singletonList(status));
     }
+    if (!impl.isActive()) {
+      TSStatus status = new TSStatus(TSStatusCode.WRITE_PROCESS_REJECT.getStatusCode());
+      status.setMessage("peer is inactive and not ready to receive sync log request");
+      return new TSyncLogEntriesRes(Collections.singletonList(status));
+    }
+    BatchIndexedConsensusRequest logEntriesInThisBatch =
+        new BatchIndexedConsensusRequest(req.peerId);
+    // We use synchronized to ensure atomicity of executing multiple logs
+    for (TLogEntry entry : req.getLogEntries()) {
+      logEntriesInThisBatch.add(
+          impl.buildIndexedConsensusRequestForRemoteRequest(
+              entry.getSearchIndex(),
+              entry.getData().stream()
+                  .map(
+                      entry.isFromWAL()
+                          ? IoTConsensusRequest::new
+                          : ByteBufferConsensusRequest::new)
+                  .collect(Collectors.toList())));
+    }
+    IConsensusRequest deserializedRequest =
+        impl.getStateMachine().deserializeRequest(logEntriesInThisBatch);
+    TSStatus writeStatus =
+        impl.syncLog(logEntriesInThisBatch.getSourcePeerId(), deserializedRequest);
+    logger.debug(
+        "execute TSyncLogEntriesReq for {} with result {}",
+        req.consensusGroupId,
+        writeStatus.subStatus);
+    return new TSyncLogEntriesRes(writeStatus.subStatus);
   }
 
   @Override
@@ -264,7 +326,12 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Asy
     }
     TSStatus responseStatus;
     try {
-      impl.receiveSnapshotFragment(req.snapshotId, req.filePath, req.fileChunk);
+      if (req.isSetOffset() && req.isSetChecksum()) {
+        impl.receiveSnapshotFragment(
+            req.snapshotId, req.filePath, req.fileChunk, req.getOffset(), req.getChecksum());
+      } else {
+        impl.receiveSnapshotFragment(req.snapshotId, req.filePath, req.fileChunk);
+      }
       responseStatus = new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
     } catch (ConsensusGroupModifyPeerException e) {
       responseStatus = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
@@ -273,6 +340,36 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Asy
     resultHandler.onComplete(new TSendSnapshotFragmentRes(responseStatus));
   }
 
+  @Override
+  public void getSnapshotFileLengths(
+      TGetSnapshotFileLengthsReq req, AsyncMethodCallback<TGetSnapshotFileLengthsRes> resultHandler)
+      throws TException {
+    ConsensusGroupId groupId =
+        ConsensusGroupId.Factory.createFromTConsensusGroupId(req.getConsensusGroupId());
+    IoTConsensusServerImpl impl = consensus.getImpl(groupId);
+    if (impl == null) {
+      String message =
+          String.format(
+              "unexpected consensusGroupId %s for getSnapshotFileLengths request", groupId);
+      logger.error(message);
+      TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      status.setMessage(message);
+      resultHandler.onComplete(new TGetSnapshotFileLengthsRes(status));
+      return;
+    }
+    TGetSnapshotFileLengthsRes res;
+    try {
+      res =
+          new TGetSnapshotFileLengthsRes(new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode()));
+      res.setLengths(impl.getSnapshotFileLengths(req.getSnapshotId(), req.getFilePaths()));
+    } catch (ConsensusGroupModifyPeerException e) {
+      TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      status.setMessage(e.getMessage());
+      res = new TGetSnapshotFileLengthsRes(status);
+    }
+    resultHandler.onComplete(res);
+  }
+
   @Override
   public void triggerSnapshotLoad(
       TTriggerSnapshotLoadReq req, AsyncMethodCallback<TTriggerSnapshotLoadRes> resultHandler)
@@ -30,6 +30,7 @@ public class SnapshotFragment {
   private final long startOffset;
   private final long fragmentSize;
   private final ByteBuffer fileChunk;
+  private final long checksum;
 
   public SnapshotFragment(
       String snapshotId,
@@ -37,13 +38,15 @@ public class SnapshotFragment {
       long totalSize,
       long startOffset,
       long fragmentSize,
-      ByteBuffer fileChunk) {
+      ByteBuffer fileChunk,
+      long checksum) {
     this.snapshotId = snapshotId;
     this.filePath = filePath;
     this.totalSize = totalSize;
     this.startOffset = startOffset;
     this.fragmentSize = fragmentSize;
     this.fileChunk = fileChunk;
+    this.checksum = checksum;
   }
 
   public TSendSnapshotFragmentReq toTSendSnapshotFragmentReq() {
@@ -52,6 +55,8 @@ public class SnapshotFragment {
     req.setFilePath(filePath);
     req.setChunkLength(fragmentSize);
     req.setFileChunk(fileChunk);
+    req.setOffset(startOffset);
+    req.setChecksum(checksum);
     return req;
   }
 
@@ -78,4 +83,8 @@ public class SnapshotFragment {
   public ByteBuffer getFileChunk() {
     return fileChunk;
   }
+
+  public long getChecksum() {
+    return checksum;
+  }
 }
@@ -24,24 +24,37 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.CRC32;
 
 public class SnapshotFragmentReader {
 
-  private static final int DEFAULT_FILE_FRAGMENT_SIZE = 10 * 1024 * 1024;
+  public static final int DEFAULT_FILE_FRAGMENT_SIZE = 10 * 1024 * 1024;
   private final String snapshotId;
   private final String filePath;
   private final SeekableByteChannel fileChannel;
   private final long fileSize;
   private final ByteBuffer buf;
+  private final CRC32 crc32 = new CRC32();
   private long totalReadSize;
   private SnapshotFragment cachedSnapshotFragment;
 
   public SnapshotFragmentReader(String snapshotId, Path path) throws IOException {
+    this(snapshotId, path, 0, ByteBuffer.allocate(DEFAULT_FILE_FRAGMENT_SIZE));
+  }
+
+  /**
+   * @param startOffset the fragments before it are skipped, which are received by the peer already
+   * @param buf reused for every fragment, so that it can be shared by the files read one by one
+   */
+  public SnapshotFragmentReader(String snapshotId, Path path, long startOffset, ByteBuffer buf)
+      throws IOException {
     this.snapshotId = snapshotId;
     this.filePath = path.toAbsolutePath().toString();
     this.fileSize = Files.size(path);
     this.fileChannel = Files.newByteChannel(path);
-    this.buf = ByteBuffer.allocate(DEFAULT_FILE_FRAGMENT_SIZE);
+    this.fileChannel.position(startOffset);
+    this.totalReadSize = startOffset;
+    this.buf = buf;
   }
 
   public boolean hasNext() throws IOException {
@@ -49,8 +62,11 @@ public class SnapshotFragmentReader {
     int actualReadSize = fileChannel.read(buf);
     buf.flip();
     if (actualReadSize > 0) {
+      crc32.reset();
+      crc32.update(buf.duplicate());
       cachedSnapshotFragment =
-          new SnapshotFragment(snapshotId, filePath, fileSize, totalReadSize, actualReadSize, buf);
+          new SnapshotFragment(
+              snapshotId, filePath, fileSize, totalReadSize, actualReadSize, buf, crc32.getValue());
       totalReadSize += actualReadSize;
       return true;
     }
@@ -61,6 +77,10 @@ public class SnapshotFragmentReader {
     return cachedSnapshotFragment;
   }
 
+  public long getFileSize() {
+    return fileSize;
+  }
+
   public void close() throws IOException {
     if (fileChannel != null) {
       fileChannel.close();
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.consensus.iot.snapshot;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of transferring a snapshot to a new peer, which is shared by the threads transferring
+ * its files. The bytes sent by this transfer and the bytes skipped because the peer received them
+ * before a retry are counted separately, so that the throughput and the ETA only reflect the bytes
+ * really sent. It's only kept in memory during the transfer and exported through the metrics of the
+ * region.
+ */
+public class SnapshotTransferProgress {
+
+  private final long totalSize;
+  private final long startTime;
+  private final AtomicLong transferredSize = new AtomicLong(0);
+  // the bytes received by the new peer before this transfer, which are not counted in throughput
+  private final AtomicLong resumedSize = new AtomicLong(0);
+
+  public SnapshotTransferProgress(long totalSize) {
+    this.totalSize = totalSize;
+    this.startTime = System.currentTimeMillis();
+  }
+
+  public void addTransferredSize(long size) {
+    transferredSize.addAndGet(size);
+  }
+
+  public void addResumedSize(long size) {
+    resumedSize.addAndGet(size);
+  }
+
+  public long getTotalSize() {
+    return totalSize;
+  }
+
+  /** @return the bytes received by the new peer, including the resumed ones */
+  public long getTransferredSize() {
+    return transferredSize.get() + resumedSize.get();
+  }
+
+  /** @return bytes per second since the transfer started */
+  public long getThroughput() {
+    long elapsedTime = Math.max(1, System.currentTimeMillis() - startTime);
+    return transferredSize.get() * 1000 / elapsedTime;
+  }
+
+  /** @return estimated milliseconds to finish the transfer, -1 if it can't be estimated yet */
+  public long getEtaInMs() {
+    long throughput = getThroughput();
+    if (throughput <= 0) {
+      return -1;
+    }
+    return Math.max(0, totalSize - getTransferredSize()) * 1000 / throughput;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d/%d bytes, %d bytes/s, ETA %d ms",
+        getTransferredSize(), totalSize, getThroughput(), getEtaInMs());
+  }
+}
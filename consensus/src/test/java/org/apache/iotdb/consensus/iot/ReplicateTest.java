@@ -26,6 +26,7 @@ import org.apache.iotdb.consensus.ConsensusFactory;
 import org.apache.iotdb.consensus.common.ConsensusGroup;
 import org.apache.iotdb.consensus.common.Peer;
 import org.apache.iotdb.consensus.config.ConsensusConfig;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
 import org.apache.iotdb.consensus.iot.util.TestEntry;
 import org.apache.iotdb.consensus.iot.util.TestStateMachine;
 
@@ -93,6 +94,7 @@ public class ReplicateTest {
                           .setThisNodeId(peers.get(i).getNodeId())
                           .setThisNode(peers.get(i).getEndpoint())
                           .setStorageDir(peersStorage.get(i).getAbsolutePath())
+                          .setIoTConsensusConfig(buildIoTConsensusConfig())
                           .build(),
                       groupId -> stateMachines.get(finalI))
                   .orElseThrow(
@@ -105,6 +107,10 @@ public class ReplicateTest {
     }
   }
 
+  protected IoTConsensusConfig buildIoTConsensusConfig() {
+    return IoTConsensusConfig.newBuilder().build();
+  }
+
   private void stopServer() {
     servers.parallelStream().forEach(IoTConsensus::stop);
     servers.clear();
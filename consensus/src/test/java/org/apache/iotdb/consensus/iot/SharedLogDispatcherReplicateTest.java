@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.consensus.iot;
+
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+
+/**
+ * Runs the replication tests with the log dispatchers driven by the shared LogDispatchScheduler,
+ * which builds the batches without blocking, from the queue or from the WAL after restart.
+ */
+public class SharedLogDispatcherReplicateTest extends ReplicateTest {
+
+  @Override
+  protected IoTConsensusConfig buildIoTConsensusConfig() {
+    return IoTConsensusConfig.newBuilder()
+        .setReplication(
+            IoTConsensusConfig.Replication.newBuilder().setSharedLogDispatcherThreadNum(2).build())
+        .build();
+  }
+}
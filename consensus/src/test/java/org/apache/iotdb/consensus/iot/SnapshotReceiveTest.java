@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.consensus.iot;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.consensus.ConsensusFactory;
+import org.apache.iotdb.consensus.IConsensus;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.config.ConsensusConfig;
+import org.apache.iotdb.consensus.exception.ConsensusGroupModifyPeerException;
+import org.apache.iotdb.consensus.iot.util.TestStateMachine;
+
+import org.apache.ratis.util.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.CRC32;
+
+/** Tests how the new peer writes the snapshot fragments sent with their offsets and checksums. */
+public class SnapshotReceiveTest {
+
+  private static final String SNAPSHOT_ID = "snapshot_1_100";
+
+  private final ConsensusGroupId dataRegionId = new DataRegionId(1);
+  private final File storageDir = new File("target" + File.separator + "snapshot_receive");
+  // the path of the snapshot file on the leader
+  private final String originalFilePath =
+      new File("leader", SNAPSHOT_ID + File.separator + "1-1-0-0.tsfile").getAbsolutePath();
+  private final byte[] data = new byte[100];
+
+  private IConsensus consensusImpl;
+  private IoTConsensusServerImpl impl;
+
+  @Before
+  public void setUp() throws Exception {
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    consensusImpl =
+        ConsensusFactory.getConsensusImpl(
+                ConsensusFactory.IOT_CONSENSUS,
+                ConsensusConfig.newBuilder()
+                    .setThisNodeId(1)
+                    .setThisNode(new TEndPoint("0.0.0.0", 9010))
+                    .setStorageDir(storageDir.getAbsolutePath())
+                    .build(),
+                gid -> new TestStateMachine())
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException(
+                        String.format(
+                            ConsensusFactory.CONSTRUCT_FAILED_MSG,
+                            ConsensusFactory.IOT_CONSENSUS)));
+    consensusImpl.start();
+    consensusImpl.createPeer(
+        dataRegionId,
+        Collections.singletonList(new Peer(dataRegionId, 1, new TEndPoint("0.0.0.0", 9010))));
+    impl = ((IoTConsensus) consensusImpl).getImpl(dataRegionId);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    consensusImpl.stop();
+    FileUtils.deleteFully(storageDir);
+  }
+
+  /** The fragments are written at their offsets, whatever order they arrive in. */
+  @Test
+  public void offsetWriteTest() throws Exception {
+    Assert.assertEquals(
+        Collections.singletonList(0L),
+        impl.getSnapshotFileLengths(SNAPSHOT_ID, Collections.singletonList(originalFilePath)));
+
+    receiveFragment(50, 50);
+    receiveFragment(0, 30);
+    receiveFragment(30, 20);
+    // sent again after a failure
+    receiveFragment(30, 20);
+
+    Assert.assertEquals(
+        Collections.singletonList((long) data.length),
+        impl.getSnapshotFileLengths(SNAPSHOT_ID, Collections.singletonList(originalFilePath)));
+    Assert.assertArrayEquals(data, Files.readAllBytes(getReceivedFile().toPath()));
+  }
+
+  /** A fragment with a wrong checksum is rejected without being written. */
+  @Test
+  public void checksumMismatchTest() throws Exception {
+    receiveFragment(0, 30);
+
+    ByteBuffer fragment = ByteBuffer.wrap(data, 30, 20).slice();
+    long checksum = checksum(30, 20);
+    try {
+      impl.receiveSnapshotFragment(SNAPSHOT_ID, originalFilePath, fragment, 30, checksum + 1);
+      Assert.fail("the fragment should be rejected");
+    } catch (ConsensusGroupModifyPeerException e) {
+      Assert.assertTrue(e.getMessage().contains("checksum mismatch"));
+    }
+    Assert.assertEquals(
+        Collections.singletonList(30L),
+        impl.getSnapshotFileLengths(SNAPSHOT_ID, Collections.singletonList(originalFilePath)));
+
+    // the sender retries it from the received length
+    impl.receiveSnapshotFragment(SNAPSHOT_ID, originalFilePath, fragment, 30, checksum);
+    Assert.assertArrayEquals(
+        Arrays.copyOf(data, 50), Files.readAllBytes(getReceivedFile().toPath()));
+  }
+
+  private void receiveFragment(int offset, int length) throws ConsensusGroupModifyPeerException {
+    impl.receiveSnapshotFragment(
+        SNAPSHOT_ID,
+        originalFilePath,
+        ByteBuffer.wrap(data, offset, length).slice(),
+        offset,
+        checksum(offset, length));
+  }
+
+  private long checksum(int offset, int length) {
+    CRC32 crc32 = new CRC32();
+    crc32.update(data, offset, length);
+    return crc32.getValue();
+  }
+
+  private File getReceivedFile() {
+    return new File(
+        impl.getStorageDir(), SNAPSHOT_ID + File.separator + new File(originalFilePath).getName());
+  }
+}
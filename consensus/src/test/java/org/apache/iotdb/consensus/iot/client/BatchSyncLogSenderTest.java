@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.consensus.iot.client;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.iot.thrift.TBatchSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TBatchSyncLogEntriesRes;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesRes;
+
+import org.apache.thrift.async.AsyncMethodCallback;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class BatchSyncLogSenderTest {
+
+  private final TEndPoint endPoint = new TEndPoint("127.0.0.1", 6667);
+
+  /** The requests waiting for an in-flight RPC are merged in their order. */
+  @Test
+  public void mergeTest() {
+    FakeBatchSyncLogSender sender = new FakeBatchSyncLogSender(buildConfig(1, 1024));
+    sender.register(endPoint);
+    List<RecordingHandler> handlers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      handlers.add(new RecordingHandler());
+      sender.send(endPoint, buildReq(i), 10, handlers.get(i));
+    }
+    // the first one is sent at once, the others wait for it
+    Assert.assertEquals(1, sender.sentReqs.size());
+    assertRegions(sender.sentReqs.get(0), 0);
+    Assert.assertEquals(1, sender.getInFlightRequests(endPoint));
+
+    sender.sentHandlers.get(0).onComplete(buildRes(0));
+    Assert.assertEquals(2, sender.sentReqs.size());
+    assertRegions(sender.sentReqs.get(1), 1, 2, 3);
+
+    sender.sentHandlers.get(1).onComplete(buildRes(1, 2, 3));
+    Assert.assertEquals(0, sender.getInFlightRequests(endPoint));
+    // each region gets its own result
+    for (int i = 0; i < handlers.size(); i++) {
+      Assert.assertNull(handlers.get(i).exception);
+      Assert.assertEquals(
+          Integer.toString(i), handlers.get(i).response.getStatuses().get(0).getMessage());
+    }
+  }
+
+  /** A merged RPC is limited by the size of its requests, but one request is always sent. */
+  @Test
+  public void maxSizePerRequestTest() {
+    FakeBatchSyncLogSender sender = new FakeBatchSyncLogSender(buildConfig(1, 100));
+    sender.register(endPoint);
+    sender.send(endPoint, buildReq(0), 500, new RecordingHandler());
+    sender.send(endPoint, buildReq(1), 40, new RecordingHandler());
+    sender.send(endPoint, buildReq(2), 40, new RecordingHandler());
+    sender.send(endPoint, buildReq(3), 40, new RecordingHandler());
+    assertRegions(sender.sentReqs.get(0), 0);
+
+    sender.sentHandlers.get(0).onComplete(buildRes(0));
+    assertRegions(sender.sentReqs.get(1), 1, 2);
+    sender.sentHandlers.get(1).onComplete(buildRes(1, 2));
+    assertRegions(sender.sentReqs.get(2), 3);
+  }
+
+  /** The number of in-flight RPCs to a DataNode grows with the regions replicated to it. */
+  @Test
+  public void inFlightRequestsPerRegionTest() {
+    FakeBatchSyncLogSender sender = new FakeBatchSyncLogSender(buildConfig(2, 1024));
+    sender.register(endPoint);
+    for (int i = 0; i < 3; i++) {
+      sender.send(endPoint, buildReq(i), 10, new RecordingHandler());
+    }
+    Assert.assertEquals(2, sender.sentReqs.size());
+
+    // the waiting request is sent once another region is replicated to the DataNode
+    sender.register(endPoint);
+    Assert.assertEquals(3, sender.sentReqs.size());
+    sender.send(endPoint, buildReq(3), 10, new RecordingHandler());
+    Assert.assertEquals(4, sender.sentReqs.size());
+
+    sender.deregister(endPoint);
+    sender.send(endPoint, buildReq(4), 10, new RecordingHandler());
+    sender.sentHandlers.get(0).onComplete(buildRes(0));
+    sender.sentHandlers.get(1).onComplete(buildRes(1));
+    Assert.assertEquals(4, sender.sentReqs.size());
+    sender.sentHandlers.get(2).onComplete(buildRes(2));
+    Assert.assertEquals(5, sender.sentReqs.size());
+    assertRegions(sender.sentReqs.get(4), 4);
+  }
+
+  /** A failed RPC fails all of its requests, and the waiting requests are still sent. */
+  @Test
+  public void errorFanOutTest() {
+    FakeBatchSyncLogSender sender = new FakeBatchSyncLogSender(buildConfig(1, 1024));
+    sender.register(endPoint);
+    List<RecordingHandler> handlers = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      handlers.add(new RecordingHandler());
+    }
+    sender.send(endPoint, buildReq(0), 10, handlers.get(0));
+    sender.send(endPoint, buildReq(1), 10, handlers.get(1));
+    sender.send(endPoint, buildReq(2), 10, handlers.get(2));
+
+    // the RPC fails
+    sender.sentHandlers.get(0).onError(new IOException("broken pipe"));
+    Assert.assertTrue(handlers.get(0).exception instanceof IOException);
+    assertRegions(sender.sentReqs.get(1), 1, 2);
+
+    // the number of results doesn't match the requests
+    sender.send(endPoint, buildReq(3), 10, handlers.get(3));
+    sender.sentHandlers.get(1).onComplete(buildRes(1));
+    Assert.assertTrue(handlers.get(1).exception instanceof IllegalStateException);
+    Assert.assertTrue(handlers.get(2).exception instanceof IllegalStateException);
+    assertRegions(sender.sentReqs.get(2), 3);
+
+    // the RPC can not be sent
+    sender.sendError = new IOException("no client");
+    sender.sentHandlers.get(2).onComplete(buildRes(3));
+    Assert.assertNull(handlers.get(3).exception);
+    sender.send(endPoint, buildReq(4), 10, handlers.get(4));
+    Assert.assertTrue(handlers.get(4).exception instanceof IOException);
+    Assert.assertEquals(0, sender.getInFlightRequests(endPoint));
+
+    sender.send(endPoint, buildReq(5), 10, handlers.get(5));
+    assertRegions(sender.sentReqs.get(3), 5);
+  }
+
+  private static IoTConsensusConfig buildConfig(
+      int inFlightRequestsPerRegion, long maxSizePerRequest) {
+    return IoTConsensusConfig.newBuilder()
+        .setReplication(
+            IoTConsensusConfig.Replication.newBuilder()
+                .setEnableBatchSyncAcrossRegions(true)
+                .setBatchSyncInFlightRequestsPerRegion(inFlightRequestsPerRegion)
+                .setBatchSyncMaxSizePerRequest(maxSizePerRequest)
+                .build())
+        .build();
+  }
+
+  private static TSyncLogEntriesReq buildReq(int regionId) {
+    return new TSyncLogEntriesReq(
+        "peer",
+        new TConsensusGroupId(TConsensusGroupType.DataRegion, regionId),
+        Collections.emptyList());
+  }
+
+  /** Each result carries the id of its region as the message. */
+  private static TBatchSyncLogEntriesRes buildRes(int... regionIds) {
+    List<TSyncLogEntriesRes> resList = new ArrayList<>();
+    for (int regionId : regionIds) {
+      TSStatus status = new TSStatus(200);
+      status.setMessage(Integer.toString(regionId));
+      resList.add(new TSyncLogEntriesRes(Collections.singletonList(status)));
+    }
+    return new TBatchSyncLogEntriesRes(resList);
+  }
+
+  private static void assertRegions(TBatchSyncLogEntriesReq req, Integer... regionIds) {
+    List<Integer> actual = new ArrayList<>();
+    for (TSyncLogEntriesReq syncLogEntriesReq : req.getReqs()) {
+      actual.add(syncLogEntriesReq.getConsensusGroupId().getId());
+    }
+    Assert.assertEquals(Arrays.asList(regionIds), actual);
+  }
+
+  private static class FakeBatchSyncLogSender extends BatchSyncLogSender {
+
+    private final List<TBatchSyncLogEntriesReq> sentReqs = new ArrayList<>();
+    private final List<AsyncMethodCallback<TBatchSyncLogEntriesRes>> sentHandlers =
+        new ArrayList<>();
+    // thrown by the next send
+    private Exception sendError;
+
+    private FakeBatchSyncLogSender(IoTConsensusConfig config) {
+      super(null, config);
+    }
+
+    @Override
+    protected void batchSyncLogEntries(
+        TEndPoint endPoint,
+        TBatchSyncLogEntriesReq req,
+        AsyncMethodCallback<TBatchSyncLogEntriesRes> handler)
+        throws Exception {
+      if (sendError != null) {
+        Exception e = sendError;
+        sendError = null;
+        throw e;
+      }
+      sentReqs.add(req);
+      sentHandlers.add(handler);
+    }
+  }
+
+  private static class RecordingHandler implements AsyncMethodCallback<TSyncLogEntriesRes> {
+
+    private TSyncLogEntriesRes response;
+    private Exception exception;
+
+    @Override
+    public void onComplete(TSyncLogEntriesRes response) {
+      this.response = response;
+    }
+
+    @Override
+    public void onError(Exception exception) {
+      this.exception = exception;
+    }
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+public class LogDispatchSchedulerTest {
+
+  // long enough not to trigger the dispatchers during a test
+  private static final long NO_CHECK_INTERVAL_IN_MS = TimeUnit.HOURS.toMillis(1);
+  private static final long TIMEOUT_IN_MS = 10_000;
+
+  private final List<String> dispatched = Collections.synchronizedList(new ArrayList<>());
+  private LogDispatchScheduler scheduler;
+
+  @After
+  public void tearDown() {
+    if (scheduler != null) {
+      scheduler.stop();
+    }
+  }
+
+  /** The dispatchers with batches ready are served in turn by one worker. */
+  @Test
+  public void fairnessTest() throws InterruptedException {
+    scheduler = new LogDispatchScheduler(buildConfig(1, 0), NO_CHECK_INTERVAL_IN_MS);
+    FakeDispatcher blocker = new FakeDispatcher("blocker", 1, 0);
+    scheduler.register(blocker);
+    Assert.assertTrue(blocker.running.await(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS));
+
+    // queued behind the blocker
+    int batchNum = 10;
+    FakeDispatcher dispatcher1 = new FakeDispatcher("region1", 2, batchNum);
+    FakeDispatcher dispatcher2 = new FakeDispatcher("region2", 3, batchNum);
+    scheduler.register(dispatcher1);
+    scheduler.register(dispatcher2);
+    blocker.release.countDown();
+
+    waitFor(() -> dispatched.size() == 2 * batchNum + 1);
+    Assert.assertEquals("blocker", dispatched.get(0));
+    for (int i = 1; i < dispatched.size(); i += 2) {
+      Assert.assertEquals("region1", dispatched.get(i));
+      Assert.assertEquals("region2", dispatched.get(i + 1));
+    }
+  }
+
+  /** A dispatcher whose batch is not ready is retried by the periodic check. */
+  @Test
+  public void rescheduleWhenNotReadyTest() throws InterruptedException {
+    scheduler = new LogDispatchScheduler(buildConfig(1, 0), 100);
+    FakeDispatcher dispatcher = new FakeDispatcher("region1", 2, 1);
+    dispatcher.ready.set(false);
+    scheduler.register(dispatcher);
+    waitFor(() -> dispatcher.calls.get() > 0);
+    Assert.assertTrue(dispatched.isEmpty());
+
+    // nothing else schedules it
+    dispatcher.ready.set(true);
+    waitFor(() -> dispatched.size() == 1);
+  }
+
+  /** A dispatcher scheduled while it is being run is run once more. */
+  @Test
+  public void rescheduleWhenSignaledTest() throws InterruptedException {
+    scheduler = new LogDispatchScheduler(buildConfig(1, 0), NO_CHECK_INTERVAL_IN_MS);
+    FakeDispatcher dispatcher = new FakeDispatcher("region1", 2, 1);
+    dispatcher.ready.set(false);
+    dispatcher.blockOnce = true;
+    scheduler.register(dispatcher);
+    Assert.assertTrue(dispatcher.running.await(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS));
+
+    dispatcher.ready.set(true);
+    scheduler.schedule(dispatcher);
+    dispatcher.release.countDown();
+    // without the periodic check, only the signal can make it run again
+    waitFor(() -> dispatched.size() == 1);
+  }
+
+  /** The requests accumulated for a while are dispatched together. */
+  @Test
+  public void scheduleWithDelayTest() throws InterruptedException {
+    scheduler = new LogDispatchScheduler(buildConfig(1, 200), NO_CHECK_INTERVAL_IN_MS);
+    FakeDispatcher dispatcher = new FakeDispatcher("region1", 2, 1);
+    dispatcher.ready.set(false);
+    scheduler.register(dispatcher);
+    waitFor(() -> dispatcher.calls.get() == 1);
+
+    dispatcher.ready.set(true);
+    scheduler.scheduleWithDelay(dispatcher);
+    scheduler.scheduleWithDelay(dispatcher);
+    Thread.sleep(50);
+    Assert.assertTrue(dispatched.isEmpty());
+    waitFor(() -> dispatched.size() == 1);
+  }
+
+  /** The dispatchers queued are dropped once stopped, and the running one is interrupted. */
+  @Test
+  public void stopTest() throws InterruptedException {
+    scheduler = new LogDispatchScheduler(buildConfig(1, 0), NO_CHECK_INTERVAL_IN_MS);
+    FakeDispatcher blocker = new FakeDispatcher("blocker", 1, 0);
+    scheduler.register(blocker);
+    Assert.assertTrue(blocker.running.await(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS));
+    FakeDispatcher dispatcher = new FakeDispatcher("region1", 2, 1);
+    scheduler.register(dispatcher);
+
+    scheduler.stop();
+    Assert.assertTrue(blocker.interrupted.get());
+    Assert.assertEquals(0, dispatcher.calls.get());
+
+    // scheduling after stop is ignored
+    scheduler.schedule(dispatcher);
+    scheduler.scheduleWithDelay(dispatcher);
+    scheduler.register(dispatcher);
+    Thread.sleep(100);
+    Assert.assertEquals(0, dispatcher.calls.get());
+    scheduler = null;
+  }
+
+  private IoTConsensusConfig buildConfig(int threadNum, int accumulatingTimeInMs) {
+    return IoTConsensusConfig.newBuilder()
+        .setReplication(
+            IoTConsensusConfig.Replication.newBuilder()
+                .setSharedLogDispatcherThreadNum(threadNum)
+                .setMaxWaitingTimeForAccumulatingBatchInMs(accumulatingTimeInMs)
+                .build())
+        .build();
+  }
+
+  private void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long start = System.currentTimeMillis();
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() - start > TIMEOUT_IN_MS) {
+        Assert.fail("Timeout, dispatched: " + dispatched);
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  private class FakeDispatcher implements LogDispatchScheduler.Dispatcher {
+
+    private final String name;
+    private final Peer peer;
+    private int batchNum;
+    private final AtomicBoolean ready = new AtomicBoolean(true);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicBoolean interrupted = new AtomicBoolean(false);
+    private final CountDownLatch running = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    // whether the first run blocks until released and dispatches nothing, always true for the
+    // dispatchers without batch
+    private boolean blockOnce;
+
+    private FakeDispatcher(String name, int nodeId, int batchNum) {
+      this.name = name;
+      this.peer = new Peer(new DataRegionId(1), nodeId, new TEndPoint("127.0.0.1", 6667));
+      this.batchNum = batchNum;
+      this.blockOnce = batchNum == 0;
+    }
+
+    @Override
+    public boolean dispatchOnce() {
+      calls.incrementAndGet();
+      if (blockOnce) {
+        blockOnce = false;
+        running.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          interrupted.set(true);
+          Thread.currentThread().interrupt();
+          return false;
+        }
+        if (batchNum == 0) {
+          dispatched.add(name);
+        }
+        return false;
+      }
+      if (!ready.get() || batchNum == 0) {
+        return false;
+      }
+      batchNum--;
+      dispatched.add(name);
+      return true;
+    }
+
+    @Override
+    public Peer getPeer() {
+      return peer;
+    }
+  }
+}
@@ -244,4 +244,40 @@ public class SyncStatusTest {
     Assert.assertEquals(
         config.getReplication().getMaxPendingBatchesNum() + 1, status.getNextSendingIndex());
   }
+
+  /** Confirm that a batch is rejected instead of blocking when the pipeline is full */
+  @Test
+  public void tryAddNextBatchTest() {
+    IndexController controller =
+        new IndexController(storageDir.getAbsolutePath(), peer, 0, CHECK_POINT_GAP);
+    SyncStatus status = new SyncStatus(controller, config, supplier);
+    List<Batch> batchList = new ArrayList<>();
+
+    for (long i = 0; i <= config.getReplication().getMaxPendingBatchesNum(); i++) {
+      TLogEntry logEntry = new TLogEntry();
+      logEntry.setSearchIndex(i);
+      Batch batch = new Batch(IoTConsensusConfig.newBuilder().build());
+      batch.addTLogEntry(logEntry);
+      batch.buildIndex();
+      batchList.add(batch);
+    }
+
+    for (int i = 0; i < config.getReplication().getMaxPendingBatchesNum(); i++) {
+      Assert.assertFalse(status.isFull());
+      Assert.assertTrue(status.tryAddNextBatch(batchList.get(i)));
+    }
+    Batch lastBatch = batchList.get(config.getReplication().getMaxPendingBatchesNum());
+    Assert.assertTrue(status.isFull());
+    Assert.assertFalse(status.tryAddNextBatch(lastBatch));
+    Assert.assertEquals(
+        config.getReplication().getMaxPendingBatchesNum(), status.getPendingBatches().size());
+
+    // the rejected batch can be added once a pending one is synced
+    status.removeBatch(batchList.get(0));
+    Assert.assertFalse(status.isFull());
+    Assert.assertTrue(status.tryAddNextBatch(lastBatch));
+    Assert.assertEquals(
+        config.getReplication().getMaxPendingBatchesNum() + 1, status.getNextSendingIndex());
+    status.free();
+  }
 }
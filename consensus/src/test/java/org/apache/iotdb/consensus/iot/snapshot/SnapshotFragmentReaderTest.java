@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.consensus.iot.snapshot;
+
+import org.apache.ratis.util.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+
+public class SnapshotFragmentReaderTest {
+
+  private static final File storageDir = new File("target" + java.io.File.separator + "test");
+  private static final String SNAPSHOT_ID = "snapshot_1_1";
+  private static final int FRAGMENT_SIZE = 100;
+
+  private File snapshotFile;
+  private byte[] content;
+
+  @Before
+  public void setUp() throws IOException {
+    FileUtils.createDirectories(storageDir);
+    snapshotFile = new File(storageDir, SNAPSHOT_ID + File.separator + "1.tsfile");
+    FileUtils.createDirectories(snapshotFile.getParentFile());
+    content = new byte[FRAGMENT_SIZE * 3 + 10];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    Files.write(snapshotFile.toPath(), content);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteFully(storageDir);
+  }
+
+  @Test
+  public void testReadFragments() throws IOException {
+    SnapshotFragmentReader reader =
+        new SnapshotFragmentReader(
+            SNAPSHOT_ID, snapshotFile.toPath(), 0, ByteBuffer.allocate(FRAGMENT_SIZE));
+    try {
+      long offset = 0;
+      while (reader.hasNext()) {
+        SnapshotFragment fragment = reader.next();
+        Assert.assertEquals(offset, fragment.getStartOffset());
+        Assert.assertEquals(content.length, fragment.getTotalSize());
+        assertFragment(fragment);
+        offset += fragment.getFragmentSize();
+      }
+      Assert.assertEquals(content.length, offset);
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testResume() throws IOException {
+    long startOffset = FRAGMENT_SIZE + 10;
+    SnapshotFragmentReader reader =
+        new SnapshotFragmentReader(
+            SNAPSHOT_ID, snapshotFile.toPath(), startOffset, ByteBuffer.allocate(FRAGMENT_SIZE));
+    try {
+      Assert.assertTrue(reader.hasNext());
+      SnapshotFragment fragment = reader.next();
+      Assert.assertEquals(startOffset, fragment.getStartOffset());
+      Assert.assertEquals(FRAGMENT_SIZE, fragment.getFragmentSize());
+      assertFragment(fragment);
+      Assert.assertTrue(reader.hasNext());
+      Assert.assertEquals(FRAGMENT_SIZE, reader.next().getFragmentSize());
+      Assert.assertFalse(reader.hasNext());
+    } finally {
+      reader.close();
+    }
+  }
+
+  private void assertFragment(SnapshotFragment fragment) {
+    ByteBuffer chunk = fragment.getFileChunk().duplicate();
+    Assert.assertEquals(fragment.getFragmentSize(), chunk.remaining());
+    CRC32 crc32 = new CRC32();
+    crc32.update(content, (int) fragment.getStartOffset(), (int) fragment.getFragmentSize());
+    Assert.assertEquals(crc32.getValue(), fragment.getChecksum());
+    for (int i = 0; i < fragment.getFragmentSize(); i++) {
+      Assert.assertEquals(content[(int) fragment.getStartOffset() + i], chunk.get());
+    }
+  }
+}
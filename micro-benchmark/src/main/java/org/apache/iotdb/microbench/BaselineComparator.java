@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.microbench;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files in JSON format (`-rf json`) and reports every benchmark whose
+ * primary score or normalized allocation rate ({@code -prof gc}) got worse by more than the given
+ * threshold.
+ */
+public class BaselineComparator {
+
+  private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+  private static final String THROUGHPUT_MODE = "thrpt";
+
+  private final double threshold;
+
+  public BaselineComparator(double threshold) {
+    this.threshold = threshold;
+  }
+
+  /** @return a human-readable line for each regression, empty if there is none */
+  public List<String> compare(String baselineFile, String currentFile) throws IOException {
+    Map<String, Score> baseline = load(baselineFile);
+    Map<String, Score> current = load(currentFile);
+    List<String> regressions = new ArrayList<>();
+    for (Map.Entry<String, Score> entry : current.entrySet()) {
+      Score base = baseline.get(entry.getKey());
+      if (base == null) {
+        // new benchmark, nothing to compare with
+        continue;
+      }
+      Score now = entry.getValue();
+      double primaryChange = relativeChange(base.primary, now.primary, now.higherIsBetter);
+      if (primaryChange > threshold) {
+        regressions.add(
+            String.format(
+                "%s: score %.3f -> %.3f %s (%.1f%% worse)",
+                entry.getKey(), base.primary, now.primary, now.unit, primaryChange * 100));
+      }
+      if (base.allocation != null && now.allocation != null) {
+        double allocationChange = relativeChange(base.allocation, now.allocation, false);
+        if (allocationChange > threshold) {
+          regressions.add(
+              String.format(
+                  "%s: allocation %.1f -> %.1f B/op (%.1f%% worse)",
+                  entry.getKey(), base.allocation, now.allocation, allocationChange * 100));
+        }
+      }
+    }
+    return regressions;
+  }
+
+  /** @return how much worse {@code current} is than {@code baseline}, negative if it is better */
+  private static double relativeChange(double baseline, double current, boolean higherIsBetter) {
+    if (baseline == 0) {
+      return current == 0 || higherIsBetter ? 0 : Double.POSITIVE_INFINITY;
+    }
+    double change = (current - baseline) / baseline;
+    return higherIsBetter ? -change : change;
+  }
+
+  private static Map<String, Score> load(String file) throws IOException {
+    Map<String, Score> scores = new TreeMap<>();
+    try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+      for (JsonElement element : JsonParser.parseReader(reader).getAsJsonArray()) {
+        JsonObject result = element.getAsJsonObject();
+        JsonObject primaryMetric = result.getAsJsonObject("primaryMetric");
+        Score score = new Score();
+        score.primary = primaryMetric.get("score").getAsDouble();
+        score.unit = primaryMetric.get("scoreUnit").getAsString();
+        score.higherIsBetter = THROUGHPUT_MODE.equals(result.get("mode").getAsString());
+        JsonObject secondaryMetrics = result.getAsJsonObject("secondaryMetrics");
+        if (secondaryMetrics != null) {
+          for (Map.Entry<String, JsonElement> metric : secondaryMetrics.entrySet()) {
+            // older JMH versions prefix the profiler metrics with a middle dot
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+              score.allocation = metric.getValue().getAsJsonObject().get("score").getAsDouble();
+            }
+          }
+        }
+        scores.put(key(result), score);
+      }
+    }
+    return scores;
+  }
+
+  /** benchmark name, mode and sorted parameters, e.g. {@code a.B.c[thrpt]{p1=x, p2=y}} */
+  private static String key(JsonObject result) {
+    Map<String, String> params = new TreeMap<>();
+    JsonObject paramsObject = result.getAsJsonObject("params");
+    if (paramsObject != null) {
+      for (Map.Entry<String, JsonElement> param : paramsObject.entrySet()) {
+        params.put(param.getKey(), param.getValue().getAsString());
+      }
+    }
+    return result.get("benchmark").getAsString()
+        + "["
+        + result.get("mode").getAsString()
+        + "]"
+        + params;
+  }
+
+  private static class Score {
+    private double primary;
+    private String unit;
+    private boolean higherIsBetter;
+    private Double allocation;
+  }
+}
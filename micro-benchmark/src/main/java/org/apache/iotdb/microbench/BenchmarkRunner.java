@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.microbench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. All the usual JMH options are accepted. Additionally:
+ *
+ * <ul>
+ *   <li>{@code --baseline <file>}: after running, compare the results with a previous JSON result
+ *       file and exit with code 1 if any benchmark regressed. The GC profiler is enabled
+ *       automatically so that allocation is compared too.
+ *   <li>{@code --compare <file>}: do not run anything, only compare the given result file with the
+ *       baseline.
+ *   <li>{@code --threshold <ratio>}: tolerated regression, 0.1 (10%) by default.
+ * </ul>
+ */
+public class BenchmarkRunner {
+
+  private static final String BASELINE = "--baseline";
+  private static final String COMPARE = "--compare";
+  private static final String THRESHOLD = "--threshold";
+  private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+  private static final double DEFAULT_THRESHOLD = 0.1;
+
+  public static void main(String[] args) throws Exception {
+    String baselineFile = null;
+    String compareFile = null;
+    double threshold = DEFAULT_THRESHOLD;
+    List<String> jmhArgs = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case BASELINE:
+          baselineFile = args[++i];
+          break;
+        case COMPARE:
+          compareFile = args[++i];
+          break;
+        case THRESHOLD:
+          threshold = Double.parseDouble(args[++i]);
+          break;
+        default:
+          jmhArgs.add(args[i]);
+      }
+    }
+
+    if (compareFile == null) {
+      CommandLineOptions commandLineOptions =
+          new CommandLineOptions(jmhArgs.toArray(new String[0]));
+      ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLineOptions);
+      if (baselineFile != null) {
+        builder.addProfiler(GCProfiler.class);
+        compareFile = commandLineOptions.getResult().orElse(DEFAULT_RESULT_FILE);
+        builder.result(compareFile).resultFormat(ResultFormatType.JSON);
+      }
+      new Runner(builder.build()).run();
+    }
+
+    if (baselineFile == null) {
+      return;
+    }
+    List<String> regressions = new BaselineComparator(threshold).compare(baselineFile, compareFile);
+    if (regressions.isEmpty()) {
+      System.out.println("No regression compared with " + baselineFile);
+      return;
+    }
+    System.out.println(regressions.size() + " regression(s) compared with " + baselineFile + ":");
+    for (String regression : regressions) {
+      System.out.println("  " + regression);
+    }
+    System.exit(1);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.microbench;
+
+import java.util.Random;
+
+/**
+ * Shapes of generated series shared by all the benchmarks, so that the numbers of different suites
+ * are comparable. Generation is seeded and therefore deterministic across runs.
+ */
+public enum DataDistribution {
+  /** strictly increasing with a fixed step, e.g. a sensor sampled at a fixed frequency */
+  MONOTONIC,
+  /** increasing, but every step deviates from the nominal interval by up to a quarter */
+  JITTERED,
+  /** mostly increasing, while about 10% of the points arrive late by up to 100 intervals */
+  OUT_OF_ORDER,
+  /** uniformly distributed random values, nearly every value is distinct */
+  HIGH_CARDINALITY;
+
+  private static final long SEED = 20230601L;
+  private static final long INTERVAL = 1000L;
+  private static final long BASE = 1_600_000_000_000L;
+
+  public long[] generateLongs(int size) {
+    Random random = new Random(SEED);
+    long[] values = new long[size];
+    switch (this) {
+      case MONOTONIC:
+        for (int i = 0; i < size; i++) {
+          values[i] = BASE + i * INTERVAL;
+        }
+        break;
+      case JITTERED:
+        for (int i = 0; i < size; i++) {
+          values[i] = BASE + i * INTERVAL + random.nextInt((int) (INTERVAL / 2)) - INTERVAL / 4;
+        }
+        break;
+      case OUT_OF_ORDER:
+        for (int i = 0; i < size; i++) {
+          values[i] = BASE + i * INTERVAL;
+          if (random.nextInt(10) == 0) {
+            values[i] -= (random.nextInt(100) + 1) * INTERVAL;
+          }
+        }
+        break;
+      case HIGH_CARDINALITY:
+        for (int i = 0; i < size; i++) {
+          values[i] = random.nextLong();
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException(this.name());
+    }
+    return values;
+  }
+
+  public int[] generateInts(int size) {
+    long[] longs = generateLongs(size);
+    int[] values = new int[size];
+    for (int i = 0; i < size; i++) {
+      // keep the shape, but fit it into the int range
+      values[i] = this == HIGH_CARDINALITY ? (int) longs[i] : (int) ((longs[i] - BASE) / 10);
+    }
+    return values;
+  }
+
+  public double[] generateDoubles(int size) {
+    long[] longs = generateLongs(size);
+    double[] values = new double[size];
+    for (int i = 0; i < size; i++) {
+      values[i] =
+          this == HIGH_CARDINALITY ? (double) longs[i] / Long.MAX_VALUE : (longs[i] - BASE) / 100.0;
+    }
+    return values;
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.microbench.server;
+
+import org.apache.iotdb.db.mpp.execution.operator.Operator;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.execution.operator.process.FilterAndProjectOperator;
+import org.apache.iotdb.db.mpp.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.ArithmeticMultiplicationColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.CompareGreaterThanColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.leaf.ConstantColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.leaf.IdentityColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.leaf.LeafColumnTransformer;
+import org.apache.iotdb.microbench.DataDistribution;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.iotdb.tsfile.read.common.type.Type;
+import org.apache.iotdb.tsfile.read.common.type.TypeFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates {@code select s1 * 2 from root.sg.d1 where s1 > threshold} over one TsBlock, where the
+ * threshold is chosen so that {@code selectivity} percent of the rows pass the filter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterAndProjectOperatorBenchmark {
+
+  private static final Type DOUBLE = TypeFactory.getType(TSDataType.DOUBLE);
+  private static final Type BOOLEAN = TypeFactory.getType(TSDataType.BOOLEAN);
+
+  @Param({"1024"})
+  private int positionCount;
+
+  @Param({"10", "50", "90"})
+  private int selectivity;
+
+  @Param({"MONOTONIC", "JITTERED", "OUT_OF_ORDER", "HIGH_CARDINALITY"})
+  private DataDistribution distribution;
+
+  private FilterAndProjectOperator operator;
+
+  @Setup
+  public void setUp() {
+    long[] times = distribution.generateLongs(positionCount);
+    double[] values = distribution.generateDoubles(positionCount);
+    TsBlockBuilder builder =
+        new TsBlockBuilder(positionCount, Collections.singletonList(TSDataType.DOUBLE));
+    for (int i = 0; i < positionCount; i++) {
+      builder.getTimeColumnBuilder().writeLong(times[i]);
+      builder.getColumnBuilder(0).writeDouble(values[i]);
+      builder.declarePosition();
+    }
+    TsBlock input = builder.build();
+
+    double[] sortedValues = values.clone();
+    Arrays.sort(sortedValues);
+    double threshold = sortedValues[positionCount * (100 - selectivity) / 100];
+
+    // reference counts are assigned the same way as ColumnTransformerVisitor does
+    IdentityColumnTransformer filterInput = new IdentityColumnTransformer(DOUBLE, 0);
+    ConstantColumnTransformer filterConstant =
+        new ConstantColumnTransformer(
+            DOUBLE, new DoubleColumn(1, Optional.empty(), new double[] {threshold}));
+    ColumnTransformer filterOutput =
+        new CompareGreaterThanColumnTransformer(BOOLEAN, filterInput, filterConstant);
+    filterInput.addReferenceCount();
+    filterConstant.addReferenceCount();
+    filterOutput.addReferenceCount();
+
+    IdentityColumnTransformer projectInput = new IdentityColumnTransformer(DOUBLE, 0);
+    ConstantColumnTransformer projectConstant =
+        new ConstantColumnTransformer(
+            DOUBLE, new DoubleColumn(1, Optional.empty(), new double[] {2}));
+    ColumnTransformer projectOutput =
+        new ArithmeticMultiplicationColumnTransformer(DOUBLE, projectInput, projectConstant);
+    projectInput.addReferenceCount();
+    projectConstant.addReferenceCount();
+    projectOutput.addReferenceCount();
+
+    List<LeafColumnTransformer> filterLeaves = Arrays.asList(filterInput, filterConstant);
+    List<LeafColumnTransformer> projectLeaves = Arrays.asList(projectInput, projectConstant);
+    operator =
+        new FilterAndProjectOperator(
+            null,
+            new RepeatingOperator(input),
+            Collections.singletonList(TSDataType.DOUBLE),
+            filterLeaves,
+            filterOutput,
+            Collections.emptyList(),
+            projectLeaves,
+            Collections.singletonList(projectOutput),
+            false,
+            true);
+  }
+
+  @Benchmark
+  public TsBlock filterAndProject() throws Exception {
+    return operator.next();
+  }
+
+  /** Child operator returning the same TsBlock forever, without any timing overhead. */
+  private static class RepeatingOperator implements Operator {
+
+    private final TsBlock tsBlock;
+
+    private RepeatingOperator(TsBlock tsBlock) {
+      this.tsBlock = tsBlock;
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return null;
+    }
+
+    @Override
+    public TsBlock nextWithTimer() {
+      return tsBlock;
+    }
+
+    @Override
+    public TsBlock next() {
+      return tsBlock;
+    }
+
+    @Override
+    public boolean hasNextWithTimer() {
+      return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return true;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return false;
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 0;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 0;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0;
+    }
+  }
+}
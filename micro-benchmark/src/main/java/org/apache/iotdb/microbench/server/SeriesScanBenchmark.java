@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.microbench.server;
+
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
+import org.apache.iotdb.db.engine.compaction.execute.utils.reader.SeriesDataBlockReader;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.microbench.DataDistribution;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans one series through {@code SeriesScanUtil} over sequence files that are partly overwritten
+ * by unsequence files, so that the page merge path is exercised. Chunks stay in {@link ChunkCache}
+ * after the first invocation, so the numbers reflect merging and decoding rather than disk IO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeriesScanBenchmark {
+
+  private static final String DEVICE = "root.bench.d0";
+  private static final String MEASUREMENT = "s0";
+  private static final int SEQ_FILE_NUM = 4;
+  private static final int POINTS_PER_FILE = 100_000;
+  private static final int POINTS_PER_CHUNK = 10_000;
+
+  /** percentage of the points of each sequence file rewritten by an unsequence file */
+  @Param({"0", "10", "50"})
+  private int overlapPercentage;
+
+  @Param({"MONOTONIC", "JITTERED", "OUT_OF_ORDER", "HIGH_CARDINALITY"})
+  private DataDistribution distribution;
+
+  private File baseDir;
+  private MeasurementPath seriesPath;
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unseqResources = new ArrayList<>();
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    baseDir = Files.createTempDirectory("series-scan-benchmark").toFile();
+    seriesPath = new MeasurementPath(DEVICE + "." + MEASUREMENT, TSDataType.INT64);
+    long[] values = distribution.generateLongs(POINTS_PER_FILE);
+    int version = 0;
+    for (int i = 0; i < SEQ_FILE_NUM; i++) {
+      long startTime = (long) i * POINTS_PER_FILE;
+      seqResources.add(writeFile("sequence", ++version, startTime, values, Integer.MAX_VALUE, 0));
+      if (overlapPercentage > 0) {
+        unseqResources.add(
+            writeFile("unsequence", ++version, startTime, values, overlapPercentage, 1));
+      }
+    }
+  }
+
+  /**
+   * Write one file holding the points whose index modulo 100 is less than {@code percentage}.
+   * Overwritten points get {@code valueOffset} added to tell them apart.
+   */
+  private TsFileResource writeFile(
+      String folder, int version, long startTime, long[] values, int percentage, long valueOffset)
+      throws Exception {
+    File dir = new File(baseDir, folder + File.separator + "root.bench" + File.separator + "0");
+    if (!dir.exists() && !dir.mkdirs()) {
+      throw new IOException("Failed to create " + dir);
+    }
+    File file = new File(dir, System.currentTimeMillis() + "-" + version + "-0-0.tsfile");
+    TsFileResource resource = new TsFileResource(file);
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(
+          new Path(DEVICE),
+          new MeasurementSchema(
+              MEASUREMENT, TSDataType.INT64, TSEncoding.GORILLA, CompressionType.LZ4));
+      for (int i = 0; i < values.length; i++) {
+        if (i % 100 >= percentage) {
+          continue;
+        }
+        long time = startTime + i;
+        TSRecord record = new TSRecord(time, DEVICE);
+        record.addTuple(new LongDataPoint(MEASUREMENT, values[i] + valueOffset));
+        writer.write(record);
+        resource.updateStartTime(DEVICE, time);
+        resource.updateEndTime(DEVICE, time);
+        if ((i + 1) % POINTS_PER_CHUNK == 0) {
+          writer.flushAllChunkGroups();
+        }
+      }
+    }
+    resource.setStatus(TsFileResourceStatus.CLOSED);
+    resource.setVersion(version);
+    return resource;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+    ChunkCache.getInstance().clear();
+    TimeSeriesMetadataCache.getInstance().clear();
+    FileUtils.deleteDirectory(baseDir);
+  }
+
+  @Benchmark
+  public void scan(Blackhole blackhole) throws IOException {
+    SeriesDataBlockReader reader =
+        new SeriesDataBlockReader(
+            seriesPath,
+            Collections.singleton(MEASUREMENT),
+            FragmentInstanceContext.createFragmentInstanceContextForCompaction(0),
+            new QueryDataSource(seqResources, unseqResources),
+            true);
+    while (reader.hasNextBatch()) {
+      TsBlock tsBlock = reader.nextBatch();
+      blackhole.consume(tsBlock);
+    }
+  }
+}
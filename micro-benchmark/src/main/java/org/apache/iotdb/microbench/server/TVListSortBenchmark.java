@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.microbench.server;
+
+import org.apache.iotdb.db.utils.datastructure.BackLongTVList;
+import org.apache.iotdb.db.utils.datastructure.QuickLongTVList;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.db.utils.datastructure.TVListSortAlgorithm;
+import org.apache.iotdb.db.utils.datastructure.TimLongTVList;
+import org.apache.iotdb.microbench.DataDistribution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorts one memtable chunk with each {@link TVListSortAlgorithm}. The list is refilled before every
+ * invocation, so only {@link TVList#sort()} is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TVListSortBenchmark {
+
+  @Param({"TIM", "QUICK", "BACKWARD", "ADAPTIVE"})
+  private TVListSortAlgorithm algorithm;
+
+  @Param({"100000"})
+  private int pointNum;
+
+  @Param({"MONOTONIC", "JITTERED", "OUT_OF_ORDER", "HIGH_CARDINALITY"})
+  private DataDistribution distribution;
+
+  private long[] timestamps;
+
+  private TVList tvList;
+
+  @Setup(Level.Trial)
+  public void prepareData() {
+    timestamps = distribution.generateLongs(pointNum);
+  }
+
+  @Setup(Level.Invocation)
+  public void fillList() {
+    switch (algorithm) {
+      case QUICK:
+        tvList = new QuickLongTVList();
+        break;
+      case BACKWARD:
+        tvList = new BackLongTVList();
+        break;
+      case ADAPTIVE:
+        tvList = new TimLongTVList();
+        tvList.setAdaptiveSort(true);
+        break;
+      default:
+        tvList = new TimLongTVList();
+    }
+    for (long timestamp : timestamps) {
+      tvList.putLong(timestamp, timestamp);
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void clearList() {
+    // return the primitive arrays to PrimitiveArrayManager
+    tvList.clear();
+  }
+
+  @Benchmark
+  public TVList sort() {
+    tvList.sort();
+    return tvList;
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.microbench.tsfile;
+
+import org.apache.iotdb.microbench.DataDistribution;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes one page worth of points with the encoders used for time and numeric value
+ * columns: GORILLA ({@code GorillaEncoderV2}), TS_2DIFF ({@code DeltaBinaryEncoder}) and RLE
+ * ({@code IntRleEncoder}/{@code LongRleEncoder}). Results are reported per point.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+
+  private static final int POINT_NUM = 10_000;
+
+  @Param({"GORILLA", "TS_2DIFF", "RLE"})
+  private TSEncoding encoding;
+
+  @Param({"INT32", "INT64"})
+  private TSDataType dataType;
+
+  @Param({"MONOTONIC", "JITTERED", "OUT_OF_ORDER", "HIGH_CARDINALITY"})
+  private DataDistribution distribution;
+
+  private int[] intValues;
+  private long[] longValues;
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream(POINT_NUM * 8);
+  private ByteBuffer encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    intValues = distribution.generateInts(POINT_NUM);
+    longValues = distribution.generateLongs(POINT_NUM);
+    doEncode();
+    encoded = ByteBuffer.wrap(out.toByteArray());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public int encode() throws IOException {
+    return doEncode();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public void decode(Blackhole blackhole) throws IOException {
+    Decoder decoder = Decoder.getDecoderByType(encoding, dataType);
+    ByteBuffer buffer = encoded.duplicate();
+    if (dataType == TSDataType.INT32) {
+      while (decoder.hasNext(buffer)) {
+        blackhole.consume(decoder.readInt(buffer));
+      }
+    } else {
+      while (decoder.hasNext(buffer)) {
+        blackhole.consume(decoder.readLong(buffer));
+      }
+    }
+  }
+
+  private int doEncode() throws IOException {
+    out.reset();
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(dataType);
+    if (dataType == TSDataType.INT32) {
+      for (int value : intValues) {
+        encoder.encode(value, out);
+      }
+    } else {
+      for (long value : longValues) {
+        encoder.encode(value, out);
+      }
+    }
+    encoder.flush(out);
+    return out.size();
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.microbench.tsfile;
+
+import org.apache.iotdb.microbench.DataDistribution;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Serializes and deserializes TsBlocks the way the exchange operators do between fragments. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TsBlockSerdeBenchmark {
+
+  private static final List<TSDataType> DATA_TYPES =
+      Arrays.asList(TSDataType.INT32, TSDataType.INT64, TSDataType.DOUBLE, TSDataType.BOOLEAN);
+
+  @Param({"1024"})
+  private int positionCount;
+
+  /** percentage of null values in every value column */
+  @Param({"0", "10"})
+  private int nullPercentage;
+
+  @Param({"MONOTONIC", "JITTERED", "OUT_OF_ORDER", "HIGH_CARDINALITY"})
+  private DataDistribution distribution;
+
+  private final TsBlockSerde serde = new TsBlockSerde();
+
+  private TsBlock tsBlock;
+  private ByteBuffer serialized;
+
+  @Setup
+  public void setUp() throws IOException {
+    long[] times = distribution.generateLongs(positionCount);
+    int[] ints = distribution.generateInts(positionCount);
+    long[] longs = distribution.generateLongs(positionCount);
+    double[] doubles = distribution.generateDoubles(positionCount);
+    Random random = new Random(positionCount);
+
+    TsBlockBuilder builder = new TsBlockBuilder(positionCount, DATA_TYPES);
+    TimeColumnBuilder timeColumnBuilder = builder.getTimeColumnBuilder();
+    ColumnBuilder[] valueColumnBuilders = builder.getValueColumnBuilders();
+    for (int i = 0; i < positionCount; i++) {
+      timeColumnBuilder.writeLong(times[i]);
+      if (isNull(random)) {
+        valueColumnBuilders[0].appendNull();
+      } else {
+        valueColumnBuilders[0].writeInt(ints[i]);
+      }
+      if (isNull(random)) {
+        valueColumnBuilders[1].appendNull();
+      } else {
+        valueColumnBuilders[1].writeLong(longs[i]);
+      }
+      if (isNull(random)) {
+        valueColumnBuilders[2].appendNull();
+      } else {
+        valueColumnBuilders[2].writeDouble(doubles[i]);
+      }
+      if (isNull(random)) {
+        valueColumnBuilders[3].appendNull();
+      } else {
+        valueColumnBuilders[3].writeBoolean(ints[i] % 2 == 0);
+      }
+      builder.declarePosition();
+    }
+    tsBlock = builder.build();
+    serialized = serde.serialize(tsBlock);
+  }
+
+  private boolean isNull(Random random) {
+    return random.nextInt(100) < nullPercentage;
+  }
+
+  @Benchmark
+  public ByteBuffer serialize() throws IOException {
+    return serde.serialize(tsBlock);
+  }
+
+  @Benchmark
+  public TsBlock deserialize() {
+    return serde.deserialize(serialized.duplicate());
+  }
+}
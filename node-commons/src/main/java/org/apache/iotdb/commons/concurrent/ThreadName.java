@@ -25,6 +25,10 @@ public enum ThreadName {
   CONFIGNODE_RPC_PROCESSOR("ConfigNodeRPC-Processor"),
   IOT_CONSENSUS_RPC_SERVICE("IoTConsensusRPC-Service"),
   IOT_CONSENSUS_RPC_PROCESSOR("IoTConsensusRPC-Processor"),
+  LOG_DISPATCHER_WORKER("LogDispatcher-Worker"),
+  LOG_DISPATCHER_TIMER("LogDispatcher-Timer"),
+  IOT_CONSENSUS_BATCH_SYNC_LOG("IoTConsensus-BatchSyncLog"),
+  IOT_CONSENSUS_SNAPSHOT_TRANSFER("IoTConsensus-SnapshotTransfer"),
   MPP_DATA_EXCHANGE_RPC_SERVICE("MPPDataExchangeRPC-Service"),
   MPP_DATA_EXCHANGE_RPC_PROCESSOR("MPPDataExchangeRPC-Processor"),
   DATANODE_INTERNAL_RPC_SERVICE("DataNodeInternalRPC-Service"),
@@ -45,6 +49,7 @@ public enum ThreadName {
   SYNC_CLIENT("Sync-Client"),
   SYNC_SERVER("Sync"),
   QUERY_SERVICE("Query"),
+  CHUNK_PREFETCH("Chunk-Prefetch"),
   INSERTION_SERVICE("MultithreadingInsertionPool"),
   WINDOW_EVALUATION_SERVICE("WindowEvaluationTaskPoolManager"),
   TTL_CHECK_SERVICE("TTL-CHECK"),
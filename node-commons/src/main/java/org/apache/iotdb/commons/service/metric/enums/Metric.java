@@ -85,6 +85,7 @@ public enum Metric {
   QUERY_RESOURCE,
   DATA_EXCHANGE_COST,
   DATA_EXCHANGE_COUNT,
+  DATA_EXCHANGE_SIZE,
   DRIVER_SCHEDULER,
   PERFORMANCE_OVERVIEW,
   PERFORMANCE_OVERVIEW_DETAIL,
@@ -98,8 +99,10 @@ public enum Metric {
   PENDING_FLUSH_TASK,
   WAL_COST,
   FLUSH_COST,
+  FLUSH_STAGE_WALL_TIME,
   FLUSH_SUB_TASK_COST,
   FLUSHING_MEM_TABLE_STATUS,
+  TVLIST_SORT,
   DATA_REGION_MEM_COST,
   SCHEMA_REGION,
   SCHEMA_ENGINE,
@@ -43,6 +43,7 @@ import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
@@ -56,7 +57,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -194,6 +197,15 @@ public class IoTDBConfig {
   /** Blocking queue capacity of each wal buffer */
   private int walBufferQueueCapacity = 50;
 
+  /** Compression type of the wal buffers flushed to disk */
+  private CompressionType walCompressionType = CompressionType.UNCOMPRESSED;
+
+  /**
+   * When true, writers reserve space in the wal buffer and serialize their own WALEntries in
+   * parallel instead of handing them to the single serialize thread through the blocking queue
+   */
+  private boolean enableWALParallelSerialization = false;
+
   /** Size threshold of each wal file. Unit: byte */
   private volatile long walFileSizeThresholdInByte = 10 * 1024 * 1024L;
 
@@ -325,8 +337,30 @@ public class IoTDBConfig {
 
   private int degreeOfParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
 
+  /**
+   * Max number of time slices that the aggregation scan of one series can be split into, each slice
+   * is executed by its own pipeline. When <= 0, it is only limited by degreeOfParallelism. 1 by
+   * default, which disables the split.
+   */
+  private int maxAggregationScanSplitNum = 1;
+
+  /**
+   * Min time range of each time slice when the aggregation scan of one series is split, in the unit
+   * of timestampPrecision.
+   */
+  private long minAggregationScanSplitTimeRange = 24 * 60 * 60 * 1000L;
+
   private int modeMapSizeThreshold = 10000;
 
+  /**
+   * Max memory in bytes of the data buffered by one sort operator, the sorted data will be spilled
+   * to disk once exceeded.
+   */
+  private long sortBufferSize = 1024 * 1024L;
+
+  /** Names of the optimizers which are not applied to the distributed query plans. */
+  private Set<String> disabledPlanOptimizers = Collections.emptySet();
+
   /** How many queries can be concurrently executed. When <= 0, use 1000. */
   private int maxAllowedConcurrentQueries = 1000;
 
@@ -393,6 +427,12 @@ public class IoTDBConfig {
   /** The sort algorithm used in TVList */
   private TVListSortAlgorithm tvListSortAlgorithm = TVListSortAlgorithm.TIM;
 
+  /**
+   * Whether to store the points of non-aligned numeric and boolean series of memtables in direct
+   * buffers instead of java arrays, so that they don't burden the GC.
+   */
+  private boolean enableOffHeapMemtable = false;
+
   /** When average series point number reaches this, flush the memtable to disk */
   private int avgSeriesPointNumberThreshold = 100000;
 
@@ -415,6 +455,19 @@ public class IoTDBConfig {
   private InnerSequenceCompactionSelector innerSequenceCompactionSelector =
       InnerSequenceCompactionSelector.SIZE_TIERED;
 
+  /** The strategies of inner sequence space compaction of some databases, instead of the default */
+  private Map<String, InnerSequenceCompactionSelector> innerSequenceCompactionSelectorOfDatabases =
+      Collections.emptyMap();
+
+  /** The min file size of level 1 in leveled compaction. Unit: byte */
+  private long leveledCompactionLevel1FileSize = 64 * 1024 * 1024L;
+
+  /** The ratio of the min file sizes of adjacent levels in leveled compaction */
+  private int leveledCompactionSizeRatio = 10;
+
+  /** Each level is compacted only if it has more files than this in leveled compaction */
+  private int leveledCompactionMaxFileNumPerLevel = 10;
+
   private InnerSeqCompactionPerformer innerSeqCompactionPerformer =
       InnerSeqCompactionPerformer.READ_CHUNK;
 
@@ -440,6 +493,12 @@ public class IoTDBConfig {
    */
   private CompactionPriority compactionPriority = CompactionPriority.BALANCE;
 
+  /**
+   * Whether to execute the compaction tasks of the time partitions whose queries read more
+   * overlapped files first, among the tasks of the same type
+   */
+  private boolean enableCompactionQueryHeatPriority = false;
+
   private double chunkMetadataSizeProportion = 0.1;
 
   /** The target tsfile size in compaction, 1 GB by default */
@@ -513,6 +572,54 @@ public class IoTDBConfig {
   /** Memory allocated for chunk cache in read process */
   private long allocateMemoryForChunkCache = allocateMemoryForRead * 100 / 1001;
 
+  /** whether to cache decompressed pages of the chunks read from disk or not. */
+  private boolean enableDecompressedPageCache = false;
+
+  /** Proportion of the chunk cache memory handed over to decompressed page cache */
+  private double decompressedPageCacheProportion = 0.5;
+
+  /** Memory allocated for decompressed page cache in read process */
+  private long allocateMemoryForDecompressedPageCache = 0;
+
+  /**
+   * Sealed TsFiles not larger than it are read through memory mapping instead of file channel, 0
+   * means never.
+   */
+  private long mmapTsFileMaxSizeInByte = 0;
+
+  /**
+   * Whether series scans prefetch the chunks of sealed TsFiles into the chunk cache on a dedicated
+   * IO pool instead of reading them one by one on the driver threads.
+   */
+  private boolean enableChunkPrefetch = false;
+
+  /** Number of threads reading the prefetched chunks */
+  private int chunkPrefetchThreadCount = 4;
+
+  /**
+   * Prefetched chunks of the same TsFile whose offsets are within this distance are read at once
+   */
+  private int chunkPrefetchMaxCoalescedSizeInByte = 4 * 1024 * 1024;
+
+  /** Max number of chunks each series scan prefetches ahead of the chunk it is reading */
+  private int chunkPrefetchWindowSize = 8;
+
+  /**
+   * Lengths of the time buckets of the rollups built for sequence TsFiles at flush, in the
+   * timestamp precision and from fine to coarse. Each length is a multiple of the previous one.
+   * Empty means no rollup is built.
+   */
+  private long[] rollupTiers = new long[0];
+
+  /** Max size of the rollups of sealed TsFiles cached for GROUP BY TIME queries */
+  private long rollupCacheSizeInByte = 64 * 1024 * 1024L;
+
+  /**
+   * Max number of modifications held by the modification indexes of TsFiles, which are shared by
+   * queries.
+   */
+  private int modificationIndexCacheCapacity = 100000;
+
   /** Memory allocated for operators */
   private long allocateMemoryForCoordinator = allocateMemoryForRead * 50 / 1001;
 
@@ -539,6 +646,12 @@ public class IoTDBConfig {
   /** Whether to enable Last cache */
   private boolean lastCacheEnable = true;
 
+  /**
+   * Whether to persist the time of the last flushed point of each series in every data region, so
+   * that LAST queries missing the last cache, e.g. after restart, only scan the data since then.
+   */
+  private boolean enableSeriesLastTimeIndex = false;
+
   /** Cache size of {@code checkAndGetDataTypeCache}. */
   private int mRemoteSchemaCacheSize = 100000;
 
@@ -750,6 +863,12 @@ public class IoTDBConfig {
    */
   private TimeIndexLevel timeIndexLevel = TimeIndexLevel.DEVICE_TIME_INDEX;
 
+  /**
+   * Whether to compact the DEVICE_TIME_INDEX of sealed TsFiles, which interns the devices in a
+   * dictionary shared by the data region and keeps sorted ids and times in primitive arrays.
+   */
+  private boolean enableCompactDeviceTimeIndex = false;
+
   // just for test
   // wait for 60 second by default.
   private int thriftServerAwaitTimeForStopService = 60;
@@ -817,6 +936,12 @@ public class IoTDBConfig {
   /** the size of ioTaskQueue */
   private int ioTaskQueueSizeForFlushing = 10;
 
+  /**
+   * the number of workers encoding the chunk groups of one memtable in parallel while flushing, 1
+   * means the memtable is encoded by one thread device by device
+   */
+  private int flushEncodingParallelism = 1;
+
   /** the number of data regions per user-defined database */
   private int dataRegionNum = 1;
 
@@ -916,6 +1041,12 @@ public class IoTDBConfig {
   /** Thread keep alive time in ms of mpp data exchange. */
   private int mppDataExchangeKeepAliveTimeInMs = 1000;
 
+  /** Whether to send TsBlocks between fragment instances in columnar format. */
+  private boolean enableColumnarDataExchange = false;
+
+  /** Whether to compress each column by LZ4 when sending TsBlocks in columnar format. */
+  private boolean enableDataExchangeCompression = false;
+
   /** Thrift socket and connection timeout between data node and config node. */
   private int connectionTimeoutInMS = (int) TimeUnit.SECONDS.toMillis(20);
 
@@ -997,12 +1128,39 @@ public class IoTDBConfig {
   /** Maximum execution time of a DriverTask */
   private int driverTaskExecutionTimeSliceInMs = 100;
 
+  /**
+   * Whether the query worker threads poll DriverTasks from their own local queues and steal from
+   * each other, instead of polling from one shared queue.
+   */
+  private boolean enableWorkStealingScheduler = false;
+
   /** Maximum size of wal buffer used in IoTConsensus. Unit: byte */
   private long throttleThreshold = 50 * 1024 * 1024 * 1024L;
 
   /** Maximum wait time of write cache in IoTConsensus. Unit: ms */
   private long cacheWindowTimeInMs = 10 * 1000L;
 
+  /**
+   * Number of threads shared by the log dispatchers of all the IoTConsensus regions. 0 means that
+   * every region occupies one dispatching thread for each of its peers.
+   */
+  private int iotConsensusSharedLogDispatcherThreadNum = 0;
+
+  /**
+   * Whether the batches of different IoTConsensus regions replicated to the same DataNode are sent
+   * in one RPC.
+   */
+  private boolean enableIotConsensusBatchSyncAcrossRegions = false;
+
+  /**
+   * The number of merged sync log RPCs that can be in flight to a DataNode is this value multiplied
+   * by the number of regions replicated to it. The waiting batches are merged beyond that.
+   */
+  private int iotConsensusBatchSyncInFlightRequestsPerRegion = 1;
+
+  /** Max size of the batches of different regions merged into one sync log RPC, in bytes. */
+  private long iotConsensusBatchSyncMaxSizePerRequest = 64 * 1024 * 1024L;
+
   private long dataRatisConsensusLogAppenderBufferSizeMax = 16 * 1024 * 1024L;
   private long schemaRatisConsensusLogAppenderBufferSizeMax = 16 * 1024 * 1024L;
 
@@ -1141,6 +1299,14 @@ public class IoTDBConfig {
     this.timeIndexLevel = TimeIndexLevel.valueOf(timeIndexLevel);
   }
 
+  public boolean isEnableCompactDeviceTimeIndex() {
+    return enableCompactDeviceTimeIndex;
+  }
+
+  public void setEnableCompactDeviceTimeIndex(boolean enableCompactDeviceTimeIndex) {
+    this.enableCompactDeviceTimeIndex = enableCompactDeviceTimeIndex;
+  }
+
   void updatePath() {
     formulateFolders();
     confirmMultiDirStrategy();
@@ -1517,6 +1683,22 @@ public class IoTDBConfig {
     return degreeOfParallelism;
   }
 
+  public int getMaxAggregationScanSplitNum() {
+    return maxAggregationScanSplitNum;
+  }
+
+  public void setMaxAggregationScanSplitNum(int maxAggregationScanSplitNum) {
+    this.maxAggregationScanSplitNum = maxAggregationScanSplitNum;
+  }
+
+  public long getMinAggregationScanSplitTimeRange() {
+    return minAggregationScanSplitTimeRange;
+  }
+
+  public void setMinAggregationScanSplitTimeRange(long minAggregationScanSplitTimeRange) {
+    this.minAggregationScanSplitTimeRange = minAggregationScanSplitTimeRange;
+  }
+
   public int getMaxAllowedConcurrentQueries() {
     return maxAllowedConcurrentQueries;
   }
@@ -1720,6 +1902,22 @@ public class IoTDBConfig {
     this.walBufferQueueCapacity = walBufferQueueCapacity;
   }
 
+  public CompressionType getWalCompressionType() {
+    return walCompressionType;
+  }
+
+  public void setWalCompressionType(CompressionType walCompressionType) {
+    this.walCompressionType = walCompressionType;
+  }
+
+  public boolean isEnableWALParallelSerialization() {
+    return enableWALParallelSerialization;
+  }
+
+  public void setEnableWALParallelSerialization(boolean enableWALParallelSerialization) {
+    this.enableWALParallelSerialization = enableWALParallelSerialization;
+  }
+
   public long getWalFileSizeThresholdInByte() {
     return walFileSizeThresholdInByte;
   }
@@ -1995,6 +2193,14 @@ public class IoTDBConfig {
     this.tvListSortAlgorithm = tvListSortAlgorithm;
   }
 
+  public boolean isEnableOffHeapMemtable() {
+    return enableOffHeapMemtable;
+  }
+
+  public void setEnableOffHeapMemtable(boolean enableOffHeapMemtable) {
+    this.enableOffHeapMemtable = enableOffHeapMemtable;
+  }
+
   public int getAvgSeriesPointNumberThreshold() {
     return avgSeriesPointNumberThreshold;
   }
@@ -2052,6 +2258,95 @@ public class IoTDBConfig {
     this.allocateMemoryForChunkCache = allocateMemoryForChunkCache;
   }
 
+  public boolean isEnableDecompressedPageCache() {
+    return enableDecompressedPageCache;
+  }
+
+  public long getMmapTsFileMaxSizeInByte() {
+    return mmapTsFileMaxSizeInByte;
+  }
+
+  public void setMmapTsFileMaxSizeInByte(long mmapTsFileMaxSizeInByte) {
+    this.mmapTsFileMaxSizeInByte = mmapTsFileMaxSizeInByte;
+  }
+
+  public boolean isEnableChunkPrefetch() {
+    return enableChunkPrefetch;
+  }
+
+  public void setEnableChunkPrefetch(boolean enableChunkPrefetch) {
+    this.enableChunkPrefetch = enableChunkPrefetch;
+  }
+
+  public int getChunkPrefetchThreadCount() {
+    return chunkPrefetchThreadCount;
+  }
+
+  public void setChunkPrefetchThreadCount(int chunkPrefetchThreadCount) {
+    this.chunkPrefetchThreadCount = chunkPrefetchThreadCount;
+  }
+
+  public int getChunkPrefetchMaxCoalescedSizeInByte() {
+    return chunkPrefetchMaxCoalescedSizeInByte;
+  }
+
+  public void setChunkPrefetchMaxCoalescedSizeInByte(int chunkPrefetchMaxCoalescedSizeInByte) {
+    this.chunkPrefetchMaxCoalescedSizeInByte = chunkPrefetchMaxCoalescedSizeInByte;
+  }
+
+  public int getChunkPrefetchWindowSize() {
+    return chunkPrefetchWindowSize;
+  }
+
+  public void setChunkPrefetchWindowSize(int chunkPrefetchWindowSize) {
+    this.chunkPrefetchWindowSize = chunkPrefetchWindowSize;
+  }
+
+  public long[] getRollupTiers() {
+    return rollupTiers;
+  }
+
+  public void setRollupTiers(long[] rollupTiers) {
+    this.rollupTiers = rollupTiers;
+  }
+
+  public long getRollupCacheSizeInByte() {
+    return rollupCacheSizeInByte;
+  }
+
+  public void setRollupCacheSizeInByte(long rollupCacheSizeInByte) {
+    this.rollupCacheSizeInByte = rollupCacheSizeInByte;
+  }
+
+  public void setEnableDecompressedPageCache(boolean enableDecompressedPageCache) {
+    this.enableDecompressedPageCache = enableDecompressedPageCache;
+  }
+
+  public double getDecompressedPageCacheProportion() {
+    return decompressedPageCacheProportion;
+  }
+
+  public void setDecompressedPageCacheProportion(double decompressedPageCacheProportion) {
+    this.decompressedPageCacheProportion = decompressedPageCacheProportion;
+  }
+
+  public long getAllocateMemoryForDecompressedPageCache() {
+    return allocateMemoryForDecompressedPageCache;
+  }
+
+  public void setAllocateMemoryForDecompressedPageCache(
+      long allocateMemoryForDecompressedPageCache) {
+    this.allocateMemoryForDecompressedPageCache = allocateMemoryForDecompressedPageCache;
+  }
+
+  public int getModificationIndexCacheCapacity() {
+    return modificationIndexCacheCapacity;
+  }
+
+  public void setModificationIndexCacheCapacity(int modificationIndexCacheCapacity) {
+    this.modificationIndexCacheCapacity = modificationIndexCacheCapacity;
+  }
+
   public long getAllocateMemoryForCoordinator() {
     return allocateMemoryForCoordinator;
   }
@@ -2108,6 +2403,14 @@ public class IoTDBConfig {
     this.lastCacheEnable = lastCacheEnable;
   }
 
+  public boolean isEnableSeriesLastTimeIndex() {
+    return enableSeriesLastTimeIndex;
+  }
+
+  public void setEnableSeriesLastTimeIndex(boolean enableSeriesLastTimeIndex) {
+    this.enableSeriesLastTimeIndex = enableSeriesLastTimeIndex;
+  }
+
   public boolean isEnableWatermark() {
     return enableWatermark;
   }
@@ -2660,6 +2963,14 @@ public class IoTDBConfig {
     this.ioTaskQueueSizeForFlushing = ioTaskQueueSizeForFlushing;
   }
 
+  public int getFlushEncodingParallelism() {
+    return flushEncodingParallelism;
+  }
+
+  public void setFlushEncodingParallelism(int flushEncodingParallelism) {
+    this.flushEncodingParallelism = flushEncodingParallelism;
+  }
+
   public boolean isEnableSeqSpaceCompaction() {
     return enableSeqSpaceCompaction;
   }
@@ -2701,6 +3012,46 @@ public class IoTDBConfig {
     this.innerSequenceCompactionSelector = innerSequenceCompactionSelector;
   }
 
+  /** @return the strategy of inner sequence space compaction of the given database */
+  public InnerSequenceCompactionSelector getInnerSequenceCompactionSelector(String database) {
+    return innerSequenceCompactionSelectorOfDatabases.getOrDefault(
+        database, innerSequenceCompactionSelector);
+  }
+
+  public Map<String, InnerSequenceCompactionSelector>
+      getInnerSequenceCompactionSelectorOfDatabases() {
+    return innerSequenceCompactionSelectorOfDatabases;
+  }
+
+  public void setInnerSequenceCompactionSelectorOfDatabases(
+      Map<String, InnerSequenceCompactionSelector> innerSequenceCompactionSelectorOfDatabases) {
+    this.innerSequenceCompactionSelectorOfDatabases = innerSequenceCompactionSelectorOfDatabases;
+  }
+
+  public long getLeveledCompactionLevel1FileSize() {
+    return leveledCompactionLevel1FileSize;
+  }
+
+  public void setLeveledCompactionLevel1FileSize(long leveledCompactionLevel1FileSize) {
+    this.leveledCompactionLevel1FileSize = leveledCompactionLevel1FileSize;
+  }
+
+  public int getLeveledCompactionSizeRatio() {
+    return leveledCompactionSizeRatio;
+  }
+
+  public void setLeveledCompactionSizeRatio(int leveledCompactionSizeRatio) {
+    this.leveledCompactionSizeRatio = leveledCompactionSizeRatio;
+  }
+
+  public int getLeveledCompactionMaxFileNumPerLevel() {
+    return leveledCompactionMaxFileNumPerLevel;
+  }
+
+  public void setLeveledCompactionMaxFileNumPerLevel(int leveledCompactionMaxFileNumPerLevel) {
+    this.leveledCompactionMaxFileNumPerLevel = leveledCompactionMaxFileNumPerLevel;
+  }
+
   public InnerUnsequenceCompactionSelector getInnerUnsequenceCompactionSelector() {
     return innerUnsequenceCompactionSelector;
   }
@@ -2752,6 +3103,14 @@ public class IoTDBConfig {
     this.compactionPriority = compactionPriority;
   }
 
+  public boolean isEnableCompactionQueryHeatPriority() {
+    return enableCompactionQueryHeatPriority;
+  }
+
+  public void setEnableCompactionQueryHeatPriority(boolean enableCompactionQueryHeatPriority) {
+    this.enableCompactionQueryHeatPriority = enableCompactionQueryHeatPriority;
+  }
+
   public long getTargetCompactionFileSize() {
     return targetCompactionFileSize;
   }
@@ -3049,6 +3408,22 @@ public class IoTDBConfig {
     this.mppDataExchangeKeepAliveTimeInMs = mppDataExchangeKeepAliveTimeInMs;
   }
 
+  public boolean isEnableColumnarDataExchange() {
+    return enableColumnarDataExchange;
+  }
+
+  public void setEnableColumnarDataExchange(boolean enableColumnarDataExchange) {
+    this.enableColumnarDataExchange = enableColumnarDataExchange;
+  }
+
+  public boolean isEnableDataExchangeCompression() {
+    return enableDataExchangeCompression;
+  }
+
+  public void setEnableDataExchangeCompression(boolean enableDataExchangeCompression) {
+    this.enableDataExchangeCompression = enableDataExchangeCompression;
+  }
+
   public int getConnectionTimeoutInMS() {
     return connectionTimeoutInMS;
   }
@@ -3262,6 +3637,14 @@ public class IoTDBConfig {
     this.driverTaskExecutionTimeSliceInMs = driverTaskExecutionTimeSliceInMs;
   }
 
+  public boolean isEnableWorkStealingScheduler() {
+    return enableWorkStealingScheduler;
+  }
+
+  public void setEnableWorkStealingScheduler(boolean enableWorkStealingScheduler) {
+    this.enableWorkStealingScheduler = enableWorkStealingScheduler;
+  }
+
   public double getWriteProportionForMemtable() {
     return writeProportionForMemtable;
   }
@@ -3324,6 +3707,43 @@ public class IoTDBConfig {
     this.cacheWindowTimeInMs = cacheWindowTimeInMs;
   }
 
+  public int getIotConsensusSharedLogDispatcherThreadNum() {
+    return iotConsensusSharedLogDispatcherThreadNum;
+  }
+
+  public void setIotConsensusSharedLogDispatcherThreadNum(
+      int iotConsensusSharedLogDispatcherThreadNum) {
+    this.iotConsensusSharedLogDispatcherThreadNum = iotConsensusSharedLogDispatcherThreadNum;
+  }
+
+  public boolean isEnableIotConsensusBatchSyncAcrossRegions() {
+    return enableIotConsensusBatchSyncAcrossRegions;
+  }
+
+  public void setEnableIotConsensusBatchSyncAcrossRegions(
+      boolean enableIotConsensusBatchSyncAcrossRegions) {
+    this.enableIotConsensusBatchSyncAcrossRegions = enableIotConsensusBatchSyncAcrossRegions;
+  }
+
+  public int getIotConsensusBatchSyncInFlightRequestsPerRegion() {
+    return iotConsensusBatchSyncInFlightRequestsPerRegion;
+  }
+
+  public void setIotConsensusBatchSyncInFlightRequestsPerRegion(
+      int iotConsensusBatchSyncInFlightRequestsPerRegion) {
+    this.iotConsensusBatchSyncInFlightRequestsPerRegion =
+        iotConsensusBatchSyncInFlightRequestsPerRegion;
+  }
+
+  public long getIotConsensusBatchSyncMaxSizePerRequest() {
+    return iotConsensusBatchSyncMaxSizePerRequest;
+  }
+
+  public void setIotConsensusBatchSyncMaxSizePerRequest(
+      long iotConsensusBatchSyncMaxSizePerRequest) {
+    this.iotConsensusBatchSyncMaxSizePerRequest = iotConsensusBatchSyncMaxSizePerRequest;
+  }
+
   public long getDataRatisConsensusLogAppenderBufferSizeMax() {
     return dataRatisConsensusLogAppenderBufferSizeMax;
   }
@@ -3689,6 +4109,22 @@ public class IoTDBConfig {
     return modeMapSizeThreshold;
   }
 
+  public long getSortBufferSize() {
+    return sortBufferSize;
+  }
+
+  public void setSortBufferSize(long sortBufferSize) {
+    this.sortBufferSize = sortBufferSize;
+  }
+
+  public Set<String> getDisabledPlanOptimizers() {
+    return disabledPlanOptimizers;
+  }
+
+  public void setDisabledPlanOptimizers(Set<String> disabledPlanOptimizers) {
+    this.disabledPlanOptimizers = disabledPlanOptimizers;
+  }
+
   public void setPipeSubtaskExecutorMaxThreadNum(int pipeMaxThreadNum) {
     this.pipeMaxThreadNum = pipeMaxThreadNum;
   }
@@ -52,6 +52,7 @@ import org.apache.iotdb.metrics.utils.InternalReporterType;
 import org.apache.iotdb.metrics.utils.NodeType;
 import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
@@ -66,8 +67,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Properties;
 import java.util.ServiceLoader;
+import java.util.Set;
 
 public class IoTDBDescriptor {
 
@@ -413,6 +418,21 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "tvlist_sort_algorithm", conf.getTvListSortAlgorithm().toString())));
 
+    conf.setEnableOffHeapMemtable(
+        Boolean.parseBoolean(
+            properties
+                .getProperty(
+                    "enable_off_heap_memtable", Boolean.toString(conf.isEnableOffHeapMemtable()))
+                .trim()));
+
+    conf.setEnableCompactDeviceTimeIndex(
+        Boolean.parseBoolean(
+            properties
+                .getProperty(
+                    "enable_compact_device_time_index",
+                    Boolean.toString(conf.isEnableCompactDeviceTimeIndex()))
+                .trim()));
+
     conf.setAvgSeriesPointNumberThreshold(
         Integer.parseInt(
             properties.getProperty(
@@ -437,6 +457,15 @@ public class IoTDBDescriptor {
                 "io_task_queue_size_for_flushing",
                 Integer.toString(conf.getIoTaskQueueSizeForFlushing()))));
 
+    int flushEncodingParallelism =
+        Integer.parseInt(
+            properties.getProperty(
+                "flush_encoding_parallelism",
+                Integer.toString(conf.getFlushEncodingParallelism())));
+    if (flushEncodingParallelism > 0) {
+      conf.setFlushEncodingParallelism(flushEncodingParallelism);
+    }
+
     conf.setCompactionScheduleIntervalInMs(
         Long.parseLong(
             properties.getProperty(
@@ -477,6 +506,41 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "inner_seq_selector", conf.getInnerSequenceCompactionSelector().toString())));
 
+    String innerSeqSelectorOfDatabases =
+        properties.getProperty("inner_seq_selector_of_databases", "").trim();
+    if (!innerSeqSelectorOfDatabases.isEmpty()) {
+      Map<String, InnerSequenceCompactionSelector> selectors = new HashMap<>();
+      for (String databaseSelector : innerSeqSelectorOfDatabases.split(",")) {
+        // the database name contains '.' but no ':'
+        int separatorIndex = databaseSelector.lastIndexOf(':');
+        if (separatorIndex < 0) {
+          throw new IllegalArgumentException(
+              "Illegal inner_seq_selector_of_databases " + innerSeqSelectorOfDatabases);
+        }
+        selectors.put(
+            databaseSelector.substring(0, separatorIndex).trim(),
+            InnerSequenceCompactionSelector.getInnerSequenceCompactionSelector(
+                databaseSelector.substring(separatorIndex + 1).trim()));
+      }
+      conf.setInnerSequenceCompactionSelectorOfDatabases(selectors);
+    }
+
+    conf.setLeveledCompactionLevel1FileSize(
+        Long.parseLong(
+            properties.getProperty(
+                "leveled_compaction_level1_file_size",
+                Long.toString(conf.getLeveledCompactionLevel1FileSize()))));
+    conf.setLeveledCompactionSizeRatio(
+        Integer.parseInt(
+            properties.getProperty(
+                "leveled_compaction_size_ratio",
+                Integer.toString(conf.getLeveledCompactionSizeRatio()))));
+    conf.setLeveledCompactionMaxFileNumPerLevel(
+        Integer.parseInt(
+            properties.getProperty(
+                "leveled_compaction_max_file_num_per_level",
+                Integer.toString(conf.getLeveledCompactionMaxFileNumPerLevel()))));
+
     conf.setInnerUnsequenceCompactionSelector(
         InnerUnsequenceCompactionSelector.getInnerUnsequenceCompactionSelector(
             properties.getProperty(
@@ -502,6 +566,12 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "compaction_priority", conf.getCompactionPriority().toString())));
 
+    conf.setEnableCompactionQueryHeatPriority(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_compaction_query_heat_priority",
+                Boolean.toString(conf.isEnableCompactionQueryHeatPriority()))));
+
     int subtaskNum =
         Integer.parseInt(
             properties.getProperty(
@@ -578,6 +648,18 @@ public class IoTDBDescriptor {
       conf.setDegreeOfParallelism(Runtime.getRuntime().availableProcessors() / 2);
     }
 
+    conf.setMaxAggregationScanSplitNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_aggregation_scan_split_num",
+                Integer.toString(conf.getMaxAggregationScanSplitNum()))));
+
+    conf.setMinAggregationScanSplitTimeRange(
+        Long.parseLong(
+            properties.getProperty(
+                "min_aggregation_scan_split_time_range",
+                Long.toString(conf.getMinAggregationScanSplitTimeRange()))));
+
     conf.setModeMapSizeThreshold(
         Integer.parseInt(
             properties.getProperty(
@@ -587,6 +669,22 @@ public class IoTDBDescriptor {
       conf.setModeMapSizeThreshold(10000);
     }
 
+    conf.setSortBufferSize(
+        Long.parseLong(
+            properties.getProperty(
+                "sort_buffer_size_in_bytes", Long.toString(conf.getSortBufferSize()))));
+
+    String disabledPlanOptimizers = properties.getProperty("disabled_plan_optimizers");
+    if (disabledPlanOptimizers != null) {
+      Set<String> optimizerNames = new HashSet<>();
+      for (String optimizerName : disabledPlanOptimizers.split(",")) {
+        if (!optimizerName.trim().isEmpty()) {
+          optimizerNames.add(optimizerName.trim());
+        }
+      }
+      conf.setDisabledPlanOptimizers(optimizerNames);
+    }
+
     conf.setMaxAllowedConcurrentQueries(
         Integer.parseInt(
             properties.getProperty(
@@ -872,6 +970,12 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "enable_last_cache", Boolean.toString(conf.isLastCacheEnabled()))));
 
+    conf.setEnableSeriesLastTimeIndex(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_series_last_time_index",
+                Boolean.toString(conf.isEnableSeriesLastTimeIndex()))));
+
     if (conf.getSchemaEngineMode().equals("Rocksdb_based")) {
       conf.setEnableLastCache(false);
     }
@@ -1079,6 +1183,18 @@ public class IoTDBDescriptor {
       conf.setWalBufferQueueCapacity(walBufferQueueCapacity);
     }
 
+    conf.setWalCompressionType(
+        CompressionType.valueOf(
+            properties
+                .getProperty("wal_compression_type", conf.getWalCompressionType().toString())
+                .trim()));
+
+    conf.setEnableWALParallelSerialization(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_wal_parallel_serialization",
+                Boolean.toString(conf.isEnableWALParallelSerialization()))));
+
     loadWALHotModifiedProps(properties);
   }
 
@@ -1153,6 +1269,43 @@ public class IoTDBDescriptor {
     if (cacheWindowInMs > 0) {
       conf.setCacheWindowTimeInMs(cacheWindowInMs);
     }
+
+    int sharedLogDispatcherThreadNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "iot_consensus_shared_log_dispatcher_thread_num",
+                Integer.toString(conf.getIotConsensusSharedLogDispatcherThreadNum())));
+    if (sharedLogDispatcherThreadNum >= 0) {
+      conf.setIotConsensusSharedLogDispatcherThreadNum(sharedLogDispatcherThreadNum);
+    }
+
+    conf.setEnableIotConsensusBatchSyncAcrossRegions(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "iot_consensus_enable_batch_sync_across_regions",
+                Boolean.toString(conf.isEnableIotConsensusBatchSyncAcrossRegions()))));
+
+    int batchSyncInFlightRequestsPerRegion =
+        Integer.parseInt(
+            properties
+                .getProperty(
+                    "iot_consensus_batch_sync_in_flight_requests_per_region",
+                    Integer.toString(conf.getIotConsensusBatchSyncInFlightRequestsPerRegion()))
+                .trim());
+    if (batchSyncInFlightRequestsPerRegion > 0) {
+      conf.setIotConsensusBatchSyncInFlightRequestsPerRegion(batchSyncInFlightRequestsPerRegion);
+    }
+
+    long batchSyncMaxSizePerRequest =
+        Long.parseLong(
+            properties
+                .getProperty(
+                    "iot_consensus_batch_sync_max_size_per_request",
+                    Long.toString(conf.getIotConsensusBatchSyncMaxSizePerRequest()))
+                .trim());
+    if (batchSyncMaxSizePerRequest > 0) {
+      conf.setIotConsensusBatchSyncMaxSizePerRequest(batchSyncMaxSizePerRequest);
+    }
   }
 
   private void loadAutoCreateSchemaProps(Properties properties) {
@@ -1617,14 +1770,108 @@ public class IoTDBDescriptor {
       }
     }
 
+    long mmapTsFileMaxSizeInByte =
+        Long.parseLong(
+            properties
+                .getProperty(
+                    "mmap_tsfile_max_size_in_byte",
+                    Long.toString(conf.getMmapTsFileMaxSizeInByte()))
+                .trim());
+    if (mmapTsFileMaxSizeInByte >= 0 && mmapTsFileMaxSizeInByte <= Integer.MAX_VALUE) {
+      conf.setMmapTsFileMaxSizeInByte(mmapTsFileMaxSizeInByte);
+    }
+
+    conf.setEnableChunkPrefetch(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_chunk_prefetch", Boolean.toString(conf.isEnableChunkPrefetch()))));
+    int chunkPrefetchThreadCount =
+        Integer.parseInt(
+            properties
+                .getProperty(
+                    "chunk_prefetch_thread_count",
+                    Integer.toString(conf.getChunkPrefetchThreadCount()))
+                .trim());
+    if (chunkPrefetchThreadCount > 0) {
+      conf.setChunkPrefetchThreadCount(chunkPrefetchThreadCount);
+    }
+    int chunkPrefetchMaxCoalescedSize =
+        Integer.parseInt(
+            properties
+                .getProperty(
+                    "chunk_prefetch_max_coalesced_size_in_byte",
+                    Integer.toString(conf.getChunkPrefetchMaxCoalescedSizeInByte()))
+                .trim());
+    if (chunkPrefetchMaxCoalescedSize >= 0) {
+      conf.setChunkPrefetchMaxCoalescedSizeInByte(chunkPrefetchMaxCoalescedSize);
+    }
+    int chunkPrefetchWindowSize =
+        Integer.parseInt(
+            properties
+                .getProperty(
+                    "chunk_prefetch_window_size",
+                    Integer.toString(conf.getChunkPrefetchWindowSize()))
+                .trim());
+    if (chunkPrefetchWindowSize > 0) {
+      conf.setChunkPrefetchWindowSize(chunkPrefetchWindowSize);
+    }
+
+    String rollupTiers = properties.getProperty("rollup_tiers");
+    if (rollupTiers != null) {
+      conf.setRollupTiers(parseRollupTiers(rollupTiers));
+    }
+    long rollupCacheSize =
+        Long.parseLong(
+            properties
+                .getProperty(
+                    "rollup_cache_size_in_byte", Long.toString(conf.getRollupCacheSizeInByte()))
+                .trim());
+    if (rollupCacheSize >= 0) {
+      conf.setRollupCacheSizeInByte(rollupCacheSize);
+    }
+
+    // decompressed page cache takes its memory from chunk cache
+    conf.setEnableDecompressedPageCache(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_decompressed_page_cache",
+                Boolean.toString(conf.isEnableDecompressedPageCache()))));
+    conf.setDecompressedPageCacheProportion(
+        Double.parseDouble(
+            properties.getProperty(
+                "decompressed_page_cache_proportion",
+                Double.toString(conf.getDecompressedPageCacheProportion()))));
+    if (conf.isEnableDecompressedPageCache()) {
+      if (conf.getDecompressedPageCacheProportion() <= 0
+          || conf.getDecompressedPageCacheProportion() >= 1) {
+        throw new RuntimeException(
+            "decompressed_page_cache_proportion should be in (0, 1), which is "
+                + conf.getDecompressedPageCacheProportion());
+      }
+      long memoryForDecompressedPageCache =
+          (long)
+              (conf.getAllocateMemoryForChunkCache() * conf.getDecompressedPageCacheProportion());
+      conf.setAllocateMemoryForDecompressedPageCache(memoryForDecompressedPageCache);
+      conf.setAllocateMemoryForChunkCache(
+          conf.getAllocateMemoryForChunkCache() - memoryForDecompressedPageCache);
+    }
+
+    conf.setModificationIndexCacheCapacity(
+        Integer.parseInt(
+            properties.getProperty(
+                "modification_index_cache_capacity",
+                Integer.toString(conf.getModificationIndexCacheCapacity()))));
+
     // metadata cache is disabled, we need to move all their allocated memory to other parts
     if (!conf.isMetaDataCacheEnable()) {
       long sum =
           conf.getAllocateMemoryForBloomFilterCache()
               + conf.getAllocateMemoryForChunkCache()
+              + conf.getAllocateMemoryForDecompressedPageCache()
               + conf.getAllocateMemoryForTimeSeriesMetaDataCache();
       conf.setAllocateMemoryForBloomFilterCache(0);
       conf.setAllocateMemoryForChunkCache(0);
+      conf.setAllocateMemoryForDecompressedPageCache(0);
       conf.setAllocateMemoryForTimeSeriesMetaDataCache(0);
       long partForDataExchange = sum / 2;
       long partForOperators = sum - partForDataExchange;
@@ -1634,6 +1881,26 @@ public class IoTDBDescriptor {
     }
   }
 
+  /** @return the tiers, or no tier if any of them is not a multiple of the previous one */
+  private long[] parseRollupTiers(String rollupTiers) {
+    if (rollupTiers.trim().isEmpty()) {
+      return new long[0];
+    }
+    String[] split = rollupTiers.split(",");
+    long[] tiers = new long[split.length];
+    for (int i = 0; i < split.length; i++) {
+      tiers[i] = Long.parseLong(split[i].trim());
+      if (tiers[i] <= 0 || (i > 0 && (tiers[i] <= tiers[i - 1] || tiers[i] % tiers[i - 1] != 0))) {
+        logger.warn(
+            "Illegal rollup_tiers {}, each tier should be a multiple of the previous one, "
+                + "rollup is disabled",
+            rollupTiers);
+        return new long[0];
+      }
+    }
+    return tiers;
+  }
+
   private void initStorageEngineAllocate(Properties properties) {
     String allocationRatio = properties.getProperty("storage_engine_memory_proportion", "8:2");
     String[] proportions = allocationRatio.split(":");
@@ -1896,6 +2163,16 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "mpp_data_exchange_keep_alive_time_in_ms",
                 Integer.toString(conf.getMppDataExchangeKeepAliveTimeInMs()))));
+    conf.setEnableColumnarDataExchange(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_columnar_data_exchange",
+                Boolean.toString(conf.isEnableColumnarDataExchange()))));
+    conf.setEnableDataExchangeCompression(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_data_exchange_compression",
+                Boolean.toString(conf.isEnableDataExchangeCompression()))));
 
     conf.setPartitionCacheSize(
         Integer.parseInt(
@@ -1907,6 +2184,12 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "driver_task_execution_time_slice_in_ms",
                 Integer.toString(conf.getDriverTaskExecutionTimeSliceInMs()))));
+
+    conf.setEnableWorkStealingScheduler(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_work_stealing_scheduler",
+                Boolean.toString(conf.isEnableWorkStealingScheduler()))));
   }
 
   /** Get default encode algorithm by data type */
@@ -97,6 +97,14 @@ public class DataRegionConsensusImpl {
                                       .setWalThrottleThreshold(conf.getThrottleThreshold())
                                       .setAllocateMemoryForConsensus(
                                           conf.getAllocateMemoryForConsensus())
+                                      .setSharedLogDispatcherThreadNum(
+                                          conf.getIotConsensusSharedLogDispatcherThreadNum())
+                                      .setEnableBatchSyncAcrossRegions(
+                                          conf.isEnableIotConsensusBatchSyncAcrossRegions())
+                                      .setBatchSyncInFlightRequestsPerRegion(
+                                          conf.getIotConsensusBatchSyncInFlightRequestsPerRegion())
+                                      .setBatchSyncMaxSizePerRequest(
+                                          conf.getIotConsensusBatchSyncMaxSizePerRequest())
                                       .build())
                               .build())
                       .setRatisConfig(
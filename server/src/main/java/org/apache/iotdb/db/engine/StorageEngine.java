@@ -39,6 +39,7 @@ import org.apache.iotdb.db.consensus.statemachine.visitor.DataExecutionVisitor;
 import org.apache.iotdb.db.engine.cache.BloomFilterCache;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
+import org.apache.iotdb.db.engine.compaction.schedule.QueryHeatRecorder;
 import org.apache.iotdb.db.engine.flush.CloseFileListener;
 import org.apache.iotdb.db.engine.flush.FlushListener;
 import org.apache.iotdb.db.engine.flush.TsFileFlushPolicy;
@@ -56,6 +57,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.load.LoadTsFilePieceNode;
 import org.apache.iotdb.db.mpp.plan.scheduler.load.LoadTsFileScheduler;
 import org.apache.iotdb.db.rescon.SystemInfo;
+import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsManager;
 import org.apache.iotdb.db.service.metrics.recorder.WritingMetricsManager;
 import org.apache.iotdb.db.sync.SyncService;
 import org.apache.iotdb.db.utils.ThreadUtils;
@@ -688,6 +690,13 @@ public class StorageEngine implements IService {
           }
         }
         SyncService.getInstance().unregisterDataRegion(region.getDataRegionId());
+        QueryHeatRecorder.getInstance()
+            .removeDataRegion(region.getDatabaseName() + "-" + region.getDataRegionId());
+        if (dataRegionMap.values().stream()
+            .noneMatch(
+                dataRegion -> dataRegion.getDatabaseName().equals(region.getDatabaseName()))) {
+          CompactionMetricsManager.getInstance().removeWriteAmplification(region.getDatabaseName());
+        }
       } catch (Exception e) {
         logger.error(
             "Error occurs when deleting data region {}-{}",
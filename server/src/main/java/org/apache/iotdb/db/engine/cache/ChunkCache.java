@@ -94,7 +94,8 @@ public class ChunkCache {
                 });
 
     // add metrics
-    MetricService.getInstance().addMetricSet(new ChunkCacheMetrics(this));
+    MetricService.getInstance()
+        .addMetricSet(new ChunkCacheMetrics(this, DecompressedPageCache.getInstance()));
   }
 
   public double getHitRate() {
@@ -130,11 +131,17 @@ public class ChunkCache {
         DEBUG_LOGGER.info("get chunk from cache whose meta data is: {}", chunkMetaData);
       }
 
-      return new Chunk(
-          chunk.getHeader(),
-          chunk.getData().duplicate(),
-          chunkMetaData.getDeleteIntervalList(),
-          chunkMetaData.getStatistics());
+      Chunk result =
+          new Chunk(
+              chunk.getHeader(),
+              chunk.getData().duplicate(),
+              chunkMetaData.getDeleteIntervalList(),
+              chunkMetaData.getStatistics());
+      if (DecompressedPageCache.isEnable()) {
+        result.setDecompressedPageCache(
+            DecompressedPageCache.getInstance().getChunkPages(chunkMetaData));
+      }
+      return result;
     } finally {
       QUERY_METRICS.recordSeriesScanCost(READ_CHUNK_ALL, System.nanoTime() - startTime);
     }
@@ -160,14 +167,28 @@ public class ChunkCache {
     return entryAverageSize.get();
   }
 
-  /** clear LRUCache. */
+  /** clear LRUCache, together with the decompressed pages of the cached chunks. */
   public void clear() {
     lruCache.invalidateAll();
     lruCache.cleanUp();
+    DecompressedPageCache.getInstance().clear();
+  }
+
+  /** Whether the chunk is cached, without counting a hit or miss. */
+  boolean contains(ChunkMetadata chunkMetaData) {
+    return lruCache.asMap().containsKey(chunkMetaData);
+  }
+
+  /** Cache a chunk read by {@link ChunkReadScheduler}. */
+  void put(ChunkMetadata chunkMetaData, Chunk chunk) {
+    lruCache.put(chunkMetaData, chunk);
   }
 
   public void remove(ChunkMetadata chunkMetaData) {
     lruCache.invalidate(chunkMetaData);
+    if (DecompressedPageCache.isEnable()) {
+      DecompressedPageCache.getInstance().remove(chunkMetaData);
+    }
   }
 
   @TestOnly
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.mpp.metric.SeriesScanCostMetricSet.READ_CHUNK_FILE;
+
+/**
+ * This class reads the chunks of sealed TsFiles into {@link ChunkCache} ahead of the series scans
+ * on a dedicated IO pool, so that the scans do not block the driver threads on disk reads one chunk
+ * after another.
+ *
+ * <p>The requests are queued by TsFile until the IO task of the file starts, so the chunks
+ * requested meanwhile by concurrent scans are batched. They are sorted by offset, and the chunks
+ * close to each other are read by one request of the file range covering them.
+ *
+ * <p>Prefetching is only a hint. A chunk failed to be read is left to the scan, which reads it
+ * synchronously and reports the error. A request cancelled before the IO task of its file starts is
+ * not read at all. The IO task holds a reference of the reader of the file while reading, so that
+ * the reader is not closed under it when the query ends meanwhile.
+ */
+public class ChunkReadScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChunkReadScheduler.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final QueryMetricsManager QUERY_METRICS = QueryMetricsManager.getInstance();
+
+  private final ExecutorService ioPool;
+  private final long maxCoalescedSize;
+
+  /** requests of each TsFile whose IO task has not started yet */
+  private final Map<String, List<ReadRequest>> pendingRequests = new ConcurrentHashMap<>();
+
+  private ChunkReadScheduler() {
+    this(config.getChunkPrefetchThreadCount(), config.getChunkPrefetchMaxCoalescedSizeInByte());
+  }
+
+  @TestOnly
+  ChunkReadScheduler(int threadCount, long maxCoalescedSize) {
+    ioPool =
+        IoTDBThreadPoolFactory.newFixedThreadPool(threadCount, ThreadName.CHUNK_PREFETCH.getName());
+    this.maxCoalescedSize = maxCoalescedSize;
+  }
+
+  @TestOnly
+  void shutdown() {
+    ioPool.shutdownNow();
+  }
+
+  public static ChunkReadScheduler getInstance() {
+    return ChunkReadSchedulerHolder.INSTANCE;
+  }
+
+  public static boolean isEnable() {
+    return config.isMetaDataCacheEnable() && config.isEnableChunkPrefetch();
+  }
+
+  /**
+   * Read the given chunks of a sealed TsFile into {@link ChunkCache} asynchronously. The cached
+   * chunks are ignored.
+   *
+   * @return future done when all the chunks are read or failed to be read, which may be cancelled
+   *     if the chunks are no longer needed
+   */
+  public ListenableFuture<?> prefetch(
+      TsFileResource tsFile, List<ChunkMetadata> chunkMetadataList) {
+    List<ChunkMetadata> chunksToRead = new ArrayList<>(chunkMetadataList.size());
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      if (!ChunkCache.getInstance().contains(chunkMetadata)) {
+        chunksToRead.add(chunkMetadata);
+      }
+    }
+    if (chunksToRead.isEmpty()) {
+      return Futures.immediateVoidFuture();
+    }
+
+    ReadRequest request = new ReadRequest(tsFile, chunksToRead);
+    pendingRequests.compute(
+        tsFile.getTsFilePath(),
+        (filePath, requests) -> {
+          if (requests == null) {
+            requests = new ArrayList<>();
+            ioPool.submit(() -> readChunks(filePath));
+          }
+          requests.add(request);
+          return requests;
+        });
+    return request.future;
+  }
+
+  private void readChunks(String filePath) {
+    List<ReadRequest> requests = pendingRequests.remove(filePath);
+    if (requests == null) {
+      return;
+    }
+    requests.removeIf(request -> request.future.isCancelled());
+    if (requests.isEmpty()) {
+      return;
+    }
+    TsFileResource tsFile = requests.get(0).tsFile;
+    FileReaderManager.getInstance().increaseFileReaderReference(tsFile, true);
+    try {
+      if (tsFile.isDeleted()) {
+        return;
+      }
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      for (ReadRequest request : requests) {
+        chunkMetadataList.addAll(request.chunkMetadataList);
+      }
+      chunkMetadataList.sort(Comparator.comparingLong(ChunkMetadata::getOffsetOfChunkHeader));
+
+      TsFileSequenceReader reader = FileReaderManager.getInstance().get(filePath, true);
+      List<ChunkMetadata> range = new ArrayList<>();
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        if (!range.isEmpty()) {
+          long rangeStart = range.get(0).getOffsetOfChunkHeader();
+          long lastOffset = range.get(range.size() - 1).getOffsetOfChunkHeader();
+          if (chunkMetadata.getOffsetOfChunkHeader() == lastOffset) {
+            // requested by several scans
+            continue;
+          }
+          if (chunkMetadata.getOffsetOfChunkHeader() - rangeStart > maxCoalescedSize) {
+            readRange(reader, range);
+            range.clear();
+          }
+        }
+        if (!ChunkCache.getInstance().contains(chunkMetadata)) {
+          range.add(chunkMetadata);
+        }
+      }
+      if (!range.isEmpty()) {
+        readRange(reader, range);
+      }
+    } catch (IOException e) {
+      logger.warn("Failed to prefetch chunks of {}", filePath, e);
+    } finally {
+      FileReaderManager.getInstance().decreaseFileReaderReference(tsFile, true);
+      for (ReadRequest request : requests) {
+        request.future.set(null);
+      }
+    }
+  }
+
+  private void readRange(TsFileSequenceReader reader, List<ChunkMetadata> range) {
+    long startTime = System.nanoTime();
+    try {
+      List<Chunk> chunks =
+          range.size() == 1
+              ? Collections.singletonList(reader.readMemChunk(range.get(0)))
+              : reader.readMemChunks(range);
+      for (int i = 0; i < range.size(); i++) {
+        ChunkCache.getInstance().put(range.get(i), chunks.get(i));
+      }
+    } catch (IOException e) {
+      logger.warn("Failed to prefetch {} chunks of {}", range.size(), reader.getFileName(), e);
+    } finally {
+      QUERY_METRICS.recordSeriesScanCost(READ_CHUNK_FILE, System.nanoTime() - startTime);
+    }
+  }
+
+  private static class ReadRequest {
+
+    private final TsFileResource tsFile;
+    private final List<ChunkMetadata> chunkMetadataList;
+    private final SettableFuture<Void> future = SettableFuture.create();
+
+    private ReadRequest(TsFileResource tsFile, List<ChunkMetadata> chunkMetadataList) {
+      this.tsFile = tsFile;
+      this.chunkMetadataList = chunkMetadataList;
+    }
+  }
+
+  /** singleton pattern. */
+  private static class ChunkReadSchedulerHolder {
+
+    private static final ChunkReadScheduler INSTANCE = new ChunkReadScheduler();
+  }
+}
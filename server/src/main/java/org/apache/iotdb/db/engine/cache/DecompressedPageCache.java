@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.reader.IDecompressedPageCache;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class is used to cache the decompressed pages of the chunks in {@link ChunkCache}, so that
+ * hot chunks are not decompressed again by every query. The caching strategy is LRU.
+ *
+ * <p>Deletions do not change the page data, they are applied by the page readers according to the
+ * delete intervals of the chunk metadata. So the pages only have to be invalidated when the TsFile
+ * itself is removed, e.g. after compaction.
+ *
+ * <p>The cached page offsets are also indexed by file and chunk, so that the pages of a chunk or a
+ * file are invalidated without scanning the whole cache. The recently removed files are remembered,
+ * so that the queries still reading them can't cache their pages again.
+ */
+public class DecompressedPageCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(DecompressedPageCache.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MEMORY_THRESHOLD_IN_DECOMPRESSED_PAGE_CACHE =
+      config.getAllocateMemoryForDecompressedPageCache();
+  private static final boolean CACHE_ENABLE =
+      config.isMetaDataCacheEnable() && config.isEnableDecompressedPageCache();
+
+  // number of the removed files remembered, the older ones may be cached again until evicted
+  private static final int REMOVED_FILE_NUM = 10_000;
+
+  private static final long KEY_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(PageKey.class)
+          + RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+
+  private final long maxMemory;
+
+  private final Cache<PageKey, byte[]> lruCache;
+
+  // file path -> chunk offset -> page offsets in lruCache
+  private final Map<String, Map<Long, Set<Integer>>> pageOffsetsOfFiles = new ConcurrentHashMap<>();
+
+  private final Cache<String, Boolean> removedFiles =
+      Caffeine.newBuilder().maximumSize(REMOVED_FILE_NUM).build();
+
+  private DecompressedPageCache() {
+    this(MEMORY_THRESHOLD_IN_DECOMPRESSED_PAGE_CACHE);
+    if (CACHE_ENABLE) {
+      logger.info("DecompressedPageCache size = {}", MEMORY_THRESHOLD_IN_DECOMPRESSED_PAGE_CACHE);
+    }
+  }
+
+  @TestOnly
+  DecompressedPageCache(long maxMemory) {
+    this.maxMemory = maxMemory;
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(maxMemory)
+            .weigher(
+                (Weigher<PageKey, byte[]>)
+                    (pageKey, pageData) -> (int) (KEY_SIZE + RamUsageEstimator.sizeOf(pageData)))
+            .removalListener(
+                (PageKey pageKey, byte[] pageData, RemovalCause cause) -> {
+                  if (pageKey != null && cause != RemovalCause.REPLACED) {
+                    unindex(pageKey);
+                  }
+                })
+            // keep the index in step with the cache
+            .executor(Runnable::run)
+            .recordStats()
+            .build();
+  }
+
+  public static DecompressedPageCache getInstance() {
+    return DecompressedPageCacheHolder.INSTANCE;
+  }
+
+  public static boolean isEnable() {
+    return CACHE_ENABLE;
+  }
+
+  /** @return the decompressed pages of the given chunk, which share the memory of this cache */
+  public IDecompressedPageCache getChunkPages(ChunkMetadata chunkMetadata) {
+    return new ChunkPages(chunkMetadata.getFilePath(), chunkMetadata.getOffsetOfChunkHeader());
+  }
+
+  public double getHitRate() {
+    return lruCache.stats().hitRate() * 100;
+  }
+
+  public long getEvictionCount() {
+    return lruCache.stats().evictionCount();
+  }
+
+  public long getMaxMemory() {
+    return maxMemory;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+    pageOffsetsOfFiles.clear();
+    removedFiles.invalidateAll();
+  }
+
+  public void remove(ChunkMetadata chunkMetadata) {
+    String filePath = chunkMetadata.getFilePath();
+    long chunkOffset = chunkMetadata.getOffsetOfChunkHeader();
+    Map<Long, Set<Integer>> pageOffsetsOfChunks = pageOffsetsOfFiles.get(filePath);
+    if (pageOffsetsOfChunks == null) {
+      return;
+    }
+    Set<Integer> pageOffsets = pageOffsetsOfChunks.get(chunkOffset);
+    if (pageOffsets != null) {
+      invalidate(filePath, chunkOffset, pageOffsets);
+    }
+  }
+
+  /** remove all the pages of the given TsFile, should be called once the file is deleted. */
+  public void remove(String filePath) {
+    // the pages are not indexed or cached anymore after this, see ChunkPages.put()
+    removedFiles.put(filePath, Boolean.TRUE);
+    Map<Long, Set<Integer>> pageOffsetsOfChunks = pageOffsetsOfFiles.remove(filePath);
+    if (pageOffsetsOfChunks == null) {
+      return;
+    }
+    for (Map.Entry<Long, Set<Integer>> entry : pageOffsetsOfChunks.entrySet()) {
+      invalidate(filePath, entry.getKey(), entry.getValue());
+    }
+  }
+
+  private void invalidate(String filePath, long chunkOffset, Set<Integer> pageOffsets) {
+    // the page offsets are unindexed by the removal listener, so iterate over a copy
+    for (Integer pageOffset : pageOffsets.toArray(new Integer[0])) {
+      PageKey pageKey = new PageKey(filePath, chunkOffset, pageOffset);
+      lruCache.invalidate(pageKey);
+      // in case the page is not in the cache anymore
+      unindex(pageKey);
+    }
+  }
+
+  /** @return false if the file of the page is removed, then the page is not indexed */
+  private boolean index(PageKey pageKey) {
+    Map<Long, Set<Integer>> indexed =
+        pageOffsetsOfFiles.compute(
+            pageKey.filePath,
+            (filePath, pageOffsetsOfChunks) -> {
+              if (removedFiles.getIfPresent(filePath) != null) {
+                return pageOffsetsOfChunks;
+              }
+              if (pageOffsetsOfChunks == null) {
+                pageOffsetsOfChunks = new ConcurrentHashMap<>();
+              }
+              pageOffsetsOfChunks
+                  .computeIfAbsent(pageKey.chunkOffset, k -> ConcurrentHashMap.newKeySet())
+                  .add(pageKey.pageOffset);
+              return pageOffsetsOfChunks;
+            });
+    return indexed != null && isIndexed(pageKey, indexed);
+  }
+
+  private boolean isIndexed(PageKey pageKey) {
+    Map<Long, Set<Integer>> pageOffsetsOfChunks = pageOffsetsOfFiles.get(pageKey.filePath);
+    return pageOffsetsOfChunks != null && isIndexed(pageKey, pageOffsetsOfChunks);
+  }
+
+  private boolean isIndexed(PageKey pageKey, Map<Long, Set<Integer>> pageOffsetsOfChunks) {
+    Set<Integer> pageOffsets = pageOffsetsOfChunks.get(pageKey.chunkOffset);
+    return pageOffsets != null && pageOffsets.contains(pageKey.pageOffset);
+  }
+
+  private void unindex(PageKey pageKey) {
+    pageOffsetsOfFiles.computeIfPresent(
+        pageKey.filePath,
+        (filePath, pageOffsetsOfChunks) -> {
+          pageOffsetsOfChunks.computeIfPresent(
+              pageKey.chunkOffset,
+              (chunkOffset, pageOffsets) -> {
+                pageOffsets.remove(pageKey.pageOffset);
+                return pageOffsets.isEmpty() ? null : pageOffsets;
+              });
+          return pageOffsetsOfChunks.isEmpty() ? null : pageOffsetsOfChunks;
+        });
+  }
+
+  @TestOnly
+  public boolean isEmpty() {
+    return lruCache.asMap().isEmpty() && pageOffsetsOfFiles.isEmpty();
+  }
+
+  @TestOnly
+  long getIndexedPageNum() {
+    return pageOffsetsOfFiles.values().stream()
+        .flatMap(pageOffsetsOfChunks -> pageOffsetsOfChunks.values().stream())
+        .mapToLong(Set::size)
+        .sum();
+  }
+
+  private class ChunkPages implements IDecompressedPageCache {
+
+    private final String filePath;
+    private final long chunkOffset;
+
+    private ChunkPages(String filePath, long chunkOffset) {
+      this.filePath = filePath;
+      this.chunkOffset = chunkOffset;
+    }
+
+    @Override
+    public byte[] get(int pageOffset) {
+      return lruCache.getIfPresent(new PageKey(filePath, chunkOffset, pageOffset));
+    }
+
+    @Override
+    public void put(int pageOffset, byte[] decompressedPageData) {
+      PageKey pageKey = new PageKey(filePath, chunkOffset, pageOffset);
+      // index before caching, so that an eviction right after putting is unindexed too
+      if (!index(pageKey)) {
+        // the file is removed
+        return;
+      }
+      lruCache.put(pageKey, decompressedPageData);
+      // The file may be removed between indexing and caching, which unindexes the page but can't
+      // invalidate it yet. Caching inside the index update is not an option, because the removal
+      // listener of lruCache updates the index too, so the index is checked again instead.
+      if (!isIndexed(pageKey)) {
+        lruCache.invalidate(pageKey);
+      }
+    }
+  }
+
+  private static class PageKey {
+
+    private final String filePath;
+    private final long chunkOffset;
+    private final int pageOffset;
+
+    private PageKey(String filePath, long chunkOffset, int pageOffset) {
+      this.filePath = filePath;
+      this.chunkOffset = chunkOffset;
+      this.pageOffset = pageOffset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      PageKey that = (PageKey) o;
+      return chunkOffset == that.chunkOffset
+          && pageOffset == that.pageOffset
+          && filePath.equals(that.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filePath, chunkOffset, pageOffset);
+    }
+  }
+
+  /** singleton pattern. */
+  private static class DecompressedPageCacheHolder {
+
+    private static final DecompressedPageCache INSTANCE = new DecompressedPageCache();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.modification.ModificationIndex;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is used to cache the {@link ModificationIndex} of mods files, so that the queries on a
+ * TsFile with lots of deletions don't read and index its mods file again and again. The caching
+ * strategy is LRU, weighted by the number of modifications plus the max number of merged deletions
+ * that the index caches for the queried timeseries.
+ *
+ * <p>A cached index is reused only if the size of the mods file is not changed since it was built,
+ * as the mods file is append only. The index is also invalidated when the mods file is written or
+ * removed.
+ */
+public class ModificationIndexCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(ModificationIndexCache.class);
+
+  private final Cache<String, ModificationIndex> lruCache;
+
+  private ModificationIndexCache() {
+    this(IoTDBDescriptor.getInstance().getConfig().getModificationIndexCacheCapacity());
+  }
+
+  @TestOnly
+  ModificationIndexCache(int capacity) {
+    logger.info("ModificationIndexCache capacity = {}", capacity);
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(capacity)
+            .weigher((Weigher<String, ModificationIndex>) (filePath, index) -> index.getWeight())
+            .recordStats()
+            .build();
+  }
+
+  public static ModificationIndexCache getInstance() {
+    return ModificationIndexCacheHolder.INSTANCE;
+  }
+
+  /** @return the index of the current content of the mods file */
+  public ModificationIndex get(ModificationFile modFile) {
+    long fileSize = modFile.getSize();
+    ModificationIndex index = lruCache.getIfPresent(modFile.getFilePath());
+    if (index == null || index.getFileSize() != fileSize) {
+      index = new ModificationIndex(modFile.getModifications(), fileSize);
+      lruCache.put(modFile.getFilePath(), index);
+    }
+    return index;
+  }
+
+  public void invalidate(String modFilePath) {
+    lruCache.invalidate(modFilePath);
+  }
+
+  public double getHitRate() {
+    return lruCache.stats().hitRate() * 100;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  @TestOnly
+  public boolean isEmpty() {
+    return lruCache.asMap().isEmpty();
+  }
+
+  /** singleton pattern. */
+  private static class ModificationIndexCacheHolder {
+
+    private static final ModificationIndexCache INSTANCE = new ModificationIndexCache();
+  }
+}
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.engine.compaction.execute.task;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.db.engine.compaction.execute.performer.ICompactionPerformer;
 import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.engine.compaction.schedule.QueryHeatRecorder;
 import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
 import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsManager;
 
@@ -51,6 +52,8 @@ public abstract class AbstractCompactionTask {
   protected long serialId;
   protected boolean crossTask;
   protected boolean innerSeqTask;
+  // taken once, so that the order of the tasks in the queue doesn't change
+  protected final long queryHeat;
 
   public AbstractCompactionTask(
       String storageGroupName,
@@ -65,6 +68,9 @@ public abstract class AbstractCompactionTask {
     this.tsFileManager = tsFileManager;
     this.currentTaskNum = currentTaskNum;
     this.serialId = serialId;
+    this.queryHeat =
+        QueryHeatRecorder.getInstance()
+            .getHeat(storageGroupName + "-" + dataRegionId, timePartition);
   }
 
   public abstract void setSourceFilesToCompactionCandidate();
@@ -100,6 +106,11 @@ public abstract class AbstractCompactionTask {
     return timePartition;
   }
 
+  /** @return the query heat of the time partition when this task is created */
+  public long getQueryHeat() {
+    return queryHeat;
+  }
+
   public abstract boolean equalsOtherTask(AbstractCompactionTask otherTask);
 
   /**
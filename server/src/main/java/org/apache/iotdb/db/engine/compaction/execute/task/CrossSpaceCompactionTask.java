@@ -217,6 +217,8 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
         for (TsFileResource targetResource : targetTsfileResourceList) {
           if (!targetResource.isDeleted()) {
             TsFileMetricManager.getInstance().addFile(targetResource.getTsFileSize(), true);
+            CompactionMetricsManager.getInstance()
+                .recordCompactedFileSize(storageGroupName, targetResource.getTsFileSize());
 
             // set target resources to CLOSED, so that they can be selected to compact
             targetResource.setStatus(TsFileResourceStatus.CLOSED);
@@ -28,6 +28,8 @@ import org.apache.iotdb.db.engine.compaction.execute.performer.impl.FastCompacti
 import org.apache.iotdb.db.engine.compaction.execute.task.subtask.FastCompactionTaskSummary;
 import org.apache.iotdb.db.engine.compaction.execute.utils.CompactionUtils;
 import org.apache.iotdb.db.engine.compaction.execute.utils.log.CompactionLogger;
+import org.apache.iotdb.db.engine.rollup.RollupCache;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
 import org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
@@ -152,6 +154,10 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
         CompactionUtils.moveTargetFile(
             targetTsFileList, true, storageGroupName + "-" + dataRegionId);
 
+        if (sequence && RollupCache.isEnable()) {
+          mergeRollups();
+        }
+
         LOGGER.info(
             "{}-{} [InnerSpaceCompactionTask] start to rename mods file",
             storageGroupName,
@@ -236,6 +242,8 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
         if (!targetTsFileResource.isDeleted()) {
           TsFileMetricManager.getInstance()
               .addFile(targetTsFileResource.getTsFile().length(), sequence);
+          CompactionMetricsManager.getInstance()
+              .recordCompactedFileSize(storageGroupName, targetTsFileResource.getTsFile().length());
 
           // set target resource to CLOSED, so that it can be selected to compact
           targetTsFileResource.setStatus(TsFileResourceStatus.CLOSED);
@@ -321,6 +329,34 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
     selectedTsFileResourceList.forEach(x -> x.setStatus(TsFileResourceStatus.COMPACTION_CANDIDATE));
   }
 
+  /**
+   * Merge the rollups of the source files into the target file. It's skipped if any data of the
+   * source files is deleted, as the deleted data are not written into the target file.
+   */
+  private void mergeRollups() {
+    if (targetTsFileResource.isDeleted()) {
+      return;
+    }
+    List<File> sourceFiles = new ArrayList<>(selectedTsFileResourceList.size());
+    for (TsFileResource resource : selectedTsFileResourceList) {
+      if (resource.getModFile().exists()) {
+        return;
+      }
+      sourceFiles.add(resource.getTsFile());
+    }
+    try {
+      TsFileRollup.mergeForCompaction(sourceFiles, targetTsFileResource.getTsFile());
+    } catch (IOException e) {
+      // the target file is still readable without rollup
+      LOGGER.warn(
+          "{}-{} [Compaction] Meet error when merging the rollups of {}",
+          storageGroupName,
+          dataRegionId,
+          targetTsFileResource,
+          e);
+    }
+  }
+
   private void collectSelectedFilesInfo() {
     selectedFileSize = 0L;
     sumOfCompactionCount = 0;
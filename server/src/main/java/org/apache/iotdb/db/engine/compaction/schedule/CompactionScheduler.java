@@ -81,7 +81,7 @@ public class CompactionScheduler {
     if (sequence) {
       innerSpaceCompactionSelector =
           config
-              .getInnerSequenceCompactionSelector()
+              .getInnerSequenceCompactionSelector(storageGroupName)
               .createInstance(storageGroupName, dataRegionId, timePartition, tsFileManager);
     } else {
       innerSpaceCompactionSelector =
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.schedule;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * QueryHeatRecorder records how much the queries suffer from the overlapped files of each time
+ * partition. Every query adds the number of extra files it has to merge in a time partition, i.e.
+ * the seq and unseq files it reads minus one, to the heat of the partition. The heats are halved
+ * every {@link #HEAT_HALF_LIFE_IN_MS}, so that they reflect the recent queries only. The decay is
+ * checked when the heats are both recorded and read, so the heats of the partitions not queried any
+ * more still cool down, and the heats of a deleted data region are removed along with it.
+ *
+ * <p>The heat of the time partition is taken when a compaction task is created, and the tasks of
+ * hotter partitions are executed first if {@code enable_compaction_query_heat_priority} is true.
+ */
+public class QueryHeatRecorder {
+
+  private static final long HEAT_HALF_LIFE_IN_MS = 10 * 60 * 1000L;
+
+  // database-dataRegionId -> time partition -> heat
+  private final Map<String, Map<Long, AtomicLong>> heatOfDataRegions = new ConcurrentHashMap<>();
+  private volatile long lastDecayTime = System.currentTimeMillis();
+
+  private QueryHeatRecorder() {}
+
+  public static QueryHeatRecorder getInstance() {
+    return QueryHeatRecorderHolder.INSTANCE;
+  }
+
+  /** record the files read by one query of the data region */
+  public void recordQuery(
+      String dataRegion, List<TsFileResource> seqResources, List<TsFileResource> unseqResources) {
+    if (seqResources.size() + unseqResources.size() <= 1) {
+      return;
+    }
+    Map<Long, Integer> fileNumOfPartitions = new HashMap<>();
+    for (TsFileResource resource : seqResources) {
+      fileNumOfPartitions.merge(resource.getTimePartition(), 1, Integer::sum);
+    }
+    for (TsFileResource resource : unseqResources) {
+      fileNumOfPartitions.merge(resource.getTimePartition(), 1, Integer::sum);
+    }
+    Map<Long, AtomicLong> heatOfPartitions = null;
+    for (Map.Entry<Long, Integer> entry : fileNumOfPartitions.entrySet()) {
+      if (entry.getValue() <= 1) {
+        continue;
+      }
+      if (heatOfPartitions == null) {
+        heatOfPartitions =
+            heatOfDataRegions.computeIfAbsent(dataRegion, k -> new ConcurrentHashMap<>());
+      }
+      heatOfPartitions
+          .computeIfAbsent(entry.getKey(), k -> new AtomicLong(0))
+          .addAndGet(entry.getValue() - 1);
+    }
+    checkDecay();
+  }
+
+  public long getHeat(String dataRegion, long timePartition) {
+    checkDecay();
+    Map<Long, AtomicLong> heatOfPartitions = heatOfDataRegions.get(dataRegion);
+    if (heatOfPartitions == null) {
+      return 0;
+    }
+    AtomicLong heat = heatOfPartitions.get(timePartition);
+    return heat == null ? 0 : heat.get();
+  }
+
+  /** remove the heats of the data region when it is deleted */
+  public void removeDataRegion(String dataRegion) {
+    heatOfDataRegions.remove(dataRegion);
+  }
+
+  private void checkDecay() {
+    if (System.currentTimeMillis() - lastDecayTime >= HEAT_HALF_LIFE_IN_MS) {
+      decay();
+    }
+  }
+
+  private synchronized void decay() {
+    long elapsedHalfLives = (System.currentTimeMillis() - lastDecayTime) / HEAT_HALF_LIFE_IN_MS;
+    if (elapsedHalfLives == 0) {
+      // decayed by another thread
+      return;
+    }
+    // halve the heats once for every elapsed half-life, so that an idle period decays them as
+    // much as it would have if they had been checked in time
+    int shift = (int) Math.min(elapsedHalfLives, Long.SIZE - 1);
+    // the partitions not queried for a while are removed, the increments of the concurrent
+    // queries may be lost then, which is acceptable
+    heatOfDataRegions
+        .values()
+        .removeIf(
+            heatOfPartitions -> {
+              heatOfPartitions.values().removeIf(heat -> heat.updateAndGet(h -> h >> shift) == 0);
+              return heatOfPartitions.isEmpty();
+            });
+    lastDecayTime += elapsedHalfLives * HEAT_HALF_LIFE_IN_MS;
+  }
+
+  @TestOnly
+  public void clear() {
+    heatOfDataRegions.clear();
+  }
+
+  private static class QueryHeatRecorderHolder {
+
+    private static final QueryHeatRecorder INSTANCE = new QueryHeatRecorder();
+  }
+}
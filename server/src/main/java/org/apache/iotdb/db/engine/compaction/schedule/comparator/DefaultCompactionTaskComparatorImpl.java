@@ -62,6 +62,13 @@ public class DefaultCompactionTaskComparatorImpl implements ICompactionTaskCompa
 
   public int compareInnerSpaceCompactionTask(
       InnerSpaceCompactionTask o1, InnerSpaceCompactionTask o2) {
+    // if the query heat of the time partitions are different
+    // we prefer to execute task of the hotter partition
+    // because the queries read fewer overlapped files after it
+    if (config.isEnableCompactionQueryHeatPriority() && o1.getQueryHeat() != o2.getQueryHeat()) {
+      return o2.getQueryHeat() > o1.getQueryHeat() ? 1 : -1;
+    }
+
     // if the sum of compaction count of the selected files are different
     // we prefer to execute task with smaller compaction count
     // this can reduce write amplification
@@ -105,6 +112,11 @@ public class DefaultCompactionTaskComparatorImpl implements ICompactionTaskCompa
 
   public int compareCrossSpaceCompactionTask(
       CrossSpaceCompactionTask o1, CrossSpaceCompactionTask o2) {
+    // we prefer the task of the hotter partition, the same as inner space compaction tasks
+    if (config.isEnableCompactionQueryHeatPriority() && o1.getQueryHeat() != o2.getQueryHeat()) {
+      return o2.getQueryHeat() > o1.getQueryHeat() ? 1 : -1;
+    }
+
     if (o1.getSelectedSequenceFiles().size() != o2.getSelectedSequenceFiles().size()) {
       // we prefer the task with fewer sequence files
       // because this type of tasks consume fewer memory during execution
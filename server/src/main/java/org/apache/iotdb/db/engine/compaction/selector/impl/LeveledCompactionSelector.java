@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.selector.impl;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.selector.IInnerSeqSpaceSelector;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LeveledCompactionSelector assigns the sequence files of a time partition to levels by their sizes
+ * instead of their compaction counts. The files of level 1 are at least {@code
+ * leveled_compaction_level1_file_size}, and the lower bound of each higher level is {@code
+ * leveled_compaction_size_ratio} times of the previous one, until {@code
+ * target_compaction_file_size}, the files reaching which are never selected. Level 0 holds the
+ * files smaller than level 1, which are mostly the flushed ones.
+ *
+ * <p>A level is compacted only if it has more than {@code
+ * leveled_compaction_max_file_num_per_level} files, which bounds the read amplification of each
+ * level. Consecutive files of the level are merged until they reach the lower bound of the next
+ * level, so that every byte is rewritten about once per level. The lowest level that needs
+ * compaction is selected first, like {@link SizeTieredCompactionSelector}.
+ */
+public class LeveledCompactionSelector implements IInnerSeqSpaceSelector {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  protected String storageGroupName;
+  protected String dataRegionId;
+  protected long timePartition;
+  protected boolean hasNextTimePartition;
+
+  // levelLowerBounds[i] is the min file size of level i + 1, the last one is the max file size
+  // that can be selected
+  private final long[] levelLowerBounds;
+  private final int maxFileNumPerLevel;
+  private final int maxCandidateFileNum;
+
+  public LeveledCompactionSelector(
+      String storageGroupName,
+      String dataRegionId,
+      long timePartition,
+      TsFileManager tsFileManager) {
+    this(
+        storageGroupName,
+        dataRegionId,
+        timePartition,
+        tsFileManager.hasNextTimePartition(timePartition, true),
+        config.getLeveledCompactionLevel1FileSize(),
+        config.getLeveledCompactionSizeRatio(),
+        config.getTargetCompactionFileSize(),
+        config.getLeveledCompactionMaxFileNumPerLevel());
+  }
+
+  @TestOnly
+  public LeveledCompactionSelector(
+      String storageGroupName,
+      String dataRegionId,
+      long timePartition,
+      boolean hasNextTimePartition,
+      long level1FileSize,
+      int sizeRatio,
+      long maxFileSize,
+      int maxFileNumPerLevel) {
+    this.storageGroupName = storageGroupName;
+    this.dataRegionId = dataRegionId;
+    this.timePartition = timePartition;
+    this.hasNextTimePartition = hasNextTimePartition;
+    this.levelLowerBounds = calculateLevelLowerBounds(level1FileSize, sizeRatio, maxFileSize);
+    this.maxFileNumPerLevel = Math.max(1, maxFileNumPerLevel);
+    this.maxCandidateFileNum = config.getMaxInnerCompactionCandidateFileNum();
+  }
+
+  private static long[] calculateLevelLowerBounds(
+      long level1FileSize, int sizeRatio, long maxFileSize) {
+    List<Long> bounds = new ArrayList<>();
+    long bound = Math.max(1, Math.min(level1FileSize, maxFileSize));
+    while (bound < maxFileSize) {
+      bounds.add(bound);
+      if (sizeRatio <= 1 || bound > maxFileSize / sizeRatio) {
+        break;
+      }
+      bound *= sizeRatio;
+    }
+    bounds.add(maxFileSize);
+    return bounds.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  /** @return the level of the file, or the number of levels if it can't be selected anymore */
+  public int getLevel(long fileSize) {
+    for (int i = 0; i < levelLowerBounds.length; i++) {
+      if (fileSize < levelLowerBounds[i]) {
+        return i;
+      }
+    }
+    return levelLowerBounds.length;
+  }
+
+  @Override
+  public List<List<TsFileResource>> selectInnerSpaceTask(List<TsFileResource> tsFileResources) {
+    try {
+      for (int level = 0; level < levelLowerBounds.length; level++) {
+        List<List<TsFileResource>> taskList = selectLevelTask(tsFileResources, level);
+        if (!taskList.isEmpty()) {
+          return taskList;
+        }
+      }
+    } catch (Exception e) {
+      LOGGER.error("Exception occurs while selecting files", e);
+    }
+    return Collections.emptyList();
+  }
+
+  private List<List<TsFileResource>> selectLevelTask(
+      List<TsFileResource> tsFileResources, int level) {
+    // split the files of this level into the runs of consecutive closed files
+    List<List<TsFileResource>> runs = new ArrayList<>();
+    List<TsFileResource> currentRun = new ArrayList<>();
+    int levelFileNum = 0;
+    for (TsFileResource resource : tsFileResources) {
+      if (getLevel(resource.getTsFileSize()) != level) {
+        closeRun(runs, currentRun);
+        currentRun = new ArrayList<>();
+        continue;
+      }
+      levelFileNum++;
+      if (resource.getStatus() != TsFileResourceStatus.CLOSED) {
+        closeRun(runs, currentRun);
+        currentRun = new ArrayList<>();
+        continue;
+      }
+      currentRun.add(resource);
+    }
+    closeRun(runs, currentRun);
+    // the level is compacted only if it has too many files, or no more data will be written into
+    // this partition, in which case the small files are merged as far as possible
+    if (levelFileNum <= maxFileNumPerLevel && !hasNextTimePartition) {
+      return Collections.emptyList();
+    }
+
+    List<List<TsFileResource>> taskList = new ArrayList<>();
+    long nextLevelLowerBound = levelLowerBounds[level];
+    for (List<TsFileResource> run : runs) {
+      List<TsFileResource> selectedFiles = new ArrayList<>();
+      long selectedFileSize = 0;
+      for (TsFileResource resource : run) {
+        selectedFiles.add(resource);
+        selectedFileSize += resource.getTsFileSize();
+        if (selectedFileSize >= nextLevelLowerBound
+            || selectedFiles.size() >= maxCandidateFileNum) {
+          // the target file belongs to a higher level unless it's limited by the file num
+          levelFileNum -=
+              selectedFileSize >= nextLevelLowerBound
+                  ? selectedFiles.size()
+                  : selectedFiles.size() - 1;
+          taskList.add(selectedFiles);
+          selectedFiles = new ArrayList<>();
+          selectedFileSize = 0;
+        }
+      }
+      // the rest can't reach the next level, but they are still merged if there are too many
+      // files in this level
+      if (selectedFiles.size() > 1 && (hasNextTimePartition || levelFileNum > maxFileNumPerLevel)) {
+        levelFileNum -= selectedFiles.size() - 1;
+        taskList.add(selectedFiles);
+      }
+    }
+    taskList.removeIf(task -> task.size() < 2);
+    if (!taskList.isEmpty()) {
+      LOGGER.debug(
+          "{}-{} [Compaction] select {} leveled compaction tasks of level {} in time partition {}",
+          storageGroupName,
+          dataRegionId,
+          taskList.size(),
+          level,
+          timePartition);
+    }
+    return taskList;
+  }
+
+  private void closeRun(List<List<TsFileResource>> runs, List<TsFileResource> run) {
+    if (run.size() > 1) {
+      runs.add(run);
+    }
+  }
+}
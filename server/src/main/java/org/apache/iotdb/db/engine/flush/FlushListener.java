@@ -28,6 +28,9 @@ public interface FlushListener {
 
   void onMemTableFlushed(IMemTable memTable);
 
+  /** called instead of {@link #onMemTableFlushed(IMemTable)} if the flush fails */
+  default void onMemTableFlushFailed(IMemTable memTable) {}
+
   class DefaultMemTableFLushListener implements FlushListener {
 
     public static final DefaultMemTableFLushListener INSTANCE = new DefaultMemTableFLushListener();
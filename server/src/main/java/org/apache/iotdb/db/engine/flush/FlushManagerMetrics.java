@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.engine.flush;
 
+import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.metrics.AbstractMetricService;
@@ -26,9 +27,23 @@ import org.apache.iotdb.metrics.metricsets.IMetricSet;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 public class FlushManagerMetrics implements IMetricSet {
+
+  // wall time of the stages of flushing one memtable, the stages overlap as they are pipelined
+  public static final String SORT_STAGE = "sort";
+  public static final String ENCODING_STAGE = "encoding";
+  public static final String IO_STAGE = "io";
+  /** time waiting for the oldest chunk group encoded in parallel */
+  public static final String PARALLEL_ENCODING_WAIT_STAGE = "parallel_encoding_wait";
+
+  private static final List<String> STAGES =
+      Arrays.asList(SORT_STAGE, ENCODING_STAGE, IO_STAGE, PARALLEL_ENCODING_WAIT_STAGE);
+
   private FlushManager flushManager;
 
   public FlushManagerMetrics(FlushManager flushManager) {
@@ -55,6 +70,13 @@ public class FlushManagerMetrics implements IMetricSet {
         "flush",
         Tag.STATUS.toString(),
         "running");
+    STAGES.forEach(
+        stage ->
+            metricService.getOrCreateTimer(
+                Metric.FLUSH_STAGE_WALL_TIME.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.STAGE.toString(),
+                stage));
   }
 
   @Override
@@ -73,6 +95,24 @@ public class FlushManagerMetrics implements IMetricSet {
         "flush",
         Tag.STATUS.toString(),
         "running");
+    STAGES.forEach(
+        stage ->
+            metricService.remove(
+                MetricType.TIMER,
+                Metric.FLUSH_STAGE_WALL_TIME.toString(),
+                Tag.STAGE.toString(),
+                stage));
+  }
+
+  public static void recordStageWallTime(String stage, long costTimeInMillis) {
+    MetricService.getInstance()
+        .timer(
+            costTimeInMillis,
+            TimeUnit.MILLISECONDS,
+            Metric.FLUSH_STAGE_WALL_TIME.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.STAGE.toString(),
+            stage);
   }
 
   @Override
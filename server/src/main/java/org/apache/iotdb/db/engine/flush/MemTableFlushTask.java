@@ -27,6 +27,8 @@ import org.apache.iotdb.db.engine.flush.pool.FlushSubTaskPoolManager;
 import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.memtable.IWritableMemChunk;
 import org.apache.iotdb.db.engine.memtable.IWritableMemChunkGroup;
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.exception.runtime.FlushRunTimeException;
 import org.apache.iotdb.db.metadata.idtable.entry.IDeviceID;
 import org.apache.iotdb.db.rescon.SystemInfo;
@@ -41,18 +43,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * flush task to flush one memtable using a pipeline model to flush, which is sort memtable ->
- * encoding -> write to disk (io task)
+ * encoding -> write to disk (io task). If flush_encoding_parallelism is larger than 1, the chunk
+ * groups are encoded by several sub tasks in parallel and passed to the io task in device order.
  */
 public class MemTableFlushTask {
 
@@ -76,9 +82,19 @@ public class MemTableFlushTask {
 
   private IMemTable memTable;
 
-  private volatile long memSerializeTime = 0L;
+  private final int encodingParallelism = config.getFlushEncodingParallelism();
+
+  /** total time of encoding the series, which may be larger than the wall time if in parallel */
+  private final AtomicLong memSerializeTime = new AtomicLong();
+
+  private volatile long encodingWallTime = 0L;
   private volatile long ioTime = 0L;
 
+  /** rollups of the flushed series, null if no rollup is built */
+  private final TsFileRollup rollup;
+  /** memory of the rollups built so far, applied as temporary memory for flushing */
+  private long rollupMemSize = 0L;
+
   /**
    * @param memTable the memTable to flush
    * @param writer the writer where memTable will be flushed to (current tsfile writer or vm writer)
@@ -89,7 +105,21 @@ public class MemTableFlushTask {
       RestorableTsFileIOWriter writer,
       String storageGroup,
       String dataRegionId) {
+    this(memTable, writer, storageGroup, dataRegionId, new long[0]);
+  }
+
+  /**
+   * @param rollupTiers lengths of the time buckets of the rollups from fine to coarse, no rollup is
+   *     built if it's empty
+   */
+  public MemTableFlushTask(
+      IMemTable memTable,
+      RestorableTsFileIOWriter writer,
+      String storageGroup,
+      String dataRegionId,
+      long[] rollupTiers) {
     this.memTable = memTable;
+    this.rollup = rollupTiers.length > 0 ? new TsFileRollup(rollupTiers) : null;
     this.writer = writer;
     this.storageGroup = storageGroup;
     this.dataRegionId = dataRegionId;
@@ -121,14 +151,11 @@ public class MemTableFlushTask {
         avgSeriesPointsNum);
 
     long estimatedTemporaryMemSize = 0L;
-    if (config.isEnableMemControl() && SystemInfo.getInstance().isEncodingFasterThanIo()) {
-      estimatedTemporaryMemSize =
-          memTable.getSeriesNumber() == 0
-              ? 0
-              : memTable.memSize()
-                  / memTable.getSeriesNumber()
-                  * config.getIoTaskQueueSizeForFlushing();
-      SystemInfo.getInstance().applyTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
+    if (config.isEnableMemControl()) {
+      estimatedTemporaryMemSize = estimateTemporaryMemSize();
+      if (estimatedTemporaryMemSize != 0) {
+        SystemInfo.getInstance().applyTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
+      }
     }
     long start = System.currentTimeMillis();
     long sortTime = 0;
@@ -157,6 +184,17 @@ public class MemTableFlushTask {
          * sort task (first task of flush pipeline)
          */
         series.sortTvListForFlush();
+        if (rollup != null) {
+          SeriesRollup seriesRollup = series.rollup(rollup.getTiers());
+          if (seriesRollup != null) {
+            rollup.put(deviceID.toStringID(), seriesId, seriesRollup);
+            if (config.isEnableMemControl()) {
+              long seriesRollupMemSize = seriesRollup.calculateRamSize();
+              SystemInfo.getInstance().applyTemporaryMemoryForFlushing(seriesRollupMemSize);
+              rollupMemSize += seriesRollupMemSize;
+            }
+          }
+        }
         long subTaskTime = System.currentTimeMillis() - startTime;
         sortTime += subTaskTime;
         WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.SORT_TASK, subTaskTime);
@@ -172,6 +210,8 @@ public class MemTableFlushTask {
         writer.getFile().getName(),
         sortTime);
     WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_SORT, sortTime);
+    FlushManagerMetrics.recordStageWallTime(
+        FlushManagerMetrics.SORT_STAGE, System.currentTimeMillis() - start);
 
     try {
       encodingTaskFuture.get();
@@ -199,7 +239,13 @@ public class MemTableFlushTask {
       if (estimatedTemporaryMemSize != 0) {
         SystemInfo.getInstance().releaseTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
       }
-      SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= memSerializeTime);
+      // the rollups are taken over by the TsFileProcessor, which accounts them as its own
+      if (rollupMemSize != 0) {
+        SystemInfo.getInstance().releaseTemporaryMemoryForFlushing(rollupMemSize);
+      }
+      SystemInfo.getInstance()
+          .setEncodingFasterThanIo(
+              ioTime >= (encodingParallelism > 1 ? encodingWallTime : memSerializeTime.get()));
     }
 
     MetricService.getInstance()
@@ -218,6 +264,33 @@ public class MemTableFlushTask {
         System.currentTimeMillis() - start);
   }
 
+  /**
+   * The encoded series waiting in the bounded io task queue take temporary memory. When encoding in
+   * parallel, up to encodingParallelism chunk groups are also being encoded or waiting for the io
+   * task at the same time, whatever the speed of the io is.
+   */
+  private long estimateTemporaryMemSize() {
+    if (memTable.getSeriesNumber() == 0) {
+      return 0;
+    }
+    long estimatedTemporaryMemSize = 0L;
+    if (SystemInfo.getInstance().isEncodingFasterThanIo()) {
+      estimatedTemporaryMemSize =
+          memTable.memSize() / memTable.getSeriesNumber() * config.getIoTaskQueueSizeForFlushing();
+    }
+    int chunkGroupNum = memTable.getMemTableMap().size();
+    if (encodingParallelism > 1 && chunkGroupNum > 0) {
+      estimatedTemporaryMemSize +=
+          Math.min(memTable.memSize(), memTable.memSize() / chunkGroupNum * encodingParallelism);
+    }
+    return estimatedTemporaryMemSize;
+  }
+
+  /** @return rollups of the flushed series, null if no rollup is built */
+  public TsFileRollup getRollup() {
+    return rollup;
+  }
+
   /** encoding task (second task of pipeline) */
   private Runnable encodingTask =
       new Runnable() {
@@ -229,50 +302,13 @@ public class MemTableFlushTask {
               "Database {} memtable flushing to file {} starts to encoding data.",
               storageGroup,
               writer.getFile().getName());
-          while (true) {
-
-            Object task;
-            try {
-              task = encodingTaskQueue.take();
-            } catch (InterruptedException e1) {
-              LOGGER.error("Take task into ioTaskQueue Interrupted");
-              Thread.currentThread().interrupt();
-              break;
-            }
-            if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
-              try {
-                ioTaskQueue.put(task);
-              } catch (
-                  @SuppressWarnings("squid:S2142")
-                  InterruptedException e) {
-                LOGGER.error(
-                    "Database {} memtable flushing to file {}, encoding task is interrupted.",
-                    storageGroup,
-                    writer.getFile().getName(),
-                    e);
-                // generally it is because the thread pool is shutdown so the task should be aborted
-                break;
-              }
-            } else if (task instanceof TaskEnd) {
-              break;
-            } else {
-              long starTime = System.currentTimeMillis();
-              IWritableMemChunk writableMemChunk = (IWritableMemChunk) task;
-              IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
-              writableMemChunk.encode(seriesWriter);
-              seriesWriter.sealCurrentPage();
-              seriesWriter.clearPageWriter();
-              try {
-                ioTaskQueue.put(seriesWriter);
-              } catch (InterruptedException e) {
-                LOGGER.error("Put task into ioTaskQueue Interrupted");
-                Thread.currentThread().interrupt();
-              }
-              long subTaskTime = System.currentTimeMillis() - starTime;
-              WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.ENCODING_TASK, subTaskTime);
-              memSerializeTime += subTaskTime;
-            }
+          long encodingStartTime = System.currentTimeMillis();
+          if (encodingParallelism > 1) {
+            encodeInParallel();
+          } else {
+            encodeSequentially();
           }
+          encodingWallTime = System.currentTimeMillis() - encodingStartTime;
           try {
             ioTaskQueue.put(new TaskEnd());
           } catch (InterruptedException e) {
@@ -303,14 +339,142 @@ public class MemTableFlushTask {
               storageGroup,
               writer.getFile().getName(),
               memSerializeTime);
-          WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_ENCODING, memSerializeTime);
+          WRITING_METRICS.recordFlushCost(
+              WritingMetrics.FLUSH_STAGE_ENCODING, memSerializeTime.get());
+          FlushManagerMetrics.recordStageWallTime(
+              FlushManagerMetrics.ENCODING_STAGE, encodingWallTime);
         }
       };
 
+  @SuppressWarnings("squid:S135")
+  private void encodeSequentially() {
+    while (true) {
+      Object task;
+      try {
+        task = encodingTaskQueue.take();
+      } catch (InterruptedException e1) {
+        LOGGER.error("Take task into ioTaskQueue Interrupted");
+        Thread.currentThread().interrupt();
+        break;
+      }
+      if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
+        try {
+          ioTaskQueue.put(task);
+        } catch (
+            @SuppressWarnings("squid:S2142")
+            InterruptedException e) {
+          LOGGER.error(
+              "Database {} memtable flushing to file {}, encoding task is interrupted.",
+              storageGroup,
+              writer.getFile().getName(),
+              e);
+          // generally it is because the thread pool is shutdown so the task should be aborted
+          break;
+        }
+      } else if (task instanceof TaskEnd) {
+        break;
+      } else {
+        IChunkWriter seriesWriter = encode((IWritableMemChunk) task);
+        try {
+          ioTaskQueue.put(seriesWriter);
+        } catch (InterruptedException e) {
+          LOGGER.error("Put task into ioTaskQueue Interrupted");
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  /**
+   * Collect the series of each chunk group and encode the chunk groups by at most
+   * encodingParallelism sub tasks at the same time. The encoded chunk groups are passed to the io
+   * task in the order they are collected, i.e. in device order.
+   */
+  @SuppressWarnings("squid:S135")
+  private void encodeInParallel() {
+    Deque<Future<EncodedChunkGroup>> encodingChunkGroups = new ArrayDeque<>();
+    String deviceId = null;
+    List<IWritableMemChunk> series = new ArrayList<>();
+    try {
+      while (true) {
+        Object task = encodingTaskQueue.take();
+        if (task instanceof StartFlushGroupIOTask) {
+          deviceId = ((StartFlushGroupIOTask) task).deviceId;
+          series = new ArrayList<>();
+        } else if (task instanceof EndChunkGroupIoTask) {
+          if (encodingChunkGroups.size() >= encodingParallelism) {
+            putEncodedChunkGroup(encodingChunkGroups.poll());
+          }
+          String chunkGroupDeviceId = deviceId;
+          List<IWritableMemChunk> chunkGroupSeries = series;
+          encodingChunkGroups.add(
+              SUB_TASK_POOL_MANAGER.submit(
+                  () -> encodeChunkGroup(chunkGroupDeviceId, chunkGroupSeries)));
+        } else if (task instanceof TaskEnd) {
+          break;
+        } else {
+          series.add((IWritableMemChunk) task);
+        }
+      }
+      while (!encodingChunkGroups.isEmpty()) {
+        putEncodedChunkGroup(encodingChunkGroups.poll());
+      }
+    } catch (InterruptedException e) {
+      LOGGER.error(
+          "Database {} memtable flushing to file {}, encoding task is interrupted.",
+          storageGroup,
+          writer.getFile().getName(),
+          e);
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      LOGGER.error(
+          "Database {} memtable {}, encoding task meets error.", storageGroup, memTable, e);
+      throw new FlushRunTimeException(e);
+    } finally {
+      for (Future<EncodedChunkGroup> encodingChunkGroup : encodingChunkGroups) {
+        encodingChunkGroup.cancel(true);
+      }
+    }
+  }
+
+  private void putEncodedChunkGroup(Future<EncodedChunkGroup> encodingChunkGroup)
+      throws InterruptedException, ExecutionException {
+    long startTime = System.currentTimeMillis();
+    EncodedChunkGroup encodedChunkGroup = encodingChunkGroup.get();
+    FlushManagerMetrics.recordStageWallTime(
+        FlushManagerMetrics.PARALLEL_ENCODING_WAIT_STAGE, System.currentTimeMillis() - startTime);
+    ioTaskQueue.put(new StartFlushGroupIOTask(encodedChunkGroup.deviceId));
+    for (IChunkWriter seriesWriter : encodedChunkGroup.seriesWriters) {
+      ioTaskQueue.put(seriesWriter);
+    }
+    ioTaskQueue.put(new EndChunkGroupIoTask());
+  }
+
+  private EncodedChunkGroup encodeChunkGroup(String deviceId, List<IWritableMemChunk> series) {
+    List<IChunkWriter> seriesWriters = new ArrayList<>(series.size());
+    for (IWritableMemChunk writableMemChunk : series) {
+      seriesWriters.add(encode(writableMemChunk));
+    }
+    return new EncodedChunkGroup(deviceId, seriesWriters);
+  }
+
+  private IChunkWriter encode(IWritableMemChunk writableMemChunk) {
+    long starTime = System.currentTimeMillis();
+    IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
+    writableMemChunk.encode(seriesWriter);
+    seriesWriter.sealCurrentPage();
+    seriesWriter.clearPageWriter();
+    long subTaskTime = System.currentTimeMillis() - starTime;
+    WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.ENCODING_TASK, subTaskTime);
+    memSerializeTime.addAndGet(subTaskTime);
+    return seriesWriter;
+  }
+
   /** io task (third task of pipeline) */
   @SuppressWarnings("squid:S135")
   private Runnable ioTask =
       () -> {
+        long ioStartTime = System.currentTimeMillis();
         LOGGER.debug(
             "Database {} memtable flushing to file {} start io.",
             storageGroup,
@@ -353,8 +517,21 @@ public class MemTableFlushTask {
             ioTime);
         WRITING_METRICS.recordFlushTsFileSize(storageGroup, writer.getFile().length());
         WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_IO, ioTime);
+        FlushManagerMetrics.recordStageWallTime(
+            FlushManagerMetrics.IO_STAGE, System.currentTimeMillis() - ioStartTime);
       };
 
+  static class EncodedChunkGroup {
+
+    private final String deviceId;
+    private final List<IChunkWriter> seriesWriters;
+
+    EncodedChunkGroup(String deviceId, List<IChunkWriter> seriesWriters) {
+      this.deviceId = deviceId;
+      this.seriesWriters = seriesWriters;
+    }
+  }
+
   static class TaskEnd {
 
     TaskEnd() {}
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.db.wal.buffer.WALEntryValue;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -135,6 +136,14 @@ public interface IWritableMemChunk extends WALEntryValue {
 
   void encode(IChunkWriter chunkWriter);
 
+  /**
+   * @param tiers lengths of the time buckets from fine to coarse
+   * @return the rollup of the sorted points to flush, or null if it's not supported
+   */
+  default SeriesRollup rollup(long[] tiers) {
+    return null;
+  }
+
   void release();
 
   long getFirstPoint();
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.db.wal.buffer.IWALByteBufferView;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
@@ -315,6 +316,48 @@ public class WritableMemChunk implements IWritableMemChunk {
     return out.toString();
   }
 
+  @Override
+  public SeriesRollup rollup(long[] tiers) {
+    // the points may be filtered by the encoder, e.g. SDT
+    if (schema.getProps() != null && !schema.getProps().isEmpty()) {
+      return null;
+    }
+    SeriesRollup.Builder builder = new SeriesRollup.Builder(schema.getType(), tiers);
+    for (int sortedRowIndex = 0; sortedRowIndex < list.rowCount(); sortedRowIndex++) {
+      long time = list.getTime(sortedRowIndex);
+
+      // skip duplicated data, the same as encode(). Both TimSort and InPlaceMergeSort of the
+      // TVList are stable, so the last point of the same time is the latest written one
+      if ((sortedRowIndex + 1 < list.rowCount() && (time == list.getTime(sortedRowIndex + 1)))) {
+        continue;
+      }
+
+      switch (schema.getType()) {
+        case BOOLEAN:
+          builder.bucketOf(time).update(time, list.getBoolean(sortedRowIndex));
+          break;
+        case INT32:
+          builder.bucketOf(time).update(time, list.getInt(sortedRowIndex));
+          break;
+        case INT64:
+          builder.bucketOf(time).update(time, list.getLong(sortedRowIndex));
+          break;
+        case FLOAT:
+          builder.bucketOf(time).update(time, list.getFloat(sortedRowIndex));
+          break;
+        case DOUBLE:
+          builder.bucketOf(time).update(time, list.getDouble(sortedRowIndex));
+          break;
+        case TEXT:
+          builder.bucketOf(time).update(time, list.getBinary(sortedRowIndex));
+          break;
+        default:
+          return null;
+      }
+    }
+    return builder.build();
+  }
+
   @Override
   public void encode(IChunkWriter chunkWriter) {
 
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification;
+
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable interval tree of the deletions of one timeseries in one mods file. The deletions are
+ * sorted by their start time and the tree is implicit in the sorted arrays: the root of [lo, hi) is
+ * (lo + hi) / 2. Each node also records the max end time and the max file offset in its subtree, so
+ * that the deletions overlapping a chunk can be found in O(log(n) + k) instead of checking every
+ * deletion for every chunk.
+ */
+public class DeletionIntervalTree {
+
+  public static final DeletionIntervalTree EMPTY =
+      new DeletionIntervalTree(Collections.emptyList());
+
+  private final List<Modification> modifications;
+
+  private final long[] startTimes;
+  private final long[] endTimes;
+  private final long[] fileOffsets;
+  private final long[] subtreeMaxEndTimes;
+  private final long[] subtreeMaxFileOffsets;
+
+  /** @param modifications modifications of one timeseries, only the deletions are indexed */
+  public DeletionIntervalTree(List<Modification> modifications) {
+    this.modifications = modifications;
+    List<Deletion> deletions = new ArrayList<>(modifications.size());
+    for (Modification modification : modifications) {
+      if (modification instanceof Deletion) {
+        deletions.add((Deletion) modification);
+      }
+    }
+    deletions.sort(Comparator.comparingLong(Deletion::getStartTime));
+
+    int size = deletions.size();
+    startTimes = new long[size];
+    endTimes = new long[size];
+    fileOffsets = new long[size];
+    subtreeMaxEndTimes = new long[size];
+    subtreeMaxFileOffsets = new long[size];
+    for (int i = 0; i < size; i++) {
+      Deletion deletion = deletions.get(i);
+      startTimes[i] = deletion.getStartTime();
+      endTimes[i] = deletion.getEndTime();
+      fileOffsets[i] = deletion.getFileOffset();
+    }
+    build(0, size);
+  }
+
+  private void build(int lo, int hi) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    long maxEndTime = endTimes[mid];
+    long maxFileOffset = fileOffsets[mid];
+    if (lo < mid) {
+      build(lo, mid);
+      int left = (lo + mid) >>> 1;
+      maxEndTime = Math.max(maxEndTime, subtreeMaxEndTimes[left]);
+      maxFileOffset = Math.max(maxFileOffset, subtreeMaxFileOffsets[left]);
+    }
+    if (mid + 1 < hi) {
+      build(mid + 1, hi);
+      int right = (mid + 1 + hi) >>> 1;
+      maxEndTime = Math.max(maxEndTime, subtreeMaxEndTimes[right]);
+      maxFileOffset = Math.max(maxFileOffset, subtreeMaxFileOffsets[right]);
+    }
+    subtreeMaxEndTimes[mid] = maxEndTime;
+    subtreeMaxFileOffsets[mid] = maxFileOffset;
+  }
+
+  /** @return all the modifications this tree is built from */
+  public List<Modification> getModifications() {
+    return modifications;
+  }
+
+  public boolean isEmpty() {
+    return startTimes.length == 0;
+  }
+
+  /**
+   * Find the deletions which overlap [startTime, endTime] and are written after the given file
+   * offset, i.e. the deletions that should be applied to a chunk in this time range whose header
+   * locates at the given offset.
+   *
+   * @return sorted and merged time ranges, which can be modified by the caller
+   */
+  public List<TimeRange> getOverlapped(long startTime, long endTime, long fileOffset) {
+    List<TimeRange> result = new ArrayList<>();
+    search(0, startTimes.length, startTime, endTime, fileOffset, result);
+    // the ranges are added in the order of their start time
+    return result.size() > 1 ? TimeRange.sortAndMerge(result) : result;
+  }
+
+  private void search(
+      int lo, int hi, long startTime, long endTime, long fileOffset, List<TimeRange> result) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    if (subtreeMaxEndTimes[mid] < startTime || subtreeMaxFileOffsets[mid] <= fileOffset) {
+      return;
+    }
+    search(lo, mid, startTime, endTime, fileOffset, result);
+    // all the deletions on the right start after the one in the middle
+    if (startTimes[mid] > endTime) {
+      return;
+    }
+    if (endTimes[mid] >= startTime && fileOffsets[mid] > fileOffset) {
+      result.add(new TimeRange(startTimes[mid], endTimes[mid]));
+    }
+    search(mid + 1, hi, startTime, endTime, fileOffset, result);
+  }
+
+  public int size() {
+    return startTimes.length;
+  }
+}
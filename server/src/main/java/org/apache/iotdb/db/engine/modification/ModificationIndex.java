@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.path.PatternTreeMap;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.metadata.path.PatternTreeMapFactory;
+import org.apache.iotdb.db.metadata.path.PatternTreeMapFactory.ModsSerializer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory index of the modifications in one mods file. The modifications are indexed by their
+ * path patterns, and the modifications of each timeseries are merged into a {@link
+ * DeletionIntervalTree} when the timeseries is looked up for the first time.
+ *
+ * <p>An index is a snapshot of the mods file of the given size, it is never changed after built.
+ * The merged deletions of the timeseries are cached until they take as many entries as the
+ * modifications, so that the memory of the index is bounded by its {@link #getWeight()}.
+ */
+public class ModificationIndex {
+
+  private final long fileSize;
+  private final int modificationNum;
+  private final PatternTreeMap<Modification, ModsSerializer> allModifications;
+  private final Map<String, DeletionIntervalTree> seriesDeletions = new ConcurrentHashMap<>();
+  // each cached timeseries takes one entry plus one for each of its merged deletions
+  private final int maxCachedEntryNum;
+  private final AtomicInteger cachedEntryNum = new AtomicInteger(0);
+
+  private static final int MIN_CACHED_ENTRY_NUM = 16;
+
+  public ModificationIndex(Collection<Modification> modifications, long fileSize) {
+    this.fileSize = fileSize;
+    this.modificationNum = modifications.size();
+    this.maxCachedEntryNum = Math.max(MIN_CACHED_ENTRY_NUM, modificationNum);
+    this.allModifications = PatternTreeMapFactory.getModsPatternTreeMap();
+    for (Modification modification : modifications) {
+      allModifications.append(modification.getPath(), modification);
+    }
+  }
+
+  /** @return the merged deletions of the given timeseries */
+  public DeletionIntervalTree getSeriesDeletions(PartialPath path) {
+    if (modificationNum == 0) {
+      return DeletionIntervalTree.EMPTY;
+    }
+    String fullPath = path.getFullPath();
+    DeletionIntervalTree deletions = seriesDeletions.get(fullPath);
+    if (deletions != null) {
+      return deletions;
+    }
+    deletions = new DeletionIntervalTree(sortAndMerge(allModifications.getOverlapped(path)));
+    int entryNum = deletions.size() + 1;
+    if (cachedEntryNum.addAndGet(entryNum) > maxCachedEntryNum) {
+      // too many timeseries are queried, the rest are merged for each query
+      cachedEntryNum.addAndGet(-entryNum);
+      return deletions;
+    }
+    DeletionIntervalTree previous = seriesDeletions.putIfAbsent(fullPath, deletions);
+    if (previous != null) {
+      // merged by a concurrent query
+      cachedEntryNum.addAndGet(-entryNum);
+      return previous;
+    }
+    return deletions;
+  }
+
+  public long getFileSize() {
+    return fileSize;
+  }
+
+  public int getModificationNum() {
+    return modificationNum;
+  }
+
+  /** @return the max number of modifications and cached deletion entries held by this index */
+  public int getWeight() {
+    return modificationNum + maxCachedEntryNum;
+  }
+
+  @TestOnly
+  public int getCachedSeriesNum() {
+    return seriesDeletions.size();
+  }
+
+  /**
+   * Sort the modifications and merge the deletions of the same path and file offset whose time
+   * ranges intersect.
+   */
+  public static List<Modification> sortAndMerge(List<Modification> modifications) {
+    modifications.sort(
+        (o1, o2) -> {
+          if (!o1.getType().equals(o2.getType())) {
+            return o1.getType().compareTo(o2.getType());
+          } else if (!o1.getPath().equals(o2.getPath())) {
+            return o1.getPath().compareTo(o2.getPath());
+          } else if (o1.getFileOffset() != o2.getFileOffset()) {
+            return (int) (o1.getFileOffset() - o2.getFileOffset());
+          } else {
+            if (o1.getType() == Modification.Type.DELETION) {
+              Deletion del1 = (Deletion) o1;
+              Deletion del2 = (Deletion) o2;
+              return del1.getTimeRange().compareTo(del2.getTimeRange());
+            }
+            throw new IllegalArgumentException();
+          }
+        });
+    List<Modification> result = new ArrayList<>();
+    if (!modifications.isEmpty()) {
+      Deletion current = ((Deletion) modifications.get(0)).clone();
+      for (int i = 1; i < modifications.size(); i++) {
+        Deletion del = (Deletion) modifications.get(i);
+        if (current.intersects(del)) {
+          current.merge(del);
+        } else {
+          result.add(current);
+          current = del.clone();
+        }
+      }
+      result.add(current);
+    }
+    return result;
+  }
+}
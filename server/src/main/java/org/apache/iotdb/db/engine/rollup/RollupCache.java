@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is used to cache the {@link TsFileRollup} of sealed TsFiles for GROUP BY TIME queries.
+ * A TsFile without rollup is cached too, so that its rollup file is not looked up again. The
+ * caching strategy is LRU.
+ */
+public class RollupCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(RollupCache.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  /** placeholder of the TsFiles without rollup */
+  private static final TsFileRollup NONE = new TsFileRollup(new long[0]);
+
+  private static final long ENTRY_SIZE = 256;
+
+  private final Cache<String, TsFileRollup> lruCache;
+
+  private RollupCache() {
+    this(config.getRollupCacheSizeInByte());
+    if (isEnable()) {
+      logger.info("RollupCache size = {}", config.getRollupCacheSizeInByte());
+    }
+  }
+
+  @TestOnly
+  RollupCache(long maxMemory) {
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(maxMemory)
+            .weigher(
+                (Weigher<String, TsFileRollup>)
+                    (filePath, rollup) ->
+                        (int) Math.min(Integer.MAX_VALUE, ENTRY_SIZE + rollup.calculateRamSize()))
+            .recordStats()
+            .build();
+  }
+
+  public static RollupCache getInstance() {
+    return RollupCacheHolder.INSTANCE;
+  }
+
+  public static boolean isEnable() {
+    return config.getRollupTiers().length > 0;
+  }
+
+  /** @return the rollups of the sealed TsFile, or null if it has no rollup */
+  public TsFileRollup get(TsFileResource tsFileResource) {
+    TsFileRollup rollup =
+        lruCache.get(
+            tsFileResource.getTsFilePath(),
+            filePath -> {
+              TsFileRollup loaded = TsFileRollup.load(tsFileResource.getTsFile());
+              return loaded == null ? NONE : loaded;
+            });
+    return rollup == NONE ? null : rollup;
+  }
+
+  public void remove(String filePath) {
+    lruCache.invalidate(filePath);
+  }
+
+  public double getHitRate() {
+    return lruCache.stats().hitRate() * 100;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  /** singleton pattern. */
+  private static class RollupCacheHolder {
+
+    private static final RollupCache INSTANCE = new RollupCache();
+  }
+}
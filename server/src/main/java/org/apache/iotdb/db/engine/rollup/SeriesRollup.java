@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statistics of one series in the time buckets of several tiers. The bucket k of a tier of length T
+ * contains the points in [k * T, (k + 1) * T). Only the non-empty buckets are kept, in time order.
+ * The finest tier is built from the points and persisted, the coarser ones are merged from it.
+ *
+ * <p>A rollup becomes invalid once data of overlapped time ranges are appended to it, e.g. by two
+ * flushes of unordered data, as the statistics can not be merged correctly then.
+ */
+public class SeriesRollup {
+
+  private final TSDataType dataType;
+  private final long[] tiers;
+  private final List<List<Statistics<? extends Serializable>>> buckets;
+  private boolean valid;
+
+  private SeriesRollup(
+      TSDataType dataType,
+      long[] tiers,
+      List<Statistics<? extends Serializable>> finestBuckets,
+      boolean valid) {
+    this.dataType = dataType;
+    this.tiers = tiers;
+    this.buckets = new ArrayList<>(tiers.length);
+    this.valid = valid;
+    if (valid) {
+      buckets.add(finestBuckets);
+      mergeCoarseTiers();
+    }
+  }
+
+  private void mergeCoarseTiers() {
+    for (int i = 1; i < tiers.length; i++) {
+      List<Statistics<? extends Serializable>> coarseBuckets = new ArrayList<>();
+      Statistics<? extends Serializable> current = null;
+      long currentIndex = 0;
+      for (Statistics<? extends Serializable> fineBucket : buckets.get(i - 1)) {
+        long index = Math.floorDiv(fineBucket.getStartTime(), tiers[i]);
+        if (current == null || index != currentIndex) {
+          current = Statistics.getStatsByType(dataType);
+          coarseBuckets.add(current);
+          currentIndex = index;
+        }
+        current.mergeStatistics(fineBucket);
+      }
+      buckets.add(coarseBuckets);
+    }
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public boolean isValid() {
+    return valid;
+  }
+
+  /** @return the non-empty buckets of the tier in time order, or null if there is no such tier */
+  public List<Statistics<? extends Serializable>> getBuckets(long tier) {
+    if (!valid) {
+      return null;
+    }
+    for (int i = 0; i < tiers.length; i++) {
+      if (tiers[i] == tier) {
+        return buckets.get(i);
+      }
+    }
+    return null;
+  }
+
+  /** @return number of points in all the buckets */
+  public long getCount() {
+    long count = 0;
+    if (valid) {
+      for (Statistics<? extends Serializable> bucket : buckets.get(0)) {
+        count += bucket.getCount();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Append the buckets of a rollup whose points are all later than the points of this one. The
+   * buckets of both rollups in the same time bucket are merged. Otherwise, this rollup is
+   * invalidated.
+   */
+  public void append(SeriesRollup later) {
+    if (!valid) {
+      return;
+    }
+    if (!later.valid || later.dataType != dataType || later.tiers.length != tiers.length) {
+      valid = false;
+      return;
+    }
+    List<Statistics<? extends Serializable>> finestBuckets = buckets.get(0);
+    List<Statistics<? extends Serializable>> laterBuckets = later.buckets.get(0);
+    int start = 0;
+    if (!finestBuckets.isEmpty() && !laterBuckets.isEmpty()) {
+      Statistics<? extends Serializable> last = finestBuckets.get(finestBuckets.size() - 1);
+      Statistics<? extends Serializable> first = laterBuckets.get(0);
+      if (first.getStartTime() <= last.getEndTime()) {
+        valid = false;
+        return;
+      }
+      if (Math.floorDiv(first.getStartTime(), tiers[0])
+          == Math.floorDiv(last.getStartTime(), tiers[0])) {
+        last.mergeStatistics(first);
+        start = 1;
+      }
+    }
+    finestBuckets.addAll(laterBuckets.subList(start, laterBuckets.size()));
+    buckets.subList(1, buckets.size()).clear();
+    mergeCoarseTiers();
+  }
+
+  public long calculateRamSize() {
+    long size = 0;
+    if (valid) {
+      for (List<Statistics<? extends Serializable>> tierBuckets : buckets) {
+        for (Statistics<? extends Serializable> bucket : tierBuckets) {
+          size += bucket.calculateRamSize();
+        }
+      }
+    }
+    return size;
+  }
+
+  public void serializeTo(OutputStream outputStream) throws IOException {
+    ReadWriteIOUtils.write(dataType, outputStream);
+    ReadWriteIOUtils.write(valid, outputStream);
+    if (valid) {
+      List<Statistics<? extends Serializable>> finestBuckets = buckets.get(0);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(finestBuckets.size(), outputStream);
+      for (Statistics<? extends Serializable> bucket : finestBuckets) {
+        bucket.serialize(outputStream);
+      }
+    }
+  }
+
+  public static SeriesRollup deserializeFrom(ByteBuffer buffer, long[] tiers) {
+    TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
+    boolean valid = ReadWriteIOUtils.readBool(buffer);
+    List<Statistics<? extends Serializable>> finestBuckets = new ArrayList<>();
+    if (valid) {
+      int bucketNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      for (int i = 0; i < bucketNum; i++) {
+        finestBuckets.add(Statistics.deserialize(buffer, dataType));
+      }
+    }
+    return new SeriesRollup(dataType, tiers, finestBuckets, valid);
+  }
+
+  /** Builds the rollup of the points of a series, which should be added in time order. */
+  public static class Builder {
+
+    private final TSDataType dataType;
+    private final long[] tiers;
+    private final List<Statistics<? extends Serializable>> finestBuckets = new ArrayList<>();
+    private Statistics<? extends Serializable> current;
+    private long currentIndex;
+
+    public Builder(TSDataType dataType, long[] tiers) {
+      this.dataType = dataType;
+      this.tiers = tiers;
+    }
+
+    /** @return statistics of the bucket of the finest tier containing the time */
+    public Statistics<? extends Serializable> bucketOf(long time) {
+      long index = Math.floorDiv(time, tiers[0]);
+      if (current == null || index != currentIndex) {
+        current = Statistics.getStatsByType(dataType);
+        finestBuckets.add(current);
+        currentIndex = index;
+      }
+      return current;
+    }
+
+    public SeriesRollup build() {
+      return new SeriesRollup(dataType, tiers, finestBuckets, true);
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.fileSystem.fsFactory.FSFactory;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rollups of the series of one TsFile, which are persisted in a file with {@link #ROLLUP_SUFFIX}
+ * beside the TsFile once it is sealed. The length of the TsFile is recorded too, so that a rollup
+ * is never used for a TsFile rewritten afterwards.
+ */
+public class TsFileRollup {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TsFileRollup.class);
+  private static final FSFactory fsFactory = FSFactoryProducer.getFSFactory();
+
+  public static final String ROLLUP_SUFFIX = ".rollup";
+  private static final String TEMP_SUFFIX = ".temp";
+
+  private final long[] tiers;
+  // device -> measurement -> rollup
+  private final Map<String, Map<String, SeriesRollup>> rollups = new HashMap<>();
+
+  public TsFileRollup(long[] tiers) {
+    this.tiers = tiers;
+  }
+
+  public long[] getTiers() {
+    return tiers;
+  }
+
+  /** @return the rollup of the series, or null if there is none */
+  public SeriesRollup get(String device, String measurement) {
+    Map<String, SeriesRollup> deviceRollups = rollups.get(device);
+    return deviceRollups == null ? null : deviceRollups.get(measurement);
+  }
+
+  public void put(String device, String measurement, SeriesRollup rollup) {
+    rollups.computeIfAbsent(device, k -> new HashMap<>()).put(measurement, rollup);
+  }
+
+  /**
+   * Append the rollups of data later than the data of this one, e.g. those of a later flush of the
+   * same sequence TsFile.
+   */
+  public void append(TsFileRollup later) {
+    if (!Arrays.equals(tiers, later.tiers)) {
+      throw new IllegalArgumentException(
+          "Rollup tiers mismatch: " + Arrays.toString(tiers) + Arrays.toString(later.tiers));
+    }
+    for (Map.Entry<String, Map<String, SeriesRollup>> deviceEntry : later.rollups.entrySet()) {
+      for (Map.Entry<String, SeriesRollup> entry : deviceEntry.getValue().entrySet()) {
+        SeriesRollup rollup = get(deviceEntry.getKey(), entry.getKey());
+        if (rollup == null) {
+          put(deviceEntry.getKey(), entry.getKey(), entry.getValue());
+        } else {
+          rollup.append(entry.getValue());
+        }
+      }
+    }
+  }
+
+  public long calculateRamSize() {
+    long size = 0;
+    for (Map<String, SeriesRollup> deviceRollups : rollups.values()) {
+      for (SeriesRollup rollup : deviceRollups.values()) {
+        size += rollup.calculateRamSize();
+      }
+    }
+    return size;
+  }
+
+  /** write the rollups of the sealed TsFile beside it */
+  public void serialize(File tsFile) throws IOException {
+    String rollupPath = tsFile.getPath() + ROLLUP_SUFFIX;
+    try (OutputStream outputStream = fsFactory.getBufferedOutputStream(rollupPath + TEMP_SUFFIX)) {
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(tiers.length, outputStream);
+      for (long tier : tiers) {
+        ReadWriteIOUtils.write(tier, outputStream);
+      }
+      ReadWriteIOUtils.write(tsFile.length(), outputStream);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(rollups.size(), outputStream);
+      for (Map.Entry<String, Map<String, SeriesRollup>> deviceEntry : rollups.entrySet()) {
+        ReadWriteIOUtils.write(deviceEntry.getKey(), outputStream);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(deviceEntry.getValue().size(), outputStream);
+        for (Map.Entry<String, SeriesRollup> entry : deviceEntry.getValue().entrySet()) {
+          ReadWriteIOUtils.write(entry.getKey(), outputStream);
+          entry.getValue().serializeTo(outputStream);
+        }
+      }
+    }
+    File src = fsFactory.getFile(rollupPath + TEMP_SUFFIX);
+    File dest = fsFactory.getFile(rollupPath);
+    fsFactory.deleteIfExists(dest);
+    fsFactory.moveFile(src, dest);
+  }
+
+  /**
+   * @return the rollups of the TsFile, or null if there is no rollup file or it doesn't match the
+   *     TsFile
+   */
+  public static TsFileRollup load(File tsFile) {
+    File rollupFile = fsFactory.getFile(tsFile.getPath() + ROLLUP_SUFFIX);
+    if (!rollupFile.exists()) {
+      return null;
+    }
+    try (InputStream inputStream = fsFactory.getBufferedInputStream(rollupFile.getPath())) {
+      ByteBuffer buffer =
+          ByteBuffer.wrap(ReadWriteIOUtils.readBytes(inputStream, (int) rollupFile.length()));
+      long[] tiers = new long[ReadWriteForEncodingUtils.readUnsignedVarInt(buffer)];
+      for (int i = 0; i < tiers.length; i++) {
+        tiers[i] = ReadWriteIOUtils.readLong(buffer);
+      }
+      if (ReadWriteIOUtils.readLong(buffer) != tsFile.length()) {
+        LOGGER.warn("Rollup file {} doesn't match the TsFile, ignore it", rollupFile);
+        return null;
+      }
+      TsFileRollup tsFileRollup = new TsFileRollup(tiers);
+      int deviceNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      for (int i = 0; i < deviceNum; i++) {
+        String device = ReadWriteIOUtils.readString(buffer);
+        int measurementNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+        for (int j = 0; j < measurementNum; j++) {
+          String measurement = ReadWriteIOUtils.readString(buffer);
+          tsFileRollup.put(device, measurement, SeriesRollup.deserializeFrom(buffer, tiers));
+        }
+      }
+      return tsFileRollup;
+    } catch (Exception e) {
+      LOGGER.warn("Meet error when loading rollup file {}, ignore it", rollupFile, e);
+      return null;
+    }
+  }
+
+  /**
+   * Merge the rollups of the source sequence TsFiles of a compaction in time order into the rollups
+   * of the target. Nothing is written if any source has no rollup.
+   */
+  public static void mergeForCompaction(List<File> sourceTsFiles, File targetTsFile)
+      throws IOException {
+    TsFileRollup merged = null;
+    for (File sourceTsFile : sourceTsFiles) {
+      TsFileRollup sourceRollup = load(sourceTsFile);
+      if (sourceRollup == null) {
+        return;
+      }
+      if (merged == null) {
+        merged = sourceRollup;
+      } else if (Arrays.equals(merged.tiers, sourceRollup.tiers)) {
+        merged.append(sourceRollup);
+      } else {
+        return;
+      }
+    }
+    if (merged != null) {
+      merged.serialize(targetTsFile);
+    }
+  }
+
+  public static void remove(File tsFile) throws IOException {
+    fsFactory.deleteIfExists(fsFactory.getFile(tsFile.getPath() + ROLLUP_SUFFIX));
+  }
+}
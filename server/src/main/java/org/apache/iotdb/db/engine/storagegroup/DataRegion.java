@@ -47,6 +47,7 @@ import org.apache.iotdb.db.engine.compaction.execute.recover.CompactionRecoverMa
 import org.apache.iotdb.db.engine.compaction.execute.task.AbstractCompactionTask;
 import org.apache.iotdb.db.engine.compaction.schedule.CompactionScheduler;
 import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.engine.compaction.schedule.QueryHeatRecorder;
 import org.apache.iotdb.db.engine.flush.CloseFileListener;
 import org.apache.iotdb.db.engine.flush.FlushListener;
 import org.apache.iotdb.db.engine.flush.FlushStatus;
@@ -55,6 +56,7 @@ import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.timeindex.DeviceDictionary;
 import org.apache.iotdb.db.engine.upgrade.UpgradeCheckStatus;
 import org.apache.iotdb.db.engine.upgrade.UpgradeLog;
 import org.apache.iotdb.db.engine.version.SimpleFileVersionController;
@@ -102,6 +104,7 @@ import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.fileSystem.fsFactory.FSFactory;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.writer.RestorableTsFileIOWriter;
@@ -225,6 +228,8 @@ public class DataRegion implements IDataRegionForQuery {
   private File storageGroupSysDir;
   /** manage seqFileList and unSeqFileList. */
   private final TsFileManager tsFileManager;
+  /** time of the last flushed point of each series, null if it is disabled. */
+  private SeriesLastTimeIndex seriesLastTimeIndex;
 
   /** manage tsFileResource degrade. */
   private final TsFileResourceManager tsFileResourceManager = TsFileResourceManager.getInstance();
@@ -303,6 +308,9 @@ public class DataRegion implements IDataRegionForQuery {
     } else if (!storageGroupSysDir.exists()) {
       logger.error("create database system Directory {} failed", storageGroupSysDir.getPath());
     }
+    if (config.isEnableSeriesLastTimeIndex()) {
+      seriesLastTimeIndex = new SeriesLastTimeIndex(storageGroupSysDir);
+    }
 
     // if you use id table, we use id table flush time manager
     if (config.isEnableIDTable()) {
@@ -1357,6 +1365,9 @@ public class DataRegion implements IDataRegionForQuery {
 
     tsFileProcessor.addCloseFileListeners(customCloseFileListeners);
     tsFileProcessor.addFlushListeners(customFlushListeners);
+    if (seriesLastTimeIndex != null) {
+      tsFileProcessor.addFlushListeners(Collections.singletonList(seriesLastTimeIndex));
+    }
     tsFileProcessor.setTimeRangeId(timePartitionId);
 
     return tsFileProcessor;
@@ -1516,6 +1527,7 @@ public class DataRegion implements IDataRegionForQuery {
       this.workSequenceTsFileProcessors.clear();
       this.workUnsequenceTsFileProcessors.clear();
       this.tsFileManager.clear();
+      DeviceDictionary.remove(databaseName + "-" + dataRegionId);
       lastFlushTimeMap.clearFlushedTime();
       lastFlushTimeMap.clearGlobalFlushedTime();
     } finally {
@@ -1700,9 +1712,10 @@ public class DataRegion implements IDataRegionForQuery {
       List<PartialPath> pathList, String singleDeviceId, QueryContext context, Filter timeFilter)
       throws QueryProcessException {
     try {
+      long[] timeRange = getTimeRangeForQuery(timeFilter);
       List<TsFileResource> seqResources =
           getFileResourceListForQuery(
-              tsFileManager.getTsFileList(true),
+              tsFileManager.getTsFileListForQuery(true, timeRange[0], timeRange[1]),
               upgradeSeqFileList,
               pathList,
               singleDeviceId,
@@ -1711,7 +1724,7 @@ public class DataRegion implements IDataRegionForQuery {
               true);
       List<TsFileResource> unseqResources =
           getFileResourceListForQuery(
-              tsFileManager.getTsFileList(false),
+              tsFileManager.getTsFileListForQuery(false, timeRange[0], timeRange[1]),
               upgradeUnseqFileList,
               pathList,
               singleDeviceId,
@@ -1722,6 +1735,11 @@ public class DataRegion implements IDataRegionForQuery {
       queryMetricsManager.recordQueryResourceNum(SEQUENCE_TSFILE, seqResources.size());
       queryMetricsManager.recordQueryResourceNum(UNSEQUENCE_TSFILE, unseqResources.size());
 
+      if (config.isEnableCompactionQueryHeatPriority()) {
+        QueryHeatRecorder.getInstance()
+            .recordQuery(databaseName + "-" + dataRegionId, seqResources, unseqResources);
+      }
+
       QueryDataSource dataSource = new QueryDataSource(seqResources, unseqResources);
       dataSource.setDataTTL(dataTTL);
       return dataSource;
@@ -1730,6 +1748,33 @@ public class DataRegion implements IDataRegionForQuery {
     }
   }
 
+  /**
+   * @return [start time, end time] covering all the time ranges of the filter and the ttl, which is
+   *     used to find the overlapped files by the interval indexes of TsFileManager
+   */
+  private long[] getTimeRangeForQuery(Filter timeFilter) {
+    long startTime =
+        dataTTL != Long.MAX_VALUE ? DateTimeUtils.currentTime() - dataTTL : Long.MIN_VALUE;
+    long endTime = Long.MAX_VALUE;
+    if (timeFilter != null) {
+      List<TimeRange> timeRanges = timeFilter.getTimeRanges();
+      if (!timeRanges.isEmpty()) {
+        long minTime = timeRanges.get(0).getMin();
+        long maxTime = timeRanges.get(timeRanges.size() - 1).getMax();
+        // the time ranges are not accurate if the filter is also on values, then all the files
+        // are checked
+        if ((minTime == Long.MIN_VALUE
+                || !timeFilter.satisfyStartEndTime(Long.MIN_VALUE, minTime - 1))
+            && (maxTime == Long.MAX_VALUE
+                || !timeFilter.satisfyStartEndTime(maxTime + 1, Long.MAX_VALUE))) {
+          startTime = Math.max(startTime, minTime);
+          endTime = maxTime;
+        }
+      }
+    }
+    return new long[] {startTime, endTime};
+  }
+
   /** lock the read lock of the insert lock */
   @Override
   public void readLock() {
@@ -1887,6 +1932,9 @@ public class DataRegion implements IDataRegionForQuery {
       // delete Last cache record if necessary
       // todo implement more precise process
       DataNodeSchemaCache.getInstance().invalidateAll();
+      if (seriesLastTimeIndex != null) {
+        seriesLastTimeIndex.invalidate(pattern, startTime, endTime);
+      }
 
       // write log to impacted working TsFileProcessors
       List<WALFlushListener> walListeners =
@@ -3404,6 +3452,13 @@ public class DataRegion implements IDataRegionForQuery {
     return dataTTL;
   }
 
+  @Override
+  public long getSeriesLastTime(String seriesPath) {
+    return seriesLastTimeIndex == null
+        ? Long.MIN_VALUE
+        : seriesLastTimeIndex.getLastTime(seriesPath);
+  }
+
   @TestOnly
   public ILastFlushTimeMap getLastFlushTimeMap() {
     return lastFlushTimeMap;
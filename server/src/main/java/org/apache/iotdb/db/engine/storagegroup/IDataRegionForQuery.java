@@ -44,4 +44,10 @@ public interface IDataRegionForQuery {
 
   /** Get database name of this DataRegion */
   String getDatabaseName();
+
+  /**
+   * Get the indexed time of the last flushed point of the series, or Long.MIN_VALUE if it is
+   * unknown. The point may have been deleted since.
+   */
+  long getSeriesLastTime(String seriesPath);
 }
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.engine.flush.FlushListener;
+import org.apache.iotdb.db.engine.memtable.IMemTable;
+import org.apache.iotdb.db.engine.memtable.IWritableMemChunk;
+import org.apache.iotdb.db.engine.memtable.IWritableMemChunkGroup;
+import org.apache.iotdb.db.engine.memtable.WritableMemChunkGroup;
+import org.apache.iotdb.db.metadata.idtable.entry.IDeviceID;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The time of the last flushed point of each non-aligned series in a data region. It is persisted
+ * in the system directory of the data region as a log appended after each flush, and loaded on the
+ * first query after restart.
+ *
+ * <p>The time is only a hint for LAST queries missing the last cache: they scan the data not
+ * earlier than it first, and scan all the data if nothing is found, e.g. because the points have
+ * been deleted since. Therefore the log is not synced, and losing its tail only makes the hint
+ * older.
+ */
+public class SeriesLastTimeIndex implements FlushListener {
+
+  private static final Logger logger = LoggerFactory.getLogger(SeriesLastTimeIndex.class);
+
+  public static final String INDEX_FILE_NAME = "series-last-time.index";
+  private static final String TEMP_SUFFIX = ".tmp";
+  // time of the records removing a series from the index
+  private static final long REMOVED = Long.MIN_VALUE;
+  // the log is rewritten once it has more records than this ratio to the series
+  private static final int MAX_RECORD_RATIO = 4;
+  private static final int MIN_RECORD_NUM_TO_REWRITE = 1024;
+
+  private final File indexFile;
+
+  // null until loaded from the index file
+  private Map<String, Long> lastTimes;
+  private long recordNum;
+
+  // last times of the memtables being flushed, which are indexed after the flush
+  private final Map<IMemTable, Map<String, Long>> flushingLastTimes = new ConcurrentHashMap<>();
+
+  public SeriesLastTimeIndex(File systemDir) {
+    this.indexFile = new File(systemDir, INDEX_FILE_NAME);
+  }
+
+  /** @return the indexed last time of the series, or Long.MIN_VALUE if it is unknown */
+  public synchronized long getLastTime(String seriesPath) {
+    loadIfNecessary();
+    return lastTimes.getOrDefault(seriesPath, REMOVED);
+  }
+
+  @Override
+  public void onMemTableFlushStarted(IMemTable memTable) {
+    if (memTable.isSignalMemTable()) {
+      return;
+    }
+    Map<String, Long> seriesLastTimes = new HashMap<>();
+    for (Entry<IDeviceID, IWritableMemChunkGroup> deviceEntry :
+        memTable.getMemTableMap().entrySet()) {
+      // the last time of each measurement of aligned series is not known by the memtable
+      if (!(deviceEntry.getValue() instanceof WritableMemChunkGroup)) {
+        continue;
+      }
+      String device = deviceEntry.getKey().toStringID();
+      for (Entry<String, IWritableMemChunk> chunkEntry :
+          deviceEntry.getValue().getMemChunkMap().entrySet()) {
+        if (chunkEntry.getValue().count() > 0) {
+          seriesLastTimes.put(
+              device + TsFileConstant.PATH_SEPARATOR + chunkEntry.getKey(),
+              chunkEntry.getValue().getMaxTime());
+        }
+      }
+    }
+    if (!seriesLastTimes.isEmpty()) {
+      flushingLastTimes.put(memTable, seriesLastTimes);
+    }
+  }
+
+  @Override
+  public void onMemTableFlushed(IMemTable memTable) {
+    Map<String, Long> seriesLastTimes = flushingLastTimes.remove(memTable);
+    if (seriesLastTimes != null) {
+      update(seriesLastTimes);
+    }
+  }
+
+  /** the data of the memtable is truncated from the TsFile, so its last times are dropped */
+  @Override
+  public void onMemTableFlushFailed(IMemTable memTable) {
+    flushingLastTimes.remove(memTable);
+  }
+
+  synchronized void update(Map<String, Long> seriesLastTimes) {
+    if (lastTimes != null) {
+      seriesLastTimes.forEach((series, time) -> lastTimes.merge(series, time, Math::max));
+    }
+    append(seriesLastTimes);
+    if (needRewrite()) {
+      // the records appended before loading are counted too
+      loadIfNecessary();
+      if (needRewrite()) {
+        rewrite();
+      }
+    }
+  }
+
+  private boolean needRewrite() {
+    long seriesNum = lastTimes == null ? 0 : lastTimes.size();
+    return recordNum > Math.max(MIN_RECORD_NUM_TO_REWRITE, MAX_RECORD_RATIO * seriesNum);
+  }
+
+  /**
+   * Removes the series matching the pattern whose last time is within the deleted time range, as
+   * the indexed time is no longer a hint for them.
+   */
+  public synchronized void invalidate(PartialPath pattern, long startTime, long endTime) {
+    loadIfNecessary();
+    Map<String, Long> removedSeries = new HashMap<>();
+    for (Entry<String, Long> entry : lastTimes.entrySet()) {
+      if (entry.getValue() < startTime || entry.getValue() > endTime) {
+        continue;
+      }
+      try {
+        if (!pattern.matchFullPath(new PartialPath(entry.getKey()))) {
+          continue;
+        }
+      } catch (IllegalPathException e) {
+        // the series can not be queried either
+      }
+      removedSeries.put(entry.getKey(), REMOVED);
+    }
+    if (!removedSeries.isEmpty()) {
+      lastTimes.keySet().removeAll(removedSeries.keySet());
+      append(removedSeries);
+    }
+  }
+
+  private void append(Map<String, Long> seriesLastTimes) {
+    try (DataOutputStream outputStream =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, true)))) {
+      for (Entry<String, Long> entry : seriesLastTimes.entrySet()) {
+        outputStream.writeUTF(entry.getKey());
+        outputStream.writeLong(entry.getValue());
+      }
+      recordNum += seriesLastTimes.size();
+    } catch (IOException e) {
+      logger.warn("Failed to append the series last times to {}", indexFile, e);
+    }
+  }
+
+  private void loadIfNecessary() {
+    if (lastTimes != null) {
+      return;
+    }
+    lastTimes = new HashMap<>();
+    if (!indexFile.exists()) {
+      return;
+    }
+    recordNum = 0;
+    boolean broken = false;
+    try (DataInputStream inputStream =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+      while (inputStream.available() > 0) {
+        String series = inputStream.readUTF();
+        long time = inputStream.readLong();
+        recordNum++;
+        if (time == REMOVED) {
+          lastTimes.remove(series);
+        } else {
+          lastTimes.merge(series, time, Math::max);
+        }
+      }
+    } catch (EOFException e) {
+      logger.info("The last record of {} is broken, rewrite it", indexFile);
+      broken = true;
+    } catch (IOException e) {
+      logger.warn("Failed to load the series last times from {}", indexFile, e);
+      broken = true;
+    }
+    if (broken || needRewrite()) {
+      rewrite();
+    }
+  }
+
+  /** rewrites the log with one record per indexed series */
+  private void rewrite() {
+    File tempFile = new File(indexFile.getPath() + TEMP_SUFFIX);
+    List<String> series = new ArrayList<>(lastTimes.keySet());
+    try (DataOutputStream outputStream =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+      for (String path : series) {
+        outputStream.writeUTF(path);
+        outputStream.writeLong(lastTimes.get(path));
+      }
+    } catch (IOException e) {
+      logger.warn("Failed to rewrite the series last times to {}", tempFile, e);
+      return;
+    }
+    try {
+      Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      recordNum = series.size();
+    } catch (IOException e) {
+      logger.warn("Failed to replace {} by {}", indexFile, tempFile, e);
+    }
+  }
+
+  @TestOnly
+  synchronized long getRecordNum() {
+    return recordNum;
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An interval tree over the [start time, end time] of the sealed TsFiles in one {@link
+ * TsFileResourceList}, so that a query only checks the files overlapping its time range instead of
+ * every file of the time partition. Like {@link
+ * org.apache.iotdb.db.engine.modification.DeletionIntervalTree}, the files are sorted by their
+ * start time and the tree is implicit in the sorted arrays, each node records the max end time of
+ * its subtree.
+ *
+ * <p>The time range of an unsealed file keeps growing, so unsealed files and the files appended
+ * after the tree is built are not in the tree and are always returned. Only the position of a file
+ * in the list is indexed, the caller still checks the devices and the ttl of the returned files.
+ */
+public class TsFileIntervalIndex {
+
+  /** files appended after the tree is built, the tree should be rebuilt if exceeded */
+  static final int MAX_UNINDEXED_FILE_NUM = 64;
+
+  /** all the files of the list, in the order of the list */
+  private final List<TsFileResource> resources;
+
+  /** positions in resources, sorted by the start time of the files */
+  private final int[] positions;
+
+  private final long[] startTimes;
+  private final long[] endTimes;
+  private final long[] subtreeMaxEndTimes;
+
+  /** positions in resources of the files which are not in the tree, ascending */
+  private int[] unindexedPositions;
+
+  private int unindexedNum;
+
+  public TsFileIntervalIndex(List<TsFileResource> resources) {
+    this.resources = new ArrayList<>(resources);
+    List<Integer> sealed = new ArrayList<>(resources.size());
+    unindexedPositions = new int[8];
+    for (int i = 0; i < resources.size(); i++) {
+      if (resources.get(i).isClosed()) {
+        sealed.add(i);
+      } else {
+        addUnindexedPosition(i);
+      }
+    }
+    sealed.sort(Comparator.comparingLong(i -> resources.get(i).getFileStartTime()));
+
+    int size = sealed.size();
+    positions = new int[size];
+    startTimes = new long[size];
+    endTimes = new long[size];
+    subtreeMaxEndTimes = new long[size];
+    for (int i = 0; i < size; i++) {
+      positions[i] = sealed.get(i);
+      TsFileResource resource = resources.get(positions[i]);
+      startTimes[i] = resource.getFileStartTime();
+      endTimes[i] = resource.getFileEndTime();
+    }
+    build(0, size);
+  }
+
+  private void build(int lo, int hi) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    long maxEndTime = endTimes[mid];
+    if (lo < mid) {
+      build(lo, mid);
+      maxEndTime = Math.max(maxEndTime, subtreeMaxEndTimes[(lo + mid) >>> 1]);
+    }
+    if (mid + 1 < hi) {
+      build(mid + 1, hi);
+      maxEndTime = Math.max(maxEndTime, subtreeMaxEndTimes[(mid + 1 + hi) >>> 1]);
+    }
+    subtreeMaxEndTimes[mid] = maxEndTime;
+  }
+
+  private void addUnindexedPosition(int position) {
+    if (unindexedNum == unindexedPositions.length) {
+      unindexedPositions = Arrays.copyOf(unindexedPositions, unindexedNum * 2);
+    }
+    unindexedPositions[unindexedNum++] = position;
+  }
+
+  /**
+   * Append a file to the tail of the index without rebuilding the tree.
+   *
+   * @return false if there are too many files out of the tree, then the index should be rebuilt
+   */
+  public boolean append(TsFileResource resource) {
+    if (unindexedNum >= MAX_UNINDEXED_FILE_NUM) {
+      return false;
+    }
+    resources.add(resource);
+    addUnindexedPosition(resources.size() - 1);
+    return true;
+  }
+
+  /**
+   * @return the files which may have data in [startTime, endTime], in the order of the list they
+   *     are indexed from
+   */
+  public List<TsFileResource> getOverlapped(long startTime, long endTime) {
+    List<Integer> result = new ArrayList<>();
+    search(0, positions.length, startTime, endTime, result);
+    for (int i = 0; i < unindexedNum; i++) {
+      result.add(unindexedPositions[i]);
+    }
+    result.sort(null);
+
+    List<TsFileResource> overlapped = new ArrayList<>(result.size());
+    for (int position : result) {
+      overlapped.add(resources.get(position));
+    }
+    return overlapped;
+  }
+
+  private void search(int lo, int hi, long startTime, long endTime, List<Integer> result) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    if (subtreeMaxEndTimes[mid] < startTime) {
+      return;
+    }
+    search(lo, mid, startTime, endTime, result);
+    // all the files on the right start after the one in the middle
+    if (startTimes[mid] > endTime) {
+      return;
+    }
+    if (endTimes[mid] >= startTime) {
+      result.add(positions[mid]);
+    }
+    search(mid + 1, hi, startTime, endTime, result);
+  }
+
+  public int size() {
+    return resources.size();
+  }
+}
@@ -85,6 +85,25 @@ public class TsFileManager {
     }
   }
 
+  /**
+   * @return the files which may have data in [startTime, endTime], in the same order as {@link
+   *     #getTsFileList(boolean)}. Only the file level time ranges are checked.
+   */
+  public List<TsFileResource> getTsFileListForQuery(
+      boolean sequence, long startTime, long endTime) {
+    readLock();
+    try {
+      List<TsFileResource> allResources = new ArrayList<>();
+      Map<Long, TsFileResourceList> chosenMap = sequence ? sequenceFiles : unsequenceFiles;
+      for (Map.Entry<Long, TsFileResourceList> entry : chosenMap.entrySet()) {
+        allResources.addAll(entry.getValue().getOverlappedFiles(startTime, endTime));
+      }
+      return allResources;
+    } finally {
+      readUnlock();
+    }
+  }
+
   public TsFileResourceList getOrCreateSequenceListByTimePartition(long timePartition) {
     writeLock("getOrCreateSequenceListByTimePartition");
     try {
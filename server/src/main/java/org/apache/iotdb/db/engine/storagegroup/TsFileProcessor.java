@@ -40,6 +40,7 @@ import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.DataRegion.UpdateEndTimeCallBack;
 import org.apache.iotdb.db.exception.TsFileProcessorException;
 import org.apache.iotdb.db.exception.WriteProcessException;
@@ -56,6 +57,7 @@ import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.rescon.MemTableManager;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.rescon.SystemInfo;
+import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsManager;
 import org.apache.iotdb.db.service.metrics.recorder.WritingMetricsManager;
 import org.apache.iotdb.db.sync.SyncService;
 import org.apache.iotdb.db.sync.sender.manager.ISyncManager;
@@ -156,6 +158,15 @@ public class TsFileProcessor {
   /** whether it's a sequence file or not. */
   private final boolean sequence;
 
+  /**
+   * rollups of the flushed memtables, which are written beside the TsFile when it's sealed. Null if
+   * rollup is disabled, or the file is not sequence or reopened after restart.
+   */
+  private TsFileRollup rollup;
+
+  /** memory of the rollups accounted in the DataRegionInfo for mem control */
+  private long rollupMemCost;
+
   /** total memtable size for mem control. */
   private long totalMemTableSize;
 
@@ -189,6 +200,9 @@ public class TsFileProcessor {
     this.writer = new RestorableTsFileIOWriter(tsfile);
     this.updateLatestFlushTimeCallback = updateLatestFlushTimeCallback;
     this.sequence = sequence;
+    if (sequence && config.getRollupTiers().length > 0) {
+      this.rollup = new TsFileRollup(config.getRollupTiers());
+    }
     this.walNode =
         WALManager.getInstance()
             .applyForWALNode(WALManager.getApplicantUniqueId(storageGroupName, sequence));
@@ -1082,8 +1096,15 @@ public class TsFileProcessor {
                   memTableToFlush,
                   writer,
                   storageGroupName,
-                  dataRegionInfo.getDataRegion().getDataRegionId());
+                  dataRegionInfo.getDataRegion().getDataRegionId(),
+                  rollup == null ? new long[0] : rollup.getTiers());
           flushTask.syncFlushMemTable();
+          if (rollup != null) {
+            rollup.append(flushTask.getRollup());
+            if (enableMemControl) {
+              updateRollupMemCost(rollup.calculateRamSize());
+            }
+          }
         } catch (Throwable e) {
           if (writer == null) {
             logger.info(
@@ -1114,6 +1135,9 @@ public class TsFileProcessor {
                   tsFileResource.getTsFile().getAbsolutePath(),
                   e1);
             }
+            for (FlushListener flushListener : flushListeners) {
+              flushListener.onMemTableFlushFailed(memTableToFlush);
+            }
             // release resource
             try {
               syncReleaseFlushedMemTable(memTableToFlush);
@@ -1273,12 +1297,36 @@ public class TsFileProcessor {
     }
   }
 
+  /**
+   * The rollups are updated by the flush thread, so they are accounted in the DataRegionInfo
+   * directly like the flushing memtables instead of the TsFileProcessorInfo of the insert threads,
+   * and reported to SystemInfo when the flushed memtable is released.
+   */
+  private void updateRollupMemCost(long newRollupMemCost) {
+    dataRegionInfo.addStorageGroupMemCost(newRollupMemCost - rollupMemCost);
+    rollupMemCost = newRollupMemCost;
+  }
+
   /** end file and write some meta */
   private void endFile() throws IOException, TsFileProcessorException {
     logger.info("Start to end file {}", tsFileResource);
     long closeStartTime = System.currentTimeMillis();
     writer.endFile();
     tsFileResource.serialize();
+    if (dataRegionInfo != null && dataRegionInfo.getDataRegion() != null) {
+      CompactionMetricsManager.getInstance()
+          .recordFlushedFileSize(
+              dataRegionInfo.getDataRegion().getDatabaseName(), tsFileResource.getTsFileSize());
+    }
+    if (rollup != null) {
+      try {
+        rollup.serialize(tsFileResource.getTsFile());
+      } catch (IOException e) {
+        // the TsFile is still readable without rollup
+        logger.warn("Meet error when writing the rollups of {}", tsFileResource, e);
+      }
+      rollup = null;
+    }
     for (ISyncManager syncManager :
         SyncService.getInstance()
             .getOrCreateSyncManager(dataRegionInfo.getDataRegion().getDataRegionId())) {
@@ -1293,6 +1341,7 @@ public class TsFileProcessor {
     }
 
     if (enableMemControl) {
+      updateRollupMemCost(0);
       tsFileProcessorInfo.clear();
       dataRegionInfo.closeTsFileProcessorAndReportToSystem(this);
     }
@@ -1321,6 +1370,7 @@ public class TsFileProcessor {
       closeFileListener.onClosed(this);
     }
     if (enableMemControl) {
+      updateRollupMemCost(0);
       tsFileProcessorInfo.clear();
       dataRegionInfo.closeTsFileProcessorAndReportToSystem(this);
     }
@@ -22,11 +22,16 @@ import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.DecompressedPageCache;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.engine.rollup.RollupCache;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.DataRegion.SettleTsFileCallBack;
 import org.apache.iotdb.db.engine.storagegroup.DataRegion.UpgradeTsFileResourceCallBack;
 import org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator.TsFileName;
+import org.apache.iotdb.db.engine.storagegroup.timeindex.CompactDeviceTimeIndex;
+import org.apache.iotdb.db.engine.storagegroup.timeindex.DeviceDictionary;
 import org.apache.iotdb.db.engine.storagegroup.timeindex.DeviceTimeIndex;
 import org.apache.iotdb.db.engine.storagegroup.timeindex.FileTimeIndex;
 import org.apache.iotdb.db.engine.storagegroup.timeindex.ITimeIndex;
@@ -540,6 +545,9 @@ public class TsFileResource {
    */
   public boolean remove() {
     setStatus(TsFileResourceStatus.DELETED);
+    if (DecompressedPageCache.isEnable()) {
+      DecompressedPageCache.getInstance().remove(getTsFilePath());
+    }
     try {
       fsFactory.deleteIfExists(file);
       fsFactory.deleteIfExists(
@@ -557,6 +565,15 @@ public class TsFileResource {
       LOGGER.error("ModificationFile {} cannot be deleted: {}", file, e.getMessage());
       return false;
     }
+    if (RollupCache.isEnable()) {
+      RollupCache.getInstance().remove(getTsFilePath());
+    }
+    try {
+      TsFileRollup.remove(file);
+    } catch (IOException e) {
+      LOGGER.error("Rollup file of {} cannot be deleted: {}", file, e.getMessage());
+      return false;
+    }
     return true;
   }
 
@@ -1090,6 +1107,29 @@ public class TsFileResource {
     return ramSize - timeIndex.calculateRamSize();
   }
 
+  /**
+   * replace the DeviceTimeIndex of the sealed TsFile with a CompactDeviceTimeIndex, whose devices
+   * are interned in the dictionary of the data region.
+   */
+  public void compactTimeIndex() {
+    if (timeIndex instanceof DeviceTimeIndex && !(timeIndex instanceof CompactDeviceTimeIndex)) {
+      timeIndex =
+          ((DeviceTimeIndex) timeIndex).compact(DeviceDictionary.getInstance(getDataRegionName()));
+    }
+  }
+
+  /** @return database name and data region id, joined in the same way as DataRegion does */
+  private String getDataRegionName() {
+    String tsFilePath = file.getAbsolutePath();
+    if (FilePathUtils.splitTsFilePath(tsFilePath).length < 4) {
+      // not located in a data region folder, e.g. in tests
+      return file.getAbsoluteFile().getParent();
+    }
+    return FilePathUtils.getLogicalStorageGroupName(tsFilePath)
+        + "-"
+        + FilePathUtils.getDataRegionId(tsFilePath);
+  }
+
   private void generatePathToTimeSeriesMetadataMap() throws IOException {
     for (PartialPath path : pathToChunkMetadataListMap.keySet()) {
       pathToTimeSeriesMetadataMap.put(
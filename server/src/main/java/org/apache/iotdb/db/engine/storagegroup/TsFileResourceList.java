@@ -40,6 +40,9 @@ public class TsFileResourceList implements List<TsFileResource> {
   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
   private int count = 0;
 
+  /** built lazily by queries, set to null once the list is changed */
+  private TsFileIntervalIndex intervalIndex;
+
   /**
    * Insert a new node before an existing node
    *
@@ -59,6 +62,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     }
     node.prev = newNode;
     count++;
+    intervalIndex = null;
   }
 
   /**
@@ -77,6 +81,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     }
     node.next = newNode;
     count++;
+    intervalIndex = null;
   }
 
   @Override
@@ -122,6 +127,7 @@ public class TsFileResourceList implements List<TsFileResource> {
       // this node already in a list
       return false;
     }
+    TsFileIntervalIndex index = intervalIndex;
     if (tail == null) {
       header = newNode;
       tail = newNode;
@@ -129,6 +135,8 @@ public class TsFileResourceList implements List<TsFileResource> {
     } else {
       insertAfter(tail, newNode);
     }
+    // the new file is at the tail, so the index can be kept
+    intervalIndex = index != null && index.append(newNode) ? index : null;
     return true;
   }
 
@@ -146,6 +154,7 @@ public class TsFileResourceList implements List<TsFileResource> {
       header = newNode;
       tail = newNode;
       count++;
+      intervalIndex = null;
     } else {
       // find the position to insert of this node
       // the list should be ordered by file timestamp
@@ -221,6 +230,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     tsFileResource.prev = null;
     tsFileResource.next = null;
     count--;
+    intervalIndex = null;
     return true;
   }
 
@@ -246,6 +256,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     header = null;
     tail = null;
     count = 0;
+    intervalIndex = null;
   }
 
   @Override
@@ -355,6 +366,17 @@ public class TsFileResourceList implements List<TsFileResource> {
     throw new NotImplementedException();
   }
 
+  /**
+   * @return the files which may have data in [startTime, endTime], in the order of this list. The
+   *     caller should hold the read lock of the TsFileManager.
+   */
+  public synchronized List<TsFileResource> getOverlappedFiles(long startTime, long endTime) {
+    if (intervalIndex == null) {
+      intervalIndex = new TsFileIntervalIndex(getArrayList());
+    }
+    return intervalIndex.getOverlapped(startTime, endTime);
+  }
+
   public List<TsFileResource> getArrayList() {
     List<TsFileResource> list = new ArrayList<>();
     if (header == null) {
@@ -69,6 +69,11 @@ public class VirtualDataRegion implements IDataRegionForQuery {
     return VIRTUAL_DB_NAME;
   }
 
+  @Override
+  public long getSeriesLastTime(String seriesPath) {
+    return Long.MIN_VALUE;
+  }
+
   private static class InstanceHolder {
 
     private InstanceHolder() {}
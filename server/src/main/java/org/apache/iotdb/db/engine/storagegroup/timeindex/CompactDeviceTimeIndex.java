@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup.timeindex;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * {@link DeviceTimeIndex} of a sealed TsFile. Instead of a map of device names per file, the
+ * devices are interned in the {@link DeviceDictionary} shared by the data region, and this index
+ * only keeps the sorted device ids with their start and end times in primitive arrays. A device is
+ * located by one dictionary lookup and one binary search.
+ *
+ * <p>The three arrays are published together as one {@link Entries} snapshot through a volatile
+ * field, so that readers never see the ids of one snapshot with the times of another. The arrays of
+ * the inherited fields are not used.
+ *
+ * <p>It is serialized in the same format as {@link DeviceTimeIndex}, so the resource files are not
+ * affected.
+ */
+public class CompactDeviceTimeIndex extends DeviceTimeIndex {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(CompactDeviceTimeIndex.class)
+          + RamUsageEstimator.shallowSizeOfInstance(Entries.class);
+
+  private final DeviceDictionary dictionary;
+
+  private volatile Entries entries;
+
+  CompactDeviceTimeIndex(
+      DeviceDictionary dictionary,
+      int[] deviceIds,
+      long[] startTimes,
+      long[] endTimes,
+      long minStartTime,
+      long maxEndTime) {
+    super(null, null, null);
+    this.dictionary = dictionary;
+    this.entries = new Entries(deviceIds, startTimes, endTimes);
+    this.minStartTime = minStartTime;
+    this.maxEndTime = maxEndTime;
+  }
+
+  @Override
+  public void serialize(OutputStream outputStream) throws IOException {
+    Entries current = entries;
+    ReadWriteIOUtils.write(getTimeIndexType(), outputStream);
+    int deviceNum = current.deviceIds.length;
+
+    ReadWriteIOUtils.write(deviceNum, outputStream);
+    for (int i = 0; i < deviceNum; i++) {
+      ReadWriteIOUtils.write(current.startTimes[i], outputStream);
+      ReadWriteIOUtils.write(current.endTimes[i], outputStream);
+    }
+
+    for (int i = 0; i < deviceNum; i++) {
+      ReadWriteIOUtils.write(dictionary.getDevice(current.deviceIds[i]), outputStream);
+      ReadWriteIOUtils.write(i, outputStream);
+    }
+  }
+
+  @Override
+  public DeviceTimeIndex deserialize(InputStream inputStream) throws IOException {
+    return load(new DeviceTimeIndex().deserialize(inputStream));
+  }
+
+  @Override
+  public DeviceTimeIndex deserialize(ByteBuffer buffer) {
+    return load(new DeviceTimeIndex().deserialize(buffer));
+  }
+
+  /** replace the content of this index by the compacted given index */
+  private synchronized CompactDeviceTimeIndex load(DeviceTimeIndex deviceTimeIndex) {
+    CompactDeviceTimeIndex compacted = deviceTimeIndex.compact(dictionary);
+    entries = compacted.entries;
+    minStartTime = compacted.minStartTime;
+    maxEndTime = compacted.maxEndTime;
+    return this;
+  }
+
+  @Override
+  public CompactDeviceTimeIndex compact(DeviceDictionary dictionary) {
+    if (dictionary == this.dictionary) {
+      return this;
+    }
+    Entries current = entries;
+    int deviceNum = current.deviceIds.length;
+    DeviceTimeIndex deviceTimeIndex = new DeviceTimeIndex();
+    for (int i = 0; i < deviceNum; i++) {
+      String device = this.dictionary.getDevice(current.deviceIds[i]);
+      deviceTimeIndex.putStartTime(device, current.startTimes[i]);
+      deviceTimeIndex.putEndTime(device, current.endTimes[i]);
+    }
+    return deviceTimeIndex.compact(dictionary);
+  }
+
+  @Override
+  public void close() {
+    // the arrays are already trimmed
+  }
+
+  @Override
+  public Set<String> getDevices() {
+    int[] deviceIds = entries.deviceIds;
+    Set<String> devices = new HashSet<>(deviceIds.length * 4 / 3 + 1);
+    for (int deviceId : deviceIds) {
+      devices.add(dictionary.getDevice(deviceId));
+    }
+    return devices;
+  }
+
+  @Override
+  public Set<String> getDevices(String tsFilePath, TsFileResource tsFileResource) {
+    return getDevices();
+  }
+
+  @Override
+  public boolean endTimeEmpty() {
+    for (long endTime : entries.endTimes) {
+      if (endTime != Long.MIN_VALUE) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean stillLives(long ttlLowerBound) {
+    if (ttlLowerBound == Long.MAX_VALUE) {
+      return true;
+    }
+    for (long endTime : entries.endTimes) {
+      // the file cannot be deleted if any device still lives
+      if (endTime >= ttlLowerBound) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** the dictionary is shared by the data region, so it is not counted here */
+  @Override
+  public long calculateRamSize() {
+    Entries current = entries;
+    return INSTANCE_SIZE
+        + RamUsageEstimator.sizeOf(current.deviceIds)
+        + RamUsageEstimator.sizeOf(current.startTimes)
+        + RamUsageEstimator.sizeOf(current.endTimes);
+  }
+
+  @Override
+  protected int indexOf(String deviceId) {
+    return entries.indexOf(dictionary.getId(deviceId));
+  }
+
+  /** sealed TsFiles rarely get new devices, so the arrays are copied for each new one */
+  private Entries getOrCreateEntry(String deviceId) {
+    int id = dictionary.getOrCreateId(deviceId);
+    Entries current = entries;
+    int index = current.indexOf(id);
+    if (index >= 0) {
+      return current;
+    }
+    index = -Arrays.binarySearch(current.deviceIds, id) - 1;
+    int deviceNum = current.deviceIds.length;
+    int[] newDeviceIds = new int[deviceNum + 1];
+    long[] newStartTimes = new long[deviceNum + 1];
+    long[] newEndTimes = new long[deviceNum + 1];
+    System.arraycopy(current.deviceIds, 0, newDeviceIds, 0, index);
+    System.arraycopy(current.startTimes, 0, newStartTimes, 0, index);
+    System.arraycopy(current.endTimes, 0, newEndTimes, 0, index);
+    newDeviceIds[index] = id;
+    newStartTimes[index] = Long.MAX_VALUE;
+    newEndTimes[index] = Long.MIN_VALUE;
+    System.arraycopy(current.deviceIds, index, newDeviceIds, index + 1, deviceNum - index);
+    System.arraycopy(current.startTimes, index, newStartTimes, index + 1, deviceNum - index);
+    System.arraycopy(current.endTimes, index, newEndTimes, index + 1, deviceNum - index);
+    entries = new Entries(newDeviceIds, newStartTimes, newEndTimes);
+    return entries;
+  }
+
+  @Override
+  public synchronized void updateStartTime(String deviceId, long time) {
+    if (time < getStartTime(deviceId)) {
+      Entries current = getOrCreateEntry(deviceId);
+      current.startTimes[current.indexOf(dictionary.getId(deviceId))] = time;
+    }
+    minStartTime = Math.min(minStartTime, time);
+  }
+
+  @Override
+  public synchronized void updateEndTime(String deviceId, long time) {
+    if (time > getEndTime(deviceId)) {
+      Entries current = getOrCreateEntry(deviceId);
+      current.endTimes[current.indexOf(dictionary.getId(deviceId))] = time;
+    }
+    maxEndTime = Math.max(maxEndTime, time);
+  }
+
+  @Override
+  public synchronized void putStartTime(String deviceId, long time) {
+    Entries current = getOrCreateEntry(deviceId);
+    current.startTimes[current.indexOf(dictionary.getId(deviceId))] = time;
+    minStartTime = Math.min(minStartTime, time);
+  }
+
+  @Override
+  public synchronized void putEndTime(String deviceId, long time) {
+    Entries current = getOrCreateEntry(deviceId);
+    current.endTimes[current.indexOf(dictionary.getId(deviceId))] = time;
+    maxEndTime = Math.max(maxEndTime, time);
+  }
+
+  @Override
+  public long getStartTime(String deviceId) {
+    Entries current = entries;
+    int index = current.indexOf(dictionary.getId(deviceId));
+    return index < 0 ? Long.MAX_VALUE : current.startTimes[index];
+  }
+
+  @Override
+  public long getEndTime(String deviceId) {
+    Entries current = entries;
+    int index = current.indexOf(dictionary.getId(deviceId));
+    return index < 0 ? Long.MIN_VALUE : current.endTimes[index];
+  }
+
+  @Override
+  public long[] getStartAndEndTime(String deviceId) {
+    Entries current = entries;
+    int index = current.indexOf(dictionary.getId(deviceId));
+    if (index < 0) {
+      return null;
+    } else {
+      return new long[] {current.startTimes[index], current.endTimes[index]};
+    }
+  }
+
+  @Override
+  public long getTimePartition(String tsFilePath) {
+    Entries current = entries;
+    if (current.deviceIds.length > 0) {
+      return StorageEngine.getTimePartition(current.startTimes[0]);
+    }
+    return super.getTimePartition(tsFilePath);
+  }
+
+  @Override
+  protected long getTimePartitionWithCheck() {
+    Entries current = entries;
+    long partitionId = SPANS_MULTI_TIME_PARTITIONS_FLAG_ID;
+    for (int i = 0; i < current.deviceIds.length; i++) {
+      long p = StorageEngine.getTimePartition(current.startTimes[i]);
+      if (partitionId == SPANS_MULTI_TIME_PARTITIONS_FLAG_ID) {
+        partitionId = p;
+      } else if (partitionId != p) {
+        return SPANS_MULTI_TIME_PARTITIONS_FLAG_ID;
+      }
+
+      p = StorageEngine.getTimePartition(current.endTimes[i]);
+      if (partitionId != p) {
+        return SPANS_MULTI_TIME_PARTITIONS_FLAG_ID;
+      }
+    }
+    return partitionId;
+  }
+
+  @Override
+  public Pair<Long, Long> getPossibleStartTimeAndEndTime(PartialPath devicePattern) {
+    Entries current = entries;
+    boolean hasMatchedDevice = false;
+    long startTime = Long.MAX_VALUE;
+    long endTime = Long.MIN_VALUE;
+    for (int i = 0; i < current.deviceIds.length; i++) {
+      try {
+        if (devicePattern.matchFullPath(
+            new PartialPath(dictionary.getDevice(current.deviceIds[i])))) {
+          hasMatchedDevice = true;
+          startTime = Math.min(startTime, current.startTimes[i]);
+          endTime = Math.max(endTime, current.endTimes[i]);
+        }
+      } catch (IllegalPathException e) {
+        // won't reach here
+      }
+    }
+
+    return hasMatchedDevice ? new Pair<>(startTime, endTime) : null;
+  }
+
+  /**
+   * Sorted device ids, with the start times and end times at the same positions. The arrays are
+   * never resized, a new device replaces the whole snapshot. The times may be updated in place.
+   */
+  private static class Entries {
+
+    private final int[] deviceIds;
+    private final long[] startTimes;
+    private final long[] endTimes;
+
+    private Entries(int[] deviceIds, long[] startTimes, long[] endTimes) {
+      this.deviceIds = deviceIds;
+      this.startTimes = startTimes;
+      this.endTimes = endTimes;
+    }
+
+    /** @return the position of the device id, -1 if not exist */
+    private int indexOf(int deviceId) {
+      if (deviceId < 0) {
+        return -1;
+      }
+      int index = Arrays.binarySearch(deviceIds, deviceId);
+      return index < 0 ? -1 : index;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup.timeindex;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the devices of one data region into dense int ids, so that the {@link
+ * CompactDeviceTimeIndex} of each sealed TsFile only keeps sorted ids instead of its own map of
+ * device names.
+ *
+ * <p>Ids are never reclaimed, because any sealed TsFile of the region may still refer to them, and
+ * the dictionary is dropped together with its data region. It is bounded by the number of distinct
+ * devices ever written into the region, which is the number of devices the schema region already
+ * keeps in memory, and the device names are interned, so they are shared with the memtables and the
+ * schema. Only the devices deleted from the region linger until the region is dropped.
+ */
+public class DeviceDictionary {
+
+  private static final int INIT_ARRAY_SIZE = 64;
+
+  /** data region -> dictionary of the region */
+  private static final Map<String, DeviceDictionary> DICTIONARIES = new ConcurrentHashMap<>();
+
+  private final Map<String, Integer> deviceToId = new ConcurrentHashMap<>();
+
+  /** id -> device, replaced by a larger copy when full */
+  private volatile String[] idToDevice = new String[INIT_ARRAY_SIZE];
+
+  public static DeviceDictionary getInstance(String dataRegion) {
+    return DICTIONARIES.computeIfAbsent(dataRegion, k -> new DeviceDictionary());
+  }
+
+  /** drop the dictionary once all the TsFiles of the data region are deleted */
+  public static void remove(String dataRegion) {
+    DICTIONARIES.remove(dataRegion);
+  }
+
+  /** @return id of the device, -1 if the device has never been interned */
+  public int getId(String deviceId) {
+    Integer id = deviceToId.get(deviceId);
+    return id == null ? -1 : id;
+  }
+
+  public synchronized int getOrCreateId(String deviceId) {
+    Integer id = deviceToId.get(deviceId);
+    if (id != null) {
+      return id;
+    }
+    int newId = deviceToId.size();
+    String[] devices = idToDevice;
+    if (newId >= devices.length) {
+      devices = Arrays.copyOf(devices, devices.length * 2);
+    }
+    devices[newId] = deviceId.intern();
+    idToDevice = devices;
+    // publish the id only after the device can be found by it
+    deviceToId.put(devices[newId], newId);
+    return newId;
+  }
+
+  public String getDevice(int id) {
+    return idToDevice[id];
+  }
+
+  public int size() {
+    return deviceToId.size();
+  }
+}
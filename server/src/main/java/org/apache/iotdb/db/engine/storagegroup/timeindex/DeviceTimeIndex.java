@@ -60,10 +60,10 @@ public class DeviceTimeIndex implements ITimeIndex {
   protected long[] endTimes;
 
   /** min start time */
-  private long minStartTime = Long.MAX_VALUE;
+  protected long minStartTime = Long.MAX_VALUE;
 
   /** max end time */
-  private long maxEndTime = Long.MIN_VALUE;
+  protected long maxEndTime = Long.MIN_VALUE;
 
   /** device -> index of start times array and end times array */
   protected Map<String, Integer> deviceToIndex;
@@ -208,6 +208,38 @@ public class DeviceTimeIndex implements ITimeIndex {
         + RamUsageEstimator.sizeOf(endTimes);
   }
 
+  /**
+   * Compact this index into a {@link CompactDeviceTimeIndex} whose devices are interned in the
+   * given dictionary. Should only be called once the TsFile is sealed.
+   */
+  public CompactDeviceTimeIndex compact(DeviceDictionary dictionary) {
+    int deviceNum = deviceToIndex.size();
+    long[] idAndIndex = new long[deviceNum];
+    int i = 0;
+    for (Entry<String, Integer> entry : deviceToIndex.entrySet()) {
+      // id in the high bits so that sorting the longs sorts by device id
+      idAndIndex[i++] = ((long) dictionary.getOrCreateId(entry.getKey()) << 32) | entry.getValue();
+    }
+    Arrays.sort(idAndIndex, 0, i);
+    int[] deviceIds = new int[i];
+    long[] compactStartTimes = new long[i];
+    long[] compactEndTimes = new long[i];
+    for (int j = 0; j < i; j++) {
+      deviceIds[j] = (int) (idAndIndex[j] >>> 32);
+      int index = (int) idAndIndex[j];
+      compactStartTimes[j] = startTimes[index];
+      compactEndTimes[j] = endTimes[index];
+    }
+    return new CompactDeviceTimeIndex(
+        dictionary, deviceIds, compactStartTimes, compactEndTimes, minStartTime, maxEndTime);
+  }
+
+  /** @return index of the device in start times array and end times array, -1 if not exist */
+  protected int indexOf(String deviceId) {
+    Integer index = deviceToIndex.get(deviceId);
+    return index == null ? -1 : index;
+  }
+
   private int getDeviceIndex(String deviceId) {
     int index;
     if (deviceToIndex.containsKey(deviceId)) {
@@ -248,7 +280,7 @@ public class DeviceTimeIndex implements ITimeIndex {
   }
 
   /** @return the time partition id, if spans multi time partitions, return -1. */
-  private long getTimePartitionWithCheck() {
+  protected long getTimePartitionWithCheck() {
     long partitionId = SPANS_MULTI_TIME_PARTITIONS_FLAG_ID;
     for (int index : deviceToIndex.values()) {
       long p = StorageEngine.getTimePartition(startTimes[index]);
@@ -319,23 +351,19 @@ public class DeviceTimeIndex implements ITimeIndex {
 
   @Override
   public long getStartTime(String deviceId) {
-    if (!deviceToIndex.containsKey(deviceId)) {
-      return Long.MAX_VALUE;
-    }
-    return startTimes[deviceToIndex.get(deviceId)];
+    int index = indexOf(deviceId);
+    return index < 0 ? Long.MAX_VALUE : startTimes[index];
   }
 
   @Override
   public long getEndTime(String deviceId) {
-    if (!deviceToIndex.containsKey(deviceId)) {
-      return Long.MIN_VALUE;
-    }
-    return endTimes[deviceToIndex.get(deviceId)];
+    int index = indexOf(deviceId);
+    return index < 0 ? Long.MIN_VALUE : endTimes[index];
   }
 
   @Override
   public boolean checkDeviceIdExist(String deviceId) {
-    return deviceToIndex.containsKey(deviceId);
+    return indexOf(deviceId) >= 0;
   }
 
   @Override
@@ -362,17 +390,16 @@ public class DeviceTimeIndex implements ITimeIndex {
 
   @Override
   public boolean mayContainsDevice(String device) {
-    return deviceToIndex.containsKey(device);
+    return indexOf(device) >= 0;
   }
 
   @Override
   public long[] getStartAndEndTime(String deviceId) {
-    Integer index = deviceToIndex.get(deviceId);
-    if (index == null) {
+    int index = indexOf(deviceId);
+    if (index < 0) {
       return null;
     } else {
-      int i = index;
-      return new long[] {startTimes[i], endTimes[i]};
+      return new long[] {startTimes[index], endTimes[index]};
     }
   }
 
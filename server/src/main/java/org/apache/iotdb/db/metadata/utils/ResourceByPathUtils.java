@@ -27,6 +27,7 @@ import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.memtable.IWritableMemChunk;
 import org.apache.iotdb.db.engine.memtable.IWritableMemChunkGroup;
 import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.DeletionIntervalTree;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.AlignedReadOnlyMemChunk;
@@ -262,8 +263,7 @@ class AlignedResourceByPathUtils extends ResourceByPathUtils {
   public List<IChunkMetadata> getVisibleMetadataListFromWriter(
       RestorableTsFileIOWriter writer, TsFileResource tsFileResource, QueryContext context) {
     ModificationFile modificationFile = tsFileResource.getModFile();
-    List<List<Modification>> modifications =
-        context.getPathModifications(modificationFile, partialPath);
+    List<DeletionIntervalTree> deletions = context.getPathDeletions(modificationFile, partialPath);
 
     List<AlignedChunkMetadata> chunkMetadataList = new ArrayList<>();
     List<ChunkMetadata> timeChunkMetadataList =
@@ -292,7 +292,7 @@ class AlignedResourceByPathUtils extends ResourceByPathUtils {
       }
     }
 
-    ModificationUtils.modifyAlignedChunkMetaData(chunkMetadataList, modifications);
+    ModificationUtils.modifyAlignedChunkMetaDataByIndex(chunkMetadataList, deletions);
     chunkMetadataList.removeIf(context::chunkNotSatisfy);
     return new ArrayList<>(chunkMetadataList);
   }
@@ -404,7 +404,7 @@ class MeasurementResourceByPathUtils extends ResourceByPathUtils {
   public List<IChunkMetadata> getVisibleMetadataListFromWriter(
       RestorableTsFileIOWriter writer, TsFileResource tsFileResource, QueryContext context) {
     ModificationFile modificationFile = tsFileResource.getModFile();
-    List<Modification> modifications = context.getPathModifications(modificationFile, partialPath);
+    DeletionIntervalTree deletions = context.getPathDeletions(modificationFile, partialPath);
 
     List<IChunkMetadata> chunkMetadataList =
         new ArrayList<>(
@@ -413,7 +413,7 @@ class MeasurementResourceByPathUtils extends ResourceByPathUtils {
                 partialPath.getMeasurement(),
                 partialPath.getSeriesType()));
 
-    ModificationUtils.modifyChunkMetaData(chunkMetadataList, modifications);
+    ModificationUtils.modifyChunkMetaData(chunkMetadataList, deletions);
     chunkMetadataList.removeIf(context::chunkNotSatisfy);
     return chunkMetadataList;
   }
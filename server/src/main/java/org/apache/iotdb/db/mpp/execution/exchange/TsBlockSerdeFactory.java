@@ -19,13 +19,21 @@
 
 package org.apache.iotdb.db.mpp.execution.exchange;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnarTsBlockSerde;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 
 import java.util.function.Supplier;
 
 public class TsBlockSerdeFactory implements Supplier<TsBlockSerde> {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
   @Override
   public TsBlockSerde get() {
-    return new TsBlockSerde();
+    // always able to deserialize both formats, the config only decides how to serialize
+    return new ColumnarTsBlockSerde(
+        CONFIG.isEnableColumnarDataExchange(), CONFIG.isEnableDataExchangeCompression());
   }
 }
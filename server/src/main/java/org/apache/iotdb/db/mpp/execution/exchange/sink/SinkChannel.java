@@ -53,6 +53,8 @@ import java.util.concurrent.ExecutorService;
 import static com.google.common.util.concurrent.Futures.nonCancellationPropagating;
 import static org.apache.iotdb.db.mpp.common.FragmentInstanceId.createFullId;
 import static org.apache.iotdb.db.mpp.metric.DataExchangeCostMetricSet.SEND_NEW_DATA_BLOCK_EVENT_TASK_CALLER;
+import static org.apache.iotdb.db.mpp.metric.DataExchangeCostMetricSet.SINK_CHANNEL_SERIALIZED_TSBLOCK_SIZE;
+import static org.apache.iotdb.db.mpp.metric.DataExchangeCostMetricSet.SINK_CHANNEL_SERIALIZE_TSBLOCK_REMOTE;
 import static org.apache.iotdb.db.mpp.metric.DataExchangeCostMetricSet.SINK_HANDLE_SEND_TSBLOCK_REMOTE;
 import static org.apache.iotdb.db.mpp.metric.DataExchangeCountMetricSet.SEND_NEW_DATA_BLOCK_NUM_CALLER;
 import static org.apache.iotdb.tsfile.read.common.block.TsBlockBuilderStatus.DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES;
@@ -294,7 +296,13 @@ public class SinkChannel implements ISinkChannel {
           sequenceIdToTsBlock.entrySet());
       throw new IllegalStateException("The data block doesn't exist. Sequence ID: " + sequenceId);
     }
-    return serde.serialize(pair.left);
+    long startTime = System.nanoTime();
+    ByteBuffer serializedTsBlock = serde.serialize(pair.left);
+    QUERY_METRICS.recordDataExchangeCost(
+        SINK_CHANNEL_SERIALIZE_TSBLOCK_REMOTE, System.nanoTime() - startTime);
+    QUERY_METRICS.recordDataExchangeSize(
+        SINK_CHANNEL_SERIALIZED_TSBLOCK_SIZE, serializedTsBlock.remaining());
+    return serializedTsBlock;
   }
 
   public void acknowledgeTsBlock(int startSequenceId, int endSequenceId) {
@@ -132,11 +132,15 @@ public class FilterAndProjectOperator implements ProcessOperator {
 
     Column filterColumn = filterOutputTransformer.getColumn();
 
-    // reuse this builder
-    filterTsBlockBuilder.reset();
-
-    final TimeColumnBuilder timeBuilder = filterTsBlockBuilder.getTimeColumnBuilder();
-    final ColumnBuilder[] columnBuilders = filterTsBlockBuilder.getValueColumnBuilders();
+    // examine the filter column only once, then copy every column by the selection bitmap
+    boolean[] selection = new boolean[positionCount];
+    int rowCount = 0;
+    for (int i = 0; i < positionCount; i++) {
+      if (!filterColumn.isNull(i) && filterColumn.getBoolean(i)) {
+        selection[i] = true;
+        rowCount++;
+      }
+    }
 
     List<Column> resultColumns = new ArrayList<>();
     for (int i = 0, n = input.getValueColumnCount(); i < n; i++) {
@@ -151,20 +155,33 @@ public class FilterAndProjectOperator implements ProcessOperator {
       }
     }
 
+    // all the rows are selected, no need to copy
+    if (rowCount == positionCount) {
+      return TsBlock.wrapBlocksWithoutCopy(
+          positionCount, originTimeColumn, resultColumns.toArray(new Column[0]));
+    }
+
+    // reuse this builder
+    filterTsBlockBuilder.reset();
+
+    final TimeColumnBuilder timeBuilder = filterTsBlockBuilder.getTimeColumnBuilder();
+    final ColumnBuilder[] columnBuilders = filterTsBlockBuilder.getValueColumnBuilders();
+
     // construct result TsBlock of filter
-    int rowCount = 0;
+    for (int j = 0; j < positionCount; j++) {
+      if (selection[j]) {
+        timeBuilder.writeLong(originTimeColumn.getLong(j));
+      }
+    }
     for (int i = 0, n = resultColumns.size(); i < n; i++) {
       Column curColumn = resultColumns.get(i);
+      ColumnBuilder columnBuilder = columnBuilders[i];
       for (int j = 0; j < positionCount; j++) {
-        if (!filterColumn.isNull(j) && filterColumn.getBoolean(j)) {
-          if (i == 0) {
-            rowCount++;
-            timeBuilder.writeLong(originTimeColumn.getLong(j));
-          }
+        if (selection[j]) {
           if (curColumn.isNull(j)) {
-            columnBuilders[i].appendNull();
+            columnBuilder.appendNull();
           } else {
-            columnBuilders[i].write(curColumn, j);
+            columnBuilder.write(curColumn, j);
           }
         }
       }
@@ -7,7 +7,7 @@
  * "License"); you may not use this file except in compliance
  * with the License.  You may obtain a copy of the License at
  *
- *      http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.apache.org/licenses/LICENSE-2.0
  *
  * Unless required by applicable law or agreed to in writing,
  * software distributed under the License is distributed on an
@@ -18,9 +18,17 @@
  */
 package org.apache.iotdb.db.mpp.execution.operator.process;
 
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.execution.operator.Operator;
 import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.metric.QueryExecutionMetricSet;
+import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
+import org.apache.iotdb.db.utils.datastructure.MergeSortHeap;
 import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+import org.apache.iotdb.db.utils.sort.DiskSpiller;
+import org.apache.iotdb.db.utils.sort.MemoryReader;
+import org.apache.iotdb.db.utils.sort.SortReader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
@@ -29,18 +37,41 @@ import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
+/**
+ * Sorts all the data of its child. The data are buffered in memory until they exceed {@code
+ * sort_buffer_size_in_bytes}, then they are sorted and spilled to disk as one sorted run. When the
+ * child is consumed up, the sorted runs on disk and the one left in memory are merged by a {@link
+ * MergeSortHeap}.
+ */
 public class SortOperator implements ProcessOperator {
+
+  private static final QueryMetricsManager QUERY_METRICS = QueryMetricsManager.getInstance();
+
   private final OperatorContext operatorContext;
   private final Operator inputOperator;
+  private final List<TSDataType> dataTypes;
   private final TsBlockBuilder tsBlockBuilder;
 
   private List<MergeSortKey> cachedData;
+  private long cachedBytes = 0;
+  private final long sortBufferSize;
   private final Comparator<MergeSortKey> comparator;
 
+  private DiskSpiller diskSpiller;
+  private long spilledBytes = 0;
+  private long spillTimeInNanos = 0;
+
+  // not null once the child is consumed up
+  private List<SortReader> sortReaders;
+  private MergeSortHeap mergeSortHeap;
+
+  private boolean finished = false;
+
   public SortOperator(
       OperatorContext operatorContext,
       Operator inputOperator,
@@ -48,8 +79,10 @@ public class SortOperator implements ProcessOperator {
       Comparator<MergeSortKey> comparator) {
     this.operatorContext = operatorContext;
     this.inputOperator = inputOperator;
+    this.dataTypes = dataTypes;
     this.tsBlockBuilder = new TsBlockBuilder(dataTypes);
     this.cachedData = new ArrayList<>();
+    this.sortBufferSize = IoTDBDescriptor.getInstance().getConfig().getSortBufferSize();
     this.comparator = comparator;
   }
 
@@ -65,63 +98,138 @@ public class SortOperator implements ProcessOperator {
 
   @Override
   public TsBlock next() throws Exception {
-    TsBlock tsBlock = inputOperator.nextWithTimer();
-    if (tsBlock == null) {
-      return null;
+    if (sortReaders == null) {
+      if (inputOperator.hasNextWithTimer()) {
+        TsBlock tsBlock = inputOperator.nextWithTimer();
+        if (tsBlock != null) {
+          cacheTsBlock(tsBlock);
+        }
+      }
+      // child has more data, can't calculate
+      if (inputOperator.hasNextWithTimer()) {
+        return null;
+      }
+      prepareSortReaders();
     }
+    return buildTsBlock();
+  }
+
+  private void cacheTsBlock(TsBlock tsBlock) throws Exception {
     // add data of each TsBlock from child into list
     for (int i = 0; i < tsBlock.getPositionCount(); i++) {
       cachedData.add(new MergeSortKey(tsBlock, i));
     }
-    // child has more data, can't calculate
-    if (inputOperator.hasNextWithTimer()) {
-      return null;
+    cachedBytes += tsBlock.getRetainedSizeInBytes();
+    if (cachedBytes >= sortBufferSize) {
+      spill();
+    }
+  }
+
+  private void spill() throws Exception {
+    long startTime = System.nanoTime();
+    if (diskSpiller == null) {
+      diskSpiller = new DiskSpiller(getSpillFolderPath(), dataTypes);
     }
+    cachedData.sort(comparator);
+    spilledBytes += diskSpiller.spillSortedData(cachedData);
+    cachedData.clear();
+    cachedBytes = 0;
+    spillTimeInNanos += System.nanoTime() - startTime;
+  }
 
+  private String getSpillFolderPath() {
+    return IoTDBDescriptor.getInstance().getConfig().getQueryDir()
+        + File.separator
+        + IoTDBConstant.SORT_FOLDER_NAME
+        + File.separator
+        + operatorContext.getInstanceContext().getId().getFullId()
+        + "-"
+        + operatorContext.getOperatorId();
+  }
+
+  private void prepareSortReaders() throws Exception {
     if (cachedData.size() > 1) {
       cachedData.sort(comparator);
     }
-    TsBlock result = buildTsBlock();
-    cachedData = null;
-    return result;
+    if (diskSpiller == null) {
+      sortReaders = new ArrayList<>(1);
+    } else {
+      sortReaders = diskSpiller.getReaders();
+    }
+    // the last sorted run is merged from memory directly
+    sortReaders.add(new MemoryReader(cachedData, sortReaders.size()));
+
+    mergeSortHeap = new MergeSortHeap(sortReaders.size(), comparator);
+    for (SortReader sortReader : sortReaders) {
+      if (sortReader.hasNext()) {
+        mergeSortHeap.push(sortReader.next());
+      }
+    }
   }
 
-  private TsBlock buildTsBlock() {
+  private TsBlock buildTsBlock() throws Exception {
+    tsBlockBuilder.reset();
     TimeColumnBuilder timeColumnBuilder = tsBlockBuilder.getTimeColumnBuilder();
     ColumnBuilder[] valueColumnBuilders = tsBlockBuilder.getValueColumnBuilders();
-    cachedData.forEach(
-        mergeSortKey -> {
-          TsBlock tsBlock = mergeSortKey.tsBlock;
-          int row = mergeSortKey.rowIndex;
-          timeColumnBuilder.writeLong(tsBlock.getTimeByIndex(row));
-          for (int i = 0; i < valueColumnBuilders.length; i++) {
-            valueColumnBuilders[i].write(tsBlock.getColumn(i), row);
-          }
-          tsBlockBuilder.declarePosition();
-        });
+    while (!mergeSortHeap.isEmpty() && !tsBlockBuilder.isFull()) {
+      MergeSortKey mergeSortKey = mergeSortHeap.poll();
+      TsBlock tsBlock = mergeSortKey.tsBlock;
+      int row = mergeSortKey.rowIndex;
+      timeColumnBuilder.writeLong(tsBlock.getTimeByIndex(row));
+      for (int i = 0; i < valueColumnBuilders.length; i++) {
+        if (tsBlock.getColumn(i).isNull(row)) {
+          valueColumnBuilders[i].appendNull();
+        } else {
+          valueColumnBuilders[i].write(tsBlock.getColumn(i), row);
+        }
+      }
+      tsBlockBuilder.declarePosition();
+
+      SortReader sortReader = sortReaders.get(mergeSortKey.columnIndex);
+      if (sortReader.hasNext()) {
+        mergeSortHeap.push(sortReader.next());
+      }
+    }
+    if (mergeSortHeap.isEmpty()) {
+      finished = true;
+      cachedData = null;
+    }
     return tsBlockBuilder.build();
   }
 
   @Override
   public boolean hasNext() throws Exception {
-    return inputOperator.hasNextWithTimer();
+    return !finished;
   }
 
   @Override
   public void close() throws Exception {
-    inputOperator.close();
+    try {
+      if (sortReaders != null) {
+        for (SortReader sortReader : sortReaders) {
+          sortReader.close();
+        }
+      }
+      if (diskSpiller != null) {
+        diskSpiller.clear();
+        QUERY_METRICS.recordExecutionCost(QueryExecutionMetricSet.SORT_SPILL, spillTimeInNanos);
+        QUERY_METRICS.recordSortSpillSize(spilledBytes);
+      }
+    } finally {
+      inputOperator.close();
+    }
   }
 
   @Override
   public boolean isFinished() throws Exception {
-    return cachedData == null;
+    return finished;
   }
 
   @Override
   public long calculateMaxPeekMemory() {
-    // In fact, we need to cache all data from input.
-    // Now the child of this Operator only will be ShowQueries, it only returns one Block.
-    return inputOperator.calculateMaxPeekMemory()
+    // the buffered data never exceed sortBufferSize much, the rest are spilled to disk
+    return sortBufferSize
+        + inputOperator.calculateMaxPeekMemory()
         + inputOperator.calculateRetainedSizeAfterCallingNext();
   }
 
@@ -134,4 +242,12 @@ public class SortOperator implements ProcessOperator {
   public long calculateRetainedSizeAfterCallingNext() {
     return inputOperator.calculateRetainedSizeAfterCallingNext();
   }
+
+  public long getSpilledBytes() {
+    return spilledBytes;
+  }
+
+  public long getSpillTimeInNanos() {
+    return spillTimeInNanos;
+  }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process.last;
+
+import org.apache.iotdb.db.mpp.execution.operator.Operator;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.execution.operator.process.ProcessOperator;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Calculates the last point of one series by a scan limited to the data since a hinted time first,
+ * e.g. the time indexed by {@link org.apache.iotdb.db.engine.storagegroup.SeriesLastTimeIndex}.
+ * Only if the limited scan finds no point, the last point is calculated by the scan of all the
+ * data.
+ */
+public class LastQueryFallbackOperator implements ProcessOperator {
+
+  private final OperatorContext operatorContext;
+
+  private final Operator limitedScan;
+  private final Operator fullScan;
+
+  private boolean found = false;
+  private boolean fallback = false;
+
+  public LastQueryFallbackOperator(
+      OperatorContext operatorContext, Operator limitedScan, Operator fullScan) {
+    this.operatorContext = operatorContext;
+    this.limitedScan = limitedScan;
+    this.fullScan = fullScan;
+  }
+
+  @Override
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    return fallback ? fullScan.isBlocked() : limitedScan.isBlocked();
+  }
+
+  @Override
+  public TsBlock next() throws Exception {
+    if (fallback) {
+      return fullScan.nextWithTimer();
+    }
+    TsBlock res = limitedScan.nextWithTimer();
+    if (res == null) {
+      fallback = !limitedScan.hasNextWithTimer();
+      return null;
+    }
+    if (res.isEmpty() || res.getColumn(0).isNull(0)) {
+      fallback = true;
+      return null;
+    }
+    found = true;
+    return res;
+  }
+
+  @Override
+  public boolean hasNext() throws Exception {
+    if (found) {
+      return false;
+    }
+    return !fallback || fullScan.hasNextWithTimer();
+  }
+
+  @Override
+  public boolean isFinished() throws Exception {
+    return !hasNextWithTimer();
+  }
+
+  @Override
+  public void close() throws Exception {
+    try {
+      limitedScan.close();
+    } finally {
+      fullScan.close();
+    }
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    return Math.max(limitedScan.calculateMaxPeekMemory(), fullScan.calculateMaxPeekMemory());
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return Math.max(limitedScan.calculateMaxReturnSize(), fullScan.calculateMaxReturnSize());
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    return Math.max(
+        limitedScan.calculateRetainedSizeAfterCallingNext(),
+        fullScan.calculateRetainedSizeAfterCallingNext());
+  }
+}
@@ -19,6 +19,9 @@
 
 package org.apache.iotdb.db.mpp.execution.operator.source;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.rollup.RollupCache;
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
 import org.apache.iotdb.db.mpp.aggregation.Aggregator;
 import org.apache.iotdb.db.mpp.aggregation.timerangeiterator.ITimeRangeIterator;
 import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
@@ -33,6 +36,7 @@ import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.utils.Pair;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -67,6 +71,13 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
   private final long cachedRawDataSize;
   private final long maxReturnSize;
 
+  // length of the rollup buckets the windows are aggregated from, 0 if rollups are not used
+  protected long rollupTier = 0;
+  // buckets of the current file's rollup in time order, null if the file is not aggregated by them
+  private List<Statistics<? extends Serializable>> rollupBuckets;
+  // number of the buckets consumed in scan order
+  private int rollupBucketIndex;
+
   protected AbstractSeriesAggregationScanOperator(
       PlanNodeId sourceId,
       OperatorContext context,
@@ -159,6 +170,12 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
         return;
       }
 
+      // continue with the rollup of the current file
+      if (rollupBuckets != null && calcFromRollup()) {
+        updateResultTsBlock();
+        return;
+      }
+
       // read page data firstly
       if (readAndCalcFromPage()) {
         updateResultTsBlock();
@@ -235,6 +252,14 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
             continue;
           }
         }
+        // calc from the rollup of the file spanning several windows
+        if (rollupTier > 0 && startRollupCursor(fileTimeStatistics)) {
+          if (calcFromRollup()) {
+            return true;
+          } else {
+            continue;
+          }
+        }
       }
 
       // read chunk
@@ -246,6 +271,71 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     return false;
   }
 
+  private boolean startRollupCursor(Statistics fileStatistics) {
+    SeriesRollup rollup = seriesScanUtil.currentFileRollup();
+    if (rollup == null || rollup.getCount() != fileStatistics.getCount()) {
+      return false;
+    }
+    rollupBuckets = rollup.getBuckets(rollupTier);
+    rollupBucketIndex = 0;
+    return rollupBuckets != null;
+  }
+
+  /**
+   * Calculate the current window from the rollup buckets of the current file. The file is skipped
+   * once all its buckets are consumed.
+   *
+   * @return true if the rest buckets are out of the current window
+   */
+  private boolean calcFromRollup() {
+    while (rollupBucketIndex < rollupBuckets.size()) {
+      Statistics bucket =
+          rollupBuckets.get(
+              ascending ? rollupBucketIndex : rollupBuckets.size() - 1 - rollupBucketIndex);
+      long bucketStart = Math.floorDiv(bucket.getStartTime(), rollupTier) * rollupTier;
+      long bucketEnd = bucketStart + rollupTier - 1;
+      if (ascending ? bucketStart > curTimeRange.getMax() : bucketEnd < curTimeRange.getMin()) {
+        return true;
+      }
+      if (curTimeRange.contains(bucketStart, bucketEnd)) {
+        calcFromStatistics(new Statistics[] {bucket});
+      } else if (ascending
+          ? bucketEnd >= curTimeRange.getMin()
+          : bucketStart <= curTimeRange.getMax()) {
+        throw new IllegalStateException(
+            String.format(
+                "Rollup bucket [%d, %d] is not aligned to window %s",
+                bucketStart, bucketEnd, curTimeRange));
+      }
+      // otherwise the bucket is between two windows
+      rollupBucketIndex++;
+    }
+    rollupBuckets = null;
+    seriesScanUtil.skipCurrentFile();
+    return false;
+  }
+
+  /** @return the coarsest rollup tier which all the windows are aligned to, 0 if there is none */
+  protected static long chooseRollupTier(GroupByTimeParameter groupByTimeParameter) {
+    if (groupByTimeParameter == null
+        || !RollupCache.isEnable()
+        || !groupByTimeParameter.isLeftCRightO()
+        || groupByTimeParameter.isIntervalByMonth()
+        || groupByTimeParameter.isSlidingStepByMonth()) {
+      return 0;
+    }
+    long[] tiers = IoTDBDescriptor.getInstance().getConfig().getRollupTiers();
+    for (int i = tiers.length - 1; i >= 0; i--) {
+      if (groupByTimeParameter.getStartTime() % tiers[i] == 0
+          && groupByTimeParameter.getEndTime() % tiers[i] == 0
+          && groupByTimeParameter.getInterval() % tiers[i] == 0
+          && groupByTimeParameter.getSlidingStep() % tiers[i] == 0) {
+        return tiers[i];
+      }
+    }
+    return 0;
+  }
+
   protected boolean readAndCalcFromChunk() throws IOException {
     while (seriesScanUtil.hasNextChunk()) {
       if (canUseCurrentChunkStatistics()) {
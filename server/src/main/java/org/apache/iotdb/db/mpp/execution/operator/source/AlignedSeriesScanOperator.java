@@ -31,6 +31,8 @@ import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
@@ -39,6 +41,8 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
   private final TsBlockBuilder builder;
   private final int valueColumnCount;
   private boolean finished = false;
+  // the scan stops to wait for the chunk to read next being prefetched
+  private boolean waitingForChunks = false;
 
   public AlignedSeriesScanOperator(
       OperatorContext context,
@@ -51,6 +55,7 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
     this.seriesScanUtil =
         new AlignedSeriesScanUtil(
             seriesPath, scanOrder, seriesScanOptions, context.getInstanceContext());
+    this.seriesScanUtil.enableChunkPrefetch();
     // time + all value columns
     this.builder = new TsBlockBuilder(seriesScanUtil.getTsDataTypeList());
     this.valueColumnCount = seriesPath.getColumnNum();
@@ -66,16 +71,32 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
     if (retainedTsBlock != null) {
       return getResultFromRetainedTsBlock();
     }
+    if (builder.isEmpty()) {
+      // waiting for the chunks being prefetched
+      return null;
+    }
     resultTsBlock = builder.build();
     builder.reset();
     return checkTsBlockSizeAndGetResult();
   }
 
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    if (waitingForChunks) {
+      ListenableFuture<?> chunkPrefetchFuture = seriesScanUtil.getFirstChunkPrefetchFuture();
+      if (!chunkPrefetchFuture.isDone()) {
+        return chunkPrefetchFuture;
+      }
+    }
+    return NOT_BLOCKED;
+  }
+
   @Override
   public boolean hasNext() throws Exception {
     if (retainedTsBlock != null) {
       return true;
     }
+    waitingForChunks = false;
     try {
 
       // start stopwatch
@@ -97,6 +118,9 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
         if (readChunkData()) {
           continue;
         }
+        if (waitingForChunks) {
+          break;
+        }
 
         /*
          * consume next file finally
@@ -106,9 +130,9 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
         }
         break;
 
-      } while (System.nanoTime() - start < maxRuntime && !builder.isFull());
+      } while (System.nanoTime() - start < maxRuntime && !builder.isFull() && !waitingForChunks);
 
-      finished = builder.isEmpty();
+      finished = builder.isEmpty() && !waitingForChunks;
 
       return !finished;
     } catch (IOException e) {
@@ -116,6 +140,11 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
     }
   }
 
+  @Override
+  public void close() throws Exception {
+    seriesScanUtil.cancelChunkPrefetch();
+  }
+
   @Override
   public boolean isFinished() throws Exception {
     return finished;
@@ -143,12 +172,20 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
       if (readChunkData()) {
         return true;
       }
+      if (waitingForChunks) {
+        return false;
+      }
     }
     return false;
   }
 
   private boolean readChunkData() throws IOException {
     while (seriesScanUtil.hasNextChunk()) {
+      // yield the driver thread instead of reading the chunk being prefetched synchronously
+      if (!seriesScanUtil.getFirstChunkPrefetchFuture().isDone()) {
+        waitingForChunks = true;
+        return false;
+      }
       if (readPageData()) {
         return true;
       }
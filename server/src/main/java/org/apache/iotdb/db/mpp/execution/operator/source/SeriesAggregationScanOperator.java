@@ -59,5 +59,6 @@ public class SeriesAggregationScanOperator extends AbstractSeriesAggregationScan
         scanOrder.isAscending(),
         groupByTimeParameter,
         maxReturnSize);
+    this.rollupTier = chooseRollupTier(groupByTimeParameter);
   }
 }
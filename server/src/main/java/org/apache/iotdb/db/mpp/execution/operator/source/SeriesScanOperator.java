@@ -34,6 +34,8 @@ import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.io.IOException;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -112,6 +114,8 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
 
   private final TsBlockBuilder builder;
   private boolean finished = false;
+  // the scan stops to wait for the chunk to read next being prefetched
+  private boolean waitingForChunks = false;
 
   public SeriesScanOperator(
       OperatorContext context,
@@ -123,6 +127,7 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
     this.operatorContext = context;
     this.seriesScanUtil =
         new SeriesScanUtil(seriesPath, scanOrder, seriesScanOptions, context.getInstanceContext());
+    this.seriesScanUtil.enableChunkPrefetch();
     this.maxReturnSize =
         Math.min(maxReturnSize, TSFileDescriptor.getInstance().getConfig().getPageSizeInByte());
     this.builder = new TsBlockBuilder(seriesScanUtil.getTsDataTypeList());
@@ -133,16 +138,32 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
     if (retainedTsBlock != null) {
       return getResultFromRetainedTsBlock();
     }
+    if (builder.isEmpty()) {
+      // waiting for the chunks being prefetched
+      return null;
+    }
     resultTsBlock = builder.build();
     builder.reset();
     return checkTsBlockSizeAndGetResult();
   }
 
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    if (waitingForChunks) {
+      ListenableFuture<?> chunkPrefetchFuture = seriesScanUtil.getFirstChunkPrefetchFuture();
+      if (!chunkPrefetchFuture.isDone()) {
+        return chunkPrefetchFuture;
+      }
+    }
+    return NOT_BLOCKED;
+  }
+
   @Override
   public boolean hasNext() throws Exception {
     if (retainedTsBlock != null) {
       return true;
     }
+    waitingForChunks = false;
     try {
 
       // start stopwatch
@@ -164,6 +185,9 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
         if (readChunkData()) {
           continue;
         }
+        if (waitingForChunks) {
+          break;
+        }
 
         /*
          * consume next file finally
@@ -173,9 +197,9 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
         }
         break;
 
-      } while (System.nanoTime() - start < maxRuntime && !builder.isFull());
+      } while (System.nanoTime() - start < maxRuntime && !builder.isFull() && !waitingForChunks);
 
-      finished = builder.isEmpty();
+      finished = builder.isEmpty() && !waitingForChunks;
 
       return !finished;
     } catch (IOException e) {
@@ -183,6 +207,11 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
     }
   }
 
+  @Override
+  public void close() throws Exception {
+    seriesScanUtil.cancelChunkPrefetch();
+  }
+
   @Override
   public boolean isFinished() throws Exception {
     return finished;
@@ -208,12 +237,20 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
       if (readChunkData()) {
         return true;
       }
+      if (waitingForChunks) {
+        return false;
+      }
     }
     return false;
   }
 
   private boolean readChunkData() throws IOException {
     while (seriesScanUtil.hasNextChunk()) {
+      // yield the driver thread instead of reading the chunk being prefetched synchronously
+      if (!seriesScanUtil.getFirstChunkPrefetchFuture().isDone()) {
+        waitingForChunks = true;
+        return false;
+      }
       if (readPageData()) {
         return true;
       }
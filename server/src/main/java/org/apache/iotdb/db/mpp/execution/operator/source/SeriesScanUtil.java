@@ -19,7 +19,12 @@
 package org.apache.iotdb.db.mpp.execution.operator.source;
 
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ChunkReadScheduler;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.rollup.RollupCache;
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.idtable.IDTable;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
@@ -29,18 +34,23 @@ import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.reader.chunk.MemAlignedPageReader;
 import org.apache.iotdb.db.query.reader.chunk.MemPageReader;
+import org.apache.iotdb.db.query.reader.chunk.metadata.DiskChunkMetadataLoader;
 import org.apache.iotdb.db.query.reader.universal.DescPriorityMergeReader;
 import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader;
 import org.apache.iotdb.db.utils.FileLoaderUtils;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.read.controller.IChunkMetadataLoader;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IAlignedPageReader;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
@@ -48,12 +58,19 @@ import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.read.reader.series.PaginationController;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.PriorityQueue;
 import java.util.Set;
@@ -109,6 +126,20 @@ public class SeriesScanUtil {
   protected SeriesScanOptions scanOptions;
   protected PaginationController paginationController;
 
+  // whether the chunks are read ahead by ChunkReadScheduler once their metadata are unpacked
+  private boolean enableChunkPrefetch = false;
+  private int chunkPrefetchWindowSize;
+  // unpacked chunks waiting for room in the prefetch window, in the order they are read
+  private PriorityQueue<IChunkMetadata> chunksToPrefetch;
+  // the chunks of chunksToPrefetch which are not read yet
+  private Set<IChunkMetadata> unreadChunksToPrefetch;
+  // prefetches of the chunks which are not read yet, at most chunk_prefetch_window_size
+  private Map<IChunkMetadata, ListenableFuture<?>> chunkPrefetchFutures;
+  // prefetch of firstChunkMetadata, null if it is not prefetched
+  private ListenableFuture<?> firstChunkPrefetchFuture;
+  // sealed TsFiles of the query by path, built at the first prefetch
+  private Map<String, TsFileResource> sealedFiles;
+
   private static final QueryMetricsManager QUERY_METRICS = QueryMetricsManager.getInstance();
 
   public SeriesScanUtil(
@@ -165,6 +196,43 @@ public class SeriesScanUtil {
     curUnseqFileIndex = 0;
   }
 
+  /**
+   * Prefetch the chunks of sealed TsFiles once their metadata are unpacked, only for the scans
+   * which read all the chunks rather than the ones which may be satisfied by chunk statistics.
+   */
+  public void enableChunkPrefetch() {
+    enableChunkPrefetch = ChunkReadScheduler.isEnable();
+    if (enableChunkPrefetch) {
+      chunkPrefetchWindowSize =
+          IoTDBDescriptor.getInstance().getConfig().getChunkPrefetchWindowSize();
+      chunksToPrefetch = new PriorityQueue<>(cachedChunkMetadata.comparator());
+      unreadChunksToPrefetch = Collections.newSetFromMap(new IdentityHashMap<>());
+      chunkPrefetchFutures = new IdentityHashMap<>();
+    }
+  }
+
+  /** @return future done when the chunk to read next is prefetched */
+  public ListenableFuture<?> getFirstChunkPrefetchFuture() {
+    return firstChunkMetadata == null || firstChunkPrefetchFuture == null
+        ? Futures.immediateVoidFuture()
+        : firstChunkPrefetchFuture;
+  }
+
+  /** cancel the prefetches of the chunks not read yet, called when the scan is closed */
+  public void cancelChunkPrefetch() {
+    if (!enableChunkPrefetch) {
+      return;
+    }
+    if (firstChunkPrefetchFuture != null) {
+      firstChunkPrefetchFuture.cancel(false);
+      firstChunkPrefetchFuture = null;
+    }
+    chunkPrefetchFutures.values().forEach(future -> future.cancel(false));
+    chunkPrefetchFutures.clear();
+    chunksToPrefetch.clear();
+    unreadChunksToPrefetch.clear();
+  }
+
   protected PriorityMergeReader getPriorityMergeReader() {
     return new PriorityMergeReader();
   }
@@ -249,6 +317,24 @@ public class SeriesScanUtil {
     firstTimeSeriesMetadata = null;
   }
 
+  /** @return the rollup of the current file if it's a sealed TsFile with rollups, else null */
+  SeriesRollup currentFileRollup() {
+    if (!RollupCache.isEnable() || !(firstTimeSeriesMetadata instanceof TimeseriesMetadata)) {
+      return null;
+    }
+    IChunkMetadataLoader chunkMetadataLoader =
+        ((TimeseriesMetadata) firstTimeSeriesMetadata).getChunkMetadataLoader();
+    if (!(chunkMetadataLoader instanceof DiskChunkMetadataLoader)) {
+      return null;
+    }
+    TsFileResource resource = ((DiskChunkMetadataLoader) chunkMetadataLoader).getTsFileResource();
+    if (!resource.isClosed()) {
+      return null;
+    }
+    TsFileRollup rollup = RollupCache.getInstance().get(resource);
+    return rollup == null ? null : rollup.get(seriesPath.getDevice(), seriesPath.getMeasurement());
+  }
+
   /**
    * This method should be called after hasNextFile() until no next chunk, make sure that all
    * overlapped chunks are consumed
@@ -324,7 +410,7 @@ public class SeriesScanUtil {
         unpackAllOverlappedTimeSeriesMetadataToCachedChunkMetadata(
             orderUtils.getOverlapCheckTime(firstChunkMetadata.getStatistics()), false);
         if (firstChunkMetadata.equals(cachedChunkMetadata.peek())) {
-          firstChunkMetadata = cachedChunkMetadata.poll();
+          pollFirstChunkMetadata();
           break;
         }
       }
@@ -349,7 +435,7 @@ public class SeriesScanUtil {
     }
 
     if (init && firstChunkMetadata == null && !cachedChunkMetadata.isEmpty()) {
-      firstChunkMetadata = cachedChunkMetadata.poll();
+      pollFirstChunkMetadata();
     }
   }
 
@@ -360,6 +446,93 @@ public class SeriesScanUtil {
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
 
     cachedChunkMetadata.addAll(chunkMetadataList);
+    if (enableChunkPrefetch) {
+      Filter timeFilter = scanOptions.getGlobalTimeFilter();
+      for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+        if (timeFilter == null || timeFilter.satisfy(chunkMetadata.getStatistics())) {
+          chunksToPrefetch.add(chunkMetadata);
+          unreadChunksToPrefetch.add(chunkMetadata);
+        }
+      }
+      prefetchChunks();
+    }
+  }
+
+  private void pollFirstChunkMetadata() {
+    firstChunkMetadata = cachedChunkMetadata.poll();
+    firstChunkPrefetchFuture = onChunkPolled(firstChunkMetadata);
+  }
+
+  /**
+   * The chunk polled from cachedChunkMetadata is going to be read, so it leaves the prefetch window
+   * and makes room for the next one.
+   *
+   * @return prefetch of the chunk, null if it is not prefetched
+   */
+  private ListenableFuture<?> onChunkPolled(IChunkMetadata chunkMetadata) {
+    if (!enableChunkPrefetch) {
+      return null;
+    }
+    unreadChunksToPrefetch.remove(chunkMetadata);
+    ListenableFuture<?> future = chunkPrefetchFutures.remove(chunkMetadata);
+    prefetchChunks();
+    return future;
+  }
+
+  /** prefetch the next chunks to read until the prefetch window is full */
+  private void prefetchChunks() {
+    while (chunkPrefetchFutures.size() < chunkPrefetchWindowSize
+        && !chunksToPrefetch.isEmpty()) {
+      IChunkMetadata chunkMetadata = chunksToPrefetch.poll();
+      if (!unreadChunksToPrefetch.remove(chunkMetadata)) {
+        // read before its turn to be prefetched
+        continue;
+      }
+      List<ChunkMetadata> chunksToRead = new ArrayList<>();
+      if (chunkMetadata instanceof AlignedChunkMetadata) {
+        AlignedChunkMetadata alignedChunkMetadata = (AlignedChunkMetadata) chunkMetadata;
+        addDiskChunk(alignedChunkMetadata.getTimeChunkMetadata(), chunksToRead);
+        for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+          addDiskChunk(valueChunkMetadata, chunksToRead);
+        }
+      } else {
+        addDiskChunk(chunkMetadata, chunksToRead);
+      }
+      if (chunksToRead.isEmpty()) {
+        continue;
+      }
+      TsFileResource resource = getSealedFiles().get(chunksToRead.get(0).getFilePath());
+      if (resource == null) {
+        continue;
+      }
+      ListenableFuture<?> future = ChunkReadScheduler.getInstance().prefetch(resource, chunksToRead);
+      if (!future.isDone()) {
+        chunkPrefetchFutures.put(chunkMetadata, future);
+      }
+    }
+  }
+
+  private Map<String, TsFileResource> getSealedFiles() {
+    if (sealedFiles == null) {
+      sealedFiles = new HashMap<>();
+      for (TsFileResource resource : dataSource.getSeqResources()) {
+        if (resource.isClosed()) {
+          sealedFiles.put(resource.getTsFilePath(), resource);
+        }
+      }
+      for (TsFileResource resource : dataSource.getUnseqResources()) {
+        if (resource.isClosed()) {
+          sealedFiles.put(resource.getTsFilePath(), resource);
+        }
+      }
+    }
+    return sealedFiles;
+  }
+
+  private static void addDiskChunk(IChunkMetadata chunkMetadata, List<ChunkMetadata> chunks) {
+    if (chunkMetadata instanceof ChunkMetadata && ((ChunkMetadata) chunkMetadata).isClosed()) {
+      chunks.add((ChunkMetadata) chunkMetadata);
+    }
   }
 
   boolean isChunkOverlapped() throws IOException {
@@ -513,7 +686,9 @@ public class SeriesScanUtil {
       } else if (cachedChunkMetadata.peek().isSeq()) {
         hasMeetSeq = true;
       }
-      unpackOneChunkMetaData(cachedChunkMetadata.poll());
+      IChunkMetadata chunkMetadata = cachedChunkMetadata.poll();
+      onChunkPolled(chunkMetadata);
+      unpackOneChunkMetaData(chunkMetadata);
     }
     if (init
         && firstPageReader == null
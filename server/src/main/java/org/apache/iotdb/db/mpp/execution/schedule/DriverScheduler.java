@@ -34,6 +34,7 @@ import org.apache.iotdb.db.mpp.execution.schedule.queue.IndexedBlockingReserveQu
 import org.apache.iotdb.db.mpp.execution.schedule.queue.L1PriorityQueue;
 import org.apache.iotdb.db.mpp.execution.schedule.queue.multilevelqueue.DriverTaskHandle;
 import org.apache.iotdb.db.mpp.execution.schedule.queue.multilevelqueue.MultilevelPriorityQueue;
+import org.apache.iotdb.db.mpp.execution.schedule.queue.multilevelqueue.WorkStealingMultilevelPriorityQueue;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTask;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskStatus;
 import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
@@ -90,7 +91,11 @@ public class DriverScheduler implements IDriverScheduler, IService {
 
   private DriverScheduler() {
     this.readyQueue =
-        new MultilevelPriorityQueue(LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, new DriverTask());
+        config.isEnableWorkStealingScheduler()
+            ? new WorkStealingMultilevelPriorityQueue(
+                LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, WORKER_THREAD_NUM, new DriverTask())
+            : new MultilevelPriorityQueue(
+                LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, new DriverTask());
     this.timeoutQueue =
         new L1PriorityQueue<>(
             QUERY_MAX_CAPACITY, new DriverTask.TimeoutComparator(), new DriverTask());
@@ -370,6 +375,20 @@ public class DriverScheduler implements IDriverScheduler, IService {
     return blockedTasks.size();
   }
 
+  /** @return the number of tasks stolen from other worker threads by work stealing */
+  public long getStolenTaskCount() {
+    return readyQueue instanceof WorkStealingMultilevelPriorityQueue
+        ? ((WorkStealingMultilevelPriorityQueue) readyQueue).getStolenTaskCount()
+        : 0;
+  }
+
+  /** @return the number of times the worker threads wait for the lock of local ready queues */
+  public long getReadyQueueLockContentionCount() {
+    return readyQueue instanceof WorkStealingMultilevelPriorityQueue
+        ? ((WorkStealingMultilevelPriorityQueue) readyQueue).getLockContentionCount()
+        : 0;
+  }
+
   @TestOnly
   IndexedBlockingQueue<DriverTask> getReadyQueue() {
     return readyQueue;
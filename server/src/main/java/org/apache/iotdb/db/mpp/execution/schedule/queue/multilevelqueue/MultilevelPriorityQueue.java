@@ -89,18 +89,23 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
 
     int level = task.getPriority().getLevel();
     if (levelWaitingSplits[level].isEmpty()) {
-      // Accesses to levelScheduledTime are not synchronized, so we have a data race
-      // here - our level time math will be off. However, the staleness is bounded by
-      // the fact that only running splits that complete during this computation
-      // can update the level time. Therefore, this is benign.
-      long level0Time = getLevel0TargetTime();
-      long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
-      long delta = levelExpectedTime - levelScheduledTime[level].get();
-      levelScheduledTime[level].addAndGet(delta);
+      catchUpLevelScheduledTime(level);
     }
     levelWaitingSplits[level].offer(task);
   }
 
+  /** Sets the scheduled time of a level which had no waiting task to its expected time. */
+  protected void catchUpLevelScheduledTime(int level) {
+    // Accesses to levelScheduledTime are not synchronized, so we have a data race
+    // here - our level time math will be off. However, the staleness is bounded by
+    // the fact that only running splits that complete during this computation
+    // can update the level time. Therefore, this is benign.
+    long level0Time = getLevel0TargetTime();
+    long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
+    long delta = levelExpectedTime - levelScheduledTime[level].get();
+    levelScheduledTime[level].addAndGet(delta);
+  }
+
   protected DriverTask pollFirst() {
     DriverTask result;
     while (true) {
@@ -113,12 +118,17 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
         pushToQueue(result);
         continue;
       }
-      int selectedLevel = result.getPriority().getLevel();
-      levelMinScheduledTime[selectedLevel].set(result.getPriority().getLevelScheduledTime());
+      updateLevelMinScheduledTime(result);
       return result;
     }
   }
 
+  /** Records the scheduled time of the task polled out as the minimum one of its level. */
+  protected void updateLevelMinScheduledTime(DriverTask polledTask) {
+    levelMinScheduledTime[polledTask.getPriority().getLevel()].set(
+        polledTask.getPriority().getLevelScheduledTime());
+  }
+
   /**
    * We attempt to give each level a target amount of scheduled time, which is configurable using
    * levelTimeMultiplier.
@@ -128,11 +138,28 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
    * the DriverTask with the lowest scheduled time.
    */
   private DriverTask chooseLevelAndTask() {
+    int selectedLevel = chooseLevel(levelWaitingSplits);
+    // selected level == -1 means that the queue is empty and this method is only called when the
+    // queue is not empty.
+    checkState(selectedLevel != -1, "selected level can not equal to -1");
+    DriverTask result = levelWaitingSplits[selectedLevel].poll();
+    checkState(result != null, "result driverTask cannot be null");
+    return result;
+  }
+
+  /**
+   * Selects the level that has the lowest ratio of actual to the target time among the levels which
+   * have waiting tasks.
+   *
+   * @param levelWaitingTasks the waiting tasks of each level
+   * @return the selected level, -1 if there is no waiting task in all levels
+   */
+  protected int chooseLevel(PriorityQueue<DriverTask>[] levelWaitingTasks) {
     long targetScheduledTime = getLevel0TargetTime();
     double worstRatio = 1;
     int selectedLevel = -1;
     for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
-      if (!levelWaitingSplits[level].isEmpty()) {
+      if (!levelWaitingTasks[level].isEmpty()) {
         long levelTime = levelScheduledTime[level].get();
         double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
         if (selectedLevel == -1 || ratio > worstRatio) {
@@ -143,13 +170,7 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
 
       targetScheduledTime /= levelTimeMultiplier;
     }
-
-    // selected level == -1 means that the queue is empty and this method is only called when the
-    // queue is not empty.
-    checkState(selectedLevel != -1, "selected level can not equal to -1");
-    DriverTask result = levelWaitingSplits[selectedLevel].poll();
-    checkState(result != null, "result driverTask cannot be null");
-    return result;
+    return selectedLevel;
   }
 
   @Override
@@ -206,9 +227,11 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
    * is 2 : 1. However, the actual proportion of levelScheduledTime of level0 and level1 is 3 : 2,
    * in this situation the expected time of level0 will be Math.max(3, 2 * 2) = 4.
    *
+   * <p>It only reads the atomic level times, so it doesn't need the lock of the queue.
+   *
    * @return the expected scheduled time of LEVEL0
    */
-  private synchronized long getLevel0TargetTime() {
+  private long getLevel0TargetTime() {
     long level0TargetTime = levelScheduledTime[0].get();
     double currentMultiplier = levelTimeMultiplier;
 
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule.queue.multilevelqueue;
+
+import org.apache.iotdb.db.mpp.execution.schedule.queue.ID;
+import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTask;
+import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
+
+import com.google.common.base.Preconditions;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.apache.iotdb.db.mpp.metric.DriverSchedulerMetricSet.READY_QUEUE_LOCK_WAIT_TIME;
+
+/**
+ * A {@link MultilevelPriorityQueue} which is split into one local queue for each worker thread, so
+ * that the worker threads don't contend for one lock when there are lots of concurrent small
+ * queries.
+ *
+ * <p>A worker thread polls tasks from its own local queue first, and steals a task from the local
+ * queues of other workers if its own one is empty. A task that is pushed by a worker thread, e.g.
+ * after it used up its time slice, goes back to the local queue of that worker. Tasks pushed by
+ * other threads are distributed to the local queues in round-robin.
+ *
+ * <p>The scheduled time of each level is still accounted globally, every local queue selects the
+ * level to poll from in the same way as {@link MultilevelPriorityQueue}.
+ */
+public class WorkStealingMultilevelPriorityQueue extends MultilevelPriorityQueue {
+
+  private static final QueryMetricsManager QUERY_METRICS = QueryMetricsManager.getInstance();
+
+  private final LocalQueue[] localQueues;
+
+  private final ThreadLocal<LocalQueue> ownLocalQueue = new ThreadLocal<>();
+  private final AtomicInteger nextOwnerIndex = new AtomicInteger(0);
+  private final AtomicInteger nextPushIndex = new AtomicInteger(0);
+
+  /** The number of waiting tasks of each level in all the local queues. */
+  private final AtomicInteger[] levelTaskCount;
+
+  private final AtomicInteger taskCount = new AtomicInteger(0);
+  private final AtomicInteger reservedCount = new AtomicInteger(0);
+
+  // idle worker threads wait here until any task is pushed
+  private final ReentrantLock idleLock = new ReentrantLock();
+  private final Condition notEmpty = idleLock.newCondition();
+  private final AtomicInteger idleWorkerCount = new AtomicInteger(0);
+
+  private final AtomicLong stolenTaskCount = new AtomicLong(0);
+  private final AtomicLong lockContentionCount = new AtomicLong(0);
+
+  public WorkStealingMultilevelPriorityQueue(
+      double levelTimeMultiplier, int maxCapacity, int workerNum, DriverTask queryHolder) {
+    super(levelTimeMultiplier, maxCapacity, queryHolder);
+    Preconditions.checkArgument(workerNum > 0, "workerNum should be positive");
+    this.localQueues = new LocalQueue[workerNum];
+    for (int i = 0; i < workerNum; i++) {
+      localQueues[i] = new LocalQueue();
+    }
+    this.levelTaskCount = new AtomicInteger[LEVEL_THRESHOLD_SECONDS.length];
+    for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+      levelTaskCount[level] = new AtomicInteger(0);
+    }
+  }
+
+  /**
+   * Get and remove a task from the local queue of current thread, or steal one from other local
+   * queues. If all the local queues are empty, this call will be blocked until a task has been
+   * pushed.
+   */
+  @Override
+  public DriverTask poll() throws InterruptedException {
+    LocalQueue localQueue = getOwnLocalQueue();
+    while (true) {
+      DriverTask task = pollFrom(localQueue);
+      if (task == null) {
+        task = steal(localQueue);
+      }
+      if (task != null) {
+        taskCount.decrementAndGet();
+        reservedCount.incrementAndGet();
+        return task;
+      }
+      awaitNotEmpty();
+    }
+  }
+
+  @Override
+  public void push(DriverTask task) {
+    if (task == null) {
+      throw new NullPointerException("pushed element is null");
+    }
+    Preconditions.checkState(
+        taskCount.get() + reservedCount.get() < MAX_CAPACITY,
+        "The system can't allow more query tasks.");
+    offer(task);
+  }
+
+  @Override
+  public void repush(DriverTask task) {
+    if (task == null) {
+      throw new NullPointerException("pushed element is null");
+    }
+    reservedCount.decrementAndGet();
+    offer(task);
+  }
+
+  @Override
+  public void decreaseReservedSize() {
+    reservedCount.decrementAndGet();
+  }
+
+  @Override
+  public DriverTask remove(ID id) {
+    DriverTask holder = new DriverTask();
+    holder.setId(id);
+    for (LocalQueue localQueue : localQueues) {
+      lock(localQueue);
+      try {
+        for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+          if (localQueue.levelWaitingTasks[level].remove(holder)) {
+            levelTaskCount[level].decrementAndGet();
+            localQueue.size--;
+            taskCount.decrementAndGet();
+            return holder;
+          }
+        }
+      } finally {
+        localQueue.lock.unlock();
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void clear() {
+    for (LocalQueue localQueue : localQueues) {
+      lock(localQueue);
+      try {
+        for (PriorityQueue<DriverTask> tasks : localQueue.levelWaitingTasks) {
+          tasks.clear();
+        }
+        localQueue.size = 0;
+      } finally {
+        localQueue.lock.unlock();
+      }
+    }
+    for (AtomicInteger count : levelTaskCount) {
+      count.set(0);
+    }
+    taskCount.set(0);
+    reservedCount.set(0);
+  }
+
+  @Override
+  public int size() {
+    return Math.max(0, taskCount.get());
+  }
+
+  @Override
+  protected boolean contains(DriverTask driverTask) {
+    for (LocalQueue localQueue : localQueues) {
+      lock(localQueue);
+      try {
+        for (PriorityQueue<DriverTask> tasks : localQueue.levelWaitingTasks) {
+          if (tasks.contains(driverTask)) {
+            return true;
+          }
+        }
+      } finally {
+        localQueue.lock.unlock();
+      }
+    }
+    return false;
+  }
+
+  public long getStolenTaskCount() {
+    return stolenTaskCount.get();
+  }
+
+  public long getLockContentionCount() {
+    return lockContentionCount.get();
+  }
+
+  private LocalQueue getOwnLocalQueue() {
+    LocalQueue localQueue = ownLocalQueue.get();
+    if (localQueue == null) {
+      localQueue = localQueues[Math.floorMod(nextOwnerIndex.getAndIncrement(), localQueues.length)];
+      ownLocalQueue.set(localQueue);
+    }
+    return localQueue;
+  }
+
+  private void offer(DriverTask task) {
+    LocalQueue localQueue = ownLocalQueue.get();
+    if (localQueue == null) {
+      localQueue = localQueues[Math.floorMod(nextPushIndex.getAndIncrement(), localQueues.length)];
+    }
+    lock(localQueue);
+    try {
+      offerTo(localQueue, task);
+    } finally {
+      localQueue.lock.unlock();
+    }
+    // the counter is increased after the task is visible, so that a waked up worker can find it
+    taskCount.incrementAndGet();
+    if (idleWorkerCount.get() > 0) {
+      idleLock.lock();
+      try {
+        notEmpty.signal();
+      } finally {
+        idleLock.unlock();
+      }
+    }
+  }
+
+  /** The lock of the local queue should be held. */
+  private void offerTo(LocalQueue localQueue, DriverTask task) {
+    int level = task.getPriority().getLevel();
+    if (levelTaskCount[level].getAndIncrement() == 0) {
+      catchUpLevelScheduledTime(level);
+    }
+    localQueue.levelWaitingTasks[level].offer(task);
+    localQueue.size++;
+  }
+
+  private DriverTask pollFrom(LocalQueue localQueue) {
+    if (localQueue.size == 0) {
+      return null;
+    }
+    lock(localQueue);
+    try {
+      while (localQueue.size > 0) {
+        int level = chooseLevel(localQueue.levelWaitingTasks);
+        DriverTask task = localQueue.levelWaitingTasks[level].poll();
+        levelTaskCount[level].decrementAndGet();
+        localQueue.size--;
+        if (task.updatePriority()) {
+          // the level of the task has changed, push it into the queue again like
+          // MultilevelPriorityQueue does
+          offerTo(localQueue, task);
+          continue;
+        }
+        updateLevelMinScheduledTime(task);
+        return task;
+      }
+      return null;
+    } finally {
+      localQueue.lock.unlock();
+    }
+  }
+
+  private DriverTask steal(LocalQueue thief) {
+    int start = ThreadLocalRandom.current().nextInt(localQueues.length);
+    for (int i = 0; i < localQueues.length; i++) {
+      LocalQueue victim = localQueues[(start + i) % localQueues.length];
+      if (victim == thief) {
+        continue;
+      }
+      DriverTask task = pollFrom(victim);
+      if (task != null) {
+        stolenTaskCount.incrementAndGet();
+        return task;
+      }
+    }
+    return null;
+  }
+
+  private void awaitNotEmpty() throws InterruptedException {
+    idleLock.lockInterruptibly();
+    try {
+      idleWorkerCount.incrementAndGet();
+      try {
+        while (taskCount.get() <= 0) {
+          notEmpty.await();
+        }
+      } finally {
+        idleWorkerCount.decrementAndGet();
+      }
+    } finally {
+      idleLock.unlock();
+    }
+  }
+
+  /** Acquires the lock of the local queue, and records the waiting time if it is contended. */
+  private void lock(LocalQueue localQueue) {
+    if (localQueue.lock.tryLock()) {
+      return;
+    }
+    long startTime = System.nanoTime();
+    localQueue.lock.lock();
+    lockContentionCount.incrementAndGet();
+    QUERY_METRICS.recordTaskQueueTime(READY_QUEUE_LOCK_WAIT_TIME, System.nanoTime() - startTime);
+  }
+
+  private static class LocalQueue {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final PriorityQueue<DriverTask>[] levelWaitingTasks;
+
+    // guarded by lock, volatile so that it can be checked before locking
+    private volatile int size = 0;
+
+    @SuppressWarnings("unchecked")
+    private LocalQueue() {
+      levelWaitingTasks = new PriorityQueue[LEVEL_THRESHOLD_SECONDS.length];
+      for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+        levelWaitingTasks[level] = new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
+      }
+    }
+  }
+}
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.mpp.metric;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.DecompressedPageCache;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
 import org.apache.iotdb.metrics.utils.MetricLevel;
@@ -33,8 +34,11 @@ public class ChunkCacheMetrics implements IMetricSet {
 
   private final ChunkCache chunkCache;
 
-  public ChunkCacheMetrics(ChunkCache chunkCache) {
+  private final DecompressedPageCache decompressedPageCache;
+
+  public ChunkCacheMetrics(ChunkCache chunkCache, DecompressedPageCache decompressedPageCache) {
     this.chunkCache = chunkCache;
+    this.decompressedPageCache = decompressedPageCache;
   }
 
   @Override
@@ -46,12 +50,28 @@ public class ChunkCacheMetrics implements IMetricSet {
         o -> (long) o.getHitRate(),
         Tag.NAME.toString(),
         "chunk");
+    if (DecompressedPageCache.isEnable()) {
+      metricService.createAutoGauge(
+          Metric.CACHE_HIT.toString(),
+          MetricLevel.IMPORTANT,
+          decompressedPageCache,
+          o -> (long) o.getHitRate(),
+          Tag.NAME.toString(),
+          "decompressed_page");
+    }
   }
 
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
     metricService.remove(
         MetricType.AUTO_GAUGE, Metric.CACHE_HIT.toString(), Tag.NAME.toString(), "chunk");
+    if (DecompressedPageCache.isEnable()) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.CACHE_HIT.toString(),
+          Tag.NAME.toString(),
+          "decompressed_page");
+    }
   }
 
   @Override
@@ -59,11 +79,12 @@ public class ChunkCacheMetrics implements IMetricSet {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     ChunkCacheMetrics that = (ChunkCacheMetrics) o;
-    return Objects.equals(chunkCache, that.chunkCache);
+    return Objects.equals(chunkCache, that.chunkCache)
+        && Objects.equals(decompressedPageCache, that.decompressedPageCache);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(chunkCache);
+    return Objects.hash(chunkCache, decompressedPageCache);
   }
 }
@@ -44,6 +44,8 @@ public class DataExchangeCostMetricSet implements IMetricSet {
       "source_handle_deserialize_tsblock_remote";
   public static final String SINK_HANDLE_SEND_TSBLOCK_LOCAL = "sink_handle_send_tsblock_local";
   public static final String SINK_HANDLE_SEND_TSBLOCK_REMOTE = "sink_handle_send_tsblock_remote";
+  public static final String SINK_CHANNEL_SERIALIZE_TSBLOCK_REMOTE =
+      "sink_channel_serialize_tsblock_remote";
 
   static {
     metricInfoMap.put(
@@ -100,6 +102,15 @@ public class DataExchangeCostMetricSet implements IMetricSet {
             "sink_handle_send_tsblock",
             Tag.TYPE.toString(),
             "remote"));
+    metricInfoMap.put(
+        SINK_CHANNEL_SERIALIZE_TSBLOCK_REMOTE,
+        new MetricInfo(
+            MetricType.TIMER,
+            metric,
+            Tag.OPERATION.toString(),
+            "sink_channel_serialize_tsblock",
+            Tag.TYPE.toString(),
+            "remote"));
   }
 
   public static final String SEND_NEW_DATA_BLOCK_EVENT_TASK_CALLER =
@@ -170,12 +181,47 @@ public class DataExchangeCostMetricSet implements IMetricSet {
             "server"));
   }
 
+  private static final String sizeMetric = Metric.DATA_EXCHANGE_SIZE.toString();
+
+  /** Bytes of the serialized TsBlocks, which are recorded as histograms. */
+  public static final Map<String, MetricInfo> sizeMetricInfoMap = new HashMap<>();
+
+  public static final String SINK_CHANNEL_SERIALIZED_TSBLOCK_SIZE =
+      "sink_channel_serialized_tsblock_size";
+  public static final String SOURCE_HANDLE_DESERIALIZED_TSBLOCK_SIZE =
+      "source_handle_deserialized_tsblock_size";
+
+  static {
+    sizeMetricInfoMap.put(
+        SINK_CHANNEL_SERIALIZED_TSBLOCK_SIZE,
+        new MetricInfo(
+            MetricType.HISTOGRAM,
+            sizeMetric,
+            Tag.OPERATION.toString(),
+            "sink_channel_serialize_tsblock",
+            Tag.TYPE.toString(),
+            "remote"));
+    sizeMetricInfoMap.put(
+        SOURCE_HANDLE_DESERIALIZED_TSBLOCK_SIZE,
+        new MetricInfo(
+            MetricType.HISTOGRAM,
+            sizeMetric,
+            Tag.OPERATION.toString(),
+            "source_handle_deserialize_tsblock",
+            Tag.TYPE.toString(),
+            "remote"));
+  }
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     for (MetricInfo metricInfo : metricInfoMap.values()) {
       metricService.getOrCreateTimer(
           metricInfo.getName(), MetricLevel.IMPORTANT, metricInfo.getTagsInArray());
     }
+    for (MetricInfo metricInfo : sizeMetricInfoMap.values()) {
+      metricService.getOrCreateHistogram(
+          metricInfo.getName(), MetricLevel.IMPORTANT, metricInfo.getTagsInArray());
+    }
   }
 
   @Override
@@ -183,5 +229,8 @@ public class DataExchangeCostMetricSet implements IMetricSet {
     for (MetricInfo metricInfo : metricInfoMap.values()) {
       metricService.remove(MetricType.TIMER, metric, metricInfo.getTagsInArray());
     }
+    for (MetricInfo metricInfo : sizeMetricInfoMap.values()) {
+      metricService.remove(MetricType.HISTOGRAM, sizeMetric, metricInfo.getTagsInArray());
+    }
   }
 }
@@ -37,6 +37,12 @@ public class DriverSchedulerMetricSet implements IMetricSet {
   public static final String READY_QUEUE_TASK_COUNT = "ready_queue_task_count";
   public static final String BLOCK_QUEUE_TASK_COUNT = "block_queue_task_count";
 
+  // only used by the work stealing scheduler
+  public static final String READY_QUEUE_LOCK_WAIT_TIME = "ready_queue_lock_wait_time";
+  public static final String STOLEN_TASK_COUNT = "stolen_task_count";
+  public static final String READY_QUEUE_LOCK_CONTENTION_COUNT =
+      "ready_queue_lock_contention_count";
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     metricService.getOrCreateTimer(
@@ -57,6 +63,22 @@ public class DriverSchedulerMetricSet implements IMetricSet {
         DriverScheduler::getBlockQueueTaskCount,
         Tag.NAME.toString(),
         BLOCK_QUEUE_TASK_COUNT);
+    metricService.getOrCreateTimer(
+        metric, MetricLevel.IMPORTANT, Tag.NAME.toString(), READY_QUEUE_LOCK_WAIT_TIME);
+    metricService.createAutoGauge(
+        metric,
+        MetricLevel.IMPORTANT,
+        DriverScheduler.getInstance(),
+        DriverScheduler::getStolenTaskCount,
+        Tag.NAME.toString(),
+        STOLEN_TASK_COUNT);
+    metricService.createAutoGauge(
+        metric,
+        MetricLevel.IMPORTANT,
+        DriverScheduler.getInstance(),
+        DriverScheduler::getReadyQueueLockContentionCount,
+        Tag.NAME.toString(),
+        READY_QUEUE_LOCK_CONTENTION_COUNT);
   }
 
   @Override
@@ -67,5 +89,9 @@ public class DriverSchedulerMetricSet implements IMetricSet {
         MetricType.AUTO_GAUGE, metric, Tag.NAME.toString(), READY_QUEUE_TASK_COUNT);
     metricService.remove(
         MetricType.AUTO_GAUGE, metric, Tag.NAME.toString(), BLOCK_QUEUE_TASK_COUNT);
+    metricService.remove(MetricType.TIMER, metric, Tag.NAME.toString(), READY_QUEUE_LOCK_WAIT_TIME);
+    metricService.remove(MetricType.AUTO_GAUGE, metric, Tag.NAME.toString(), STOLEN_TASK_COUNT);
+    metricService.remove(
+        MetricType.AUTO_GAUGE, metric, Tag.NAME.toString(), READY_QUEUE_LOCK_CONTENTION_COUNT);
   }
 }
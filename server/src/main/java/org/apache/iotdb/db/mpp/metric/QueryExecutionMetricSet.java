@@ -95,6 +95,15 @@ public class QueryExecutionMetricSet implements IMetricSet {
             WAIT_FOR_RESULT));
   }
 
+  public static final String SORT_SPILL = "sort_spill";
+
+  static {
+    metricInfoMap.put(
+        SORT_SPILL,
+        new MetricInfo(
+            MetricType.TIMER, Metric.QUERY_EXECUTION.toString(), Tag.STAGE.toString(), SORT_SPILL));
+  }
+
   public static final String AGGREGATION_FROM_RAW_DATA = "aggregation_from_raw_data";
   public static final String AGGREGATION_FROM_STATISTICS = "aggregation_from_statistics";
 
@@ -85,6 +85,15 @@ public class QueryMetricsManager {
         count, Metric.QUERY_RESOURCE.toString(), MetricLevel.IMPORTANT, Tag.TYPE.toString(), type);
   }
 
+  public void recordSortSpillSize(long spilledBytes) {
+    metricService.histogram(
+        spilledBytes,
+        Metric.QUERY_RESOURCE.toString(),
+        MetricLevel.IMPORTANT,
+        Tag.TYPE.toString(),
+        QueryResourceMetricSet.SORT_SPILL_SIZE);
+  }
+
   public void recordDataExchangeCost(String stage, long costTimeInNanos) {
     MetricInfo metricInfo = DataExchangeCostMetricSet.metricInfoMap.get(stage);
     metricService.timer(
@@ -95,6 +104,12 @@ public class QueryMetricsManager {
         metricInfo.getTagsInArray());
   }
 
+  public void recordDataExchangeSize(String stage, long sizeInBytes) {
+    MetricInfo metricInfo = DataExchangeCostMetricSet.sizeMetricInfoMap.get(stage);
+    metricService.histogram(
+        sizeInBytes, metricInfo.getName(), MetricLevel.IMPORTANT, metricInfo.getTagsInArray());
+  }
+
   public void recordDataBlockNum(String type, int num) {
     MetricInfo metricInfo = DataExchangeCountMetricSet.metricInfoMap.get(type);
     metricService.histogram(
@@ -35,12 +35,14 @@ public class QueryResourceMetricSet implements IMetricSet {
   public static final String UNSEQUENCE_TSFILE = "unsequence_tsfile";
   public static final String FLUSHING_MEMTABLE = "flushing_memtable";
   public static final String WORKING_MEMTABLE = "working_memtable";
+  public static final String SORT_SPILL_SIZE = "sort_spill_size";
 
   private static final String metric = Metric.QUERY_RESOURCE.toString();
   private final String tagKey = Tag.TYPE.toString();
 
   private static final List<String> resourceTypes =
-      Arrays.asList(SEQUENCE_TSFILE, UNSEQUENCE_TSFILE, FLUSHING_MEMTABLE, WORKING_MEMTABLE);
+      Arrays.asList(
+          SEQUENCE_TSFILE, UNSEQUENCE_TSFILE, FLUSHING_MEMTABLE, WORKING_MEMTABLE, SORT_SPILL_SIZE);
 
   @Override
   public void bindTo(AbstractMetricService metricService) {
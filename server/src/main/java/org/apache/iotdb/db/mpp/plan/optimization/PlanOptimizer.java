@@ -24,4 +24,9 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
 
 public interface PlanOptimizer {
   PlanNode optimize(PlanNode plan, Analysis analysis, MPPQueryContext context);
+
+  /** @return the name used to disable this optimizer by {@code disabled_plan_optimizers} */
+  default String getName() {
+    return getClass().getSimpleName();
+  }
 }
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.optimization;
+
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.plan.analyze.Analysis;
+import org.apache.iotdb.db.mpp.plan.expression.Expression;
+import org.apache.iotdb.db.mpp.plan.expression.ExpressionType;
+import org.apache.iotdb.db.mpp.plan.expression.binary.BinaryExpression;
+import org.apache.iotdb.db.mpp.plan.expression.leaf.ConstantOperand;
+import org.apache.iotdb.db.mpp.plan.expression.leaf.TimeSeriesOperand;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanVisitor;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.ExchangeNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.FilterNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.sink.MultiChildrenSinkNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesScanNode;
+import org.apache.iotdb.db.mpp.plan.statement.StatementType;
+import org.apache.iotdb.db.mpp.plan.statement.crud.QueryStatement;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <b>Optimization phase:</b> Distributed plan planning
+ *
+ * <p><b>Rule:</b> The conjuncts of the predicate of a FilterNode which compare a series with a
+ * constant can be pushed down to the SeriesScanNodes of that series as value filter, so that the
+ * chunks and pages which can't satisfy them are skipped by statistics, when the following
+ * conditions are met:
+ * <li>Only TimeJoinNodes and ExchangeNodes are between the FilterNode and the SeriesScanNode.
+ * <li>The series is a non-aligned series of INT32, INT64 or DOUBLE, and the constant can be
+ *     represented by the data type of the series exactly.
+ *
+ *     <p>The FilterNode is kept. A comparison is never satisfied by null, so the rows removed by
+ *     the SeriesScanNode would be removed by the FilterNode anyway, even if the TimeJoinNode fills
+ *     them with null.
+ */
+public class PredicatePushDown implements PlanOptimizer {
+
+  @Override
+  public PlanNode optimize(PlanNode plan, Analysis analysis, MPPQueryContext context) {
+    if (analysis.getStatement().getType() != StatementType.QUERY
+        || ((QueryStatement) analysis.getStatement()).isLastQuery()) {
+      return plan;
+    }
+    plan.accept(new Rewriter(), Collections.emptyMap());
+    return plan;
+  }
+
+  /** The context is the value filters which can be pushed down, indexed by the series path. */
+  private static class Rewriter extends PlanVisitor<Void, Map<String, Filter>> {
+
+    @Override
+    public Void visitPlan(PlanNode node, Map<String, Filter> context) {
+      // the value filters can't be pushed down through other nodes
+      for (PlanNode child : node.getChildren()) {
+        child.accept(this, Collections.emptyMap());
+      }
+      return null;
+    }
+
+    @Override
+    public Void visitFilter(FilterNode node, Map<String, Filter> context) {
+      Map<String, Filter> valueFilters = new HashMap<>(context);
+      extractValueFilters(node.getPredicate(), valueFilters);
+      node.getChild().accept(this, valueFilters);
+      return null;
+    }
+
+    @Override
+    public Void visitTimeJoin(TimeJoinNode node, Map<String, Filter> context) {
+      for (PlanNode child : node.getChildren()) {
+        child.accept(this, context);
+      }
+      return null;
+    }
+
+    @Override
+    public Void visitExchange(ExchangeNode node, Map<String, Filter> context) {
+      PlanNode child = node.getChild();
+      if (child instanceof MultiChildrenSinkNode) {
+        // the sink node is shared by several ExchangeNodes, only the child sending data to this
+        // ExchangeNode is affected. The others are visited through their own ExchangeNodes.
+        child.getChildren().get(node.getIndexOfUpstreamSinkHandle()).accept(this, context);
+      } else {
+        child.accept(this, context);
+      }
+      return null;
+    }
+
+    @Override
+    public Void visitSeriesScan(SeriesScanNode node, Map<String, Filter> context) {
+      Filter valueFilter = context.get(node.getSeriesPath().getFullPath());
+      if (valueFilter != null) {
+        node.setValueFilter(
+            node.getValueFilter() == null
+                ? valueFilter
+                : FilterFactory.and(node.getValueFilter(), valueFilter));
+      }
+      return null;
+    }
+  }
+
+  private static void extractValueFilters(Expression predicate, Map<String, Filter> valueFilters) {
+    if (predicate.getExpressionType() == ExpressionType.LOGIC_AND) {
+      extractValueFilters(((BinaryExpression) predicate).getLeftExpression(), valueFilters);
+      extractValueFilters(((BinaryExpression) predicate).getRightExpression(), valueFilters);
+      return;
+    }
+    if (!predicate.isCompareBinaryExpression()) {
+      return;
+    }
+
+    Expression left = ((BinaryExpression) predicate).getLeftExpression();
+    Expression right = ((BinaryExpression) predicate).getRightExpression();
+    ExpressionType expressionType = predicate.getExpressionType();
+    if (left instanceof ConstantOperand && right instanceof TimeSeriesOperand) {
+      Expression temp = left;
+      left = right;
+      right = temp;
+      expressionType = reverse(expressionType);
+    }
+    if (!(left instanceof TimeSeriesOperand) || !(right instanceof ConstantOperand)) {
+      return;
+    }
+
+    PartialPath path = ((TimeSeriesOperand) left).getPath();
+    if (!(path instanceof MeasurementPath)) {
+      return;
+    }
+    Comparable<?> value = parseConstant(path.getSeriesType(), (ConstantOperand) right);
+    if (value == null) {
+      return;
+    }
+    Filter valueFilter = constructValueFilter(expressionType, value);
+    valueFilters.merge(path.getFullPath(), valueFilter, FilterFactory::and);
+  }
+
+  private static ExpressionType reverse(ExpressionType expressionType) {
+    switch (expressionType) {
+      case GREATER_THAN:
+        return ExpressionType.LESS_THAN;
+      case GREATER_EQUAL:
+        return ExpressionType.LESS_EQUAL;
+      case LESS_THAN:
+        return ExpressionType.GREATER_THAN;
+      case LESS_EQUAL:
+        return ExpressionType.GREATER_EQUAL;
+      default:
+        return expressionType;
+    }
+  }
+
+  /**
+   * @return the constant in the type of the series, or null if it can't be compared with the values
+   *     of the series exactly as the FilterNode does
+   */
+  private static Comparable<?> parseConstant(TSDataType seriesType, ConstantOperand constant) {
+    String valueString = constant.getValueString();
+    switch (seriesType) {
+      case INT32:
+        if (constant.getDataType() == TSDataType.INT64) {
+          long value = Long.parseLong(valueString);
+          if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+          }
+        }
+        return null;
+      case INT64:
+        return constant.getDataType() == TSDataType.INT64 ? Long.parseLong(valueString) : null;
+      case DOUBLE:
+        return constant.getDataType() == TSDataType.INT64
+                || constant.getDataType() == TSDataType.DOUBLE
+            ? Double.parseDouble(valueString)
+            : null;
+      default:
+        // the statistics of FLOAT are compared in float, which may differ from the FilterNode
+        return null;
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Filter constructValueFilter(ExpressionType expressionType, Comparable value) {
+    switch (expressionType) {
+      case GREATER_THAN:
+        return ValueFilter.gt(value);
+      case GREATER_EQUAL:
+        return ValueFilter.gtEq(value);
+      case LESS_THAN:
+        return ValueFilter.lt(value);
+      case LESS_EQUAL:
+        return ValueFilter.ltEq(value);
+      case EQUAL_TO:
+        return ValueFilter.eq(value);
+      case NON_EQUAL:
+        return ValueFilter.notEq(value);
+      default:
+        throw new IllegalArgumentException("unsupported expression type: " + expressionType);
+    }
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.mpp.plan.planner;
 
+import org.apache.iotdb.common.rpc.thrift.TAggregationType;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.path.AlignedPath;
 import org.apache.iotdb.commons.path.MeasurementPath;
@@ -97,6 +98,7 @@ import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.TimeCompara
 import org.apache.iotdb.db.mpp.execution.operator.process.last.AbstractUpdateLastCacheOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.last.AlignedUpdateLastCacheOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.last.LastQueryCollectOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.last.LastQueryFallbackOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.last.LastQueryMergeOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.last.LastQueryOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.last.LastQuerySortOperator;
@@ -137,6 +139,7 @@ import org.apache.iotdb.db.mpp.plan.expression.Expression;
 import org.apache.iotdb.db.mpp.plan.expression.leaf.TimeSeriesOperand;
 import org.apache.iotdb.db.mpp.plan.expression.visitor.ColumnTransformerVisitor;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanVisitor;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.read.CountSchemaMergeNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.read.DevicesCountNode;
@@ -184,9 +187,11 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.AlignedSeriesAggreg
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.AlignedSeriesScanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.LastQueryScanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesAggregationScanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesAggregationSourceNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesScanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.ShowQueriesNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.AggregationDescriptor;
+import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.AggregationStep;
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.CrossSeriesAggregationDescriptor;
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.DeviceViewIntoPathDescriptor;
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.FillDescriptor;
@@ -212,8 +217,11 @@ import org.apache.iotdb.db.mpp.transformation.dag.udf.UDTFContext;
 import org.apache.iotdb.db.utils.datastructure.TimeSelector;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.filter.operator.Gt;
 import org.apache.iotdb.tsfile.read.filter.operator.GtEq;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -288,7 +296,7 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
       seriesScanOptionsBuilder.withGlobalTimeFilter(timeFilter.copy());
     }
     if (valueFilter != null) {
-      seriesScanOptionsBuilder.withGlobalTimeFilter(valueFilter.copy());
+      seriesScanOptionsBuilder.withQueryFilter(valueFilter.copy());
     }
     seriesScanOptionsBuilder.withAllSensors(
         context.getAllSensors(seriesPath.getDevice(), seriesPath.getMeasurement()));
@@ -356,6 +364,16 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
   @Override
   public Operator visitSeriesAggregationScan(
       SeriesAggregationScanNode node, LocalExecutionPlanContext context) {
+    long[] splitTimes = getTimeSplitPoints(node, context);
+    if (splitTimes.length > 0) {
+      return splitAggregationScanByTime(
+          node,
+          Collections.nCopies(
+              node.getAggregationDescriptorList().size(), node.getSeriesPath().getSeriesType()),
+          splitTimes,
+          context);
+    }
+
     PartialPath seriesPath = node.getSeriesPath();
     boolean ascending = node.getScanOrder() == Ordering.ASC;
     OperatorContext operatorContext =
@@ -418,6 +436,23 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
   public Operator visitAlignedSeriesAggregationScan(
       AlignedSeriesAggregationScanNode node, LocalExecutionPlanContext context) {
     AlignedPath seriesPath = node.getAlignedPath();
+    long[] splitTimes = getTimeSplitPoints(node, context);
+    if (splitTimes.length > 0) {
+      List<TSDataType> seriesDataTypes = new ArrayList<>();
+      for (AggregationDescriptor descriptor : node.getAggregationDescriptorList()) {
+        String inputSeries =
+            ((TimeSeriesOperand) (descriptor.getInputExpressions().get(0)))
+                .getPath()
+                .getMeasurement();
+        seriesDataTypes.add(
+            seriesPath
+                .getMeasurementSchema()
+                .getSubMeasurementsTSDataTypeList()
+                .get(seriesPath.getMeasurementList().indexOf(inputSeries)));
+      }
+      return splitAggregationScanByTime(node, seriesDataTypes, splitTimes, context);
+    }
+
     boolean ascending = node.getScanOrder() == Ordering.ASC;
     OperatorContext operatorContext =
         context
@@ -487,6 +522,188 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
     return seriesAggregationScanOperator;
   }
 
+  /**
+   * Decides how an aggregation scan of one series is split by time, so that long aggregations of
+   * one hot series are not executed by one single driver. The scan is only split if its time range
+   * is bounded, its result can be merged from partial results and there is extra degree of
+   * parallelism left for it. Every slice covers at least {@code
+   * min_aggregation_scan_split_time_range}, so that short ranges don't start pipelines which read
+   * little data each.
+   *
+   * @return the start times of all the time slices except the first one, empty if the scan should
+   *     not be split
+   */
+  private long[] getTimeSplitPoints(
+      SeriesAggregationSourceNode node, LocalExecutionPlanContext context) {
+    int sliceNum = context.getDegreeOfParallelism();
+    int maxSplitNum = IoTDBDescriptor.getInstance().getConfig().getMaxAggregationScanSplitNum();
+    if (maxSplitNum > 0) {
+      sliceNum = Math.min(sliceNum, maxSplitNum);
+    }
+    if (sliceNum <= 1 || !(context.getDriverContext() instanceof DataDriverContext)) {
+      return new long[0];
+    }
+    for (AggregationDescriptor descriptor : node.getAggregationDescriptorList()) {
+      // the result of count_if depends on the consecutive points across the slices
+      if (!descriptor.getStep().isInputRaw()
+          || descriptor.getAggregationType() == TAggregationType.COUNT_IF) {
+        return new long[0];
+      }
+    }
+
+    long startTime = Long.MIN_VALUE;
+    long endTime = Long.MAX_VALUE;
+    if (node.getTimeFilter() != null) {
+      List<TimeRange> timeRanges = node.getTimeFilter().getTimeRanges();
+      if (timeRanges.isEmpty()) {
+        return new long[0];
+      }
+      startTime = timeRanges.get(0).getMin();
+      endTime = timeRanges.get(timeRanges.size() - 1).getMax();
+    }
+    GroupByTimeParameter groupByTimeParameter = node.getGroupByTimeParameter();
+    if (groupByTimeParameter != null) {
+      startTime = Math.max(startTime, groupByTimeParameter.getStartTime());
+      endTime = Math.min(endTime, groupByTimeParameter.getEndTime());
+    }
+    if (startTime == Long.MIN_VALUE || endTime == Long.MAX_VALUE || endTime <= startTime) {
+      return new long[0];
+    }
+    long minSliceTimeRange =
+        IoTDBDescriptor.getInstance().getConfig().getMinAggregationScanSplitTimeRange();
+    if (minSliceTimeRange > 0) {
+      // divide before subtracting to avoid overflow
+      long maxSliceNum = endTime / minSliceTimeRange - startTime / minSliceTimeRange;
+      sliceNum = (int) Math.min(sliceNum, maxSliceNum);
+      if (sliceNum <= 1) {
+        return new long[0];
+      }
+    }
+    long sliceLength = endTime / sliceNum - startTime / sliceNum;
+    if (sliceLength <= 0) {
+      return new long[0];
+    }
+
+    long[] splitTimes = new long[sliceNum - 1];
+    for (int i = 0; i < splitTimes.length; i++) {
+      splitTimes[i] = startTime + sliceLength * (i + 1);
+    }
+    return splitTimes;
+  }
+
+  /**
+   * Every time slice of the scan outputs partial results of all the time windows in its own
+   * pipeline, just like the scans of different data regions, and an {@link AggregationOperator}
+   * merges them.
+   */
+  private Operator splitAggregationScanByTime(
+      SeriesAggregationSourceNode node,
+      List<TSDataType> seriesDataTypes,
+      long[] splitTimes,
+      LocalExecutionPlanContext context) {
+    List<AggregationDescriptor> partialDescriptors = new ArrayList<>();
+    for (AggregationDescriptor descriptor : node.getAggregationDescriptorList()) {
+      AggregationDescriptor partialDescriptor = descriptor.deepClone();
+      partialDescriptor.setStep(AggregationStep.PARTIAL);
+      partialDescriptors.add(partialDescriptor);
+      LogicalPlanBuilder.updateTypeProviderByPartialAggregation(
+          partialDescriptor, context.getTypeProvider());
+    }
+
+    List<Operator> children = new ArrayList<>();
+    Map<String, List<InputLocation>> layout = new HashMap<>();
+    for (int i = 0; i <= splitTimes.length; i++) {
+      Filter timeFilter = node.getTimeFilter();
+      if (i > 0) {
+        timeFilter = andTimeFilter(timeFilter, TimeFilter.gtEq(splitTimes[i - 1]));
+      }
+      if (i < splitTimes.length) {
+        timeFilter = andTimeFilter(timeFilter, TimeFilter.lt(splitTimes[i]));
+      }
+      SeriesAggregationSourceNode sliceNode =
+          createTimeSliceNode(node, i, partialDescriptors, timeFilter);
+
+      LocalExecutionPlanContext subContext = context.createSubContext();
+      subContext.setDegreeOfParallelism(1);
+      children.add(createNewPipelineForChildNode(context, subContext, sliceNode));
+      context.addExchangeSumNum(1);
+
+      List<String> outputColumnNames = sliceNode.getOutputColumnNames();
+      for (int j = 0; j < outputColumnNames.size(); j++) {
+        layout
+            .computeIfAbsent(outputColumnNames.get(j), k -> new ArrayList<>())
+            .add(new InputLocation(i, j));
+      }
+    }
+
+    boolean ascending = node.getScanOrder() == Ordering.ASC;
+    List<Aggregator> aggregators = new ArrayList<>();
+    for (int i = 0; i < node.getAggregationDescriptorList().size(); i++) {
+      AggregationDescriptor descriptor = node.getAggregationDescriptorList().get(i).deepClone();
+      descriptor.setStep(
+          descriptor.getStep().isOutputPartial()
+              ? AggregationStep.INTERMEDIATE
+              : AggregationStep.FINAL);
+      aggregators.add(
+          new Aggregator(
+              AccumulatorFactory.createAccumulator(
+                  descriptor.getAggregationType(),
+                  seriesDataTypes.get(i),
+                  descriptor.getInputExpressions(),
+                  descriptor.getInputAttributes(),
+                  ascending),
+              descriptor.getStep(),
+              calcInputLocationList(descriptor, layout)));
+    }
+
+    OperatorContext operatorContext =
+        context
+            .getDriverContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                AggregationOperator.class.getSimpleName());
+    ITimeRangeIterator timeRangeIterator =
+        initTimeRangeIterator(node.getGroupByTimeParameter(), ascending, true);
+    long maxReturnSize =
+        calculateMaxAggregationResultSize(
+            node.getAggregationDescriptorList(), timeRangeIterator, context.getTypeProvider());
+    context.getTimeSliceAllocator().recordExecutionWeight(operatorContext, aggregators.size());
+    return new AggregationOperator(
+        operatorContext, aggregators, timeRangeIterator, children, maxReturnSize);
+  }
+
+  private SeriesAggregationSourceNode createTimeSliceNode(
+      SeriesAggregationSourceNode node,
+      int sliceIndex,
+      List<AggregationDescriptor> partialDescriptors,
+      Filter timeFilter) {
+    PlanNodeId sliceNodeId =
+        new PlanNodeId(String.format("%s-%s", node.getPlanNodeId(), sliceIndex));
+    if (node instanceof AlignedSeriesAggregationScanNode) {
+      return new AlignedSeriesAggregationScanNode(
+          sliceNodeId,
+          ((AlignedSeriesAggregationScanNode) node).getAlignedPath(),
+          partialDescriptors,
+          node.getScanOrder(),
+          timeFilter,
+          node.getGroupByTimeParameter(),
+          node.getRegionReplicaSet());
+    }
+    return new SeriesAggregationScanNode(
+        sliceNodeId,
+        ((SeriesAggregationScanNode) node).getSeriesPath(),
+        partialDescriptors,
+        node.getScanOrder(),
+        timeFilter,
+        node.getGroupByTimeParameter(),
+        node.getRegionReplicaSet());
+  }
+
+  private Filter andTimeFilter(Filter timeFilter, Filter sliceTimeFilter) {
+    return timeFilter == null ? sliceTimeFilter : FilterFactory.and(timeFilter, sliceTimeFilter);
+  }
+
   @Override
   public Operator visitSchemaQueryOrderByHeat(
       SchemaQueryOrderByHeatNode node, LocalExecutionPlanContext context) {
@@ -1594,7 +1811,7 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             .addOperatorContext(
                 context.getNextOperatorId(),
                 node.getPlanNodeId(),
-                DeviceViewIntoOperator.class.getSimpleName());
+                SortOperator.class.getSimpleName());
     List<TSDataType> dataTypes = getOutputColumnTypes(node, context.getTypeProvider());
 
     List<SortItem> sortItemList = node.getOrderByParameter().getSortItemList();
@@ -2031,7 +2248,34 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
 
   private UpdateLastCacheOperator createUpdateLastCacheOperator(
       LastQueryScanNode node, LocalExecutionPlanContext context, MeasurementPath fullPath) {
-    SeriesAggregationScanOperator lastQueryScan = createLastQueryScanOperator(node, context);
+    Filter timeFilter = context.getLastQueryTimeFilter();
+    Operator lastQueryScan = createLastQueryScanOperator(node, context, timeFilter);
+    ((DataDriverContext) context.getDriverContext()).addPath(node.getSeriesPath());
+
+    // the data before the indexed last time are scanned only if there is no data since then
+    long indexedLastTime =
+        ((DataDriverContext) context.getDriverContext())
+            .getDataRegion()
+            .getSeriesLastTime(fullPath.getFullPath());
+    if (indexedLastTime != Long.MIN_VALUE) {
+      Filter limitedTimeFilter =
+          timeFilter == null
+              ? TimeFilter.gtEq(indexedLastTime)
+              : FilterFactory.and(timeFilter, TimeFilter.gtEq(indexedLastTime));
+      SeriesAggregationScanOperator limitedLastQueryScan =
+          createLastQueryScanOperator(node, context, limitedTimeFilter);
+      OperatorContext fallbackOperatorContext =
+          context
+              .getDriverContext()
+              .addOperatorContext(
+                  context.getNextOperatorId(),
+                  node.getPlanNodeId(),
+                  LastQueryFallbackOperator.class.getSimpleName());
+      context.getTimeSliceAllocator().recordExecutionWeight(fallbackOperatorContext, 1);
+      lastQueryScan =
+          new LastQueryFallbackOperator(
+              fallbackOperatorContext, limitedLastQueryScan, lastQueryScan);
+    }
 
     OperatorContext operatorContext =
         context
@@ -2051,7 +2295,7 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
   }
 
   private SeriesAggregationScanOperator createLastQueryScanOperator(
-      LastQueryScanNode node, LocalExecutionPlanContext context) {
+      LastQueryScanNode node, LocalExecutionPlanContext context, Filter timeFilter) {
     MeasurementPath seriesPath = node.getSeriesPath();
     OperatorContext operatorContext =
         context
@@ -2071,7 +2315,7 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
     SeriesScanOptions.Builder scanOptionsBuilder = new SeriesScanOptions.Builder();
     scanOptionsBuilder.withAllSensors(
         context.getAllSensors(seriesPath.getDevice(), seriesPath.getMeasurement()));
-    scanOptionsBuilder.withGlobalTimeFilter(context.getLastQueryTimeFilter());
+    scanOptionsBuilder.withGlobalTimeFilter(timeFilter);
 
     SeriesAggregationScanOperator seriesAggregationScanOperator =
         new SeriesAggregationScanOperator(
@@ -2086,7 +2330,6 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             maxReturnSize);
     ((DataDriverContext) context.getDriverContext())
         .addSourceOperator(seriesAggregationScanOperator);
-    ((DataDriverContext) context.getDriverContext()).addPath(seriesPath);
     context.getTimeSliceAllocator().recordExecutionWeight(operatorContext, aggregators.size());
     return seriesAggregationScanOperator;
   }
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.mpp.plan.planner.distribution;
 
 import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.common.MPPQueryContext;
 import org.apache.iotdb.db.mpp.common.PlanFragmentId;
 import org.apache.iotdb.db.mpp.execution.exchange.sink.DownStreamChannelLocation;
@@ -26,12 +27,14 @@ import org.apache.iotdb.db.mpp.plan.analyze.Analysis;
 import org.apache.iotdb.db.mpp.plan.analyze.QueryType;
 import org.apache.iotdb.db.mpp.plan.optimization.LimitOffsetPushDown;
 import org.apache.iotdb.db.mpp.plan.optimization.PlanOptimizer;
+import org.apache.iotdb.db.mpp.plan.optimization.PredicatePushDown;
 import org.apache.iotdb.db.mpp.plan.planner.IFragmentParallelPlaner;
 import org.apache.iotdb.db.mpp.plan.planner.plan.DistributedQueryPlan;
 import org.apache.iotdb.db.mpp.plan.planner.plan.FragmentInstance;
 import org.apache.iotdb.db.mpp.plan.planner.plan.LogicalQueryPlan;
 import org.apache.iotdb.db.mpp.plan.planner.plan.PlanFragment;
 import org.apache.iotdb.db.mpp.plan.planner.plan.SubPlan;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanGraphPrinter;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.WritePlanNode;
@@ -45,6 +48,7 @@ import org.apache.iotdb.db.mpp.plan.statement.crud.QueryStatement;
 
 import org.apache.commons.lang3.Validate;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -65,7 +69,20 @@ public class DistributionPlanner {
     this.analysis = analysis;
     this.logicalPlan = logicalPlan;
     this.context = logicalPlan.getContext();
-    this.optimizers = Collections.singletonList(new LimitOffsetPushDown());
+    this.optimizers = getEnabledOptimizers();
+  }
+
+  private static List<PlanOptimizer> getEnabledOptimizers() {
+    Set<String> disabledOptimizers =
+        IoTDBDescriptor.getInstance().getConfig().getDisabledPlanOptimizers();
+    List<PlanOptimizer> optimizers = new ArrayList<>();
+    for (PlanOptimizer optimizer :
+        new PlanOptimizer[] {new PredicatePushDown(), new LimitOffsetPushDown()}) {
+      if (!disabledOptimizers.contains(optimizer.getName())) {
+        optimizers.add(optimizer);
+      }
+    }
+    return optimizers;
   }
 
   public PlanNode rewriteSource() {
@@ -177,6 +194,39 @@ public class DistributionPlanner {
     return rootWithExchange;
   }
 
+  /**
+   * Optimize the plan like {@link #optimize(PlanNode)}, and print how it is changed for EXPLAIN.
+   *
+   * @return the final plan if no optimizer changes it, otherwise the plan before optimization
+   *     followed by the plan after each optimizer which changes it
+   */
+  public List<String> explainOptimization(PlanNode rootWithExchange) {
+    List<String> lines = printPlan(rootWithExchange);
+    if (analysis.getStatement() == null || !analysis.getStatement().isQuery()) {
+      return lines;
+    }
+
+    List<String> explainedLines = new ArrayList<>();
+    explainedLines.add("Plan before optimization:");
+    explainedLines.addAll(lines);
+    boolean optimized = false;
+    for (PlanOptimizer optimizer : optimizers) {
+      rootWithExchange = optimizer.optimize(rootWithExchange, analysis, context);
+      List<String> optimizedLines = printPlan(rootWithExchange);
+      if (!optimizedLines.equals(lines)) {
+        optimized = true;
+        explainedLines.add(String.format("Plan after %s:", optimizer.getName()));
+        explainedLines.addAll(optimizedLines);
+        lines = optimizedLines;
+      }
+    }
+    return optimized ? explainedLines : lines;
+  }
+
+  private static List<String> printPlan(PlanNode root) {
+    return root.accept(new PlanGraphPrinter(), new PlanGraphPrinter.GraphContext());
+  }
+
   public SubPlan splitFragment(PlanNode root) {
     FragmentBuilder fragmentBuilder = new FragmentBuilder(context);
     return fragmentBuilder.splitToSubPlan(root);
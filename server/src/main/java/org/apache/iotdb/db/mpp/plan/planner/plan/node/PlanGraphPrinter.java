@@ -96,6 +96,9 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
     boxValue.add(String.format("SeriesScan-%s", node.getPlanNodeId().getId()));
     boxValue.add(String.format("Series: %s", node.getSeriesPath()));
     boxValue.add(String.format("TimeFilter: %s", node.getTimeFilter()));
+    if (node.getValueFilter() != null) {
+      boxValue.add(String.format("ValueFilter: %s", node.getValueFilter()));
+    }
 
     long limit = node.getLimit(), offset = node.getOffset();
     if (limit > 0) {
@@ -21,17 +21,14 @@ package org.apache.iotdb.db.query.context;
 
 import org.apache.iotdb.commons.path.AlignedPath;
 import org.apache.iotdb.commons.path.PartialPath;
-import org.apache.iotdb.commons.path.PatternTreeMap;
-import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.cache.ModificationIndexCache;
+import org.apache.iotdb.db.engine.modification.DeletionIntervalTree;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
-import org.apache.iotdb.db.metadata.path.PatternTreeMapFactory;
-import org.apache.iotdb.db.metadata.path.PatternTreeMapFactory.ModsSerializer;
+import org.apache.iotdb.db.engine.modification.ModificationIndex;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -43,15 +40,14 @@ public class QueryContext {
    * The outer key is the path of a ModificationFile, the inner key in the name of a timeseries and
    * the value is the Modifications of a timeseries in this file.
    */
-  private final Map<String, Map<String, List<Modification>>> filePathModCache =
+  private final Map<String, Map<String, DeletionIntervalTree>> filePathModCache =
       new ConcurrentHashMap<>();
   /**
-   * The key is the path of a ModificationFile and the value is all Modifications in this file. We
-   * use this field because each call of Modification.getModifications() return a copy of the
-   * Modifications, and we do not want it to create multiple copies within a query.
+   * The key is the path of a ModificationFile and the value is the index of all Modifications in
+   * this file. The index is shared by queries, we keep the one first used by this query so that the
+   * Modifications of different timeseries come from the same snapshot within a query.
    */
-  private final Map<String, PatternTreeMap<Modification, ModsSerializer>> fileModCache =
-      new HashMap<>();
+  private final Map<String, ModificationIndex> fileModCache = new ConcurrentHashMap<>();
 
   protected long queryId;
 
@@ -93,61 +89,27 @@ public class QueryContext {
    * them from 'modFile' and put then into the cache.
    */
   public List<Modification> getPathModifications(ModificationFile modFile, PartialPath path) {
+    return getPathDeletions(modFile, path).getModifications();
+  }
+
+  /**
+   * Find the modifications of timeseries 'path' in 'modFile', indexed by time range. If they are
+   * not in the cache, get them from the shared {@link ModificationIndexCache}.
+   */
+  public DeletionIntervalTree getPathDeletions(ModificationFile modFile, PartialPath path) {
     // if the mods file does not exist, do not add it to the cache
     if (!modFile.exists()) {
-      return Collections.emptyList();
+      return DeletionIntervalTree.EMPTY;
     }
-    Map<String, List<Modification>> fileModifications =
+    Map<String, DeletionIntervalTree> fileModifications =
         filePathModCache.computeIfAbsent(modFile.getFilePath(), k -> new ConcurrentHashMap<>());
     return fileModifications.computeIfAbsent(
         path.getFullPath(),
-        k -> {
-          PatternTreeMap<Modification, ModsSerializer> allModifications =
-              fileModCache.get(modFile.getFilePath());
-          if (allModifications == null) {
-            allModifications = PatternTreeMapFactory.getModsPatternTreeMap();
-            for (Modification modification : modFile.getModifications()) {
-              allModifications.append(modification.getPath(), modification);
-            }
-            fileModCache.put(modFile.getFilePath(), allModifications);
-          }
-          return sortAndMerge(allModifications.getOverlapped(path));
-        });
-  }
-
-  private List<Modification> sortAndMerge(List<Modification> modifications) {
-    modifications.sort(
-        (o1, o2) -> {
-          if (!o1.getType().equals(o2.getType())) {
-            return o1.getType().compareTo(o2.getType());
-          } else if (!o1.getPath().equals(o2.getPath())) {
-            return o1.getPath().compareTo(o2.getPath());
-          } else if (o1.getFileOffset() != o2.getFileOffset()) {
-            return (int) (o1.getFileOffset() - o2.getFileOffset());
-          } else {
-            if (o1.getType() == Modification.Type.DELETION) {
-              Deletion del1 = (Deletion) o1;
-              Deletion del2 = (Deletion) o2;
-              return del1.getTimeRange().compareTo(del2.getTimeRange());
-            }
-            throw new IllegalArgumentException();
-          }
-        });
-    List<Modification> result = new ArrayList<>();
-    if (!modifications.isEmpty()) {
-      Deletion current = ((Deletion) modifications.get(0)).clone();
-      for (int i = 1; i < modifications.size(); i++) {
-        Deletion del = (Deletion) modifications.get(i);
-        if (current.intersects(del)) {
-          current.merge(del);
-        } else {
-          result.add(current);
-          current = del.clone();
-        }
-      }
-      result.add(current);
-    }
-    return result;
+        k ->
+            fileModCache
+                .computeIfAbsent(
+                    modFile.getFilePath(), p -> ModificationIndexCache.getInstance().get(modFile))
+                .getSeriesDeletions(path));
   }
 
   /**
@@ -163,6 +125,16 @@ public class QueryContext {
     return ans;
   }
 
+  /** Find the modifications of all aligned 'paths' in 'modFile', indexed by time range. */
+  public List<DeletionIntervalTree> getPathDeletions(ModificationFile modFile, AlignedPath path) {
+    int n = path.getMeasurementList().size();
+    List<DeletionIntervalTree> ans = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      ans.add(getPathDeletions(modFile, path.getPathWithMeasurement(i)));
+    }
+    return ans;
+  }
+
   public long getQueryId() {
     return queryId;
   }
@@ -19,20 +19,28 @@
 package org.apache.iotdb.db.query.control;
 
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.utils.MmapUtil;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.fileSystem.FSType;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.UnClosedTsFileReader;
+import org.apache.iotdb.tsfile.read.reader.MmapTsFileInput;
 import org.apache.iotdb.tsfile.v2.read.TsFileSequenceReaderForV2;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * FileReaderManager is a singleton, which is used to manage all file readers(opened file streams)
@@ -53,6 +61,18 @@ public class FileReaderManager {
    */
   private static final int PRINT_INTERVAL = 10000;
 
+  /** sealed TsFiles not larger than it are read through memory mapping, 0 means never */
+  private static final long MMAP_TSFILE_MAX_SIZE =
+      TSFileDescriptor.getInstance().getConfig().getTSFileStorageFs() == FSType.LOCAL
+          ? IoTDBDescriptor.getInstance().getConfig().getMmapTsFileMaxSizeInByte()
+          : 0;
+
+  /**
+   * total size of the TsFiles mapped by the cached readers, which are unmapped when the readers are
+   * closed, i.e. when no query references them.
+   */
+  private final AtomicLong mappedSize = new AtomicLong();
+
   /**
    * the key of closedFileReaderMap is the file path and the value of closedFileReaderMap is the
    * corresponding reader.
@@ -127,7 +147,7 @@ public class FileReaderManager {
       if (!isClosed) {
         tsFileReader = new UnClosedTsFileReader(filePath);
       } else {
-        tsFileReader = new TsFileSequenceReader(filePath);
+        tsFileReader = createClosedFileReader(filePath);
         if (tsFileReader.readVersionNumber() != TSFileConfig.VERSION_NUMBER) {
           tsFileReader.close();
           tsFileReader = new TsFileSequenceReaderForV2(filePath);
@@ -145,6 +165,28 @@ public class FileReaderManager {
     return readerMap.get(filePath);
   }
 
+  private TsFileSequenceReader createClosedFileReader(String filePath) throws IOException {
+    if (MMAP_TSFILE_MAX_SIZE > 0) {
+      File file = new File(filePath);
+      long fileSize = file.length();
+      if (fileSize > 0 && fileSize <= MMAP_TSFILE_MAX_SIZE) {
+        MmapTsFileInput input = new MmapTsFileInput(file.toPath(), this::unmap);
+        mappedSize.addAndGet(input.size());
+        return new TsFileSequenceReader(input);
+      }
+    }
+    return new TsFileSequenceReader(filePath);
+  }
+
+  private void unmap(MappedByteBuffer mappedByteBuffer) {
+    mappedSize.addAndGet(-mappedByteBuffer.capacity());
+    MmapUtil.clean(mappedByteBuffer);
+  }
+
+  public long getMappedSize() {
+    return mappedSize.get();
+  }
+
   /**
    * Increase the reference count of the reader specified by filePath. Only when the reference count
    * of a reader equals zero, the reader can be closed and removed.
@@ -19,7 +19,7 @@
 package org.apache.iotdb.db.query.reader.chunk.metadata;
 
 import org.apache.iotdb.commons.path.AlignedPath;
-import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.DeletionIntervalTree;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -70,19 +70,19 @@ public class DiskAlignedChunkMetadataLoader implements IChunkMetadataLoader {
 
       long t2 = System.nanoTime();
       // get all sub sensors' modifications
-      List<List<Modification>> pathModifications =
-          context.getPathModifications(resource.getModFile(), seriesPath);
+      List<DeletionIntervalTree> pathDeletions =
+          context.getPathDeletions(resource.getModFile(), seriesPath);
 
       if (context.isDebug()) {
         DEBUG_LOGGER.info(
             "Modifications size is {} for file Path: {} ",
-            pathModifications.size(),
+            pathDeletions.size(),
             resource.getTsFilePath());
-        pathModifications.forEach(c -> DEBUG_LOGGER.info(c.toString()));
+        pathDeletions.forEach(c -> DEBUG_LOGGER.info(c.getModifications().toString()));
       }
 
       // remove ChunkMetadata that have been deleted
-      ModificationUtils.modifyAlignedChunkMetaData(alignedChunkMetadataList, pathModifications);
+      ModificationUtils.modifyAlignedChunkMetaDataByIndex(alignedChunkMetadataList, pathDeletions);
 
       if (context.isDebug()) {
         DEBUG_LOGGER.info("After modification Chunk meta data list is: ");
@@ -19,7 +19,7 @@
 package org.apache.iotdb.db.query.reader.chunk.metadata;
 
 import org.apache.iotdb.commons.path.PartialPath;
-import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.DeletionIntervalTree;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -59,6 +59,10 @@ public class DiskChunkMetadataLoader implements IChunkMetadataLoader {
     this.filter = filter;
   }
 
+  public TsFileResource getTsFileResource() {
+    return resource;
+  }
+
   @Override
   public List<IChunkMetadata> loadChunkMetadataList(ITimeSeriesMetadata timeSeriesMetadata) {
     long t1 = System.nanoTime();
@@ -67,19 +71,19 @@ public class DiskChunkMetadataLoader implements IChunkMetadataLoader {
           ((TimeseriesMetadata) timeSeriesMetadata).getCopiedChunkMetadataList();
 
       long t2 = System.nanoTime();
-      List<Modification> pathModifications =
-          context.getPathModifications(resource.getModFile(), seriesPath);
+      DeletionIntervalTree pathDeletions =
+          context.getPathDeletions(resource.getModFile(), seriesPath);
 
       if (context.isDebug()) {
         DEBUG_LOGGER.info(
             "Modifications size is {} for file Path: {} ",
-            pathModifications.size(),
+            pathDeletions.size(),
             resource.getTsFilePath());
-        pathModifications.forEach(c -> DEBUG_LOGGER.info(c.toString()));
+        pathDeletions.getModifications().forEach(c -> DEBUG_LOGGER.info(c.toString()));
       }
 
-      if (!pathModifications.isEmpty()) {
-        ModificationUtils.modifyChunkMetaData(chunkMetadataList, pathModifications);
+      if (!pathDeletions.isEmpty()) {
+        ModificationUtils.modifyChunkMetaData(chunkMetadataList, pathDeletions);
       }
 
       if (context.isDebug()) {
@@ -28,6 +28,8 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
@@ -58,6 +60,13 @@ public class PrimitiveArrayManager {
   /** TSDataType#serialize() -> ArrayDeque<Array>, VECTOR is ignored */
   private static final ArrayDeque[] POOLED_ARRAYS = new ArrayDeque[TSDataType.values().length - 1];
 
+  /**
+   * TSDataType#serialize() -> ArrayDeque<ByteBuffer>, the direct buffers of off-heap TVLists. TEXT
+   * and VECTOR are ignored.
+   */
+  private static final ArrayDeque[] POOLED_OFF_HEAP_ARRAYS =
+      new ArrayDeque[TSDataType.values().length - 1];
+
   /** TSDataType#serialize() -> max size of ArrayDeque<Array>, VECTOR is ignored */
   private static final int[] LIMITS = new int[TSDataType.values().length - 1];
 
@@ -106,6 +115,12 @@ public class PrimitiveArrayManager {
       POOLED_ARRAYS[i] = new ArrayDeque<>((int) limit);
     }
 
+    // the pools of direct buffers grow on demand, they are empty unless the off-heap memtable is
+    // enabled
+    for (int i = 0; i < POOLED_OFF_HEAP_ARRAYS.length; ++i) {
+      POOLED_OFF_HEAP_ARRAYS[i] = new ArrayDeque<>();
+    }
+
     for (AtomicLong allocationRequestCount : ALLOCATION_REQUEST_COUNTS) {
       allocationRequestCount.set(0);
     }
@@ -125,6 +140,62 @@ public class PrimitiveArrayManager {
       throw new UnSupportedDataTypeException(TSDataType.VECTOR.name());
     }
 
+    int order = recordAllocationRequest(dataType);
+
+    Object array;
+    synchronized (POOLED_ARRAYS[order]) {
+      array = POOLED_ARRAYS[order].poll();
+    }
+    if (array == null) {
+      array = createPrimitiveArray(dataType);
+    }
+    return array;
+  }
+
+  /**
+   * Get or allocate a direct buffer which holds ARRAY_SIZE values of the given type, the byte order
+   * of the buffer is the native order. The pooled buffers share the limits of the primitive arrays.
+   *
+   * @return a direct buffer
+   */
+  public static ByteBuffer allocateOffHeap(TSDataType dataType) {
+    if (dataType.equals(TSDataType.VECTOR) || dataType.equals(TSDataType.TEXT)) {
+      throw new UnSupportedDataTypeException(dataType.name());
+    }
+
+    int order = recordAllocationRequest(dataType);
+
+    ByteBuffer buffer;
+    synchronized (POOLED_OFF_HEAP_ARRAYS[order]) {
+      buffer = (ByteBuffer) POOLED_OFF_HEAP_ARRAYS[order].poll();
+    }
+    if (buffer == null) {
+      buffer =
+          ByteBuffer.allocateDirect(ARRAY_SIZE * dataType.getDataTypeSize())
+              .order(ByteOrder.nativeOrder());
+    }
+    return buffer;
+  }
+
+  /**
+   * This method is called when bringing back a direct buffer got by {@link
+   * #allocateOffHeap(TSDataType)}. Buffers that are not brought back are freed by GC.
+   *
+   * @param dataType the data type the buffer is allocated for
+   * @param buffer direct buffer to be released
+   */
+  public static void releaseOffHeap(TSDataType dataType, ByteBuffer buffer) {
+    int order = dataType.serialize();
+    buffer.clear();
+    synchronized (POOLED_OFF_HEAP_ARRAYS[order]) {
+      ArrayDeque<ByteBuffer> buffers = POOLED_OFF_HEAP_ARRAYS[order];
+      if (buffers.size() < LIMITS[order]) {
+        buffers.add(buffer);
+      }
+    }
+  }
+
+  private static int recordAllocationRequest(TSDataType dataType) {
     if (TOTAL_ALLOCATION_REQUEST_COUNT.get() > limitUpdateThreshold) {
       synchronized (TOTAL_ALLOCATION_REQUEST_COUNT) {
         if (TOTAL_ALLOCATION_REQUEST_COUNT.get() > limitUpdateThreshold) {
@@ -137,15 +208,7 @@ public class PrimitiveArrayManager {
 
     ALLOCATION_REQUEST_COUNTS[order].incrementAndGet();
     TOTAL_ALLOCATION_REQUEST_COUNT.incrementAndGet();
-
-    Object array;
-    synchronized (POOLED_ARRAYS[order]) {
-      array = POOLED_ARRAYS[order].poll();
-    }
-    if (array == null) {
-      array = createPrimitiveArray(dataType);
-    }
-    return array;
+    return order;
   }
 
   private static void updateLimits() {
@@ -60,6 +60,9 @@ public class TsFileResourceManager {
    */
   public synchronized void registerSealedTsFileResource(TsFileResource tsFileResource) {
     if (!sealedTsFileResources.contains(tsFileResource)) {
+      if (CONFIG.isEnableCompactDeviceTimeIndex()) {
+        tsFileResource.compactTimeIndex();
+      }
       sealedTsFileResources.add(tsFileResource);
       totalTimeIndexMemCost += tsFileResource.calculateRamSize();
       chooseTsFileResourceToDegrade();
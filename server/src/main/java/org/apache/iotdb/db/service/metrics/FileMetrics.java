@@ -22,6 +22,7 @@ package org.apache.iotdb.db.service.metrics;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.engine.TsFileMetricManager;
+import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.wal.WALManager;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.config.MetricConfig;
@@ -45,6 +46,7 @@ public class FileMetrics implements IMetricSet {
   private static final TsFileMetricManager TS_FILE_METRIC_MANAGER =
       TsFileMetricManager.getInstance();
   private static final WALManager WAL_MANAGER = WALManager.getInstance();
+  private static final FileReaderManager FILE_READER_MANAGER = FileReaderManager.getInstance();
   private final Runtime runtime = Runtime.getRuntime();
   private String[] getOpenFileNumberCommand;
 
@@ -99,6 +101,13 @@ public class FileMetrics implements IMetricSet {
         TsFileMetricManager::getModFileNum,
         Tag.NAME.toString(),
         "mods");
+    metricService.createAutoGauge(
+        Metric.FILE_SIZE.toString(),
+        MetricLevel.CORE,
+        FILE_READER_MANAGER,
+        FileReaderManager::getMappedSize,
+        Tag.NAME.toString(),
+        "mmap");
   }
 
   private void bindWalFileMetrics(AbstractMetricService metricService) {
@@ -202,6 +211,8 @@ public class FileMetrics implements IMetricSet {
         MetricType.AUTO_GAUGE, Metric.FILE_COUNT.toString(), Tag.NAME.toString(), "unseq");
     metricService.remove(
         MetricType.AUTO_GAUGE, Metric.FILE_COUNT.toString(), Tag.NAME.toString(), "mods");
+    metricService.remove(
+        MetricType.AUTO_GAUGE, Metric.FILE_SIZE.toString(), Tag.NAME.toString(), "mmap");
   }
 
   private void unbindWalMetrics(AbstractMetricService metricService) {
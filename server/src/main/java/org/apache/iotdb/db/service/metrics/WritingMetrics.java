@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.service.metrics;
 
+import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.engine.flush.FlushManager;
@@ -30,6 +31,7 @@ import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
 
 import java.util.Arrays;
+import java.util.List;
 
 public class WritingMetrics implements IMetricSet {
   private static final WALManager WAL_MANAGER = WALManager.getInstance();
@@ -41,6 +43,9 @@ public class WritingMetrics implements IMetricSet {
   public static final String SYNC = "sync";
   public static final String FSYNC = "fsync";
   public static final String SYNC_WAL_BUFFER = "sync_wal_buffer";
+  public static final String WAIT_WAL_BUFFER = "wait_wal_buffer";
+  public static final String BLOCKING_QUEUE = "blocking_queue";
+  public static final String RESERVATION = "reservation";
   public static final String FLUSH_STAGE_SORT = "sort";
   public static final String FLUSH_STAGE_ENCODING = "encoding";
   public static final String FLUSH_STAGE_IO = "io";
@@ -63,6 +68,13 @@ public class WritingMetrics implements IMetricSet {
   public static final String OLDEST_MEM_TABLE_RAM_WHEN_CAUSE_FLUSH =
       "oldest_mem_table_ram_when_cause_flush";
   public static final String FLUSH_TSFILE_SIZE = "flush_tsfile_size";
+  // the ways to sort a TVList in adaptive mode, see TVList.SortPath
+  public static final String TVLIST_SORT_SKIP = "skip";
+  public static final String TVLIST_SORT_TIM = "tim";
+  public static final String TVLIST_SORT_IN_PLACE = "in_place";
+
+  private static final List<String> TVLIST_SORT_PATHS =
+      Arrays.asList(TVLIST_SORT_SKIP, TVLIST_SORT_TIM, TVLIST_SORT_IN_PLACE);
 
   private void bindFlushMetrics(AbstractMetricService metricService) {
     Arrays.asList(FLUSH_STAGE_SORT, FLUSH_STAGE_ENCODING, FLUSH_STAGE_IO, WRITE_PLAN_INDICES)
@@ -127,6 +139,25 @@ public class WritingMetrics implements IMetricSet {
                     type));
   }
 
+  private void bindTVListSortMetrics(AbstractMetricService metricService) {
+    TVLIST_SORT_PATHS.forEach(
+        path ->
+            metricService.getOrCreateCounter(
+                Metric.TVLIST_SORT.toString(), MetricLevel.IMPORTANT, Tag.TYPE.toString(), path));
+  }
+
+  private void unbindTVListSortMetrics(AbstractMetricService metricService) {
+    TVLIST_SORT_PATHS.forEach(
+        path ->
+            metricService.remove(
+                MetricType.COUNTER, Metric.TVLIST_SORT.toString(), Tag.TYPE.toString(), path));
+  }
+
+  public static void recordTVListSortPath(String path) {
+    MetricService.getInstance()
+        .count(1, Metric.TVLIST_SORT.toString(), MetricLevel.IMPORTANT, Tag.TYPE.toString(), path);
+  }
+
   private void bindWALMetrics(AbstractMetricService metricService) {
     metricService.createAutoGauge(
         Metric.WAL_NODE_NUM.toString(),
@@ -189,6 +220,16 @@ public class WritingMetrics implements IMetricSet {
                     SYNC_WAL_BUFFER,
                     Tag.TYPE.toString(),
                     type));
+    Arrays.asList(BLOCKING_QUEUE, RESERVATION)
+        .forEach(
+            type ->
+                metricService.getOrCreateTimer(
+                    Metric.WAL_COST.toString(),
+                    MetricLevel.IMPORTANT,
+                    Tag.STAGE.toString(),
+                    WAIT_WAL_BUFFER,
+                    Tag.TYPE.toString(),
+                    type));
   }
 
   private void unbindWALCostMetrics(AbstractMetricService metricService) {
@@ -225,12 +266,23 @@ public class WritingMetrics implements IMetricSet {
                     SYNC_WAL_BUFFER,
                     Tag.TYPE.toString(),
                     type));
+    Arrays.asList(BLOCKING_QUEUE, RESERVATION)
+        .forEach(
+            type ->
+                metricService.remove(
+                    MetricType.TIMER,
+                    Metric.WAL_COST.toString(),
+                    Tag.STAGE.toString(),
+                    WAIT_WAL_BUFFER,
+                    Tag.TYPE.toString(),
+                    type));
   }
 
   @Override
   public void bindTo(AbstractMetricService metricService) {
     bindFlushMetrics(metricService);
     bindFlushSubTaskMetrics(metricService);
+    bindTVListSortMetrics(metricService);
     bindWALMetrics(metricService);
     bindWALCostMetrics(metricService);
   }
@@ -239,6 +291,7 @@ public class WritingMetrics implements IMetricSet {
   public void unbindFrom(AbstractMetricService metricService) {
     unbindFlushMetrics(metricService);
     unbindFlushSubTaskMetrics(metricService);
+    unbindTVListSortMetrics(metricService);
     unbindWALMetrics(metricService);
     unbindWALCostMetrics(metricService);
   }
@@ -25,12 +25,17 @@ import org.apache.iotdb.db.engine.compaction.execute.task.CompactionTaskSummary;
 import org.apache.iotdb.db.engine.compaction.schedule.constant.CompactionType;
 import org.apache.iotdb.db.engine.compaction.schedule.constant.ProcessChunkType;
 import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class CompactionMetricsManager {
   private static final CompactionMetricsManager INSTANCE = new CompactionMetricsManager();
+  private static final String WRITE_AMPLIFICATION = "compaction_write_amplification";
   private final AtomicInteger waitingSeqInnerCompactionTaskNum = new AtomicInteger(0);
   private final AtomicInteger waitingUnseqInnerCompactionTaskNum = new AtomicInteger(0);
   private final AtomicInteger waitingCrossCompactionTaskNum = new AtomicInteger(0);
@@ -40,6 +45,8 @@ public class CompactionMetricsManager {
   private final AtomicInteger finishSeqInnerCompactionTaskNum = new AtomicInteger(0);
   private final AtomicInteger finishUnseqInnerCompactionTaskNum = new AtomicInteger(0);
   private final AtomicInteger finishCrossCompactionTaskNum = new AtomicInteger(0);
+  private final Map<String, WriteAmplification> writeAmplificationOfDatabases =
+      new ConcurrentHashMap<>();
 
   private CompactionMetricsManager() {}
 
@@ -120,6 +127,49 @@ public class CompactionMetricsManager {
             "compaction");
   }
 
+  /** record the size of a TsFile sealed by flushing, i.e. the data written by users */
+  public void recordFlushedFileSize(String database, long byteNum) {
+    getWriteAmplification(database).flushedBytes.addAndGet(byteNum);
+  }
+
+  /** record the size of a target TsFile of compaction, i.e. the data rewritten by compaction */
+  public void recordCompactedFileSize(String database, long byteNum) {
+    getWriteAmplification(database).compactedBytes.addAndGet(byteNum);
+  }
+
+  /** remove the write amplification of a database after all its data regions are deleted */
+  public void removeWriteAmplification(String database) {
+    if (writeAmplificationOfDatabases.remove(database) != null) {
+      MetricService.getInstance()
+          .remove(
+              MetricType.AUTO_GAUGE,
+              Metric.DATA_WRITTEN.toString(),
+              Tag.NAME.toString(),
+              WRITE_AMPLIFICATION,
+              Tag.DATABASE.toString(),
+              database);
+    }
+  }
+
+  private WriteAmplification getWriteAmplification(String database) {
+    return writeAmplificationOfDatabases.computeIfAbsent(
+        database,
+        k -> {
+          WriteAmplification writeAmplification = new WriteAmplification();
+          MetricService.getInstance()
+              .createAutoGauge(
+                  Metric.DATA_WRITTEN.toString(),
+                  MetricLevel.IMPORTANT,
+                  writeAmplification,
+                  WriteAmplification::getRatio,
+                  Tag.NAME.toString(),
+                  WRITE_AMPLIFICATION,
+                  Tag.DATABASE.toString(),
+                  database);
+          return writeAmplification;
+        });
+  }
+
   public void reportAddTaskToWaitingQueue(boolean isCrossTask, boolean isSeq) {
     if (isCrossTask) {
       waitingCrossCompactionTaskNum.incrementAndGet();
@@ -222,4 +272,20 @@ public class CompactionMetricsManager {
   public int getFinishCrossCompactionTaskNum() {
     return finishCrossCompactionTaskNum.get();
   }
+
+  /**
+   * The bytes written by flushing and compaction since the DataNode starts. The files existing
+   * before are not counted, because how many times they have been rewritten is unknown, so that the
+   * ratio reflects the writes since the start.
+   */
+  private static class WriteAmplification {
+    private final AtomicLong flushedBytes = new AtomicLong(0);
+    private final AtomicLong compactedBytes = new AtomicLong(0);
+
+    /** @return the bytes written to disk per byte flushed, 0 if nothing is flushed yet */
+    private double getRatio() {
+      long flushed = flushedBytes.get();
+      return flushed == 0 ? 0 : (double) (flushed + compactedBytes.get()) / flushed;
+    }
+  }
 }
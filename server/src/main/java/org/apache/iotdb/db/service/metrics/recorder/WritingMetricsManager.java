@@ -325,6 +325,25 @@ public class WritingMetricsManager {
             syncType);
   }
 
+  /**
+   * Record how long a WALEntry waits before being serialized, either in the blocking queue of the
+   * serialize thread or for the space reservation in the wal buffer.
+   */
+  public void recordWaitWALBufferCost(long costTimeInNanos, boolean parallelSerialization) {
+    String waitType =
+        parallelSerialization ? WritingMetrics.RESERVATION : WritingMetrics.BLOCKING_QUEUE;
+    MetricService.getInstance()
+        .timer(
+            costTimeInNanos,
+            TimeUnit.NANOSECONDS,
+            Metric.WAL_COST.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.STAGE.toString(),
+            WritingMetrics.WAIT_WAL_BUFFER,
+            Tag.TYPE.toString(),
+            waitType);
+  }
+
   public void recordWALBufferUsedRatio(double usedRatio) {
     MetricService.getInstance()
         .histogram(
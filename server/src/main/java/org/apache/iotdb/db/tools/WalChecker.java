@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.db.wal.buffer.WALEntry;
 import org.apache.iotdb.db.wal.buffer.WALEntryType;
 import org.apache.iotdb.db.wal.exception.WALException;
+import org.apache.iotdb.db.wal.io.WALInputStream;
 import org.apache.iotdb.db.wal.utils.WALFileUtils;
 
 import org.slf4j.Logger;
@@ -88,7 +89,8 @@ public class WalChecker {
 
   private boolean checkFile(File walFile) {
     try (DataInputStream logStream =
-        new DataInputStream(new BufferedInputStream(new FileInputStream(walFile)))) {
+        new DataInputStream(
+            new WALInputStream(new BufferedInputStream(new FileInputStream(walFile))))) {
       while (logStream.available() > 0) {
         WALEntry walEntry = WALEntry.deserialize(logStream);
         if (walEntry.getType() == WALEntryType.WAL_FILE_INFO_END_MARKER) {
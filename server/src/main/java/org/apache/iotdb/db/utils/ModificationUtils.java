@@ -19,12 +19,13 @@
 
 package org.apache.iotdb.db.utils;
 
-import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.DeletionIntervalTree;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class ModificationUtils {
@@ -42,26 +43,21 @@ public class ModificationUtils {
    * @param chunkMetaData the original chunkMetaData.
    * @param modifications all possible modifications.
    */
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public static void modifyChunkMetaData(
       List<? extends IChunkMetadata> chunkMetaData, List<Modification> modifications) {
-    for (IChunkMetadata metaData : chunkMetaData) {
-      for (Modification modification : modifications) {
-        // When the chunkMetadata come from an old TsFile, the method modification.getFileOffset()
-        // is gerVersionNum actually. In this case, we compare the versions of modification and
-        // mataData to determine whether need to do modify.
-        if (metaData.isFromOldTsFile()) {
-          if (modification.getFileOffset() > metaData.getVersion()) {
-            doModifyChunkMetaData(modification, metaData);
-          }
-          continue;
-        }
-        // The case modification.getFileOffset() == metaData.getOffsetOfChunkHeader()
-        // is not supposed to exist as getFileOffset() is offset containing full chunk,
-        // while getOffsetOfChunkHeader() returns the chunk header offset
-        if (modification.getFileOffset() > metaData.getOffsetOfChunkHeader()) {
-          doModifyChunkMetaData(modification, metaData);
-        }
+    modifyChunkMetaData(chunkMetaData, new DeletionIntervalTree(modifications));
+  }
+
+  /**
+   * The same as {@link #modifyChunkMetaData(List, List)}, but the deletions overlapping each chunk
+   * are looked up in the given index instead of checking all of them.
+   */
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  public static void modifyChunkMetaData(
+      List<? extends IChunkMetadata> chunkMetaData, DeletionIntervalTree deletions) {
+    if (!deletions.isEmpty()) {
+      for (IChunkMetadata metaData : chunkMetaData) {
+        doModifyChunkMetaData(deletions, metaData);
       }
     }
     // remove chunks that are completely deleted
@@ -84,21 +80,26 @@ public class ModificationUtils {
 
   public static void modifyAlignedChunkMetaData(
       List<AlignedChunkMetadata> chunkMetaData, List<List<Modification>> modifications) {
+    List<DeletionIntervalTree> deletions = new ArrayList<>(modifications.size());
+    for (List<Modification> modificationList : modifications) {
+      deletions.add(new DeletionIntervalTree(modificationList));
+    }
+    modifyAlignedChunkMetaDataByIndex(chunkMetaData, deletions);
+  }
+
+  /**
+   * The same as {@link #modifyAlignedChunkMetaData(List, List)}, but the deletions of each sub
+   * sensor are looked up in the given indexes.
+   */
+  public static void modifyAlignedChunkMetaDataByIndex(
+      List<AlignedChunkMetadata> chunkMetaData, List<DeletionIntervalTree> deletions) {
     for (AlignedChunkMetadata metaData : chunkMetaData) {
       List<IChunkMetadata> valueChunkMetadataList = metaData.getValueChunkMetadataList();
       // deal with each sub sensor
       for (int i = 0; i < valueChunkMetadataList.size(); i++) {
         IChunkMetadata v = valueChunkMetadataList.get(i);
-        if (v != null) {
-          List<Modification> modificationList = modifications.get(i);
-          for (Modification modification : modificationList) {
-            // The case modification.getFileOffset() == metaData.getOffsetOfChunkHeader()
-            // is not supposed to exist as getFileOffset() is offset containing full chunk,
-            // while getOffsetOfChunkHeader() returns the chunk header offset
-            if (modification.getFileOffset() > v.getOffsetOfChunkHeader()) {
-              doModifyChunkMetaData(modification, v);
-            }
-          }
+        if (v != null && !deletions.get(i).isEmpty()) {
+          doModifyChunkMetaData(deletions.get(i), v);
         }
       }
     }
@@ -148,10 +149,20 @@ public class ModificationUtils {
         });
   }
 
-  private static void doModifyChunkMetaData(Modification modification, IChunkMetadata metaData) {
-    if (modification instanceof Deletion) {
-      Deletion deletion = (Deletion) modification;
-      metaData.insertIntoSortedDeletions(deletion.getTimeRange());
+  private static void doModifyChunkMetaData(
+      DeletionIntervalTree deletions, IChunkMetadata metaData) {
+    // When the chunkMetadata come from an old TsFile, the method modification.getFileOffset()
+    // is gerVersionNum actually. In this case, we compare the versions of modification and
+    // mataData to determine whether need to do modify.
+    // The case modification.getFileOffset() == metaData.getOffsetOfChunkHeader()
+    // is not supposed to exist as getFileOffset() is offset containing full chunk,
+    // while getOffsetOfChunkHeader() returns the chunk header offset
+    long fileOffset =
+        metaData.isFromOldTsFile() ? metaData.getVersion() : metaData.getOffsetOfChunkHeader();
+    // deletions not overlapping the chunk have no effect on it, so they are skipped
+    for (TimeRange range :
+        deletions.getOverlapped(metaData.getStartTime(), metaData.getEndTime(), fileOffset)) {
+      metaData.insertIntoSortedDeletions(range);
     }
   }
 }
@@ -91,8 +91,9 @@ public abstract class BinaryTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
+    if (rowCount > 1 && timestamp < getTime(rowCount - 2)) {
       sorted = false;
+      runBreakCount++;
     }
     memoryBinaryChunkSize += getBinarySize(value);
   }
@@ -256,6 +257,7 @@ public abstract class BinaryTVList extends TVList {
       long[] time, Binary[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
     long inPutMinTime = Long.MAX_VALUE;
     boolean inputSorted = true;
+    int inputRunBreaks = 0;
 
     int nullCnt = 0;
     for (int vIdx = start; vIdx < end; vIdx++) {
@@ -273,12 +275,13 @@ public abstract class BinaryTVList extends TVList {
       tIdx = tIdx - nullCnt;
       inPutMinTime = Math.min(inPutMinTime, time[tIdx]);
       maxTime = Math.max(maxTime, time[tIdx]);
-      if (inputSorted && tIdx > 0 && time[tIdx - 1] > time[tIdx]) {
+      if (tIdx > 0 && time[tIdx - 1] > time[tIdx]) {
         inputSorted = false;
+        inputRunBreaks++;
       }
     }
 
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
+    updateSorted(inputSorted, inPutMinTime, inputRunBreaks);
     return nullCnt;
   }
 
@@ -84,8 +84,9 @@ public abstract class DoubleTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
+    if (rowCount > 1 && timestamp < getTime(rowCount - 2)) {
       sorted = false;
+      runBreakCount++;
     }
   }
 
@@ -215,6 +216,7 @@ public abstract class DoubleTVList extends TVList {
       long[] time, double[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
     long inPutMinTime = Long.MAX_VALUE;
     boolean inputSorted = true;
+    int inputRunBreaks = 0;
 
     int nullCnt = 0;
     for (int vIdx = start; vIdx < end; vIdx++) {
@@ -232,12 +234,13 @@ public abstract class DoubleTVList extends TVList {
       tIdx = tIdx - nullCnt;
       inPutMinTime = Math.min(inPutMinTime, time[tIdx]);
       maxTime = Math.max(maxTime, time[tIdx]);
-      if (inputSorted && tIdx > 0 && time[tIdx - 1] > time[tIdx]) {
+      if (tIdx > 0 && time[tIdx - 1] > time[tIdx]) {
         inputSorted = false;
+        inputRunBreaks++;
       }
     }
 
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
+    updateSorted(inputSorted, inPutMinTime, inputRunBreaks);
     return nullCnt;
   }
 
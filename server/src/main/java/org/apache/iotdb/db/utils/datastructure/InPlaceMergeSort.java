@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+/**
+ * Stable sort of a TVList that needs no sort buffer: the blocks of {@link #BLOCK_LENGTH} points are
+ * sorted by insertion, then merged bottom up by the SymMerge algorithm of Kim and Kutzner, which
+ * rotates the points in place. It takes O(n * log(n) * log(n)) swaps, and its recursion is only
+ * O(log(n)) deep. Being stable, the points of the same timestamp keep their order of insertion, so
+ * the last one written is still the last one after sorting.
+ */
+public interface InPlaceMergeSort {
+
+  int BLOCK_LENGTH = 20;
+
+  /** compare the timestamps in idx1 and idx2 */
+  int compare(int idx1, int idx2);
+
+  void swap(int p, int q);
+
+  /** sort the points in [lo, hi) */
+  default void inPlaceSort(int lo, int hi) {
+    int blockLength = BLOCK_LENGTH;
+    int a = lo;
+    for (int b = a + blockLength; b <= hi; b += blockLength) {
+      insertionSort(a, b);
+      a = b;
+    }
+    insertionSort(a, hi);
+
+    while (blockLength < hi - lo) {
+      a = lo;
+      for (int b = a + 2 * blockLength; b <= hi; b += 2 * blockLength) {
+        symMerge(a, a + blockLength, b);
+        a = b;
+      }
+      if (a + blockLength < hi) {
+        symMerge(a, a + blockLength, hi);
+      }
+      blockLength *= 2;
+    }
+  }
+
+  default void insertionSort(int lo, int hi) {
+    for (int i = lo + 1; i < hi; i++) {
+      for (int j = i; j > lo && compare(j, j - 1) < 0; j--) {
+        swap(j, j - 1);
+      }
+    }
+  }
+
+  /** merge the sorted [lo, mid) and [mid, hi) */
+  default void symMerge(int lo, int mid, int hi) {
+    if (mid - lo == 1) {
+      // insert the single point of the left part, after the points of the same timestamp
+      int i = mid;
+      int j = hi;
+      while (i < j) {
+        int h = (i + j) >>> 1;
+        if (compare(h, lo) < 0) {
+          i = h + 1;
+        } else {
+          j = h;
+        }
+      }
+      for (int k = lo; k < i - 1; k++) {
+        swap(k, k + 1);
+      }
+      return;
+    }
+    if (hi - mid == 1) {
+      // insert the single point of the right part, after the points of the same timestamp
+      int i = lo;
+      int j = mid;
+      while (i < j) {
+        int h = (i + j) >>> 1;
+        if (compare(mid, h) >= 0) {
+          i = h + 1;
+        } else {
+          j = h;
+        }
+      }
+      for (int k = mid; k > i; k--) {
+        swap(k, k - 1);
+      }
+      return;
+    }
+
+    int half = (lo + hi) >>> 1;
+    int n = half + mid;
+    int start;
+    int r;
+    if (mid > half) {
+      start = n - hi;
+      r = half;
+    } else {
+      start = lo;
+      r = mid;
+    }
+    int p = n - 1;
+    while (start < r) {
+      int c = (start + r) >>> 1;
+      if (compare(p - c, c) >= 0) {
+        start = c + 1;
+      } else {
+        r = c;
+      }
+    }
+    int end = n - start;
+    if (start < mid && mid < end) {
+      rotate(start, mid, end);
+    }
+    if (lo < start && start < half) {
+      symMerge(lo, start, half);
+    }
+    if (half < end && end < hi) {
+      symMerge(half, end, hi);
+    }
+  }
+
+  /** exchange [lo, mid) and [mid, hi) */
+  default void rotate(int lo, int mid, int hi) {
+    int i = mid - lo;
+    int j = hi - mid;
+    while (i != j) {
+      if (i > j) {
+        swapRange(mid - i, mid, j);
+        i -= j;
+      } else {
+        swapRange(mid - i, mid + j - i, i);
+        j -= i;
+      }
+    }
+    swapRange(mid - i, mid, i);
+  }
+
+  default void swapRange(int from1, int from2, int length) {
+    for (int i = 0; i < length; i++) {
+      swap(from1 + i, from2 + i);
+    }
+  }
+}
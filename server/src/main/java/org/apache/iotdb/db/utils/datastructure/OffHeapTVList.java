@@ -0,0 +1,417 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
+import org.apache.iotdb.db.wal.buffer.IWALByteBufferView;
+import org.apache.iotdb.db.wal.utils.WALWriteUtils;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * A TVList which keeps its timestamps and values in direct buffers got from {@link
+ * PrimitiveArrayManager#allocateOffHeap(TSDataType)} instead of java arrays, so that a large
+ * memtable doesn't burden the GC. Each buffer holds ARRAY_SIZE points like the primitive arrays, so
+ * the memory cost is the same as {@link TVList#tvListArrayMemCost(TSDataType)}.
+ *
+ * <p>The values are kept as raw bits of {@link TSDataType#getDataTypeSize()} bytes, so that moving
+ * points for sorting, cloning and WAL serialization are independent of the data type. The sorting
+ * is tim sort, whose temporary buffers are direct buffers too, or the in place merge sort if the
+ * sort algorithm is adaptive.
+ */
+public abstract class OffHeapTVList extends TVList implements TimSort, InPlaceMergeSort {
+
+  // list of timestamp buffers, add 1 when expanded
+  // index relation: arrayIndex -> elementIndex * Long.BYTES
+  protected List<ByteBuffer> timeBuffers;
+  // list of value buffers, add 1 when expanded
+  // index relation: arrayIndex -> elementIndex * valueSize
+  protected List<ByteBuffer> valueBuffers;
+  private final int valueSize;
+
+  // buffers for tim sort, only exist during sorting
+  private List<ByteBuffer> sortedTimeBuffers;
+  private List<ByteBuffer> sortedValueBuffers;
+  private long pivotTime;
+  private long pivotValue;
+
+  OffHeapTVList() {
+    super();
+    timeBuffers = new ArrayList<>();
+    valueBuffers = new ArrayList<>();
+    valueSize = getDataType().getDataTypeSize();
+  }
+
+  public static boolean isSupported(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  public static OffHeapTVList newList(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new OffHeapBooleanTVList();
+      case INT32:
+        return new OffHeapIntTVList();
+      case INT64:
+        return new OffHeapLongTVList();
+      case FLOAT:
+        return new OffHeapFloatTVList();
+      case DOUBLE:
+        return new OffHeapDoubleTVList();
+      default:
+        throw new UnSupportedDataTypeException(dataType.name());
+    }
+  }
+
+  @Override
+  public long getTime(int index) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return timeBuffers.get(index / ARRAY_SIZE).getLong((index % ARRAY_SIZE) * Long.BYTES);
+  }
+
+  protected long getValueBits(int index) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return readValueBits(valueBuffers, index);
+  }
+
+  protected void putValueBits(long timestamp, long valueBits) {
+    checkExpansion();
+    int arrayIndex = rowCount / ARRAY_SIZE;
+    int elementIndex = rowCount % ARRAY_SIZE;
+    maxTime = Math.max(maxTime, timestamp);
+    timeBuffers.get(arrayIndex).putLong(elementIndex * Long.BYTES, timestamp);
+    writeValueBits(valueBuffers.get(arrayIndex), elementIndex * valueSize, valueBits);
+    rowCount++;
+    if (rowCount > 1 && timestamp < getTime(rowCount - 2)) {
+      sorted = false;
+      runBreakCount++;
+    }
+  }
+
+  protected void set(int index, long timestamp, long valueBits) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    int arrayIndex = index / ARRAY_SIZE;
+    int elementIndex = index % ARRAY_SIZE;
+    timeBuffers.get(arrayIndex).putLong(elementIndex * Long.BYTES, timestamp);
+    writeValueBits(valueBuffers.get(arrayIndex), elementIndex * valueSize, valueBits);
+  }
+
+  private long readValueBits(List<ByteBuffer> buffers, int index) {
+    ByteBuffer buffer = buffers.get(index / ARRAY_SIZE);
+    int offset = (index % ARRAY_SIZE) * valueSize;
+    switch (valueSize) {
+      case Long.BYTES:
+        return buffer.getLong(offset);
+      case Integer.BYTES:
+        return buffer.getInt(offset);
+      default:
+        return buffer.get(offset);
+    }
+  }
+
+  private void writeValueBits(ByteBuffer buffer, int offset, long valueBits) {
+    switch (valueSize) {
+      case Long.BYTES:
+        buffer.putLong(offset, valueBits);
+        break;
+      case Integer.BYTES:
+        buffer.putInt(offset, (int) valueBits);
+        break;
+      default:
+        buffer.put(offset, (byte) valueBits);
+        break;
+    }
+  }
+
+  @Override
+  public void sort() {
+    SortPath sortPath = chooseSortPath();
+    if (sortPath == SortPath.IN_PLACE) {
+      inPlaceSort(0, rowCount);
+    } else if (sortPath == SortPath.TIM) {
+      int arrayNum = PrimitiveArrayManager.getArrayRowCount(rowCount);
+      sortedTimeBuffers = new ArrayList<>(arrayNum);
+      sortedValueBuffers = new ArrayList<>(arrayNum);
+      for (int i = 0; i < arrayNum; i++) {
+        sortedTimeBuffers.add(PrimitiveArrayManager.allocateOffHeap(TSDataType.INT64));
+        sortedValueBuffers.add(PrimitiveArrayManager.allocateOffHeap(getDataType()));
+      }
+      try {
+        sort(0, rowCount);
+      } finally {
+        clearSortedTime();
+        clearSortedValue();
+      }
+    }
+    sorted = true;
+    runBreakCount = 0;
+  }
+
+  @Override
+  public void tim_set(int src, int dest) {
+    set(src, dest);
+  }
+
+  @Override
+  protected void set(int src, int dest) {
+    set(dest, getTime(src), getValueBits(src));
+  }
+
+  @Override
+  public void setToSorted(int src, int dest) {
+    int arrayIndex = dest / ARRAY_SIZE;
+    int elementIndex = dest % ARRAY_SIZE;
+    sortedTimeBuffers.get(arrayIndex).putLong(elementIndex * Long.BYTES, getTime(src));
+    writeValueBits(sortedValueBuffers.get(arrayIndex), elementIndex * valueSize, getValueBits(src));
+  }
+
+  @Override
+  public void setFromSorted(int src, int dest) {
+    set(
+        dest,
+        sortedTimeBuffers.get(src / ARRAY_SIZE).getLong((src % ARRAY_SIZE) * Long.BYTES),
+        readValueBits(sortedValueBuffers, src));
+  }
+
+  @Override
+  public void saveAsPivot(int pos) {
+    pivotTime = getTime(pos);
+    pivotValue = getValueBits(pos);
+  }
+
+  @Override
+  public void setPivotTo(int pos) {
+    set(pos, pivotTime, pivotValue);
+  }
+
+  @Override
+  public void clearSortedTime() {
+    if (sortedTimeBuffers != null) {
+      for (ByteBuffer buffer : sortedTimeBuffers) {
+        PrimitiveArrayManager.releaseOffHeap(TSDataType.INT64, buffer);
+      }
+      sortedTimeBuffers = null;
+    }
+  }
+
+  @Override
+  public void clearSortedValue() {
+    if (sortedValueBuffers != null) {
+      for (ByteBuffer buffer : sortedValueBuffers) {
+        PrimitiveArrayManager.releaseOffHeap(getDataType(), buffer);
+      }
+      sortedValueBuffers = null;
+    }
+  }
+
+  @Override
+  public void swap(int p, int q) {
+    long timeP = getTime(p);
+    long valueBitsP = getValueBits(p);
+    set(p, getTime(q), getValueBits(q));
+    set(q, timeP, valueBitsP);
+  }
+
+  @Override
+  public int compare(int idx1, int idx2) {
+    return Long.compare(getTime(idx1), getTime(idx2));
+  }
+
+  @Override
+  public void reverseRange(int lo, int hi) {
+    hi--;
+    while (lo < hi) {
+      long loT = getTime(lo);
+      long loV = getValueBits(lo);
+      long hiT = getTime(hi);
+      long hiV = getValueBits(hi);
+      set(lo++, hiT, hiV);
+      set(hi--, loT, loV);
+    }
+  }
+
+  @Override
+  public OffHeapTVList clone() {
+    OffHeapTVList cloneList = newList(getDataType());
+    cloneAs(cloneList);
+    return cloneList;
+  }
+
+  @Override
+  protected void cloneAs(TVList cloneList) {
+    OffHeapTVList offHeapCloneList = (OffHeapTVList) cloneList;
+    for (ByteBuffer timeBuffer : timeBuffers) {
+      offHeapCloneList.timeBuffers.add(cloneBuffer(TSDataType.INT64, timeBuffer));
+    }
+    for (ByteBuffer valueBuffer : valueBuffers) {
+      offHeapCloneList.valueBuffers.add(cloneBuffer(getDataType(), valueBuffer));
+    }
+    cloneList.rowCount = rowCount;
+    cloneList.sorted = sorted;
+    cloneList.runBreakCount = runBreakCount;
+    cloneList.maxTime = maxTime;
+  }
+
+  private ByteBuffer cloneBuffer(TSDataType dataType, ByteBuffer buffer) {
+    ByteBuffer cloneBuffer = PrimitiveArrayManager.allocateOffHeap(dataType);
+    cloneBuffer.put(buffer.duplicate());
+    cloneBuffer.clear();
+    return cloneBuffer;
+  }
+
+  @Override
+  public int delete(long lowerBound, long upperBound) {
+    int newSize = 0;
+    maxTime = Long.MIN_VALUE;
+    for (int i = 0; i < rowCount; i++) {
+      long time = getTime(i);
+      if (time < lowerBound || time > upperBound) {
+        set(i, newSize++);
+        maxTime = Math.max(time, maxTime);
+      }
+    }
+    int deletedNumber = rowCount - newSize;
+    rowCount = newSize;
+    // release buffers that are empty
+    int newArrayNum = PrimitiveArrayManager.getArrayRowCount(newSize);
+    int oldArrayNum = timeBuffers.size();
+    for (int releaseIdx = newArrayNum; releaseIdx < oldArrayNum; releaseIdx++) {
+      releaseLastTimeArray();
+      releaseLastValueArray();
+    }
+    return deletedNumber;
+  }
+
+  @Override
+  protected void checkExpansion() {
+    if ((rowCount % ARRAY_SIZE) == 0) {
+      expandValues();
+      timeBuffers.add(PrimitiveArrayManager.allocateOffHeap(TSDataType.INT64));
+    }
+  }
+
+  @Override
+  protected void expandValues() {
+    valueBuffers.add(PrimitiveArrayManager.allocateOffHeap(getDataType()));
+  }
+
+  @Override
+  protected void releaseLastTimeArray() {
+    PrimitiveArrayManager.releaseOffHeap(
+        TSDataType.INT64, timeBuffers.remove(timeBuffers.size() - 1));
+  }
+
+  @Override
+  protected void releaseLastValueArray() {
+    PrimitiveArrayManager.releaseOffHeap(
+        getDataType(), valueBuffers.remove(valueBuffers.size() - 1));
+  }
+
+  @Override
+  protected void clearTime() {
+    if (timeBuffers != null) {
+      for (ByteBuffer buffer : timeBuffers) {
+        PrimitiveArrayManager.releaseOffHeap(TSDataType.INT64, buffer);
+      }
+      timeBuffers.clear();
+    }
+  }
+
+  @Override
+  void clearValue() {
+    if (valueBuffers != null) {
+      for (ByteBuffer buffer : valueBuffers) {
+        PrimitiveArrayManager.releaseOffHeap(getDataType(), buffer);
+      }
+      valueBuffers.clear();
+    }
+  }
+
+  @Override
+  public int serializedSize() {
+    return Byte.BYTES + Integer.BYTES + rowCount * (Long.BYTES + valueSize);
+  }
+
+  /** The format is the same as the on-heap TVList of the same data type. */
+  @Override
+  public void serializeToWAL(IWALByteBufferView buffer) {
+    WALWriteUtils.write(getDataType(), buffer);
+    buffer.putInt(rowCount);
+    for (int rowIdx = 0; rowIdx < rowCount; ++rowIdx) {
+      buffer.putLong(getTime(rowIdx));
+      long valueBits = getValueBits(rowIdx);
+      switch (valueSize) {
+        case Long.BYTES:
+          buffer.putLong(valueBits);
+          break;
+        case Integer.BYTES:
+          buffer.putInt((int) valueBits);
+          break;
+        default:
+          buffer.put((byte) valueBits);
+          break;
+      }
+    }
+  }
+
+  /** The data type has been read from the stream. */
+  public static OffHeapTVList deserialize(TSDataType dataType, DataInputStream stream)
+      throws IOException {
+    OffHeapTVList tvList = newList(dataType);
+    int rowCount = stream.readInt();
+    for (int rowIdx = 0; rowIdx < rowCount; ++rowIdx) {
+      long time = stream.readLong();
+      switch (tvList.valueSize) {
+        case Long.BYTES:
+          tvList.putValueBits(time, stream.readLong());
+          break;
+        case Integer.BYTES:
+          tvList.putValueBits(time, stream.readInt());
+          break;
+        default:
+          tvList.putValueBits(time, stream.readByte());
+          break;
+      }
+    }
+    return tvList;
+  }
+}
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.utils.datastructure;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
+import org.apache.iotdb.db.service.metrics.WritingMetrics;
 import org.apache.iotdb.db.utils.MathUtils;
 import org.apache.iotdb.db.wal.buffer.WALEntryValue;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -42,12 +43,15 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.TVLIST_SORT_ALGORITHM;
 import static org.apache.iotdb.tsfile.utils.RamUsageEstimator.NUM_BYTES_ARRAY_HEADER;
 import static org.apache.iotdb.tsfile.utils.RamUsageEstimator.NUM_BYTES_OBJECT_REF;
 
 public abstract class TVList implements WALEntryValue {
 
   protected static final int SMALL_ARRAY_LENGTH = 32;
+  // the same as the minimum run length of tim sort, shorter runs are not worth merging
+  private static final int MIN_RUN_LENGTH_TO_MERGE = 32;
   protected static final String ERR_DATATYPE_NOT_CONSISTENT = "DataType not consistent";
   protected static final long targetChunkSize =
       IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
@@ -57,6 +61,10 @@ public abstract class TVList implements WALEntryValue {
   protected int rowCount;
 
   protected boolean sorted = true;
+  // number of points smaller than their previous point, i.e. the number of sorted runs minus one
+  protected int runBreakCount;
+  // whether to choose the sort algorithm by the disorder of this list, see chooseSortPath()
+  protected boolean adaptiveSort = TVLIST_SORT_ALGORITHM == TVListSortAlgorithm.ADAPTIVE;
   protected long maxTime;
   // record reference count of this tv list
   // currently this reference will only be increase because we can't know when to decrease it
@@ -71,6 +79,10 @@ public abstract class TVList implements WALEntryValue {
   }
 
   public static TVList newList(TSDataType dataType) {
+    if (IoTDBDescriptor.getInstance().getConfig().isEnableOffHeapMemtable()
+        && OffHeapTVList.isSupported(dataType)) {
+      return OffHeapTVList.newList(dataType);
+    }
     switch (dataType) {
       case TEXT:
         return BinaryTVList.newList();
@@ -285,12 +297,14 @@ public abstract class TVList implements WALEntryValue {
     }
     cloneList.rowCount = rowCount;
     cloneList.sorted = sorted;
+    cloneList.runBreakCount = runBreakCount;
     cloneList.maxTime = maxTime;
   }
 
   public void clear() {
     rowCount = 0;
     sorted = true;
+    runBreakCount = 0;
     maxTime = Long.MIN_VALUE;
     clearTime();
     clearValue();
@@ -328,14 +342,64 @@ public abstract class TVList implements WALEntryValue {
     int length = time.length;
     long inPutMinTime = Long.MAX_VALUE;
     boolean inputSorted = true;
+    int inputRunBreaks = 0;
     for (int i = start; i < end; i++) {
       inPutMinTime = Math.min(inPutMinTime, time[i]);
       maxTime = Math.max(maxTime, time[i]);
-      if (inputSorted && i < length - 1 && time[i] > time[i + 1]) {
+      if (i < length - 1 && time[i] > time[i + 1]) {
         inputSorted = false;
+        if (i < end - 1) {
+          inputRunBreaks++;
+        }
       }
     }
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
+    updateSorted(inputSorted, inPutMinTime, inputRunBreaks);
+  }
+
+  /**
+   * Updates the sorted flag and the run breaks after putting a batch of points.
+   *
+   * @param inputRunBreaks the number of points smaller than their previous point in the batch
+   */
+  protected void updateSorted(boolean inputSorted, long inputMinTime, int inputRunBreaks) {
+    boolean appendedInOrder = rowCount == 0 || inputMinTime >= getTime(rowCount - 1);
+    sorted = sorted && inputSorted && appendedInOrder;
+    runBreakCount += appendedInOrder ? inputRunBreaks : inputRunBreaks + 1;
+  }
+
+  /**
+   * Chooses how to sort this list. In adaptive mode the choice depends on the disorder observed on
+   * put and is recorded in metrics: lists made of a few long sorted runs are merged by tim sort,
+   * whereas lists whose runs are too short to be worth merging are sorted by {@link
+   * InPlaceMergeSort}, which needs no sort buffer. Both are stable, so that the last point written
+   * of a timestamp stays the last one. Descending runs are left to tim sort, which simply reverses
+   * them.
+   */
+  protected SortPath chooseSortPath() {
+    if (!adaptiveSort) {
+      return sorted ? SortPath.SKIP : SortPath.TIM;
+    }
+    SortPath path;
+    if (sorted) {
+      path = SortPath.SKIP;
+    } else if ((runBreakCount + 1L) * MIN_RUN_LENGTH_TO_MERGE > rowCount
+        && runBreakCount * 4L < rowCount * 3L) {
+      path = SortPath.IN_PLACE;
+    } else {
+      path = SortPath.TIM;
+    }
+    WritingMetrics.recordTVListSortPath(path.toString());
+    return path;
+  }
+
+  @TestOnly
+  public void setAdaptiveSort(boolean adaptiveSort) {
+    this.adaptiveSort = adaptiveSort;
+  }
+
+  @TestOnly
+  public int getRunBreakCount() {
+    return runBreakCount;
   }
 
   /** for log */
@@ -396,6 +460,10 @@ public abstract class TVList implements WALEntryValue {
 
   public static TVList deserialize(DataInputStream stream) throws IOException {
     TSDataType dataType = ReadWriteIOUtils.readDataType(stream);
+    if (IoTDBDescriptor.getInstance().getConfig().isEnableOffHeapMemtable()
+        && OffHeapTVList.isSupported(dataType)) {
+      return OffHeapTVList.deserialize(dataType, stream);
+    }
     switch (dataType) {
       case TEXT:
         return BinaryTVList.deserialize(stream);
@@ -416,4 +484,16 @@ public abstract class TVList implements WALEntryValue {
     }
     return null;
   }
+
+  /** the way a list is sorted, see {@link #chooseSortPath()} */
+  protected enum SortPath {
+    SKIP,
+    TIM,
+    IN_PLACE;
+
+    @Override
+    public String toString() {
+      return super.toString().toLowerCase();
+    }
+  }
 }
@@ -21,5 +21,7 @@ package org.apache.iotdb.db.utils.datastructure;
 public enum TVListSortAlgorithm {
   TIM,
   QUICK,
-  BACKWARD
+  BACKWARD,
+  /** tim sort, in place merge sort or no sort, chosen per list by the disorder observed on put */
+  ADAPTIVE
 }
@@ -25,7 +25,7 @@ import java.util.List;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
 
-public class TimAlignedTVList extends AlignedTVList implements TimSort {
+public class TimAlignedTVList extends AlignedTVList implements TimSort, InPlaceMergeSort {
 
   private long[][] sortedTimestamps;
   private long pivotTime;
@@ -39,22 +39,30 @@ public class TimAlignedTVList extends AlignedTVList implements TimSort {
 
   @Override
   public void sort() {
-    if (sortedTimestamps == null
-        || sortedTimestamps.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
-    }
-    if (sortedIndices == null
-        || sortedIndices.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
-      sortedIndices =
-          (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, rowCount);
-    }
-    if (!sorted) {
-      sort(0, rowCount);
+    switch (chooseSortPath()) {
+      case IN_PLACE:
+        inPlaceSort(0, rowCount);
+        break;
+      case TIM:
+        if (sortedTimestamps == null
+            || sortedTimestamps.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+          sortedTimestamps =
+              (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
+        }
+        if (sortedIndices == null
+            || sortedIndices.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+          sortedIndices =
+              (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, rowCount);
+        }
+        sort(0, rowCount);
+        break;
+      default:
+        break;
     }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    runBreakCount = 0;
   }
 
   @Override
@@ -108,6 +116,16 @@ public class TimAlignedTVList extends AlignedTVList implements TimSort {
     }
   }
 
+  @Override
+  public void swap(int p, int q) {
+    int valueP = getValueIndex(p);
+    long timeP = getTime(p);
+    int valueQ = getValueIndex(q);
+    long timeQ = getTime(q);
+    set(p, timeQ, valueQ);
+    set(q, timeP, valueP);
+  }
+
   @Override
   public int compare(int idx1, int idx2) {
     long t1 = getTime(idx1);
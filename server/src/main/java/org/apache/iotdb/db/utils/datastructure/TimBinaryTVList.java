@@ -24,7 +24,7 @@ import org.apache.iotdb.tsfile.utils.Binary;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
 
-public class TimBinaryTVList extends BinaryTVList implements TimSort {
+public class TimBinaryTVList extends BinaryTVList implements TimSort, InPlaceMergeSort {
 
   private long[][] sortedTimestamps;
   private long pivotTime;
@@ -34,20 +34,30 @@ public class TimBinaryTVList extends BinaryTVList implements TimSort {
 
   @Override
   public void sort() {
-    if (sortedTimestamps == null
-        || sortedTimestamps.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
+    switch (chooseSortPath()) {
+      case IN_PLACE:
+        inPlaceSort(0, rowCount);
+        break;
+      case TIM:
+        if (sortedTimestamps == null
+            || sortedTimestamps.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+          sortedTimestamps =
+              (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
+        }
+        if (sortedValues == null
+            || sortedValues.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+          sortedValues =
+              (Binary[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.TEXT, rowCount);
+        }
+        sort(0, rowCount);
+        break;
+      default:
+        break;
     }
-    if (sortedValues == null
-        || sortedValues.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
-      sortedValues =
-          (Binary[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.TEXT, rowCount);
-    }
-    sort(0, rowCount);
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    runBreakCount = 0;
   }
 
   @Override
@@ -101,6 +111,16 @@ public class TimBinaryTVList extends BinaryTVList implements TimSort {
     }
   }
 
+  @Override
+  public void swap(int p, int q) {
+    Binary valueP = getBinary(p);
+    long timeP = getTime(p);
+    Binary valueQ = getBinary(q);
+    long timeQ = getTime(q);
+    set(p, timeQ, valueQ);
+    set(q, timeP, valueP);
+  }
+
   @Override
   public int compare(int idx1, int idx2) {
     long t1 = getTime(idx1);
@@ -23,7 +23,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
 
-public class TimDoubleTVList extends DoubleTVList implements TimSort {
+public class TimDoubleTVList extends DoubleTVList implements TimSort, InPlaceMergeSort {
   private long[][] sortedTimestamps;
   private long pivotTime;
 
@@ -32,22 +32,30 @@ public class TimDoubleTVList extends DoubleTVList implements TimSort {
 
   @Override
   public void sort() {
-    if (sortedTimestamps == null
-        || sortedTimestamps.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
-    }
-    if (sortedValues == null
-        || sortedValues.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
-      sortedValues =
-          (double[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.DOUBLE, rowCount);
-    }
-    if (!sorted) {
-      sort(0, rowCount);
+    switch (chooseSortPath()) {
+      case IN_PLACE:
+        inPlaceSort(0, rowCount);
+        break;
+      case TIM:
+        if (sortedTimestamps == null
+            || sortedTimestamps.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+          sortedTimestamps =
+              (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
+        }
+        if (sortedValues == null
+            || sortedValues.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+          sortedValues =
+              (double[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.DOUBLE, rowCount);
+        }
+        sort(0, rowCount);
+        break;
+      default:
+        break;
     }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    runBreakCount = 0;
   }
 
   @Override
@@ -101,6 +109,16 @@ public class TimDoubleTVList extends DoubleTVList implements TimSort {
     }
   }
 
+  @Override
+  public void swap(int p, int q) {
+    double valueP = getDouble(p);
+    long timeP = getTime(p);
+    double valueQ = getDouble(q);
+    long timeQ = getTime(q);
+    set(p, timeQ, valueQ);
+    set(q, timeP, valueP);
+  }
+
   @Override
   public int compare(int idx1, int idx2) {
     long t1 = getTime(idx1);
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.sort;
+
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the sorted runs of an external sort to local files. Every run is stored in its own file as
+ * a sequence of serialized TsBlocks, each prefixed by its length in bytes.
+ */
+public class DiskSpiller {
+
+  private final File folder;
+  private final List<TSDataType> dataTypes;
+  private final TsBlockSerde serde = new TsBlockSerde();
+
+  private final List<String> filePaths = new ArrayList<>();
+  private final List<Integer> tsBlockCounts = new ArrayList<>();
+
+  public DiskSpiller(String folderPath, List<TSDataType> dataTypes) {
+    this.folder = new File(folderPath);
+    this.dataTypes = dataTypes;
+  }
+
+  /**
+   * Write one sorted run into a new file.
+   *
+   * @return size in bytes of the written file
+   */
+  public long spillSortedData(List<MergeSortKey> sortedData) throws IOException {
+    if (!folder.exists() && !folder.mkdirs()) {
+      throw new IOException("Failed to create folder " + folder.getAbsolutePath());
+    }
+    File file = new File(folder, filePaths.size() + ".sort");
+    int tsBlockCount = 0;
+    TsBlockBuilder tsBlockBuilder = new TsBlockBuilder(dataTypes);
+    ColumnBuilder[] valueColumnBuilders = tsBlockBuilder.getValueColumnBuilders();
+    try (DataOutputStream outputStream =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      for (MergeSortKey mergeSortKey : sortedData) {
+        TsBlock tsBlock = mergeSortKey.tsBlock;
+        int row = mergeSortKey.rowIndex;
+        tsBlockBuilder.getTimeColumnBuilder().writeLong(tsBlock.getTimeByIndex(row));
+        for (int i = 0; i < valueColumnBuilders.length; i++) {
+          if (tsBlock.getColumn(i).isNull(row)) {
+            valueColumnBuilders[i].appendNull();
+          } else {
+            valueColumnBuilders[i].write(tsBlock.getColumn(i), row);
+          }
+        }
+        tsBlockBuilder.declarePosition();
+        if (tsBlockBuilder.isFull()) {
+          writeTsBlock(outputStream, tsBlockBuilder.build());
+          tsBlockCount++;
+          tsBlockBuilder.reset();
+          valueColumnBuilders = tsBlockBuilder.getValueColumnBuilders();
+        }
+      }
+      if (!tsBlockBuilder.isEmpty()) {
+        writeTsBlock(outputStream, tsBlockBuilder.build());
+        tsBlockCount++;
+      }
+    }
+    filePaths.add(file.getPath());
+    tsBlockCounts.add(tsBlockCount);
+    return file.length();
+  }
+
+  private void writeTsBlock(DataOutputStream outputStream, TsBlock tsBlock) throws IOException {
+    ByteBuffer buffer = serde.serialize(tsBlock);
+    outputStream.writeInt(buffer.remaining());
+    outputStream.write(
+        buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+  }
+
+  /** @return one reader for each spilled run, whose reader index is the index in the list */
+  public List<SortReader> getReaders() throws IOException {
+    List<SortReader> readers = new ArrayList<>(filePaths.size());
+    for (int i = 0; i < filePaths.size(); i++) {
+      readers.add(new FileSpillerReader(filePaths.get(i), tsBlockCounts.get(i), i));
+    }
+    return readers;
+  }
+
+  public int getSpilledFileCount() {
+    return filePaths.size();
+  }
+
+  /** Delete all the spilled files. */
+  public void clear() {
+    if (folder.exists()) {
+      FileUtils.deleteDirectory(folder);
+    }
+    filePaths.clear();
+    tsBlockCounts.clear();
+  }
+}
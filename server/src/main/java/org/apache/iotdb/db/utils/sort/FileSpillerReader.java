@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.sort;
+
+import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** Reader of a sorted run spilled to disk by {@link DiskSpiller}, one TsBlock at a time. */
+public class FileSpillerReader implements SortReader {
+
+  private final DataInputStream inputStream;
+  private final TsBlockSerde serde = new TsBlockSerde();
+  private int remainingTsBlockCount;
+
+  private final MergeSortKey mergeSortKey;
+
+  public FileSpillerReader(String filePath, int tsBlockCount, int readerIndex) throws IOException {
+    this.inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath)));
+    this.remainingTsBlockCount = tsBlockCount;
+    this.mergeSortKey = new MergeSortKey(null, -1, readerIndex);
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    if (mergeSortKey.tsBlock != null
+        && mergeSortKey.rowIndex + 1 < mergeSortKey.tsBlock.getPositionCount()) {
+      mergeSortKey.rowIndex++;
+      return true;
+    }
+    while (remainingTsBlockCount > 0) {
+      remainingTsBlockCount--;
+      TsBlock tsBlock = readTsBlock();
+      if (!tsBlock.isEmpty()) {
+        mergeSortKey.tsBlock = tsBlock;
+        mergeSortKey.rowIndex = 0;
+        return true;
+      }
+    }
+    mergeSortKey.tsBlock = null;
+    return false;
+  }
+
+  private TsBlock readTsBlock() throws IOException {
+    byte[] bytes = new byte[inputStream.readInt()];
+    inputStream.readFully(bytes);
+    return serde.deserialize(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  public MergeSortKey next() {
+    return mergeSortKey;
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+}
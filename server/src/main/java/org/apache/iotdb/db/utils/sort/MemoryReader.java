@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.sort;
+
+import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+
+import java.util.List;
+
+/** Reader of the sorted run still kept in memory. */
+public class MemoryReader implements SortReader {
+
+  private final List<MergeSortKey> sortedData;
+  private final int readerIndex;
+  private int cursor = -1;
+
+  public MemoryReader(List<MergeSortKey> sortedData, int readerIndex) {
+    this.sortedData = sortedData;
+    this.readerIndex = readerIndex;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return ++cursor < sortedData.size();
+  }
+
+  @Override
+  public MergeSortKey next() {
+    MergeSortKey mergeSortKey = sortedData.get(cursor);
+    mergeSortKey.columnIndex = readerIndex;
+    return mergeSortKey;
+  }
+
+  @Override
+  public void close() {
+    // nothing to release
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.sort;
+
+import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+
+import java.io.IOException;
+
+/** Reader of one sorted run, used by the k-way merge of an external sort. */
+public interface SortReader {
+
+  /**
+   * Move to the next row.
+   *
+   * @return false if there is no more row
+   */
+  boolean hasNext() throws IOException;
+
+  /**
+   * @return the current row, whose columnIndex is the index of this reader among all the readers
+   *     being merged. The returned key may be reused after calling {@link #hasNext()} again.
+   */
+  MergeSortKey next();
+
+  void close() throws IOException;
+}
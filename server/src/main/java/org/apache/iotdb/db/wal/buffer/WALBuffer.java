@@ -39,12 +39,18 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -54,6 +60,11 @@ import static org.apache.iotdb.db.wal.node.WALNode.DEFAULT_SEARCH_INDEX;
 /**
  * This buffer guarantees the concurrent safety and uses double buffers mechanism to accelerate
  * writes and avoid waiting for buffer syncing to disk.
+ *
+ * <p>By default, WALEntries are handed to a single serialize thread through a blocking queue. When
+ * parallel serialization is enabled, writers reserve space in workingBuffer by an atomic cursor and
+ * serialize their own WALEntries in parallel, the serialize thread only triggers fsync
+ * periodically.
  */
 public class WALBuffer extends AbstractWALBuffer {
   private static final Logger logger = LoggerFactory.getLogger(WALBuffer.class);
@@ -63,8 +74,15 @@ public class WALBuffer extends AbstractWALBuffer {
   private static final int QUEUE_CAPACITY = config.getWalBufferQueueCapacity();
   private static final WritingMetricsManager WRITING_METRICS = WritingMetricsManager.getInstance();
 
+  /** reserved position equal or larger than this means workingBuffer is sealed */
+  private static final long SEALED_POSITION = Long.MAX_VALUE / 2;
+
+  private static final long ANY_GENERATION = -1;
+
   /** whether close method is called */
   private volatile boolean isClosed = false;
+  /** whether writers serialize WALEntries into workingBuffer by themselves */
+  private final boolean parallelSerialization = config.isEnableWALParallelSerialization();
   /** WALEntries */
   private final BlockingQueue<WALEntry> walEntries = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
   /** lock to provide synchronization for double buffers mechanism, protecting buffers status */
@@ -86,6 +104,18 @@ public class WALBuffer extends AbstractWALBuffer {
   private final ExecutorService serializeThread;
   /** single thread to sync syncingBuffer to disk */
   private final ExecutorService syncBufferThread;
+  // region these variables are only used by parallel serialization
+  /** next position to reserve in workingBuffer */
+  private final AtomicLong reservedPosition = new AtomicLong(0);
+  /** number of writers reserving space in or serializing into workingBuffer */
+  private final AtomicInteger activeWriters = new AtomicInteger(0);
+  /** WALEntries serialized into workingBuffer, in no particular order */
+  private final Queue<ReservedEntry> reservedEntries = new ConcurrentLinkedQueue<>();
+  /** lock to seal workingBuffer and switch it to flushing */
+  private final Lock sealLock = new ReentrantLock();
+  /** increased every time workingBuffer is switched by sealing */
+  private volatile long bufferGeneration = 0;
+  // endregion
 
   public WALBuffer(String identifier, String logDirectory) throws FileNotFoundException {
     this(identifier, logDirectory, 0, 0L);
@@ -104,7 +134,7 @@ public class WALBuffer extends AbstractWALBuffer {
         IoTDBThreadPoolFactory.newSingleThreadExecutor(
             ThreadName.WAL_SYNC.getName() + "(node-" + identifier + ")");
     // start receiving serialize tasks
-    serializeThread.submit(new SerializeTask());
+    serializeThread.submit(parallelSerialization ? new FsyncTask() : new SerializeTask());
   }
 
   private void allocateBuffers() {
@@ -126,6 +156,11 @@ public class WALBuffer extends AbstractWALBuffer {
       walEntry.getWalFlushListener().fail(new WALNodeClosedException(identifier));
       return;
     }
+    if (parallelSerialization) {
+      writeInParallel(walEntry);
+      return;
+    }
+    walEntry.setBufferedTimeInNanos(System.nanoTime());
     // just add this WALEntry to queue
     try {
       walEntries.put(walEntry);
@@ -215,6 +250,9 @@ public class WALBuffer extends AbstractWALBuffer {
         return handleSignalEntry((WALSignalEntry) walEntry);
       }
 
+      WRITING_METRICS.recordWaitWALBufferCost(
+          System.nanoTime() - walEntry.getBufferedTimeInNanos(), false);
+
       boolean success = handleInfoEntry(walEntry);
       if (success) {
         info.fsyncListeners.add(walEntry.getWalFlushListener());
@@ -241,17 +279,10 @@ public class WALBuffer extends AbstractWALBuffer {
         return false;
       }
       // update search index
-      long searchIndex = DEFAULT_SEARCH_INDEX;
-      if (walEntry.getType().needSearch()) {
-        if (walEntry.getType() == WALEntryType.DELETE_DATA_NODE) {
-          searchIndex = ((DeleteDataNode) walEntry.getValue()).getSearchIndex();
-        } else {
-          searchIndex = ((InsertNode) walEntry.getValue()).getSearchIndex();
-        }
-        if (searchIndex != DEFAULT_SEARCH_INDEX) {
-          currentSearchIndex = searchIndex;
-          currentFileStatus = WALFileStatus.CONTAINS_SEARCH_INDEX;
-        }
+      long searchIndex = getSearchIndex(walEntry);
+      if (searchIndex != DEFAULT_SEARCH_INDEX) {
+        currentSearchIndex = searchIndex;
+        currentFileStatus = WALFileStatus.CONTAINS_SEARCH_INDEX;
       }
       totalSize += size;
       info.metaData.add(size, searchIndex);
@@ -373,21 +404,306 @@ public class WALBuffer extends AbstractWALBuffer {
     }
   }
 
-  /** Notice: this method only called when buffer is exhausted by SerializeTask. */
+  private static long getSearchIndex(WALEntry walEntry) {
+    if (!walEntry.getType().needSearch()) {
+      return DEFAULT_SEARCH_INDEX;
+    }
+    if (walEntry.getType() == WALEntryType.DELETE_DATA_NODE) {
+      return ((DeleteDataNode) walEntry.getValue()).getSearchIndex();
+    } else {
+      return ((InsertNode) walEntry.getValue()).getSearchIndex();
+    }
+  }
+
+  // region Parallel serialization
+  /** Reserves space in workingBuffer and serializes the WALEntry by the writer thread itself. */
+  private void writeInParallel(WALEntry walEntry) {
+    long startTime = System.nanoTime();
+    if (walEntry.isSignal()) {
+      handleSignalEntryInParallel((WALSignalEntry) walEntry);
+      return;
+    }
+
+    int size = walEntry.serializedSize();
+    if (size > HALF_WAL_BUFFER_SIZE) {
+      writeLargeEntry(walEntry, startTime);
+      return;
+    }
+    while (true) {
+      long generation = bufferGeneration;
+      activeWriters.incrementAndGet();
+      long position = reservedPosition.getAndAdd(size);
+      if (position + size <= HALF_WAL_BUFFER_SIZE) {
+        try {
+          WRITING_METRICS.recordWaitWALBufferCost(System.nanoTime() - startTime, true);
+          serializeToReservedSpace(walEntry, (int) position, size);
+        } finally {
+          activeWriters.decrementAndGet();
+        }
+        return;
+      }
+      activeWriters.decrementAndGet();
+      // workingBuffer is full or being sealed, switch it and try again
+      sealWorkingBuffer(generation, new SerializeInfo());
+    }
+  }
+
+  private void serializeToReservedSpace(WALEntry walEntry, int position, int size) {
+    ByteBuffer reservedSpace = workingBuffer.duplicate();
+    reservedSpace.limit(position + size);
+    reservedSpace.position(position);
+    try {
+      long startTime = System.nanoTime();
+      walEntry.serialize(new ReservedSpaceView(reservedSpace));
+      WRITING_METRICS.recordSerializeOneWALInfoEntryCost(System.nanoTime() - startTime);
+    } catch (Exception e) {
+      logger.error(
+          "Fail to serialize WALEntry to wal node-{}'s buffer, discard it.", identifier, e);
+      walEntry.getWalFlushListener().fail(e);
+      return;
+    }
+    reservedEntries.add(
+        new ReservedEntry(
+            position, size, getSearchIndex(walEntry), walEntry.getWalFlushListener()));
+  }
+
+  /**
+   * WALEntry larger than workingBuffer is serialized exclusively, rolling workingBuffer like
+   * SerializeTask does.
+   */
+  private void writeLargeEntry(WALEntry walEntry, long startTime) {
+    sealLock.lock();
+    try {
+      SerializeInfo info = new SerializeInfo();
+      // keep the WALEntries serialized before this one in front of it
+      workingBuffer.position(closeReservation(info));
+      WRITING_METRICS.recordWaitWALBufferCost(System.nanoTime() - startTime, true);
+      ByteBufferView byteBufferView = new ByteBufferView();
+      int size = byteBufferView.position();
+      try {
+        walEntry.serialize(byteBufferView);
+        size = byteBufferView.position() - size;
+        long searchIndex = getSearchIndex(walEntry);
+        if (searchIndex != DEFAULT_SEARCH_INDEX) {
+          currentSearchIndex = searchIndex;
+          currentFileStatus = WALFileStatus.CONTAINS_SEARCH_INDEX;
+        }
+        info.metaData.add(size, searchIndex);
+        info.fsyncListeners.add(walEntry.getWalFlushListener());
+      } catch (Exception e) {
+        logger.error(
+            "Fail to serialize WALEntry to wal node-{}'s buffer, discard it.", identifier, e);
+        walEntry.getWalFlushListener().fail(e);
+      }
+      fsyncWorkingBuffer(currentSearchIndex, currentFileStatus, info);
+      bufferGeneration++;
+    } finally {
+      reservedPosition.set(0);
+      sealLock.unlock();
+    }
+  }
+
+  private void handleSignalEntryInParallel(WALSignalEntry walSignalEntry) {
+    switch (walSignalEntry.getType()) {
+      case ROLL_WAL_LOG_WRITER_SIGNAL:
+        if (logger.isDebugEnabled()) {
+          logger.debug("Handle roll log writer signal for wal node-{}.", identifier);
+        }
+        SerializeInfo info = new SerializeInfo();
+        info.rollWALFileWriterListener = walSignalEntry.getWalFlushListener();
+        sealWorkingBuffer(ANY_GENERATION, info);
+        break;
+      case CLOSE_SIGNAL:
+        if (logger.isDebugEnabled()) {
+          logger.debug("Handle close signal for wal node-{}.", identifier);
+        }
+        sealWorkingBuffer(ANY_GENERATION, new SerializeInfo());
+        isClosed = true;
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Seals workingBuffer and fsyncs it if it contains any WALEntry or the log writer should be
+   * rolled.
+   *
+   * @param expectedGeneration seal workingBuffer only when it's still of this generation, which
+   *     avoids sealing the buffer just switched by another writer
+   */
+  private void sealWorkingBuffer(long expectedGeneration, SerializeInfo info) {
+    sealLock.lock();
+    try {
+      if (expectedGeneration != ANY_GENERATION && expectedGeneration != bufferGeneration) {
+        return;
+      }
+      try {
+        int dataSize = closeReservation(info);
+        if (dataSize > 0 || info.rollWALFileWriterListener != null) {
+          workingBuffer.position(dataSize);
+          fsyncWorkingBuffer(currentSearchIndex, currentFileStatus, info);
+          bufferGeneration++;
+        }
+      } finally {
+        reservedPosition.set(0);
+      }
+    } finally {
+      sealLock.unlock();
+    }
+  }
+
+  /**
+   * Stops the reservation of workingBuffer, waits for the writers serializing into it and collects
+   * their WALEntries into info. Should be called with sealLock held.
+   *
+   * @return size of the data in workingBuffer
+   */
+  private int closeReservation(SerializeInfo info) {
+    reservedPosition.set(SEALED_POSITION);
+    while (activeWriters.get() > 0) {
+      Thread.yield();
+    }
+    List<ReservedEntry> entries = new ArrayList<>(reservedEntries.size());
+    ReservedEntry reservedEntry;
+    while ((reservedEntry = reservedEntries.poll()) != null) {
+      entries.add(reservedEntry);
+    }
+    // reserved spaces are continuous, sort them to get the order of WALEntries in workingBuffer
+    entries.sort(Comparator.comparingInt(entry -> entry.position));
+    int dataSize = 0;
+    for (ReservedEntry entry : entries) {
+      if (entry.searchIndex != DEFAULT_SEARCH_INDEX) {
+        currentSearchIndex = entry.searchIndex;
+        currentFileStatus = WALFileStatus.CONTAINS_SEARCH_INDEX;
+      }
+      info.metaData.add(entry.size, entry.searchIndex);
+      info.fsyncListeners.add(entry.walFlushListener);
+      dataSize = entry.position + entry.size;
+    }
+    return dataSize;
+  }
+
+  /** In parallel serialization, this task replaces SerializeTask to fsync workingBuffer. */
+  private class FsyncTask implements Runnable {
+    @Override
+    public void run() {
+      try {
+        // for better fsync performance, wait a while to enlarge write batch
+        Thread.sleep(config.getFsyncWalDelayInMs());
+        long generation = bufferGeneration;
+        if (reservedPosition.get() > 0) {
+          sealWorkingBuffer(generation, new SerializeInfo());
+        }
+      } catch (InterruptedException e) {
+        logger.warn("Interrupted when waiting to fsync wal node-{}'s buffer.", identifier);
+        Thread.currentThread().interrupt();
+      } finally {
+        if (!isClosed) {
+          serializeThread.submit(new FsyncTask());
+        }
+      }
+    }
+  }
+
+  /** Space of one WALEntry reserved in workingBuffer. */
+  private static class ReservedEntry {
+    final int position;
+    final int size;
+    final long searchIndex;
+    final WALFlushListener walFlushListener;
+
+    ReservedEntry(int position, int size, long searchIndex, WALFlushListener walFlushListener) {
+      this.position = position;
+      this.size = size;
+      this.searchIndex = searchIndex;
+      this.walFlushListener = walFlushListener;
+    }
+  }
+
+  /** This view writes into the reserved space of workingBuffer. */
+  private static class ReservedSpaceView implements IWALByteBufferView {
+    private final ByteBuffer reservedSpace;
+    private final int startPosition;
+
+    private ReservedSpaceView(ByteBuffer reservedSpace) {
+      this.reservedSpace = reservedSpace;
+      this.startPosition = reservedSpace.position();
+    }
+
+    @Override
+    public void put(byte b) {
+      reservedSpace.put(b);
+    }
+
+    @Override
+    public void put(byte[] src) {
+      reservedSpace.put(src);
+    }
+
+    @Override
+    public void putChar(char value) {
+      reservedSpace.putChar(value);
+    }
+
+    @Override
+    public void putShort(short value) {
+      reservedSpace.putShort(value);
+    }
+
+    @Override
+    public void putInt(int value) {
+      reservedSpace.putInt(value);
+    }
+
+    @Override
+    public void putLong(long value) {
+      reservedSpace.putLong(value);
+    }
+
+    @Override
+    public void putFloat(float value) {
+      reservedSpace.putFloat(value);
+    }
+
+    @Override
+    public void putDouble(double value) {
+      reservedSpace.putDouble(value);
+    }
+
+    @Override
+    public int position() {
+      return reservedSpace.position() - startPosition;
+    }
+  }
+  // endregion
+
+  /**
+   * Syncs workingBuffer when it's exhausted. Like {@link #switchWorkingBufferToFlushing()}, the
+   * caller must be the only thread switching workingBuffer.
+   */
   private void syncWorkingBuffer(long searchIndex, WALFileStatus fileStatus) {
     switchWorkingBufferToFlushing();
     syncBufferThread.submit(new SyncBufferTask(searchIndex, fileStatus, false));
     currentFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
   }
 
-  /** Notice: this method only called at the last of SerializeTask. */
+  /**
+   * Fsyncs workingBuffer at the end of a batch of WALEntries. Like {@link
+   * #switchWorkingBufferToFlushing()}, the caller must be the only thread switching workingBuffer.
+   */
   private void fsyncWorkingBuffer(long searchIndex, WALFileStatus fileStatus, SerializeInfo info) {
     switchWorkingBufferToFlushing();
     syncBufferThread.submit(new SyncBufferTask(searchIndex, fileStatus, true, info));
     currentFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
   }
 
-  // only called by serializeThread
+  /**
+   * Switches workingBuffer to syncingBuffer. The callers must not switch workingBuffer
+   * concurrently: with serial serialization only serializeThread calls it, while with parallel
+   * serialization the writers call it through writeLargeEntry and sealWorkingBuffer, which must
+   * hold sealLock. buffersLock is taken here to exchange the buffers with syncBufferThread.
+   */
   private void switchWorkingBufferToFlushing() {
     buffersLock.lock();
     try {
@@ -536,11 +852,15 @@ public class WALBuffer extends AbstractWALBuffer {
   public void close() {
     // first waiting serialize and sync tasks finished, then release all resources
     if (serializeThread != null) {
-      // add close signal WALEntry to notify serializeThread
-      try {
-        walEntries.put(new WALSignalEntry(WALEntryType.CLOSE_SIGNAL));
-      } catch (InterruptedException e) {
-        logger.error("Fail to put CLOSE_SIGNAL to walEntries.", e);
+      if (parallelSerialization) {
+        handleSignalEntryInParallel(new WALSignalEntry(WALEntryType.CLOSE_SIGNAL));
+      } else {
+        // add close signal WALEntry to notify serializeThread
+        try {
+          walEntries.put(new WALSignalEntry(WALEntryType.CLOSE_SIGNAL));
+        } catch (InterruptedException e) {
+          logger.error("Fail to put CLOSE_SIGNAL to walEntries.", e);
+        }
       }
       isClosed = true;
       shutdownThread(serializeThread, ThreadName.WAL_SERIALIZE);
@@ -584,7 +904,10 @@ public class WALBuffer extends AbstractWALBuffer {
   public boolean isAllWALEntriesConsumed() {
     buffersLock.lock();
     try {
-      return walEntries.isEmpty() && workingBuffer.position() == 0 && syncingBuffer == null;
+      return walEntries.isEmpty()
+          && workingBuffer.position() == 0
+          && reservedPosition.get() == 0
+          && syncingBuffer == null;
     } finally {
       buffersLock.unlock();
     }
@@ -55,6 +55,8 @@ public abstract class WALEntry implements SerializedSize {
    * deserialized from .wal file
    */
   protected final WALFlushListener walFlushListener;
+  /** time when this WALEntry is handed to the wal buffer, only used to measure the waiting time */
+  private long bufferedTimeInNanos;
 
   protected WALEntry(long memTableId, WALEntryValue value, boolean wait) {
     this.memTableId = memTableId;
@@ -169,5 +171,13 @@ public abstract class WALEntry implements SerializedSize {
     return walFlushListener;
   }
 
+  public long getBufferedTimeInNanos() {
+    return bufferedTimeInNanos;
+  }
+
+  public void setBufferedTimeInNanos(long bufferedTimeInNanos) {
+    this.bufferedTimeInNanos = bufferedTimeInNanos;
+  }
+
   public abstract boolean isSignal();
 }
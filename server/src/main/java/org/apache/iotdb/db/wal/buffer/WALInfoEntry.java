@@ -55,6 +55,10 @@ public class WALInfoEntry extends WALEntry {
 
   @Override
   public int serializedSize() {
+    if (tabletInfo != null) {
+      return FIXED_SERIALIZED_SIZE
+          + ((InsertTabletNode) value).serializedSize(tabletInfo.tabletStart, tabletInfo.tabletEnd);
+    }
     return FIXED_SERIALIZED_SIZE + (value == null ? 0 : value.serializedSize());
   }
 
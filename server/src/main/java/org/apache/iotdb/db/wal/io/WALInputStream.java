@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.wal.io;
+
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+import static org.apache.iotdb.db.wal.io.WALWriter.COMPRESSED_SEGMENT_MARKER;
+
+/**
+ * This stream returns the bytes of a wal file as they were serialized by WALBuffer. The compressed
+ * segments written by {@link WALWriter} are decompressed transparently, once a byte other than the
+ * segment marker is met (e.g. the uncompressed wal file or the info part at the end of file), the
+ * rest bytes are returned as they are.
+ */
+public class WALInputStream extends InputStream {
+  private final PushbackInputStream pushbackStream;
+  private final DataInputStream stream;
+
+  private boolean noMoreSegments = false;
+  private IUnCompressor unCompressor;
+  private byte[] compressedBytes = new byte[0];
+  private byte[] segment = new byte[0];
+  private int segmentPosition = 0;
+  private int segmentLimit = 0;
+
+  public WALInputStream(InputStream stream) {
+    this.pushbackStream = new PushbackInputStream(stream, 1);
+    this.stream = new DataInputStream(pushbackStream);
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (segmentPosition < segmentLimit || loadNextSegment()) {
+      return segment[segmentPosition++] & 0xFF;
+    }
+    return stream.read();
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (segmentPosition < segmentLimit || loadNextSegment()) {
+      int readLen = Math.min(len, segmentLimit - segmentPosition);
+      System.arraycopy(segment, segmentPosition, b, off, readLen);
+      segmentPosition += readLen;
+      return readLen;
+    }
+    return stream.read(b, off, len);
+  }
+
+  @Override
+  public int available() throws IOException {
+    if (segmentPosition < segmentLimit) {
+      return segmentLimit - segmentPosition;
+    }
+    return stream.available();
+  }
+
+  /** @return true if next compressed segment is loaded, false if the rest bytes are uncompressed */
+  private boolean loadNextSegment() throws IOException {
+    if (noMoreSegments) {
+      return false;
+    }
+    int marker = pushbackStream.read();
+    if (marker != (COMPRESSED_SEGMENT_MARKER & 0xFF)) {
+      noMoreSegments = true;
+      if (marker != -1) {
+        pushbackStream.unread(marker);
+      }
+      return false;
+    }
+
+    CompressionType compressionType = CompressionType.deserialize(stream.readByte());
+    int uncompressedSize = stream.readInt();
+    int compressedSize = stream.readInt();
+    if (uncompressedSize < 0 || compressedSize < 0) {
+      throw new IOException(
+          String.format(
+              "Broken wal segment, uncompressed size %d, compressed size %d",
+              uncompressedSize, compressedSize));
+    }
+    if (compressedBytes.length < compressedSize) {
+      compressedBytes = new byte[compressedSize];
+    }
+    stream.readFully(compressedBytes, 0, compressedSize);
+    if (segment.length < uncompressedSize) {
+      segment = new byte[uncompressedSize];
+    }
+    if (unCompressor == null || unCompressor.getCodecName() != compressionType) {
+      unCompressor = IUnCompressor.getUnCompressor(compressionType);
+    }
+    unCompressor.uncompress(compressedBytes, 0, compressedSize, segment, 0);
+    segmentPosition = 0;
+    segmentLimit = uncompressedSize;
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    stream.close();
+  }
+}
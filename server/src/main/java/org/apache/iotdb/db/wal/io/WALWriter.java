@@ -18,10 +18,13 @@
  */
 package org.apache.iotdb.db.wal.io;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.wal.buffer.WALEntry;
 import org.apache.iotdb.db.wal.buffer.WALEntryType;
 import org.apache.iotdb.db.wal.buffer.WALSignalEntry;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -32,14 +35,29 @@ import java.nio.ByteBuffer;
 public class WALWriter extends LogWriter {
   public static final String MAGIC_STRING = "WAL";
   public static final int MAGIC_STRING_BYTES = MAGIC_STRING.getBytes().length;
+  /** first byte of a compressed segment, which is never used as the type of {@link WALEntry} */
+  public static final byte COMPRESSED_SEGMENT_MARKER = Byte.MAX_VALUE;
+  /** marker 1 byte, compression type 1 byte, uncompressed size 4 bytes, compressed size 4 bytes */
+  public static final int SEGMENT_HEADER_BYTES = 2 * Byte.BYTES + 2 * Integer.BYTES;
 
   private WALFileStatus walFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
 
   /** wal files' metadata */
   protected final WALMetaData metaData = new WALMetaData();
 
+  /** compressor of the wal buffers, the info part at the end of file is never compressed */
+  private final ICompressor compressor;
+
+  private byte[] uncompressedBytes;
+  private byte[] compressedBytes;
+
   public WALWriter(File logFile) throws FileNotFoundException {
+    this(logFile, IoTDBDescriptor.getInstance().getConfig().getWalCompressionType());
+  }
+
+  public WALWriter(File logFile, CompressionType compressionType) throws FileNotFoundException {
     super(logFile);
+    this.compressor = ICompressor.getCompressor(compressionType);
   }
 
   /** Writes buffer and update its' metadata */
@@ -47,7 +65,43 @@ public class WALWriter extends LogWriter {
     // update metadata
     updateMetaData(metaData);
     // flush buffer
-    write(buffer);
+    if (compressor.getType() == CompressionType.UNCOMPRESSED) {
+      write(buffer);
+    } else {
+      writeCompressedSegment(buffer);
+    }
+  }
+
+  /**
+   * Compresses the buffer as one segment: marker, compression type, uncompressed size, compressed
+   * size and the compressed bytes. {@link WALInputStream} decompresses it transparently.
+   */
+  private void writeCompressedSegment(ByteBuffer buffer) throws IOException {
+    int uncompressedSize = buffer.position();
+    if (uncompressedSize == 0) {
+      return;
+    }
+    if (uncompressedBytes == null || uncompressedBytes.length < uncompressedSize) {
+      uncompressedBytes = new byte[uncompressedSize];
+    }
+    buffer.flip();
+    buffer.get(uncompressedBytes, 0, uncompressedSize);
+    int maxCompressedSize = compressor.getMaxBytesForCompression(uncompressedSize);
+    if (compressedBytes == null || compressedBytes.length < maxCompressedSize) {
+      compressedBytes = new byte[maxCompressedSize];
+    }
+    int compressedSize =
+        compressor.compress(uncompressedBytes, 0, uncompressedSize, compressedBytes);
+
+    ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+    header.put(COMPRESSED_SEGMENT_MARKER);
+    header.put(compressor.getType().serialize());
+    header.putInt(uncompressedSize);
+    header.putInt(compressedSize);
+    write(header);
+    ByteBuffer data = ByteBuffer.wrap(compressedBytes, 0, compressedSize);
+    data.position(compressedSize);
+    write(data);
   }
 
   public void updateMetaData(WALMetaData metaData) {
@@ -20,6 +20,8 @@ package org.apache.iotdb.db.wal.recover;
 
 import org.apache.iotdb.db.wal.io.WALMetaData;
 import org.apache.iotdb.db.wal.io.WALWriter;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import java.io.File;
 import java.io.IOException;
@@ -27,8 +29,10 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 
+import static org.apache.iotdb.db.wal.io.WALWriter.COMPRESSED_SEGMENT_MARKER;
 import static org.apache.iotdb.db.wal.io.WALWriter.MAGIC_STRING;
 import static org.apache.iotdb.db.wal.io.WALWriter.MAGIC_STRING_BYTES;
+import static org.apache.iotdb.db.wal.io.WALWriter.SEGMENT_HEADER_BYTES;
 
 /** Check whether the wal file is broken and recover it. */
 public class WALRecoverWriter {
@@ -40,7 +44,7 @@ public class WALRecoverWriter {
 
   public void recover(WALMetaData metaData) throws IOException {
     // locate broken data
-    int truncateSize;
+    long truncateSize;
     if (logFile.length() < MAGIC_STRING_BYTES) { // file without magic string
       truncateSize = 0;
     } else {
@@ -51,8 +55,13 @@ public class WALRecoverWriter {
       }
     }
     // truncate broken data
-    try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.APPEND)) {
-      channel.truncate(truncateSize);
+    try (FileChannel channel =
+        FileChannel.open(logFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      if (truncateSize > 0 && isCompressed(channel)) {
+        truncateCompressedSegments(channel, truncateSize);
+      } else {
+        channel.truncate(truncateSize);
+      }
     }
     // flush metadata
     try (WALWriter walWriter = new WALWriter(logFile)) {
@@ -60,6 +69,56 @@ public class WALRecoverWriter {
     }
   }
 
+  private boolean isCompressed(FileChannel channel) throws IOException {
+    ByteBuffer marker = ByteBuffer.allocate(Byte.BYTES);
+    channel.read(marker, 0);
+    return marker.get(0) == COMPRESSED_SEGMENT_MARKER;
+  }
+
+  /**
+   * Keeps the compressed segments containing the first uncompressedSize bytes. When the last
+   * complete entry ends in the middle of a segment, the valid part of that segment is rewritten as
+   * an uncompressed segment.
+   */
+  private void truncateCompressedSegments(FileChannel channel, long uncompressedSize)
+      throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+    long position = 0;
+    long remaining = uncompressedSize;
+    while (remaining > 0) {
+      header.clear();
+      channel.read(header, position);
+      header.flip();
+      header.get();
+      CompressionType compressionType = CompressionType.deserialize(header.get());
+      int segmentUncompressedSize = header.getInt();
+      int segmentCompressedSize = header.getInt();
+      if (segmentUncompressedSize <= remaining) {
+        position += SEGMENT_HEADER_BYTES + segmentCompressedSize;
+        remaining -= segmentUncompressedSize;
+        continue;
+      }
+      // rewrite the valid part of this segment
+      ByteBuffer compressed = ByteBuffer.allocate(segmentCompressedSize);
+      channel.read(compressed, position + SEGMENT_HEADER_BYTES);
+      byte[] uncompressed = new byte[segmentUncompressedSize];
+      IUnCompressor.getUnCompressor(compressionType)
+          .uncompress(compressed.array(), 0, segmentCompressedSize, uncompressed, 0);
+      ByteBuffer segment = ByteBuffer.allocate(SEGMENT_HEADER_BYTES + (int) remaining);
+      segment.put(COMPRESSED_SEGMENT_MARKER);
+      segment.put(CompressionType.UNCOMPRESSED.serialize());
+      segment.putInt((int) remaining);
+      segment.putInt((int) remaining);
+      segment.put(uncompressed, 0, (int) remaining);
+      segment.flip();
+      channel.truncate(position);
+      channel.write(segment, position);
+      position += segment.limit();
+      remaining = 0;
+    }
+    channel.truncate(position);
+  }
+
   private String readTailMagic() throws IOException {
     try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ)) {
       ByteBuffer magicStringBytes = ByteBuffer.allocate(MAGIC_STRING_BYTES);
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.reader.series.SeriesReaderTestUtil;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkReadSchedulerTest {
+
+  private static final String SERIES_READ_TEST = "root.seriesReadTest";
+  private final List<String> deviceIds = new ArrayList<>();
+  private final List<MeasurementSchema> measurementSchemas = new ArrayList<>();
+
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unSeqResources = new ArrayList<>();
+
+  private ChunkReadScheduler scheduler;
+
+  @Before
+  public void setUp() throws MetadataException, IOException, WriteProcessException {
+    SeriesReaderTestUtil.setUp(
+        measurementSchemas, deviceIds, seqResources, unSeqResources, SERIES_READ_TEST);
+    // a single IO thread, so that the IO tasks can be held back by the first one
+    scheduler = new ChunkReadScheduler(1, 0);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    scheduler.shutdown();
+    SeriesReaderTestUtil.tearDown(seqResources, unSeqResources);
+  }
+
+  @Test
+  public void testPrefetch() throws Exception {
+    TsFileResource tsFile = seqResources.get(0);
+    List<ChunkMetadata> chunks = getChunkMetadataList(tsFile, 0, 0);
+    List<ChunkMetadata> otherChunks = getChunkMetadataList(tsFile, 0, 1);
+
+    ListenableFuture<?> future = scheduler.prefetch(tsFile, chunks);
+    future.get(10, TimeUnit.SECONDS);
+    for (ChunkMetadata chunk : chunks) {
+      assertTrue(ChunkCache.getInstance().contains(chunk));
+    }
+    for (ChunkMetadata chunk : otherChunks) {
+      assertFalse(ChunkCache.getInstance().contains(chunk));
+    }
+    // the reader is released once the chunks are read
+    assertFalse(
+        FileReaderManager.getInstance()
+            .getClosedFileReaderMap()
+            .containsKey(tsFile.getTsFilePath()));
+
+    // the cached chunks are not read again
+    assertTrue(scheduler.prefetch(tsFile, chunks).isDone());
+  }
+
+  @Test
+  public void testCancel() throws Exception {
+    TsFileResource blockedFile = seqResources.get(0);
+    TsFileResource tsFile = seqResources.get(1);
+    List<ChunkMetadata> cancelledChunks = getChunkMetadataList(tsFile, 0, 0);
+    List<ChunkMetadata> chunks = getChunkMetadataList(tsFile, 0, 1);
+
+    ListenableFuture<?> blockedFuture;
+    ListenableFuture<?> future;
+    // the IO thread waits for the read lock of the reader reference
+    blockedFile.writeLock();
+    try {
+      blockedFuture = scheduler.prefetch(blockedFile, getChunkMetadataList(blockedFile, 0, 0));
+      ListenableFuture<?> cancelledFuture = scheduler.prefetch(tsFile, cancelledChunks);
+      future = scheduler.prefetch(tsFile, chunks);
+      assertFalse(blockedFuture.isDone());
+      assertTrue(cancelledFuture.cancel(false));
+    } finally {
+      blockedFile.writeUnlock();
+    }
+    blockedFuture.get(10, TimeUnit.SECONDS);
+    future.get(10, TimeUnit.SECONDS);
+
+    for (ChunkMetadata chunk : cancelledChunks) {
+      assertFalse(ChunkCache.getInstance().contains(chunk));
+    }
+    for (ChunkMetadata chunk : chunks) {
+      assertTrue(ChunkCache.getInstance().contains(chunk));
+    }
+  }
+
+  @Test
+  public void testDeletedFile() throws Exception {
+    TsFileResource tsFile = seqResources.get(0);
+    List<ChunkMetadata> chunks = getChunkMetadataList(tsFile, 0, 0);
+    tsFile.setStatus(TsFileResourceStatus.DELETED);
+
+    scheduler.prefetch(tsFile, chunks).get(10, TimeUnit.SECONDS);
+    for (ChunkMetadata chunk : chunks) {
+      assertFalse(ChunkCache.getInstance().contains(chunk));
+    }
+    assertFalse(
+        FileReaderManager.getInstance()
+            .getClosedFileReaderMap()
+            .containsKey(tsFile.getTsFilePath()));
+  }
+
+  private List<ChunkMetadata> getChunkMetadataList(
+      TsFileResource tsFile, int deviceIndex, int measurementIndex) throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getTsFilePath())) {
+      List<ChunkMetadata> chunkMetadataList =
+          reader.getChunkMetadataList(
+              new Path(
+                  deviceIds.get(deviceIndex),
+                  measurementSchemas.get(measurementIndex).getMeasurementId(),
+                  true));
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        chunkMetadata.setFilePath(tsFile.getTsFilePath());
+        chunkMetadata.setClosed(true);
+      }
+      return chunkMetadataList;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.LongStatistics;
+import org.apache.iotdb.tsfile.read.reader.IDecompressedPageCache;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class DecompressedPageCacheTest {
+
+  // the directory of the TsFiles, whose versions are parsed from the file paths
+  private static final String DIR =
+      String.join(File.separator, "sequence", "root.sg", "0", "0") + File.separator;
+
+  private final DecompressedPageCache pageCache = new DecompressedPageCache(1024 * 1024);
+
+  @After
+  public void tearDown() {
+    pageCache.clear();
+  }
+
+  @Test
+  public void testGetAndPut() {
+    ChunkMetadata chunkMetadata = createChunkMetadata(DIR + "1-1-0-0.tsfile", 100);
+    IDecompressedPageCache pages = pageCache.getChunkPages(chunkMetadata);
+    Assert.assertNull(pages.get(10));
+
+    byte[] pageData = new byte[] {1, 2, 3};
+    pages.put(10, pageData);
+    Assert.assertSame(pageData, pages.get(10));
+    Assert.assertSame(pageData, pageCache.getChunkPages(chunkMetadata).get(10));
+    Assert.assertNull(pages.get(20));
+    // same page offset in another chunk
+    Assert.assertNull(
+        pageCache.getChunkPages(createChunkMetadata(DIR + "1-1-0-0.tsfile", 200)).get(10));
+  }
+
+  @Test
+  public void testRemove() {
+    ChunkMetadata chunk1 = createChunkMetadata(DIR + "1-1-0-0.tsfile", 100);
+    ChunkMetadata chunk2 = createChunkMetadata(DIR + "1-1-0-0.tsfile", 200);
+    ChunkMetadata chunk3 = createChunkMetadata(DIR + "2-2-0-0.tsfile", 100);
+    pageCache.getChunkPages(chunk1).put(0, new byte[1]);
+    pageCache.getChunkPages(chunk2).put(0, new byte[1]);
+    pageCache.getChunkPages(chunk3).put(0, new byte[1]);
+
+    pageCache.remove(chunk1);
+    Assert.assertNull(pageCache.getChunkPages(chunk1).get(0));
+    Assert.assertNotNull(pageCache.getChunkPages(chunk2).get(0));
+
+    pageCache.remove(DIR + "1-1-0-0.tsfile");
+    Assert.assertNull(pageCache.getChunkPages(chunk2).get(0));
+    Assert.assertNotNull(pageCache.getChunkPages(chunk3).get(0));
+
+    pageCache.clear();
+    Assert.assertTrue(pageCache.isEmpty());
+  }
+
+  @Test
+  public void testIndexFollowsEviction() {
+    DecompressedPageCache smallPageCache = new DecompressedPageCache(16 * 1024);
+    for (int i = 0; i < 100; i++) {
+      smallPageCache
+          .getChunkPages(createChunkMetadata(DIR + "1-1-0-0.tsfile", i % 10 * 100))
+          .put(i, new byte[1024]);
+    }
+    // the evicted pages are unindexed
+    Assert.assertTrue(smallPageCache.getIndexedPageNum() < 16);
+
+    smallPageCache.remove(DIR + "1-1-0-0.tsfile");
+    Assert.assertTrue(smallPageCache.isEmpty());
+  }
+
+  @Test
+  public void testPutAfterRemove() {
+    ChunkMetadata chunkMetadata = createChunkMetadata(DIR + "1-1-0-0.tsfile", 100);
+    pageCache.remove(DIR + "1-1-0-0.tsfile");
+    // e.g. by a query still reading the removed file
+    pageCache.getChunkPages(chunkMetadata).put(0, new byte[1]);
+    Assert.assertNull(pageCache.getChunkPages(chunkMetadata).get(0));
+    Assert.assertTrue(pageCache.isEmpty());
+  }
+
+  /** No page of a removed file is left, whenever the file is removed during putting its pages. */
+  @Test
+  public void testPutRaceWithRemove() throws Exception {
+    int pageNum = 100;
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      for (int i = 0; i < 200; i++) {
+        String filePath = DIR + String.format("%d-%d-0-0.tsfile", i, i);
+        IDecompressedPageCache pages = pageCache.getChunkPages(createChunkMetadata(filePath, 100));
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Future<?> putFuture =
+            pool.submit(
+                () -> {
+                  barrier.await();
+                  for (int pageOffset = 0; pageOffset < pageNum; pageOffset++) {
+                    pages.put(pageOffset, new byte[1]);
+                  }
+                  return null;
+                });
+        Future<?> removeFuture =
+            pool.submit(
+                () -> {
+                  barrier.await();
+                  pageCache.remove(filePath);
+                  return null;
+                });
+        putFuture.get();
+        removeFuture.get();
+        for (int pageOffset = 0; pageOffset < pageNum; pageOffset++) {
+          Assert.assertNull(pages.get(pageOffset));
+        }
+      }
+      Assert.assertTrue(pageCache.isEmpty());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private ChunkMetadata createChunkMetadata(String filePath, long offset) {
+    ChunkMetadata chunkMetadata =
+        new ChunkMetadata("s1", TSDataType.INT64, offset, new LongStatistics());
+    chunkMetadata.setFilePath(filePath);
+    return chunkMetadata;
+  }
+}
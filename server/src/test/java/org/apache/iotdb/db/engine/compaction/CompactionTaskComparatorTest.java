@@ -25,6 +25,7 @@ import org.apache.iotdb.db.engine.compaction.execute.task.AbstractCompactionTask
 import org.apache.iotdb.db.engine.compaction.execute.task.CrossSpaceCompactionTask;
 import org.apache.iotdb.db.engine.compaction.execute.task.InnerSpaceCompactionTask;
 import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.engine.compaction.schedule.QueryHeatRecorder;
 import org.apache.iotdb.db.engine.compaction.schedule.comparator.DefaultCompactionTaskComparatorImpl;
 import org.apache.iotdb.db.engine.compaction.schedule.constant.CompactionPriority;
 import org.apache.iotdb.db.engine.compaction.utils.CompactionConfigRestorer;
@@ -41,6 +42,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -64,6 +66,8 @@ public class CompactionTaskComparatorTest {
   @After
   public void tearDown() {
     new CompactionConfigRestorer().restoreCompactionConfig();
+    IoTDBDescriptor.getInstance().getConfig().setEnableCompactionQueryHeatPriority(false);
+    QueryHeatRecorder.getInstance().clear();
   }
 
   /** Test comparation of tasks with different file num */
@@ -315,6 +319,50 @@ public class CompactionTaskComparatorTest {
     }
   }
 
+  /** Test comparation of tasks of time partitions with different query heat */
+  @Test
+  public void testQueryHeatCompare() throws InterruptedException {
+    IoTDBDescriptor.getInstance().getConfig().setEnableCompactionQueryHeatPriority(true);
+    // the queries of time partition i read i + 1 overlapped files, so its heat is i
+    for (int i = 0; i < 10; ++i) {
+      List<TsFileResource> queriedResources = new ArrayList<>();
+      for (int j = 0; j <= i; ++j) {
+        queriedResources.add(createQueriedResource(j, i));
+      }
+      QueryHeatRecorder.getInstance()
+          .recordQuery("fakeSg-0", queriedResources, Collections.emptyList());
+    }
+
+    AbstractCompactionTask[] compactionTasks = new AbstractCompactionTask[10];
+    for (int i = 0; i < 10; ++i) {
+      List<TsFileResource> resources = new ArrayList<>();
+      for (int j = 0; j < 10; ++j) {
+        resources.add(
+            new FakedTsFileResource(
+                new File(String.format("%d-%d-0-0.tsfile", i * 10 + j, i * 10 + j)), 10));
+      }
+      // the colder partitions have more files and smaller serial ids
+      compactionTasks[i] =
+          new FakedInnerSpaceCompactionTask(
+              "fakeSg", i, tsFileManager, taskNum, true, resources.subList(0, 10 - i), i);
+      compactionTaskQueue.put(compactionTasks[i]);
+    }
+
+    for (int i = 0; i < 10; ++i) {
+      AbstractCompactionTask currentTask = compactionTaskQueue.take();
+      assertTrue(currentTask == compactionTasks[9 - i]);
+    }
+  }
+
+  /** Build a queried file of the given version whose time partition is the given one. */
+  private static TsFileResource createQueriedResource(int version, long timePartition) {
+    org.apache.iotdb.db.engine.storagegroup.FakedTsFileResource resource =
+        new org.apache.iotdb.db.engine.storagegroup.FakedTsFileResource(
+            10, String.format("%d-%d-0-0.tsfile", version, version));
+    resource.timePartition = timePartition;
+    return resource;
+  }
+
   private static class FakedInnerSpaceCompactionTask extends InnerSpaceCompactionTask {
 
     public FakedInnerSpaceCompactionTask(
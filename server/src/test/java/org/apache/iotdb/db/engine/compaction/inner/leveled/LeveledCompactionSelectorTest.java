@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.inner.leveled;
+
+import org.apache.iotdb.db.engine.compaction.selector.impl.LeveledCompactionSelector;
+import org.apache.iotdb.db.engine.storagegroup.FakedTsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LeveledCompactionSelectorTest {
+
+  // level 0: [0, 100), level 1: [100, 1000), level 2: [1000, 10000), not selected: [10000, +inf)
+  private LeveledCompactionSelector createSelector(boolean hasNextTimePartition) {
+    return new LeveledCompactionSelector(
+        "root.test", "0", 0, hasNextTimePartition, 100, 10, 10000, 4);
+  }
+
+  private List<TsFileResource> createResources(long... fileSizes) {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < fileSizes.length; i++) {
+      resources.add(
+          new FakedTsFileResource(fileSizes[i], String.format("%d-%d-0-0.tsfile", i + 1, i + 1)));
+    }
+    return resources;
+  }
+
+  @Test
+  public void testGetLevel() {
+    LeveledCompactionSelector selector = createSelector(false);
+    Assert.assertEquals(0, selector.getLevel(99));
+    Assert.assertEquals(1, selector.getLevel(100));
+    Assert.assertEquals(1, selector.getLevel(999));
+    Assert.assertEquals(2, selector.getLevel(1000));
+    Assert.assertEquals(3, selector.getLevel(10000));
+  }
+
+  @Test
+  public void testNotSelectWhenLevelIsNotFull() {
+    List<TsFileResource> resources = createResources(30, 30, 30, 30);
+    Assert.assertTrue(createSelector(false).selectInnerSpaceTask(resources).isEmpty());
+  }
+
+  @Test
+  public void testMergeUntilNextLevel() {
+    List<TsFileResource> resources = createResources(30, 30, 30, 30, 30);
+    List<List<TsFileResource>> taskList = createSelector(false).selectInnerSpaceTask(resources);
+    Assert.assertEquals(1, taskList.size());
+    Assert.assertEquals(resources.subList(0, 4), taskList.get(0));
+  }
+
+  @Test
+  public void testMergeAllWhenNextTimePartitionExists() {
+    List<TsFileResource> resources = createResources(10, 10, 10);
+    List<List<TsFileResource>> taskList = createSelector(true).selectInnerSpaceTask(resources);
+    Assert.assertEquals(1, taskList.size());
+    Assert.assertEquals(resources, taskList.get(0));
+  }
+
+  @Test
+  public void testSelectLowerLevelFirst() {
+    List<TsFileResource> resources =
+        createResources(500, 500, 500, 500, 500, 50, 50, 50, 50, 50, 50);
+    List<List<TsFileResource>> taskList = createSelector(false).selectInnerSpaceTask(resources);
+    Assert.assertEquals(3, taskList.size());
+    for (List<TsFileResource> task : taskList) {
+      Assert.assertEquals(2, task.size());
+      for (TsFileResource resource : task) {
+        Assert.assertEquals(50, resource.getTsFileSize());
+      }
+    }
+  }
+
+  @Test
+  public void testNotSelectAcrossOtherFiles() {
+    List<TsFileResource> resources = createResources(30, 30, 30, 30, 30, 30);
+    resources.get(2).setStatus(TsFileResourceStatus.COMPACTING);
+    List<List<TsFileResource>> taskList = createSelector(false).selectInnerSpaceTask(resources);
+    for (List<TsFileResource> task : taskList) {
+      Assert.assertFalse(task.contains(resources.get(2)));
+    }
+    Assert.assertFalse(taskList.isEmpty());
+  }
+
+  @Test
+  public void testNotSelectLargeFiles() {
+    List<TsFileResource> resources = createResources(10000, 10000, 10000, 10000, 10000, 10000);
+    Assert.assertTrue(createSelector(true).selectInnerSpaceTask(resources).isEmpty());
+  }
+}
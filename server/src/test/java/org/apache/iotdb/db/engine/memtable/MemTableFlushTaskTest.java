@@ -19,10 +19,13 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.flush.MemTableFlushTask;
 import org.apache.iotdb.db.exception.WriteProcessException;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
@@ -32,6 +35,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -105,6 +109,54 @@ public class MemTableFlushTaskTest {
     assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
   }
 
+  @Test
+  public void testParallelFlushMemTable()
+      throws ExecutionException, InterruptedException, IllegalPathException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int prevFlushEncodingParallelism = config.getFlushEncodingParallelism();
+    config.setFlushEncodingParallelism(3);
+    try {
+      int deviceNum = 10;
+      for (int i = 0; i < deviceNum; i++) {
+        MemTableTestUtils.produceData(
+            memTable,
+            startTime,
+            endTime + i,
+            MemTableTestUtils.deviceId0 + i,
+            MemTableTestUtils.measurementId0,
+            MemTableTestUtils.dataType0);
+      }
+      MemTableFlushTask memTableFlushTask =
+          new MemTableFlushTask(memTable, writer, storageGroup, dataRegionId);
+      memTableFlushTask.syncFlushMemTable();
+      writer.makeMetadataVisible();
+
+      // the chunk groups are written in device order
+      List<ChunkGroupMetadata> chunkGroupMetadataList = writer.getChunkGroupMetadataList();
+      assertEquals(deviceNum, chunkGroupMetadataList.size());
+      for (int i = 1; i < deviceNum; i++) {
+        assertTrue(
+            chunkGroupMetadataList
+                    .get(i - 1)
+                    .getDevice()
+                    .compareTo(chunkGroupMetadataList.get(i).getDevice())
+                < 0);
+      }
+      for (int i = 0; i < deviceNum; i++) {
+        List<ChunkMetadata> chunkMetadataList =
+            writer.getVisibleMetadataList(
+                MemTableTestUtils.deviceId0 + i,
+                MemTableTestUtils.measurementId0,
+                MemTableTestUtils.dataType0);
+        assertEquals(1, chunkMetadataList.size());
+        assertEquals(startTime, chunkMetadataList.get(0).getStartTime());
+        assertEquals(endTime + i, chunkMetadataList.get(0).getEndTime());
+      }
+    } finally {
+      config.setFlushEncodingParallelism(prevFlushEncodingParallelism);
+    }
+  }
+
   @Test
   public void testFlushVectorMemTable()
       throws ExecutionException, InterruptedException, IllegalPathException, WriteProcessException {
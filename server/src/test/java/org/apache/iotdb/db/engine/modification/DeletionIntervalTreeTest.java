@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class DeletionIntervalTreeTest {
+
+  @Test
+  public void testGetOverlapped() throws IllegalPathException {
+    PartialPath path = new PartialPath("root.sg.d1.s1");
+    Random random = new Random(0);
+    List<Modification> modifications = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      long startTime = random.nextInt(100000);
+      long endTime = startTime + random.nextInt(200);
+      modifications.add(new Deletion(path, random.nextInt(10000), startTime, endTime));
+    }
+    DeletionIntervalTree tree = new DeletionIntervalTree(modifications);
+    Assert.assertEquals(1000, tree.size());
+
+    for (int i = 0; i < 1000; i++) {
+      long startTime = random.nextInt(100000);
+      long endTime = startTime + random.nextInt(1000);
+      long fileOffset = random.nextInt(10000);
+      List<TimeRange> expected = new ArrayList<>();
+      for (Modification modification : modifications) {
+        Deletion deletion = (Deletion) modification;
+        if (deletion.getFileOffset() > fileOffset
+            && deletion.getTimeRange().overlaps(new TimeRange(startTime, endTime))) {
+          expected.add(new TimeRange(deletion.getStartTime(), deletion.getEndTime()));
+        }
+      }
+      Assert.assertEquals(
+          TimeRange.sortAndMerge(expected), tree.getOverlapped(startTime, endTime, fileOffset));
+    }
+  }
+
+  @Test
+  public void testEmpty() {
+    DeletionIntervalTree tree = new DeletionIntervalTree(Collections.emptyList());
+    Assert.assertTrue(tree.isEmpty());
+    Assert.assertTrue(tree.getOverlapped(Long.MIN_VALUE, Long.MAX_VALUE, -1).isEmpty());
+  }
+
+  @Test
+  public void testModificationIndex() throws IllegalPathException {
+    List<Modification> modifications =
+        Arrays.asList(
+            new Deletion(new PartialPath("root.sg.d1.s1"), 10, 0, 100),
+            new Deletion(new PartialPath("root.sg.d1.s1"), 10, 50, 200),
+            new Deletion(new PartialPath("root.sg.d1.*"), 20, 300, 400),
+            new Deletion(new PartialPath("root.sg.d2.s1"), 30, 0, 1000));
+    ModificationIndex index = new ModificationIndex(modifications, 1);
+    Assert.assertEquals(4, index.getModificationNum());
+
+    // the first two deletions are merged
+    DeletionIntervalTree s1Deletions = index.getSeriesDeletions(new PartialPath("root.sg.d1.s1"));
+    Assert.assertEquals(2, s1Deletions.size());
+    Assert.assertSame(s1Deletions, index.getSeriesDeletions(new PartialPath("root.sg.d1.s1")));
+    Assert.assertEquals(
+        Arrays.asList(new TimeRange(0, 200), new TimeRange(300, 400)),
+        s1Deletions.getOverlapped(0, 1000, 0));
+    // the chunk is written after the first deletion
+    Assert.assertEquals(
+        Collections.singletonList(new TimeRange(300, 400)), s1Deletions.getOverlapped(0, 1000, 15));
+
+    Assert.assertEquals(1, index.getSeriesDeletions(new PartialPath("root.sg.d1.s2")).size());
+    Assert.assertTrue(index.getSeriesDeletions(new PartialPath("root.sg.d3.s1")).isEmpty());
+  }
+
+  @Test
+  public void testModificationIndexCachedSeriesBound() throws IllegalPathException {
+    ModificationIndex index =
+        new ModificationIndex(
+            Collections.singletonList(new Deletion(new PartialPath("root.sg.**"), 10, 0, 100)), 1);
+    for (int i = 0; i < 100; i++) {
+      DeletionIntervalTree deletions =
+          index.getSeriesDeletions(new PartialPath("root.sg.d" + i + ".s1"));
+      Assert.assertEquals(
+          Collections.singletonList(new TimeRange(0, 100)), deletions.getOverlapped(0, 1000, 0));
+    }
+    // each cached series takes 2 entries, and at most 16 entries are cached for one modification
+    Assert.assertEquals(8, index.getCachedSeriesNum());
+    Assert.assertEquals(17, index.getWeight());
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+public class TsFileRollupTest {
+
+  private static final long[] TIERS = new long[] {10, 100};
+  private static final String DEVICE = "root.sg.d1";
+  private static final String MEASUREMENT = "s1";
+
+  private final File dir = new File("target" + File.separator + "rollup");
+  private final File tsFile1 = new File(dir, "1-1-0-0.tsfile");
+  private final File tsFile2 = new File(dir, "2-2-0-0.tsfile");
+  private final File targetTsFile = new File(dir, "1-1-1-0.tsfile");
+
+  @Before
+  public void setUp() throws IOException {
+    FileUtils.forceMkdir(dir);
+    FileUtils.writeByteArrayToFile(tsFile1, new byte[16]);
+    FileUtils.writeByteArrayToFile(tsFile2, new byte[32]);
+    FileUtils.writeByteArrayToFile(targetTsFile, new byte[48]);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(dir);
+  }
+
+  /** one point of value time at every 5 time units in [start, end) */
+  private SeriesRollup buildRollup(long start, long end) {
+    SeriesRollup.Builder builder = new SeriesRollup.Builder(TSDataType.INT64, TIERS);
+    for (long time = start; time < end; time += 5) {
+      builder.bucketOf(time).update(time, time);
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void testBuild() {
+    SeriesRollup rollup = buildRollup(0, 250);
+    Assert.assertEquals(50, rollup.getCount());
+
+    List<Statistics<? extends Serializable>> buckets = rollup.getBuckets(10);
+    Assert.assertEquals(25, buckets.size());
+    Assert.assertEquals(2, buckets.get(3).getCount());
+    Assert.assertEquals(30, buckets.get(3).getStartTime());
+    Assert.assertEquals(65L, buckets.get(3).getSumLongValue());
+
+    buckets = rollup.getBuckets(100);
+    Assert.assertEquals(3, buckets.size());
+    Assert.assertEquals(20, buckets.get(1).getCount());
+    Assert.assertEquals(100L, buckets.get(1).getMinValue());
+    Assert.assertEquals(195L, buckets.get(1).getMaxValue());
+    Assert.assertEquals(10, buckets.get(2).getCount());
+
+    Assert.assertNull(rollup.getBuckets(50));
+  }
+
+  @Test
+  public void testAppend() {
+    SeriesRollup rollup = buildRollup(0, 125);
+    rollup.append(buildRollup(125, 250));
+    Assert.assertTrue(rollup.isValid());
+    Assert.assertEquals(50, rollup.getCount());
+    // the points in [120, 130) come from both rollups
+    Assert.assertEquals(25, rollup.getBuckets(10).size());
+    Assert.assertEquals(2, rollup.getBuckets(10).get(12).getCount());
+    Assert.assertEquals(120L, rollup.getBuckets(10).get(12).getFirstValue());
+    Assert.assertEquals(125L, rollup.getBuckets(10).get(12).getLastValue());
+    Assert.assertEquals(20, rollup.getBuckets(100).get(1).getCount());
+
+    // overlapped
+    rollup.append(buildRollup(200, 300));
+    Assert.assertFalse(rollup.isValid());
+    Assert.assertNull(rollup.getBuckets(10));
+  }
+
+  @Test
+  public void testSerializeAndMerge() throws IOException {
+    TsFileRollup rollup1 = new TsFileRollup(TIERS);
+    rollup1.put(DEVICE, MEASUREMENT, buildRollup(0, 100));
+    rollup1.serialize(tsFile1);
+    TsFileRollup rollup2 = new TsFileRollup(TIERS);
+    rollup2.put(DEVICE, MEASUREMENT, buildRollup(100, 250));
+    rollup2.put(DEVICE, "s2", buildRollup(100, 150));
+    rollup2.serialize(tsFile2);
+
+    TsFileRollup loaded = TsFileRollup.load(tsFile2);
+    Assert.assertNotNull(loaded);
+    Assert.assertTrue(Arrays.equals(TIERS, loaded.getTiers()));
+    Assert.assertEquals(30, loaded.get(DEVICE, MEASUREMENT).getCount());
+    Assert.assertEquals(10, loaded.get(DEVICE, "s2").getCount());
+    Assert.assertNull(loaded.get(DEVICE, "s3"));
+
+    TsFileRollup.mergeForCompaction(Arrays.asList(tsFile1, tsFile2), targetTsFile);
+    TsFileRollup merged = TsFileRollup.load(targetTsFile);
+    Assert.assertNotNull(merged);
+    SeriesRollup mergedSeries = merged.get(DEVICE, MEASUREMENT);
+    Assert.assertEquals(50, mergedSeries.getCount());
+    Assert.assertEquals(3, mergedSeries.getBuckets(100).size());
+    Assert.assertEquals(10, merged.get(DEVICE, "s2").getCount());
+
+    // the TsFile is rewritten after its rollup is written
+    FileUtils.writeByteArrayToFile(tsFile1, new byte[8], true);
+    Assert.assertNull(TsFileRollup.load(tsFile1));
+
+    TsFileRollup.remove(tsFile2);
+    Assert.assertNull(TsFileRollup.load(tsFile2));
+  }
+}
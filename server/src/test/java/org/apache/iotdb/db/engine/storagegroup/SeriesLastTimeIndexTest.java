@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.memtable.IMemTable;
+import org.apache.iotdb.db.engine.memtable.MemTableTestUtils;
+import org.apache.iotdb.db.engine.memtable.PrimitiveMemTable;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SeriesLastTimeIndexTest {
+
+  private final File systemDir = new File(TestConstant.OUTPUT_DATA_DIR, "lastTimeIndex");
+
+  @Before
+  public void setUp() {
+    Assert.assertTrue(systemDir.mkdirs());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    EnvironmentUtils.cleanDir(TestConstant.OUTPUT_DATA_DIR);
+  }
+
+  @Test
+  public void testFlush() throws IllegalPathException {
+    SeriesLastTimeIndex index = new SeriesLastTimeIndex(systemDir);
+    IMemTable memTable = new PrimitiveMemTable();
+    MemTableTestUtils.produceData(memTable, 1, 100, "root.sg.d0", "s0", TSDataType.INT32);
+    MemTableTestUtils.produceData(memTable, 50, 200, "root.sg.d0", "s1", TSDataType.INT32);
+
+    index.onMemTableFlushStarted(memTable);
+    // indexed only after the memtable is flushed
+    Assert.assertEquals(Long.MIN_VALUE, index.getLastTime("root.sg.d0.s0"));
+    index.onMemTableFlushed(memTable);
+    Assert.assertEquals(100, index.getLastTime("root.sg.d0.s0"));
+    Assert.assertEquals(200, index.getLastTime("root.sg.d0.s1"));
+
+    // an older unsequence memtable does not move the last time back
+    memTable = new PrimitiveMemTable();
+    MemTableTestUtils.produceData(memTable, 1, 10, "root.sg.d0", "s0", TSDataType.INT32);
+    index.onMemTableFlushStarted(memTable);
+    index.onMemTableFlushed(memTable);
+    Assert.assertEquals(100, index.getLastTime("root.sg.d0.s0"));
+  }
+
+  @Test
+  public void testFlushFailed() throws IllegalPathException {
+    SeriesLastTimeIndex index = new SeriesLastTimeIndex(systemDir);
+    IMemTable memTable = new PrimitiveMemTable();
+    MemTableTestUtils.produceData(memTable, 1, 100, "root.sg.d0", "s0", TSDataType.INT32);
+
+    index.onMemTableFlushStarted(memTable);
+    index.onMemTableFlushFailed(memTable);
+    // the last times of the failed memtable are dropped rather than kept until a flushed callback
+    index.onMemTableFlushed(memTable);
+    Assert.assertEquals(Long.MIN_VALUE, index.getLastTime("root.sg.d0.s0"));
+  }
+
+  @Test
+  public void testReload() {
+    SeriesLastTimeIndex index = new SeriesLastTimeIndex(systemDir);
+    index.update(lastTimes("root.sg.d0.s0", 100, "root.sg.d0.s1", 200));
+    index.update(lastTimes("root.sg.d0.s0", 300, "root.sg.d1.s0", 50));
+
+    // loaded lazily from the log
+    SeriesLastTimeIndex reloaded = new SeriesLastTimeIndex(systemDir);
+    Assert.assertEquals(300, reloaded.getLastTime("root.sg.d0.s0"));
+    Assert.assertEquals(200, reloaded.getLastTime("root.sg.d0.s1"));
+    Assert.assertEquals(50, reloaded.getLastTime("root.sg.d1.s0"));
+    Assert.assertEquals(4, reloaded.getRecordNum());
+  }
+
+  @Test
+  public void testInvalidate() throws IllegalPathException {
+    SeriesLastTimeIndex index = new SeriesLastTimeIndex(systemDir);
+    index.update(lastTimes("root.sg.d0.s0", 100, "root.sg.d0.s1", 200));
+    index.update(lastTimes("root.sg.d1.s0", 100, "root.sg.d1.s1", 200));
+
+    // only the series whose last time is deleted are removed
+    index.invalidate(new PartialPath("root.sg.d0.*"), 0, 150);
+    Assert.assertEquals(Long.MIN_VALUE, index.getLastTime("root.sg.d0.s0"));
+    Assert.assertEquals(200, index.getLastTime("root.sg.d0.s1"));
+    Assert.assertEquals(100, index.getLastTime("root.sg.d1.s0"));
+
+    SeriesLastTimeIndex reloaded = new SeriesLastTimeIndex(systemDir);
+    Assert.assertEquals(Long.MIN_VALUE, reloaded.getLastTime("root.sg.d0.s0"));
+    Assert.assertEquals(200, reloaded.getLastTime("root.sg.d0.s1"));
+  }
+
+  @Test
+  public void testBrokenLog() throws IOException {
+    SeriesLastTimeIndex index = new SeriesLastTimeIndex(systemDir);
+    index.update(lastTimes("root.sg.d0.s0", 100, "root.sg.d0.s1", 200));
+    try (FileOutputStream outputStream =
+        new FileOutputStream(new File(systemDir, SeriesLastTimeIndex.INDEX_FILE_NAME), true)) {
+      // a record broken by a crash
+      outputStream.write(new byte[] {0, 12, 'r', 'o', 'o', 't'});
+    }
+
+    SeriesLastTimeIndex reloaded = new SeriesLastTimeIndex(systemDir);
+    Assert.assertEquals(100, reloaded.getLastTime("root.sg.d0.s0"));
+    Assert.assertEquals(200, reloaded.getLastTime("root.sg.d0.s1"));
+    // the broken record is dropped by rewriting the log
+    reloaded.update(lastTimes("root.sg.d0.s0", 300, "root.sg.d0.s1", 400));
+    SeriesLastTimeIndex reloadedAgain = new SeriesLastTimeIndex(systemDir);
+    Assert.assertEquals(300, reloadedAgain.getLastTime("root.sg.d0.s0"));
+    Assert.assertEquals(400, reloadedAgain.getLastTime("root.sg.d0.s1"));
+  }
+
+  @Test
+  public void testRewrite() {
+    SeriesLastTimeIndex index = new SeriesLastTimeIndex(systemDir);
+    for (int i = 0; i < 2000; i++) {
+      index.update(Collections.singletonMap("root.sg.d0.s0", (long) i));
+    }
+    Assert.assertTrue(index.getRecordNum() <= 1024);
+    Assert.assertEquals(1999, new SeriesLastTimeIndex(systemDir).getLastTime("root.sg.d0.s0"));
+  }
+
+  private Map<String, Long> lastTimes(String series1, long time1, String series2, long time2) {
+    Map<String, Long> lastTimes = new HashMap<>();
+    lastTimes.put(series1, time1);
+    lastTimes.put(series2, time2);
+    return lastTimes;
+  }
+}
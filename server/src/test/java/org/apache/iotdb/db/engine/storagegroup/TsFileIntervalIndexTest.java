@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.db.constant.TestConstant;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TsFileIntervalIndexTest {
+
+  private TsFileResource generateTsFileResource(int id, long startTime, long endTime) {
+    File file =
+        new File(
+            TsFileNameGenerator.generateNewTsFilePath(
+                TestConstant.BASE_OUTPUT_PATH, id, id, id, id));
+    TsFileResource resource = new TsFileResource(file);
+    resource.updateStartTime("root.sg.d1", startTime);
+    resource.updateEndTime("root.sg.d1", endTime);
+    resource.setStatus(TsFileResourceStatus.CLOSED);
+    return resource;
+  }
+
+  private List<TsFileResource> getOverlappedByScan(
+      List<TsFileResource> resources, long startTime, long endTime) {
+    List<TsFileResource> overlapped = new ArrayList<>();
+    for (TsFileResource resource : resources) {
+      if (!resource.isClosed()
+          || (resource.getFileStartTime() <= endTime && resource.getFileEndTime() >= startTime)) {
+        overlapped.add(resource);
+      }
+    }
+    return overlapped;
+  }
+
+  @Test
+  public void testGetOverlapped() {
+    Random random = new Random(10);
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      long startTime = random.nextInt(100000);
+      resources.add(generateTsFileResource(i, startTime, startTime + random.nextInt(1000)));
+    }
+    TsFileIntervalIndex index = new TsFileIntervalIndex(resources);
+
+    for (int i = 0; i < 100; i++) {
+      long startTime = random.nextInt(100000);
+      long endTime = startTime + random.nextInt(5000);
+      Assert.assertEquals(
+          getOverlappedByScan(resources, startTime, endTime),
+          index.getOverlapped(startTime, endTime));
+    }
+    Assert.assertEquals(resources, index.getOverlapped(Long.MIN_VALUE, Long.MAX_VALUE));
+    Assert.assertTrue(index.getOverlapped(200000, 300000).isEmpty());
+  }
+
+  @Test
+  public void testUnsealedAndAppended() {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      resources.add(generateTsFileResource(i, i * 100, i * 100 + 99));
+    }
+    resources.get(5).setStatus(TsFileResourceStatus.UNCLOSED);
+    TsFileIntervalIndex index = new TsFileIntervalIndex(resources);
+
+    // the unsealed file is always returned
+    List<TsFileResource> overlapped = index.getOverlapped(0, 150);
+    Assert.assertEquals(3, overlapped.size());
+    Assert.assertSame(resources.get(0), overlapped.get(0));
+    Assert.assertSame(resources.get(1), overlapped.get(1));
+    Assert.assertSame(resources.get(5), overlapped.get(2));
+
+    TsFileResource appended = generateTsFileResource(10, 1000, 1099);
+    Assert.assertTrue(index.append(appended));
+    overlapped = index.getOverlapped(850, 880);
+    Assert.assertEquals(3, overlapped.size());
+    Assert.assertSame(resources.get(5), overlapped.get(0));
+    Assert.assertSame(resources.get(8), overlapped.get(1));
+    Assert.assertSame(appended, overlapped.get(2));
+
+    for (int i = 1; i < TsFileIntervalIndex.MAX_UNINDEXED_FILE_NUM; i++) {
+      Assert.assertTrue(index.append(generateTsFileResource(10 + i, 2000, 2099)));
+    }
+    Assert.assertFalse(index.append(generateTsFileResource(100, 2000, 2099)));
+  }
+
+  @Test
+  public void testTsFileResourceList() {
+    TsFileResourceList tsFileResourceList = new TsFileResourceList();
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      TsFileResource resource = generateTsFileResource(i, i * 100, i * 100 + 99);
+      resources.add(resource);
+      tsFileResourceList.add(resource);
+    }
+    Assert.assertEquals(resources.subList(2, 4), tsFileResourceList.getOverlappedFiles(250, 350));
+
+    // appended after the index is built
+    TsFileResource appended = generateTsFileResource(10, 300, 1099);
+    tsFileResourceList.add(appended);
+    List<TsFileResource> overlapped = tsFileResourceList.getOverlappedFiles(250, 350);
+    Assert.assertEquals(3, overlapped.size());
+    Assert.assertSame(appended, overlapped.get(2));
+
+    // removed files are not returned any more
+    tsFileResourceList.remove(resources.get(3));
+    overlapped = tsFileResourceList.getOverlappedFiles(250, 350);
+    Assert.assertEquals(2, overlapped.size());
+    Assert.assertSame(resources.get(2), overlapped.get(0));
+    Assert.assertSame(appended, overlapped.get(1));
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup.timeindex;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class CompactDeviceTimeIndexTest {
+
+  private static final int DEVICE_NUM = 100;
+
+  private DeviceTimeIndex prepareDeviceTimeIndex(int firstDevice) {
+    DeviceTimeIndex deviceTimeIndex = new DeviceTimeIndex();
+    // put devices in descending order so that the ids are not the same as the indexes
+    for (int i = firstDevice + DEVICE_NUM - 1; i >= firstDevice; i--) {
+      deviceTimeIndex.updateStartTime("root.sg.d" + i, i);
+      deviceTimeIndex.updateEndTime("root.sg.d" + i, i + 10);
+    }
+    deviceTimeIndex.close();
+    return deviceTimeIndex;
+  }
+
+  @Test
+  public void testCompact() {
+    DeviceDictionary dictionary = new DeviceDictionary();
+    DeviceTimeIndex deviceTimeIndex = prepareDeviceTimeIndex(0);
+    CompactDeviceTimeIndex compactTimeIndex = deviceTimeIndex.compact(dictionary);
+
+    Assert.assertEquals(DEVICE_NUM, dictionary.size());
+    Assert.assertEquals(deviceTimeIndex.getDevices(), compactTimeIndex.getDevices());
+    Assert.assertEquals(0, compactTimeIndex.getMinStartTime());
+    Assert.assertEquals(DEVICE_NUM + 9, compactTimeIndex.getMaxEndTime());
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      String device = "root.sg.d" + i;
+      Assert.assertEquals(i, compactTimeIndex.getStartTime(device));
+      Assert.assertEquals(i + 10, compactTimeIndex.getEndTime(device));
+      Assert.assertTrue(compactTimeIndex.mayContainsDevice(device));
+      Assert.assertArrayEquals(new long[] {i, i + 10}, compactTimeIndex.getStartAndEndTime(device));
+    }
+    Assert.assertEquals(Long.MAX_VALUE, compactTimeIndex.getStartTime("root.sg.d100"));
+    Assert.assertEquals(Long.MIN_VALUE, compactTimeIndex.getEndTime("root.sg.d100"));
+    Assert.assertFalse(compactTimeIndex.checkDeviceIdExist("root.sg.d100"));
+    Assert.assertNull(compactTimeIndex.getStartAndEndTime("root.sg.d100"));
+    Assert.assertTrue(compactTimeIndex.calculateRamSize() < deviceTimeIndex.calculateRamSize());
+  }
+
+  @Test
+  public void testSharedDictionary() {
+    DeviceDictionary dictionary = new DeviceDictionary();
+    CompactDeviceTimeIndex timeIndex1 = prepareDeviceTimeIndex(0).compact(dictionary);
+    CompactDeviceTimeIndex timeIndex2 = prepareDeviceTimeIndex(DEVICE_NUM / 2).compact(dictionary);
+
+    Assert.assertEquals(DEVICE_NUM + DEVICE_NUM / 2, dictionary.size());
+    Assert.assertFalse(timeIndex1.mayContainsDevice("root.sg.d" + DEVICE_NUM));
+    Assert.assertTrue(timeIndex2.mayContainsDevice("root.sg.d" + DEVICE_NUM));
+    Assert.assertFalse(timeIndex2.mayContainsDevice("root.sg.d0"));
+    Assert.assertEquals(DEVICE_NUM / 2, timeIndex2.getStartTime("root.sg.d" + DEVICE_NUM / 2));
+  }
+
+  @Test
+  public void testUpdateSealed() {
+    CompactDeviceTimeIndex compactTimeIndex =
+        prepareDeviceTimeIndex(0).compact(new DeviceDictionary());
+    compactTimeIndex.updateStartTime("root.sg.d5", 1);
+    compactTimeIndex.updateEndTime("root.sg.d5", 1000);
+    compactTimeIndex.updateStartTime("root.sg.new", -1);
+    compactTimeIndex.updateEndTime("root.sg.new", 5);
+
+    Assert.assertEquals(1, compactTimeIndex.getStartTime("root.sg.d5"));
+    Assert.assertEquals(1000, compactTimeIndex.getEndTime("root.sg.d5"));
+    Assert.assertEquals(-1, compactTimeIndex.getStartTime("root.sg.new"));
+    Assert.assertEquals(5, compactTimeIndex.getEndTime("root.sg.new"));
+    Assert.assertEquals(-1, compactTimeIndex.getMinStartTime());
+    Assert.assertEquals(1000, compactTimeIndex.getMaxEndTime());
+    Assert.assertEquals(DEVICE_NUM + 1, compactTimeIndex.getDevices().size());
+    Assert.assertEquals(0, compactTimeIndex.getStartTime("root.sg.d0"));
+  }
+
+  @Test
+  public void testSerialize() throws IOException, IllegalPathException {
+    CompactDeviceTimeIndex compactTimeIndex =
+        prepareDeviceTimeIndex(0).compact(new DeviceDictionary());
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    compactTimeIndex.serialize(outputStream);
+    ITimeIndex timeIndex =
+        ITimeIndex.createTimeIndex(new ByteArrayInputStream(outputStream.toByteArray()));
+
+    Assert.assertEquals(DeviceTimeIndex.class, timeIndex.getClass());
+    Assert.assertEquals(compactTimeIndex.getDevices(), ((DeviceTimeIndex) timeIndex).getDevices());
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      String device = "root.sg.d" + i;
+      Assert.assertEquals(i, timeIndex.getStartTime(device));
+      Assert.assertEquals(i + 10, timeIndex.getEndTime(device));
+    }
+    Assert.assertEquals(
+        compactTimeIndex.getPossibleStartTimeAndEndTime(new PartialPath("root.sg.d1*")),
+        timeIndex.getPossibleStartTimeAndEndTime(new PartialPath("root.sg.d1*")));
+  }
+
+  @Test
+  public void testDeserialize() throws IOException {
+    DeviceDictionary dictionary = new DeviceDictionary();
+    CompactDeviceTimeIndex compactTimeIndex = prepareDeviceTimeIndex(0).compact(dictionary);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    prepareDeviceTimeIndex(DEVICE_NUM).serialize(outputStream);
+    ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+    // the type is consumed by ITimeIndex.createTimeIndex
+    inputStream.read();
+
+    Assert.assertSame(compactTimeIndex, compactTimeIndex.deserialize(inputStream));
+    Assert.assertEquals(DEVICE_NUM * 2, dictionary.size());
+    Assert.assertEquals(DEVICE_NUM, compactTimeIndex.getDevices().size());
+    Assert.assertFalse(compactTimeIndex.mayContainsDevice("root.sg.d0"));
+    Assert.assertEquals(DEVICE_NUM, compactTimeIndex.getStartTime("root.sg.d" + DEVICE_NUM));
+    Assert.assertEquals(DEVICE_NUM, compactTimeIndex.getMinStartTime());
+    Assert.assertEquals(DEVICE_NUM * 2 + 9, compactTimeIndex.getMaxEndTime());
+  }
+
+  @Test
+  public void testReadWhileAddingDevices() throws InterruptedException {
+    CompactDeviceTimeIndex compactTimeIndex =
+        prepareDeviceTimeIndex(0).compact(new DeviceDictionary());
+    AtomicBoolean inconsistent = new AtomicBoolean(false);
+    Thread writer =
+        new Thread(
+            () -> {
+              for (int i = DEVICE_NUM; i < DEVICE_NUM * 10; i++) {
+                compactTimeIndex.putStartTime("root.sg.d" + i, i);
+                compactTimeIndex.putEndTime("root.sg.d" + i, i + 10);
+              }
+            });
+    writer.start();
+    while (writer.isAlive()) {
+      // the ids and the times of the existing devices must always stay together
+      for (int i = 0; i < DEVICE_NUM; i += 7) {
+        long[] startAndEndTime = compactTimeIndex.getStartAndEndTime("root.sg.d" + i);
+        if (startAndEndTime == null || startAndEndTime[0] != i || startAndEndTime[1] != i + 10) {
+          inconsistent.set(true);
+        }
+      }
+    }
+    writer.join();
+
+    Assert.assertFalse(inconsistent.get());
+    Assert.assertEquals(DEVICE_NUM * 10, compactTimeIndex.getDevices().size());
+  }
+}
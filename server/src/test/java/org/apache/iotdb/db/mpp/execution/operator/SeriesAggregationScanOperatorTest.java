@@ -23,7 +23,15 @@ import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.rollup.RollupCache;
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.mpp.aggregation.AccumulatorFactory;
 import org.apache.iotdb.db.mpp.aggregation.Aggregator;
@@ -55,6 +63,7 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -65,6 +74,7 @@ import static org.apache.iotdb.db.mpp.execution.operator.AggregationOperatorTest
 import static org.apache.iotdb.db.mpp.execution.operator.AggregationUtil.initTimeRangeIterator;
 import static org.apache.iotdb.tsfile.read.common.block.TsBlockBuilderStatus.DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class SeriesAggregationScanOperatorTest {
 
@@ -76,6 +86,8 @@ public class SeriesAggregationScanOperatorTest {
   private final List<TsFileResource> unSeqResources = new ArrayList<>();
   private ExecutorService instanceNotificationExecutor;
 
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
   @Before
   public void setUp() throws MetadataException, IOException, WriteProcessException {
     SeriesReaderTestUtil.setUp(
@@ -598,12 +610,130 @@ public class SeriesAggregationScanOperatorTest {
     assertEquals(timeColumn.length, count);
   }
 
+  @Test
+  public void testGroupByWithRollup() throws Exception {
+    long[] rollupTiers = config.getRollupTiers();
+    config.setRollupTiers(new long[] {10, 50});
+    try {
+      String device = SERIES_SCAN_OPERATOR_TEST_SG + ".device0";
+      for (TsFileResource seqResource : seqResources) {
+        // the points of sensor0 in the sequence files are (t, t)
+        SeriesRollup.Builder builder =
+            new SeriesRollup.Builder(TSDataType.INT32, config.getRollupTiers());
+        long startTime = seqResource.getStartTime(device);
+        for (long time = startTime; time <= seqResource.getEndTime(device); time++) {
+          builder.bucketOf(time).update(time, (int) time);
+        }
+        TsFileRollup rollup = new TsFileRollup(config.getRollupTiers());
+        rollup.put(device, "sensor0", builder.build());
+        rollup.serialize(seqResource.getTsFile());
+      }
+      // without unsequence files, so that the statistics of the sequence files can be used
+      QueryDataSource dataSource = new QueryDataSource(seqResources, Collections.emptyList());
+
+      // the rollups of the tier 50 cover the files exactly
+      GroupByTimeParameter coveredRange = new GroupByTimeParameter(0, 500, 50, 50, true);
+      // the rollups of the tier 10 of the first and last files are partly out of the range
+      GroupByTimeParameter partlyCoveredRange = new GroupByTimeParameter(20, 480, 20, 20, true);
+      for (GroupByTimeParameter groupByTimeParameter :
+          Arrays.asList(coveredRange, partlyCoveredRange)) {
+        for (boolean ascending : new boolean[] {true, false}) {
+          ChunkCache.getInstance().clear();
+          List<String> withRollup = groupByForRollup(dataSource, ascending, groupByTimeParameter);
+          // no chunk is read
+          assertTrue(ChunkCache.getInstance().isEmpty());
+          config.setRollupTiers(new long[0]);
+          try {
+            assertEquals(groupByForRollup(dataSource, ascending, groupByTimeParameter), withRollup);
+          } finally {
+            config.setRollupTiers(new long[] {10, 50});
+          }
+        }
+      }
+
+      // the modified file is read instead of its rollup
+      seqResources
+          .get(2)
+          .getModFile()
+          .write(new Deletion(new PartialPath(device, "sensor0"), Long.MAX_VALUE, 230, 240));
+      seqResources.get(2).getModFile().close();
+      for (boolean ascending : new boolean[] {true, false}) {
+        List<String> withRollup = groupByForRollup(dataSource, ascending, partlyCoveredRange);
+        config.setRollupTiers(new long[0]);
+        try {
+          assertEquals(groupByForRollup(dataSource, ascending, partlyCoveredRange), withRollup);
+        } finally {
+          config.setRollupTiers(new long[] {10, 50});
+        }
+      }
+    } finally {
+      config.setRollupTiers(rollupTiers);
+      RollupCache.getInstance().clear();
+    }
+  }
+
+  private List<String> groupByForRollup(
+      QueryDataSource dataSource, boolean ascending, GroupByTimeParameter groupByTimeParameter)
+      throws Exception {
+    List<TAggregationType> aggregationTypes =
+        Arrays.asList(
+            TAggregationType.COUNT,
+            TAggregationType.SUM,
+            TAggregationType.FIRST_VALUE,
+            TAggregationType.LAST_VALUE,
+            TAggregationType.MAX_VALUE,
+            TAggregationType.MIN_TIME);
+    List<Aggregator> aggregators = new ArrayList<>();
+    AccumulatorFactory.createAccumulators(
+            aggregationTypes,
+            TSDataType.INT32,
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            ascending)
+        .forEach(o -> aggregators.add(new Aggregator(o, AggregationStep.SINGLE)));
+    SeriesAggregationScanOperator seriesAggregationScanOperator =
+        initSeriesAggregationScanOperator(
+            aggregators, null, ascending, groupByTimeParameter, dataSource);
+
+    List<String> rows = new ArrayList<>();
+    while (seriesAggregationScanOperator.hasNext()) {
+      TsBlock resultTsBlock = seriesAggregationScanOperator.next();
+      if (resultTsBlock == null) {
+        continue;
+      }
+      for (int pos = 0; pos < resultTsBlock.getPositionCount(); pos++) {
+        StringBuilder row = new StringBuilder();
+        row.append(resultTsBlock.getTimeColumn().getLong(pos));
+        for (int i = 0; i < resultTsBlock.getValueColumnCount(); i++) {
+          row.append(',').append(resultTsBlock.getColumn(i).getObject(pos));
+        }
+        rows.add(row.toString());
+      }
+    }
+    return rows;
+  }
+
   public SeriesAggregationScanOperator initSeriesAggregationScanOperator(
       List<Aggregator> aggregators,
       Filter timeFilter,
       boolean ascending,
       GroupByTimeParameter groupByTimeParameter)
       throws IllegalPathException {
+    return initSeriesAggregationScanOperator(
+        aggregators,
+        timeFilter,
+        ascending,
+        groupByTimeParameter,
+        new QueryDataSource(seqResources, unSeqResources));
+  }
+
+  private SeriesAggregationScanOperator initSeriesAggregationScanOperator(
+      List<Aggregator> aggregators,
+      Filter timeFilter,
+      boolean ascending,
+      GroupByTimeParameter groupByTimeParameter,
+      QueryDataSource dataSource)
+      throws IllegalPathException {
     MeasurementPath measurementPath =
         new MeasurementPath(SERIES_SCAN_OPERATOR_TEST_SG + ".device0.sensor0", TSDataType.INT32);
     Set<String> allSensors = Sets.newHashSet("sensor0");
@@ -639,8 +769,7 @@ public class SeriesAggregationScanOperatorTest {
             initTimeRangeIterator(groupByTimeParameter, ascending, true),
             groupByTimeParameter,
             DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES);
-    seriesAggregationScanOperator.initQueryDataSource(
-        new QueryDataSource(seqResources, unSeqResources));
+    seriesAggregationScanOperator.initQueryDataSource(dataSource);
     return seriesAggregationScanOperator;
   }
 }
@@ -22,6 +22,9 @@ import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
@@ -42,6 +45,7 @@ import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.Duration;
 import org.junit.After;
 import org.junit.Before;
@@ -56,6 +60,8 @@ import java.util.concurrent.TimeUnit;
 
 import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -68,8 +74,11 @@ public class SeriesScanOperatorTest {
   private final List<TsFileResource> seqResources = new ArrayList<>();
   private final List<TsFileResource> unSeqResources = new ArrayList<>();
 
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
   @Before
   public void setUp() throws MetadataException, IOException, WriteProcessException {
+    ChunkCache.getInstance().clear();
     SeriesReaderTestUtil.setUp(
         measurementSchemas, deviceIds, seqResources, unSeqResources, SERIES_SCAN_OPERATOR_TEST_SG);
   }
@@ -138,4 +147,113 @@ public class SeriesScanOperatorTest {
       instanceNotificationExecutor.shutdown();
     }
   }
+
+  @Test
+  public void chunkPrefetchYieldTest() throws Exception {
+    boolean enableChunkPrefetch = config.isEnableChunkPrefetch();
+    config.setEnableChunkPrefetch(true);
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    try {
+      SeriesScanOperator seriesScanOperator =
+          createSeriesScanOperator(instanceNotificationExecutor);
+
+      ListenableFuture<?> blocked;
+      // the prefetches wait for the read locks of the files
+      writeLockAll();
+      try {
+        assertTrue(seriesScanOperator.hasNext());
+        assertNull(seriesScanOperator.next());
+        blocked = seriesScanOperator.isBlocked();
+        assertFalse(blocked.isDone());
+      } finally {
+        writeUnlockAll();
+      }
+      blocked.get(10, TimeUnit.SECONDS);
+
+      int count = 0;
+      while (!seriesScanOperator.isFinished()) {
+        seriesScanOperator.isBlocked().get(10, TimeUnit.SECONDS);
+        if (!seriesScanOperator.hasNext()) {
+          continue;
+        }
+        TsBlock tsBlock = seriesScanOperator.next();
+        if (tsBlock == null) {
+          continue;
+        }
+        for (int i = 0; i < tsBlock.getPositionCount(); i++, count++) {
+          assertEquals(count, tsBlock.getTimeByIndex(i));
+        }
+      }
+      assertEquals(500, count);
+      seriesScanOperator.close();
+    } finally {
+      config.setEnableChunkPrefetch(enableChunkPrefetch);
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+
+  @Test
+  public void chunkPrefetchCancelTest() throws Exception {
+    boolean enableChunkPrefetch = config.isEnableChunkPrefetch();
+    config.setEnableChunkPrefetch(true);
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    writeLockAll();
+    try {
+      SeriesScanOperator seriesScanOperator =
+          createSeriesScanOperator(instanceNotificationExecutor);
+      assertTrue(seriesScanOperator.hasNext());
+      ListenableFuture<?> blocked = seriesScanOperator.isBlocked();
+      assertFalse(blocked.isDone());
+
+      seriesScanOperator.close();
+      assertTrue(blocked.isCancelled());
+      assertTrue(seriesScanOperator.isBlocked().isDone());
+    } finally {
+      writeUnlockAll();
+      config.setEnableChunkPrefetch(enableChunkPrefetch);
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+
+  private SeriesScanOperator createSeriesScanOperator(ExecutorService instanceNotificationExecutor)
+      throws IllegalPathException {
+    MeasurementPath measurementPath =
+        new MeasurementPath(SERIES_SCAN_OPERATOR_TEST_SG + ".device0.sensor0", TSDataType.INT32);
+    Set<String> allSensors = Sets.newHashSet("sensor0");
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+    PlanNodeId planNodeId = new PlanNodeId("1");
+    driverContext.addOperatorContext(1, planNodeId, SeriesScanOperator.class.getSimpleName());
+
+    SeriesScanOptions.Builder scanOptionsBuilder = new SeriesScanOptions.Builder();
+    scanOptionsBuilder.withAllSensors(allSensors);
+    SeriesScanOperator seriesScanOperator =
+        new SeriesScanOperator(
+            driverContext.getOperatorContexts().get(0),
+            planNodeId,
+            measurementPath,
+            Ordering.ASC,
+            scanOptionsBuilder.build());
+    seriesScanOperator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+    seriesScanOperator.getOperatorContext().setMaxRunTime(new Duration(500, TimeUnit.MILLISECONDS));
+    return seriesScanOperator;
+  }
+
+  private void writeLockAll() {
+    seqResources.forEach(TsFileResource::writeLock);
+    unSeqResources.forEach(TsFileResource::writeLock);
+  }
+
+  private void writeUnlockAll() {
+    seqResources.forEach(TsFileResource::writeUnlock);
+    unSeqResources.forEach(TsFileResource::writeUnlock);
+  }
 }
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.driver.DriverContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.mpp.execution.operator.process.SortOperator;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SortOperatorTest {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final int TS_BLOCK_NUM = 10;
+  private static final int ROWS_PER_TS_BLOCK = 100;
+
+  private final Comparator<MergeSortKey> valueDescComparator =
+      (o1, o2) ->
+          Integer.compare(
+              o2.tsBlock.getColumn(0).getInt(o2.rowIndex),
+              o1.tsBlock.getColumn(0).getInt(o1.rowIndex));
+
+  private ExecutorService instanceNotificationExecutor;
+  private long sortBufferSize;
+
+  @Before
+  public void setUp() {
+    instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    sortBufferSize = config.getSortBufferSize();
+  }
+
+  @After
+  public void tearDown() {
+    instanceNotificationExecutor.shutdown();
+    config.setSortBufferSize(sortBufferSize);
+  }
+
+  @Test
+  public void sortInMemoryTest() throws Exception {
+    SortOperator sortOperator = createSortOperator();
+    checkResult(sortOperator);
+    assertEquals(0, sortOperator.getSpilledBytes());
+  }
+
+  @Test
+  public void sortWithSpillTest() throws Exception {
+    // spill every TsBlock of the child
+    config.setSortBufferSize(1);
+    SortOperator sortOperator = createSortOperator();
+    checkResult(sortOperator);
+    assertTrue(sortOperator.getSpilledBytes() > 0);
+
+    File sortFolder =
+        new File(config.getQueryDir() + File.separator + IoTDBConstant.SORT_FOLDER_NAME);
+    File[] spillFolders = sortFolder.listFiles();
+    assertTrue(spillFolders == null || spillFolders.length == 0);
+  }
+
+  private void checkResult(SortOperator sortOperator) throws Exception {
+    int expectedValue = TS_BLOCK_NUM * ROWS_PER_TS_BLOCK - 1;
+    while (sortOperator.hasNext()) {
+      TsBlock tsBlock = sortOperator.next();
+      if (tsBlock == null) {
+        continue;
+      }
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        assertEquals(expectedValue, tsBlock.getColumn(0).getInt(i));
+        assertEquals(expectedValue, tsBlock.getTimeByIndex(i));
+        expectedValue--;
+      }
+    }
+    assertEquals(-1, expectedValue);
+    assertTrue(sortOperator.isFinished());
+    sortOperator.close();
+  }
+
+  private SortOperator createSortOperator() {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+    driverContext.addOperatorContext(1, new PlanNodeId("1"), "ChildOperator");
+    driverContext.addOperatorContext(2, new PlanNodeId("2"), SortOperator.class.getSimpleName());
+
+    List<TSDataType> dataTypes = Collections.singletonList(TSDataType.INT32);
+    Operator child = new ChildOperator(driverContext.getOperatorContexts().get(0), dataTypes);
+    return new SortOperator(
+        driverContext.getOperatorContexts().get(1), child, dataTypes, valueDescComparator);
+  }
+
+  /** Returns the values in interleaved order, e.g. 0, 10, 20, ..., 1, 11, 21, ... */
+  private static class ChildOperator implements Operator {
+
+    private final OperatorContext operatorContext;
+    private final List<TSDataType> dataTypes;
+    private int index = 0;
+
+    private ChildOperator(OperatorContext operatorContext, List<TSDataType> dataTypes) {
+      this.operatorContext = operatorContext;
+      this.dataTypes = dataTypes;
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return operatorContext;
+    }
+
+    @Override
+    public TsBlock next() {
+      TsBlockBuilder builder = new TsBlockBuilder(dataTypes);
+      for (int i = 0; i < ROWS_PER_TS_BLOCK; i++) {
+        int value = i * TS_BLOCK_NUM + index;
+        builder.getTimeColumnBuilder().writeLong(value);
+        builder.getColumnBuilder(0).writeInt(value);
+        builder.declarePosition();
+      }
+      index++;
+      return builder.build();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < TS_BLOCK_NUM;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return !hasNext();
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 0;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 0;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0;
+    }
+  }
+}
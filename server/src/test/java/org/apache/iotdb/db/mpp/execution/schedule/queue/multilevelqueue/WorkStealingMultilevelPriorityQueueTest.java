@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule.queue.multilevelqueue;
+
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.driver.IDriver;
+import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTask;
+import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskId;
+import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskStatus;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+
+public class WorkStealingMultilevelPriorityQueueTest {
+
+  private final WorkStealingMultilevelPriorityQueue queue =
+      new WorkStealingMultilevelPriorityQueue(2, 100, 2, new DriverTask());
+
+  @Test
+  public void testPollBlocked() throws InterruptedException {
+    List<DriverTask> res = Collections.synchronizedList(new ArrayList<>());
+    Thread t1 = new Thread(() -> pollInto(res, 1));
+    t1.start();
+    Thread.sleep(100);
+    Assert.assertEquals(Thread.State.WAITING, t1.getState());
+    DriverTask task = createTask(0);
+    queue.push(task);
+    t1.join(1000);
+    Assert.assertEquals(Thread.State.TERMINATED, t1.getState());
+    Assert.assertEquals(1, res.size());
+    Assert.assertEquals(task.getDriverTaskId(), res.get(0).getDriverTaskId());
+    Assert.assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testSteal() throws InterruptedException {
+    List<DriverTask> res = Collections.synchronizedList(new ArrayList<>());
+    // the tasks pushed by a worker thread are put into its own local queue
+    Thread t1 =
+        new Thread(
+            () -> {
+              queue.push(createTask(0));
+              pollInto(res, 1);
+              for (int i = 1; i <= 3; i++) {
+                queue.push(createTask(i));
+              }
+            });
+    t1.start();
+    t1.join(1000);
+    Assert.assertEquals(3, queue.size());
+    Assert.assertEquals(0, queue.getStolenTaskCount());
+
+    // the other worker steals all of them since its own local queue is empty
+    Thread t2 = new Thread(() -> pollInto(res, 3));
+    t2.start();
+    t2.join(1000);
+    Assert.assertEquals(Thread.State.TERMINATED, t2.getState());
+    Assert.assertEquals(0, queue.size());
+    Assert.assertEquals(3, queue.getStolenTaskCount());
+    Set<DriverTaskId> polledIds = new HashSet<>();
+    res.forEach(task -> polledIds.add(task.getDriverTaskId()));
+    Assert.assertEquals(4, polledIds.size());
+  }
+
+  @Test
+  public void testRemove() {
+    DriverTask task1 = createTask(1);
+    DriverTask task2 = createTask(2);
+    queue.push(task1);
+    queue.push(task2);
+    Assert.assertEquals(2, queue.size());
+    Assert.assertNotNull(queue.remove(task1.getDriverTaskId()));
+    Assert.assertNull(queue.remove(task1.getDriverTaskId()));
+    Assert.assertEquals(1, queue.size());
+    queue.clear();
+    Assert.assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testPushExceedCapacity() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue smallQueue =
+        new WorkStealingMultilevelPriorityQueue(2, 1, 2, new DriverTask());
+    smallQueue.push(createTask(1));
+    try {
+      smallQueue.push(createTask(2));
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      // ignore
+    }
+    // the polled task still reserves its space until it is finished
+    smallQueue.poll();
+    try {
+      smallQueue.push(createTask(2));
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      // ignore
+    }
+    smallQueue.decreaseReservedSize();
+    smallQueue.push(createTask(2));
+    Assert.assertEquals(1, smallQueue.size());
+  }
+
+  private void pollInto(List<DriverTask> res, int count) {
+    try {
+      for (int i = 0; i < count; i++) {
+        res.add(queue.poll());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      Assert.fail();
+    }
+  }
+
+  private DriverTask createTask(int index) {
+    QueryId queryId = new QueryId("test");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "inst-" + index);
+    IDriver driver = Mockito.mock(IDriver.class);
+    Mockito.when(driver.getDriverTaskId()).thenReturn(new DriverTaskId(instanceId, 0));
+    return new DriverTask(
+        driver,
+        Long.MAX_VALUE,
+        DriverTaskStatus.READY,
+        new DriverTaskHandle(index, queue, OptionalInt.of(Integer.MAX_VALUE)));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.optimization;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.plan.analyze.Analysis;
+import org.apache.iotdb.db.mpp.plan.analyze.Analyzer;
+import org.apache.iotdb.db.mpp.plan.analyze.FakePartitionFetcherImpl;
+import org.apache.iotdb.db.mpp.plan.analyze.FakeSchemaFetcherImpl;
+import org.apache.iotdb.db.mpp.plan.parser.StatementGenerator;
+import org.apache.iotdb.db.mpp.plan.planner.LogicalPlanner;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesScanNode;
+import org.apache.iotdb.db.mpp.plan.statement.Statement;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+public class PredicatePushDownTest {
+
+  @Test
+  public void testPushDownSingleSeries() {
+    Map<String, Filter> valueFilters =
+        optimizeAndGetValueFilters("select s1 from root.sg.d1 where s1 > 10;");
+    Assert.assertEquals(ValueFilter.gt(10).toString(), toString(valueFilters.get("root.sg.d1.s1")));
+  }
+
+  @Test
+  public void testPushDownConjuncts() {
+    Map<String, Filter> valueFilters =
+        optimizeAndGetValueFilters(
+            "select s1, s2 from root.sg.d1 where s1 > 10 and s1 <= 20 and 2.5 > s2;");
+    Assert.assertEquals(
+        FilterFactory.and(ValueFilter.gt(10), ValueFilter.ltEq(20)).toString(),
+        toString(valueFilters.get("root.sg.d1.s1")));
+    Assert.assertEquals(
+        ValueFilter.lt(2.5).toString(), toString(valueFilters.get("root.sg.d1.s2")));
+  }
+
+  @Test
+  public void testCannotPushDown() {
+    // disjunction
+    Map<String, Filter> valueFilters =
+        optimizeAndGetValueFilters("select s1, s2 from root.sg.d1 where s1 > 10 or s2 < 2;");
+    Assert.assertNull(valueFilters.get("root.sg.d1.s1"));
+    Assert.assertNull(valueFilters.get("root.sg.d1.s2"));
+
+    // the constant can't be represented by INT32
+    valueFilters = optimizeAndGetValueFilters("select s1 from root.sg.d1 where s1 > 10.5;");
+    Assert.assertNull(valueFilters.get("root.sg.d1.s1"));
+
+    // not compared with a constant
+    valueFilters = optimizeAndGetValueFilters("select s1 from root.sg.d1 where s1 + 1 > 10;");
+    Assert.assertNull(valueFilters.get("root.sg.d1.s1"));
+  }
+
+  private static String toString(Filter filter) {
+    return filter == null ? null : filter.toString();
+  }
+
+  private Map<String, Filter> optimizeAndGetValueFilters(String sql) {
+    Statement statement = StatementGenerator.createStatement(sql, ZonedDateTime.now().getOffset());
+
+    MPPQueryContext context = new MPPQueryContext(new QueryId("test_query"));
+    Analyzer analyzer =
+        new Analyzer(context, new FakePartitionFetcherImpl(), new FakeSchemaFetcherImpl());
+    Analysis analysis = analyzer.analyze(statement);
+
+    LogicalPlanner planner = new LogicalPlanner(context, new ArrayList<>());
+    PlanNode plan = planner.plan(analysis).getRootNode();
+    plan = new PredicatePushDown().optimize(plan, analysis, context);
+
+    Map<String, Filter> valueFilters = new HashMap<>();
+    collectValueFilters(plan, valueFilters);
+    return valueFilters;
+  }
+
+  private void collectValueFilters(PlanNode node, Map<String, Filter> valueFilters) {
+    if (node instanceof SeriesScanNode) {
+      SeriesScanNode scanNode = (SeriesScanNode) node;
+      if (scanNode.getValueFilter() != null) {
+        valueFilters.put(scanNode.getSeriesPath().getFullPath(), scanNode.getValueFilter());
+      }
+    }
+    for (PlanNode child : node.getChildren()) {
+      collectValueFilters(child, valueFilters);
+    }
+  }
+}
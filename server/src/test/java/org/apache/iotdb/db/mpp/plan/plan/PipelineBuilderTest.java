@@ -26,6 +26,8 @@ import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.AlignedPath;
 import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.storagegroup.DataRegion;
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
 import org.apache.iotdb.db.mpp.common.PlanFragmentId;
@@ -33,8 +35,11 @@ import org.apache.iotdb.db.mpp.common.QueryId;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStateMachine;
 import org.apache.iotdb.db.mpp.execution.operator.Operator;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.execution.operator.process.AggregationOperator;
 import org.apache.iotdb.db.mpp.execution.operator.source.AlignedSeriesScanOperator;
 import org.apache.iotdb.db.mpp.execution.operator.source.ExchangeOperator;
+import org.apache.iotdb.db.mpp.execution.operator.source.SeriesAggregationScanOperator;
 import org.apache.iotdb.db.mpp.execution.operator.source.SeriesScanOperator;
 import org.apache.iotdb.db.mpp.plan.analyze.TypeProvider;
 import org.apache.iotdb.db.mpp.plan.expression.leaf.TimeSeriesOperand;
@@ -53,6 +58,8 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.AggregationDescriptor
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.AggregationStep;
 import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -770,6 +777,102 @@ public class PipelineBuilderTest {
     assertEquals(1, context.getPipelineDriverFactories().get(2).getDependencyPipelineIndex());
   }
 
+  /**
+   * The time range [0, 100) of the SeriesAggregationScanNode is split into 4 slices by dop = 4. The
+   * parent pipeline is: AggregationOperator - [ExchangeOperator * 4], and each slice is scanned by
+   * one SeriesAggregationScanOperator in its own pipeline.
+   */
+  @Test
+  public void testSplitAggregationScanByTime() throws IllegalPathException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int maxSplitNum = config.getMaxAggregationScanSplitNum();
+    long minSplitTimeRange = config.getMinAggregationScanSplitTimeRange();
+    config.setMaxAggregationScanSplitNum(0);
+    config.setMinAggregationScanSplitTimeRange(10);
+    try {
+      TypeProvider typeProvider = new TypeProvider();
+      SeriesAggregationScanNode seriesAggregationScanNode =
+          initSeriesAggregationScanNode(typeProvider);
+      seriesAggregationScanNode.setTimeFilter(
+          FilterFactory.and(TimeFilter.gtEq(0), TimeFilter.lt(100)));
+      LocalExecutionPlanContext context = createLocalExecutionPlanContext(typeProvider);
+      context.setDegreeOfParallelism(4);
+
+      Operator root = seriesAggregationScanNode.accept(operatorTreeGenerator, context);
+      assertEquals(AggregationOperator.class, root.getClass());
+      // The number of pipeline is 4, since parent pipeline hasn't joined
+      assertEquals(4, context.getPipelineNumber());
+      assertEquals(4, context.getExchangeSumNum());
+      for (int i = 0; i < 4; i++) {
+        List<OperatorContext> operatorContexts =
+            context.getPipelineDriverFactories().get(i).getDriverContext().getOperatorContexts();
+        assertEquals(1, operatorContexts.size());
+        assertEquals(
+            SeriesAggregationScanOperator.class.getSimpleName(),
+            operatorContexts.get(0).getOperatorType());
+      }
+      // the partial result types of avg are registered for the slices
+      assertEquals(TSDataType.DOUBLE, typeProvider.getType("sum(root.sg.d0.s1)"));
+    } finally {
+      config.setMaxAggregationScanSplitNum(maxSplitNum);
+      config.setMinAggregationScanSplitTimeRange(minSplitTimeRange);
+    }
+  }
+
+  /**
+   * The SeriesAggregationScanNode can't be split if its time range is not bounded or too short, or
+   * the split is disabled.
+   */
+  @Test
+  public void testNotSplitAggregationScanByTime() throws IllegalPathException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int maxSplitNum = config.getMaxAggregationScanSplitNum();
+    long minSplitTimeRange = config.getMinAggregationScanSplitTimeRange();
+    config.setMaxAggregationScanSplitNum(0);
+    config.setMinAggregationScanSplitTimeRange(10);
+    try {
+      TypeProvider typeProvider = new TypeProvider();
+      SeriesAggregationScanNode seriesAggregationScanNode =
+          initSeriesAggregationScanNode(typeProvider);
+      seriesAggregationScanNode.setTimeFilter(TimeFilter.gtEq(0));
+      LocalExecutionPlanContext context = createLocalExecutionPlanContext(typeProvider);
+      context.setDegreeOfParallelism(4);
+
+      Operator root = seriesAggregationScanNode.accept(operatorTreeGenerator, context);
+      assertEquals(SeriesAggregationScanOperator.class, root.getClass());
+      assertEquals(0, context.getPipelineNumber());
+
+      // dop = 1 means no extra pipeline can be created
+      seriesAggregationScanNode.setTimeFilter(
+          FilterFactory.and(TimeFilter.gtEq(0), TimeFilter.lt(100)));
+      context = createLocalExecutionPlanContext(typeProvider);
+      context.setDegreeOfParallelism(1);
+      root = seriesAggregationScanNode.accept(operatorTreeGenerator, context);
+      assertEquals(SeriesAggregationScanOperator.class, root.getClass());
+      assertEquals(0, context.getPipelineNumber());
+
+      // [0, 100) is too short to be split into slices of 50
+      config.setMinAggregationScanSplitTimeRange(50);
+      context = createLocalExecutionPlanContext(typeProvider);
+      context.setDegreeOfParallelism(4);
+      root = seriesAggregationScanNode.accept(operatorTreeGenerator, context);
+      assertEquals(SeriesAggregationScanOperator.class, root.getClass());
+      assertEquals(0, context.getPipelineNumber());
+
+      // the split is disabled by default
+      config.setMaxAggregationScanSplitNum(1);
+      config.setMinAggregationScanSplitTimeRange(10);
+      context = createLocalExecutionPlanContext(typeProvider);
+      context.setDegreeOfParallelism(4);
+      root = seriesAggregationScanNode.accept(operatorTreeGenerator, context);
+      assertEquals(SeriesAggregationScanOperator.class, root.getClass());
+      assertEquals(0, context.getPipelineNumber());
+    } finally {
+      config.setMaxAggregationScanSplitNum(maxSplitNum);
+      config.setMinAggregationScanSplitTimeRange(minSplitTimeRange);
+    }
+  }
+
   @Test
   public void testGetChildNumInEachPipeline() {
     List<PlanNode> allChildren = new ArrayList<>();
@@ -814,6 +917,25 @@ public class PipelineBuilderTest {
     return new LocalExecutionPlanContext(typeProvider, fragmentInstanceContext);
   }
 
+  private SeriesAggregationScanNode initSeriesAggregationScanNode(TypeProvider typeProvider)
+      throws IllegalPathException {
+    MeasurementPath path = new MeasurementPath("root.sg.d0.s1", TSDataType.INT64);
+    typeProvider.setType("root.sg.d0.s1", TSDataType.INT64);
+    typeProvider.setType("count(root.sg.d0.s1)", TSDataType.INT64);
+    typeProvider.setType("avg(root.sg.d0.s1)", TSDataType.DOUBLE);
+    List<AggregationDescriptor> aggregationDescriptors = new ArrayList<>();
+    for (TAggregationType aggregationType :
+        new TAggregationType[] {TAggregationType.COUNT, TAggregationType.AVG}) {
+      aggregationDescriptors.add(
+          new AggregationDescriptor(
+              aggregationType.name().toLowerCase(),
+              AggregationStep.SINGLE,
+              Collections.singletonList(new TimeSeriesOperand(path))));
+    }
+    return new SeriesAggregationScanNode(
+        new PlanNodeId("seriesAggregationScanNode"), path, aggregationDescriptors);
+  }
+
   /**
    * This method will init a timeJoinNode with @childNum seriesScanNode as children.
    *
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.utils.datastructure;
 
 import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsLong;
 
@@ -27,7 +28,9 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 public class LongTVListTest {
@@ -155,4 +158,109 @@ public class LongTVListTest {
       Assert.assertEquals(tvList.getTime((int) i), clonedTvList.getTime((int) i));
     }
   }
+
+  @Test
+  public void testAdaptiveSort() {
+    // in order
+    TimLongTVList tvList = new TimLongTVList();
+    tvList.setAdaptiveSort(true);
+    for (long i = 0; i < 1000; i++) {
+      tvList.putLong(i, i);
+    }
+    Assert.assertEquals(0, tvList.getRunBreakCount());
+    Assert.assertEquals(TVList.SortPath.SKIP, tvList.chooseSortPath());
+
+    // two long runs
+    tvList.clear();
+    for (long i = 500; i < 1000; i++) {
+      tvList.putLong(i, i);
+    }
+    long[] times = new long[500];
+    for (int i = 0; i < 500; i++) {
+      times[i] = i;
+    }
+    tvList.putLongs(times, times.clone(), null, 0, 500);
+    Assert.assertEquals(1, tvList.getRunBreakCount());
+    Assert.assertEquals(TVList.SortPath.TIM, tvList.chooseSortPath());
+    assertSortedByAdaptiveSort(tvList);
+
+    // descending, tim sort only reverses it
+    tvList.clear();
+    for (long i = 999; i >= 0; i--) {
+      tvList.putLong(i, i);
+    }
+    Assert.assertEquals(999, tvList.getRunBreakCount());
+    Assert.assertEquals(TVList.SortPath.TIM, tvList.chooseSortPath());
+    assertSortedByAdaptiveSort(tvList);
+
+    // short runs
+    tvList.clear();
+    Random random = new Random(0);
+    for (long i = 0; i < 1000; i++) {
+      long time = random.nextInt(1000);
+      tvList.putLong(time, time);
+    }
+    Assert.assertEquals(TVList.SortPath.IN_PLACE, tvList.chooseSortPath());
+    assertSortedByAdaptiveSort(tvList);
+  }
+
+  @Test
+  public void testAdaptiveSortKeepsLastWrite() {
+    TimLongTVList tvList = new TimLongTVList();
+    tvList.setAdaptiveSort(true);
+    Random random = new Random(0);
+    Map<Long, Long> lastValues = new HashMap<>();
+    for (long i = 0; i < 10000; i++) {
+      long time = random.nextInt(100);
+      tvList.putLong(time, i);
+      lastValues.put(time, i);
+    }
+    Assert.assertEquals(TVList.SortPath.IN_PLACE, tvList.chooseSortPath());
+    assertSortedStably(tvList);
+
+    // only the last point of each timestamp is kept, the same as flushing
+    TsBlock tsBlock = tvList.buildTsBlock();
+    Assert.assertEquals(lastValues.size(), tsBlock.getPositionCount());
+    for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+      Assert.assertEquals(
+          (long) lastValues.get(tsBlock.getTimeByIndex(i)), tsBlock.getColumn(0).getLong(i));
+    }
+  }
+
+  @Test
+  public void testAdaptiveSortManyDuplicates() {
+    // two alternating timestamps, a quick sort would recurse about as deep as the list is long
+    TimLongTVList tvList = new TimLongTVList();
+    tvList.setAdaptiveSort(true);
+    for (long i = 0; i < 100000; i++) {
+      tvList.putLong(i % 2, i);
+    }
+    Assert.assertEquals(TVList.SortPath.IN_PLACE, tvList.chooseSortPath());
+    assertSortedStably(tvList);
+    Assert.assertEquals(0, tvList.getTime(49999));
+    Assert.assertEquals(99998, tvList.getLong(49999));
+    Assert.assertEquals(1, tvList.getTime(50000));
+    Assert.assertEquals(99999, tvList.getLong(99999));
+  }
+
+  /** the values are the order of insertion */
+  private void assertSortedStably(TVList tvList) {
+    tvList.sort();
+    for (int i = 1; i < tvList.rowCount; i++) {
+      Assert.assertTrue(tvList.getTime(i - 1) <= tvList.getTime(i));
+      if (tvList.getTime(i - 1) == tvList.getTime(i)) {
+        Assert.assertTrue(tvList.getLong(i - 1) < tvList.getLong(i));
+      }
+    }
+  }
+
+  private void assertSortedByAdaptiveSort(TimLongTVList tvList) {
+    tvList.sort();
+    Assert.assertTrue(tvList.isSorted());
+    Assert.assertEquals(0, tvList.getRunBreakCount());
+    for (int i = 1; i < tvList.rowCount; i++) {
+      Assert.assertTrue(tvList.getTime(i - 1) <= tvList.getTime(i));
+      Assert.assertEquals(tvList.getTime(i), tvList.getLong(i));
+    }
+  }
 }
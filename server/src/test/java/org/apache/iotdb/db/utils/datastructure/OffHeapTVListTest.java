@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsLong;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class OffHeapTVListTest {
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private boolean enableOffHeapMemtable;
+
+  @Before
+  public void setUp() {
+    enableOffHeapMemtable = config.isEnableOffHeapMemtable();
+    config.setEnableOffHeapMemtable(true);
+  }
+
+  @After
+  public void tearDown() {
+    config.setEnableOffHeapMemtable(enableOffHeapMemtable);
+  }
+
+  @Test
+  public void testNewList() {
+    Assert.assertTrue(TVList.newList(TSDataType.INT64) instanceof OffHeapLongTVList);
+    Assert.assertTrue(TVList.newList(TSDataType.BOOLEAN) instanceof OffHeapBooleanTVList);
+    Assert.assertTrue(TVList.newList(TSDataType.TEXT) instanceof BinaryTVList);
+  }
+
+  @Test
+  public void testSort() {
+    Random random = new Random();
+    TVList tvList = TVList.newList(TSDataType.INT64);
+    List<TimeValuePair> inputs = new ArrayList<>();
+    for (long i = 0; i < 10000; i++) {
+      long time = random.nextInt(10000);
+      long value = random.nextInt(10000);
+      tvList.putLong(time, value);
+      inputs.add(new TimeValuePair(time, new TsLong(value)));
+    }
+    Assert.assertFalse(tvList.isSorted());
+    tvList.sort();
+    Assert.assertTrue(tvList.isSorted());
+    // the sorting is stable, so the last written point of the same timestamp is still the last
+    inputs.sort(TimeValuePair::compareTo);
+    for (int i = 0; i < tvList.rowCount(); i++) {
+      Assert.assertEquals(inputs.get(i).getTimestamp(), tvList.getTime(i));
+      Assert.assertEquals(inputs.get(i).getValue().getLong(), tvList.getLong(i));
+    }
+  }
+
+  @Test
+  public void testAdaptiveSort() {
+    Random random = new Random(0);
+    TVList tvList = TVList.newList(TSDataType.INT64);
+    tvList.setAdaptiveSort(true);
+    List<TimeValuePair> inputs = new ArrayList<>();
+    for (long i = 0; i < 10000; i++) {
+      long time = random.nextInt(100);
+      tvList.putLong(time, i);
+      inputs.add(new TimeValuePair(time, new TsLong(i)));
+    }
+    Assert.assertEquals(TVList.SortPath.IN_PLACE, tvList.chooseSortPath());
+    tvList.sort();
+    Assert.assertTrue(tvList.isSorted());
+    // the in place sorting is stable too
+    inputs.sort(TimeValuePair::compareTo);
+    for (int i = 0; i < tvList.rowCount(); i++) {
+      Assert.assertEquals(inputs.get(i).getTimestamp(), tvList.getTime(i));
+      Assert.assertEquals(inputs.get(i).getValue().getLong(), tvList.getLong(i));
+    }
+  }
+
+  @Test
+  public void testValueTypes() {
+    TVList intList = TVList.newList(TSDataType.INT32);
+    TVList floatList = TVList.newList(TSDataType.FLOAT);
+    TVList doubleList = TVList.newList(TSDataType.DOUBLE);
+    TVList booleanList = TVList.newList(TSDataType.BOOLEAN);
+    for (int i = 1000; i > 0; i--) {
+      intList.putInt(i, -i);
+      floatList.putFloat(i, i + 0.5f);
+      doubleList.putDouble(i, -i - 0.25);
+      booleanList.putBoolean(i, i % 3 == 0);
+    }
+    intList.sort();
+    floatList.sort();
+    doubleList.sort();
+    booleanList.sort();
+    for (int i = 0; i < 1000; i++) {
+      int time = i + 1;
+      Assert.assertEquals(-time, intList.getInt(i));
+      Assert.assertEquals(time + 0.5f, floatList.getFloat(i), 0);
+      Assert.assertEquals(-time - 0.25, doubleList.getDouble(i), 0);
+      Assert.assertEquals(time % 3 == 0, booleanList.getBoolean(i));
+      Assert.assertEquals(time, doubleList.getTime(i));
+    }
+  }
+
+  @Test
+  public void testPutDoublesWithBitMap() {
+    TVList tvList = TVList.newList(TSDataType.DOUBLE);
+    long[] times = new long[1001];
+    double[] values = new double[1001];
+    BitMap bitMap = new BitMap(1001);
+    for (int i = 0; i <= 1000; i++) {
+      times[i] = 1000 - i;
+      values[i] = 1000 - i;
+      if (i % 100 == 0) {
+        bitMap.mark(i);
+      }
+    }
+    tvList.putDoubles(times, values, bitMap, 0, 1001);
+    tvList.sort();
+    Assert.assertEquals(990, tvList.rowCount());
+    for (int i = 0; i < tvList.rowCount(); i++) {
+      Assert.assertEquals(tvList.getTime(i), tvList.getDouble(i), 0);
+      Assert.assertNotEquals(0, tvList.getTime(i) % 100);
+    }
+  }
+
+  @Test
+  public void testCloneAndDelete() {
+    TVList tvList = TVList.newList(TSDataType.INT64);
+    for (long i = 0; i < 1000; i++) {
+      tvList.putLong(i, i * 2);
+    }
+    TVList clonedTvList = tvList.clone();
+    Assert.assertEquals(500, tvList.delete(500, 999));
+    Assert.assertEquals(499, tvList.getMaxTime());
+    Assert.assertEquals(500, tvList.rowCount());
+    Assert.assertEquals(1000, clonedTvList.rowCount());
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(i * 2L, clonedTvList.getLong(i));
+    }
+    tvList.clear();
+    Assert.assertEquals(0, tvList.rowCount());
+    Assert.assertEquals(999, clonedTvList.getTime(999));
+  }
+
+  @Test
+  public void testSerializeToWAL() throws IOException {
+    TVList tvList = TVList.newList(TSDataType.FLOAT);
+    for (int i = 0; i < 100; i++) {
+      tvList.putFloat(i, i * 1.5f);
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(tvList.serializedSize());
+    tvList.serializeToWAL(new WALByteBufferForTest(buffer));
+    Assert.assertFalse(buffer.hasRemaining());
+
+    // the format is the same as the on-heap TVList
+    config.setEnableOffHeapMemtable(false);
+    TVList onHeapTvList =
+        TVList.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.array())));
+    Assert.assertTrue(onHeapTvList instanceof FloatTVList);
+    config.setEnableOffHeapMemtable(true);
+    TVList offHeapTvList =
+        TVList.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.array())));
+    Assert.assertTrue(offHeapTvList instanceof OffHeapFloatTVList);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(i * 1.5f, onHeapTvList.getFloat(i), 0);
+      Assert.assertEquals(i * 1.5f, offHeapTvList.getFloat(i), 0);
+      Assert.assertEquals(i, offHeapTvList.getTime(i));
+    }
+  }
+}
@@ -32,6 +32,7 @@ import org.apache.iotdb.db.wal.buffer.WALInfoEntry;
 import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
 import org.apache.iotdb.db.wal.utils.WALFileUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
@@ -49,7 +50,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static org.apache.iotdb.db.wal.node.WALNode.DEFAULT_SEARCH_INDEX;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class WALFileTest {
 
@@ -155,6 +159,56 @@ public class WALFileTest {
     assertEquals(expectedWALEntries, actualWALEntries);
   }
 
+  @Test
+  public void testReadCompressedFile() throws IOException, IllegalPathException {
+    int fakeMemTableId = 1;
+    List<WALEntry> expectedWALEntries = new ArrayList<>();
+    expectedWALEntries.add(new WALInfoEntry(fakeMemTableId, getInsertRowNode(devicePath)));
+    expectedWALEntries.add(new WALInfoEntry(fakeMemTableId, getInsertTabletNode(devicePath)));
+    expectedWALEntries.add(new WALInfoEntry(fakeMemTableId, getDeleteDataNode(devicePath)));
+    // write each entry as one compressed segment, the second one is split into two segments
+    try (WALWriter walWriter = new WALWriter(walFile, CompressionType.LZ4)) {
+      for (WALEntry walEntry : expectedWALEntries) {
+        int size = walEntry.serializedSize();
+        WALByteBufferForTest buffer = new WALByteBufferForTest(ByteBuffer.allocate(size));
+        walEntry.serialize(buffer);
+        WALMetaData metaData = new WALMetaData();
+        metaData.add(size, DEFAULT_SEARCH_INDEX);
+        if (walEntry.getType() == WALEntryType.INSERT_TABLET_NODE) {
+          ByteBuffer data = buffer.getBuffer();
+          data.flip();
+          ByteBuffer firstHalf = ByteBuffer.allocate(size / 2);
+          data.get(firstHalf.array());
+          firstHalf.position(size / 2);
+          walWriter.write(firstHalf, metaData);
+          ByteBuffer secondHalf = ByteBuffer.allocate(size - size / 2);
+          secondHalf.put(data);
+          walWriter.write(secondHalf, new WALMetaData());
+        } else {
+          walWriter.write(buffer.getBuffer(), metaData);
+        }
+      }
+    }
+    // test WALReader.readAll
+    List<WALEntry> actualWALEntries = new ArrayList<>();
+    try (WALReader walReader = new WALReader(walFile)) {
+      while (walReader.hasNext()) {
+        actualWALEntries.add(walReader.next());
+      }
+    }
+    assertEquals(expectedWALEntries, actualWALEntries);
+    // test WALByteBufReader
+    try (WALByteBufReader walByteBufReader = new WALByteBufReader(walFile)) {
+      for (WALEntry walEntry : expectedWALEntries) {
+        assertTrue(walByteBufReader.hasNext());
+        ByteBuffer buffer = walByteBufReader.next();
+        assertEquals(walEntry.serializedSize(), buffer.capacity());
+        assertEquals(walEntry.getType().getCode(), buffer.get());
+      }
+      assertFalse(walByteBufReader.hasNext());
+    }
+  }
+
   public static InsertRowNode getInsertRowNode(String devicePath) throws IllegalPathException {
     long time = 110L;
     TSDataType[] dataTypes =
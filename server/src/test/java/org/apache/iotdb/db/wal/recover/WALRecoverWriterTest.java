@@ -27,10 +27,12 @@ import org.apache.iotdb.db.wal.buffer.WALEntry;
 import org.apache.iotdb.db.wal.buffer.WALInfoEntry;
 import org.apache.iotdb.db.wal.io.WALByteBufReader;
 import org.apache.iotdb.db.wal.io.WALMetaData;
+import org.apache.iotdb.db.wal.io.WALReader;
 import org.apache.iotdb.db.wal.io.WALWriter;
 import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
 import org.apache.iotdb.db.wal.utils.WALFileUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
@@ -152,6 +154,40 @@ public class WALRecoverWriterTest {
     }
   }
 
+  @Test
+  public void testCompressedFileWithBrokenEntry() throws IOException, IllegalPathException {
+    // prepare file, the second entry of the segment is broken
+    WALMetaData walMetaData = new WALMetaData();
+    WALEntry walEntry = new WALInfoEntry(1, getInsertRowNode());
+    int size = walEntry.serializedSize();
+    WALByteBufferForTest buffer = new WALByteBufferForTest(ByteBuffer.allocate(size * 2));
+    walEntry.serialize(buffer);
+    walEntry.serialize(buffer);
+    walMetaData.add(size, 1);
+    try (WALWriter walWriter = new WALWriter(logFile, CompressionType.SNAPPY)) {
+      walWriter.write(buffer.getBuffer(), walMetaData);
+    }
+    long len = logFile.length();
+    try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.APPEND)) {
+      channel.truncate(len - 1);
+    }
+    // recover
+    WALRecoverWriter walRecoverWriter = new WALRecoverWriter(logFile);
+    walRecoverWriter.recover(walMetaData);
+    // verify file
+    try (WALByteBufReader reader = new WALByteBufReader(logFile)) {
+      Assert.assertTrue(reader.hasNext());
+      Assert.assertEquals(size, reader.next().capacity());
+      Assert.assertFalse(reader.hasNext());
+      Assert.assertEquals(1, reader.getFirstSearchIndex());
+    }
+    try (WALReader reader = new WALReader(logFile)) {
+      Assert.assertTrue(reader.hasNext());
+      Assert.assertEquals(walEntry, reader.next());
+      Assert.assertFalse(reader.hasNext());
+    }
+  }
+
   public static InsertRowNode getInsertRowNode() throws IllegalPathException {
     String devicePath = "root.test_sg.test_d";
     long time = 110L;
@@ -39,6 +39,16 @@ struct TSyncLogEntriesRes {
   1: required list<common.TSStatus> statuses
 }
 
+// TSyncLogEntriesReqs of different consensus groups sent to the same DataNode in one request
+struct TBatchSyncLogEntriesReq {
+  1: required list<TSyncLogEntriesReq> reqs
+}
+
+// one TSyncLogEntriesRes for each TSyncLogEntriesReq, in the same order
+struct TBatchSyncLogEntriesRes {
+  1: required list<TSyncLogEntriesRes> resList
+}
+
 struct TInactivatePeerReq {
   1: required common.TConsensusGroupId consensusGroupId
 }
@@ -81,6 +91,22 @@ struct TSendSnapshotFragmentReq {
   3: required string filePath
   4: required i64 chunkLength
   5: required binary fileChunk
+  // position of the fragment in the file, the fragment is appended to the file if it's not set
+  6: optional i64 offset
+  // CRC32 of the fileChunk
+  7: optional i64 checksum
+}
+
+struct TGetSnapshotFileLengthsReq {
+  1: required common.TConsensusGroupId consensusGroupId
+  2: required string snapshotId
+  3: required list<string> filePaths
+}
+
+// the received lengths of the files, used to resume an interrupted transfer
+struct TGetSnapshotFileLengthsRes {
+  1: required common.TSStatus status
+  2: optional list<i64> lengths
 }
 
 struct TWaitSyncLogCompleteReq {
@@ -117,12 +143,14 @@ struct TCleanupTransferredSnapshotRes {
 
 service IoTConsensusIService {
   TSyncLogEntriesRes syncLogEntries(TSyncLogEntriesReq req)
+  TBatchSyncLogEntriesRes batchSyncLogEntries(TBatchSyncLogEntriesReq req)
   TInactivatePeerRes inactivatePeer(TInactivatePeerReq req)
   TActivatePeerRes activatePeer(TActivatePeerReq req)
   TBuildSyncLogChannelRes buildSyncLogChannel(TBuildSyncLogChannelReq req)
   TRemoveSyncLogChannelRes removeSyncLogChannel(TRemoveSyncLogChannelReq req)
   TWaitSyncLogCompleteRes waitSyncLogComplete(TWaitSyncLogCompleteReq req)
   TSendSnapshotFragmentRes sendSnapshotFragment(TSendSnapshotFragmentReq req)
+  TGetSnapshotFileLengthsRes getSnapshotFileLengths(TGetSnapshotFileLengthsReq req)
   TTriggerSnapshotLoadRes triggerSnapshotLoad(TTriggerSnapshotLoadReq req)
   TCleanupTransferredSnapshotRes cleanupTransferredSnapshot(TCleanupTransferredSnapshotReq req)
 }
\ No newline at end of file
@@ -180,7 +180,15 @@ public class ChunkHeader {
     ByteBuffer buffer = ByteBuffer.allocate(chunkHeaderSize);
     input.read(buffer, offset);
     buffer.flip();
+    return deserializeFrom(buffer);
+  }
 
+  /**
+   * deserialize from ByteBuffer, the marker has not been read. The position of the buffer is moved
+   * to the end of the chunk header, i.e. the beginning of the chunk data.
+   */
+  public static ChunkHeader deserializeFrom(ByteBuffer buffer) {
+    int start = buffer.position();
     byte chunkType = buffer.get();
     // read measurementID
     String measurementID = ReadWriteIOUtils.readVarIntString(buffer);
@@ -188,10 +196,8 @@ public class ChunkHeader {
     TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
     CompressionType type = ReadWriteIOUtils.readCompressionType(buffer);
     TSEncoding encoding = ReadWriteIOUtils.readEncoding(buffer);
-    chunkHeaderSize =
-        chunkHeaderSize - Integer.BYTES - 1 + ReadWriteForEncodingUtils.uVarIntSize(dataSize);
     return new ChunkHeader(
-        chunkType, measurementID, dataSize, chunkHeaderSize, dataType, type, encoding);
+        chunkType, measurementID, dataSize, buffer.position() - start, dataType, type, encoding);
   }
 
   /**
@@ -1292,6 +1292,53 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
   }
 
+  /**
+   * read several memory chunks by one read of the file range covering all of them, including the
+   * data between them that belong to other chunks. Only the header of the last chunk is read
+   * separately to know where the range ends.
+   *
+   * @param metaDataList chunk meta data of this file sorted by the offset of the chunk header
+   * @return the chunks in the same order, each of which has its own buffer
+   */
+  public List<Chunk> readMemChunks(List<ChunkMetadata> metaDataList) throws IOException {
+    try {
+      ChunkMetadata lastMetaData = metaDataList.get(metaDataList.size() - 1);
+      ChunkHeader lastHeader =
+          readChunkHeader(
+              lastMetaData.getOffsetOfChunkHeader(),
+              ChunkHeader.getSerializedSize(lastMetaData.getMeasurementUid()));
+      long start = metaDataList.get(0).getOffsetOfChunkHeader();
+      long end =
+          lastMetaData.getOffsetOfChunkHeader()
+              + lastHeader.getSerializedSize()
+              + lastHeader.getDataSize();
+      if (end - start > Integer.MAX_VALUE) {
+        throw new IOException(
+            String.format(
+                "Range [%d, %d) of %s is too large to be read at once", start, end, file));
+      }
+      ByteBuffer buffer = readData(start, (int) (end - start));
+
+      List<Chunk> chunks = new ArrayList<>(metaDataList.size());
+      for (ChunkMetadata metaData : metaDataList) {
+        buffer.limit(buffer.capacity());
+        buffer.position((int) (metaData.getOffsetOfChunkHeader() - start));
+        ChunkHeader header = ChunkHeader.deserializeFrom(buffer);
+        buffer.limit(buffer.position() + header.getDataSize());
+        // copy the data out so that the range read is not retained by the cached chunks
+        ByteBuffer data = ByteBuffer.allocate(header.getDataSize());
+        data.put(buffer);
+        data.flip();
+        chunks.add(
+            new Chunk(header, data, metaData.getDeleteIntervalList(), metaData.getStatistics()));
+      }
+      return chunks;
+    } catch (Throwable t) {
+      logger.warn("Exception {} happened while reading chunks of {}", t.getMessage(), file);
+      throw t;
+    }
+  }
+
   /**
    * read memory chunk.
    *
@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.read.common;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.reader.IDecompressedPageCache;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
@@ -37,6 +38,8 @@ public class Chunk {
   private boolean isFromOldFile = false;
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
+  /** Decompressed pages of this chunk, null if they should not be cached. */
+  private IDecompressedPageCache decompressedPageCache;
 
   private long ramSize;
 
@@ -158,4 +161,12 @@ public class Chunk {
   public void setFromOldFile(boolean isFromOldFile) {
     this.isFromOldFile = isFromOldFile;
   }
+
+  public IDecompressedPageCache getDecompressedPageCache() {
+    return decompressedPageCache;
+  }
+
+  public void setDecompressedPageCache(IDecompressedPageCache decompressedPageCache) {
+    this.decompressedPageCache = decompressedPageCache;
+  }
 }
@@ -167,4 +167,8 @@ public class BinaryColumn implements Column {
   public int getInstanceSize() {
     return INSTANCE_SIZE;
   }
+
+  int getArrayOffset() {
+    return arrayOffset;
+  }
 }
@@ -165,4 +165,8 @@ public class BooleanColumn implements Column {
   public int getInstanceSize() {
     return INSTANCE_SIZE;
   }
+
+  int getArrayOffset() {
+    return arrayOffset;
+  }
 }
@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common.block.column;
+
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link TsBlockSerde} which writes the value arrays of every column as a whole instead of value
+ * by value, so that both serialization and deserialization are bulk copies between the primitive
+ * arrays and the buffer. The values of each column may be compressed by LZ4 additionally.
+ *
+ * <p>The columnar format starts with a negative int which can never be the value column count of
+ * the row format, so {@link #deserialize(ByteBuffer)} accepts both formats. That means the sender
+ * may switch the format without the receivers knowing it.
+ */
+public class ColumnarTsBlockSerde extends TsBlockSerde {
+
+  static final int COLUMNAR_FORMAT_MARKER = -1;
+
+  // value arrays are in the native order of most platforms, so that the bulk copies are memcpy
+  private static final ByteOrder VALUE_BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  private static final ICompressor COMPRESSOR = ICompressor.getCompressor(CompressionType.LZ4);
+  private static final IUnCompressor UN_COMPRESSOR =
+      IUnCompressor.getUnCompressor(CompressionType.LZ4);
+
+  private final boolean columnar;
+  private final boolean compression;
+
+  /**
+   * @param columnar serialize in columnar format, otherwise in the row format of {@link
+   *     TsBlockSerde}
+   * @param compression compress the values of each column by LZ4, only works in columnar format
+   */
+  public ColumnarTsBlockSerde(boolean columnar, boolean compression) {
+    this.columnar = columnar;
+    this.compression = compression;
+  }
+
+  @Override
+  public TsBlock deserialize(ByteBuffer byteBuffer) {
+    if (byteBuffer.getInt(byteBuffer.position()) != COLUMNAR_FORMAT_MARKER) {
+      return super.deserialize(byteBuffer);
+    }
+
+    // Serialized tsblock:
+    //    +--------+-------------+---------------+---------+-----------+----------+
+    //    | marker | val col cnt | val col types | pos cnt | time col  | val col  |
+    //    +--------+-------------+---------------+---------+-----------+----------+
+    //    | int32  | int32       | list[byte]    | int32   |  bytes    | bytes    |
+    //    +--------+-------------+---------------+---------+-----------+----------+
+    byteBuffer.getInt();
+    int valueColumnCount = byteBuffer.getInt();
+    TSDataType[] valueColumnDataTypes = new TSDataType[valueColumnCount];
+    for (int i = 0; i < valueColumnCount; i++) {
+      valueColumnDataTypes[i] = TSDataType.deserializeFrom(byteBuffer);
+    }
+    int positionCount = byteBuffer.getInt();
+
+    try {
+      LongColumn times = (LongColumn) readColumn(byteBuffer, TSDataType.INT64, positionCount);
+      TimeColumn timeColumn = new TimeColumn(positionCount, times.getLongs());
+      Column[] valueColumns = new Column[valueColumnCount];
+      for (int i = 0; i < valueColumnCount; i++) {
+        valueColumns[i] = readColumn(byteBuffer, valueColumnDataTypes[i], positionCount);
+      }
+      return new TsBlock(positionCount, timeColumn, valueColumns);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public ByteBuffer serialize(TsBlock tsBlock) throws IOException {
+    if (!columnar) {
+      return super.serialize(tsBlock);
+    }
+
+    int valueColumnCount = tsBlock.getValueColumnCount();
+    int capacity = 3 * Integer.BYTES + valueColumnCount * Byte.BYTES;
+    capacity += getMaxColumnSize(tsBlock.getTimeColumn());
+    for (int i = 0; i < valueColumnCount; i++) {
+      capacity += getMaxColumnSize(tsBlock.getColumn(i));
+    }
+
+    // heap buffer, the serialized tsblock is sent as a byte array by thrift
+    ByteBuffer output = ByteBuffer.allocate(capacity);
+    output.putInt(COLUMNAR_FORMAT_MARKER);
+    output.putInt(valueColumnCount);
+    for (int i = 0; i < valueColumnCount; i++) {
+      tsBlock.getColumn(i).getDataType().serializeTo(output);
+    }
+    output.putInt(tsBlock.getPositionCount());
+    writeColumn(output, tsBlock.getTimeColumn());
+    for (int i = 0; i < valueColumnCount; i++) {
+      writeColumn(output, tsBlock.getColumn(i));
+    }
+    output.flip();
+    return output;
+  }
+
+  // Serialized column:
+  //    +----------+---------------+-----------------+------------+--------+
+  //    | encoding | may have null | null indicators | compressed | values |
+  //    +----------+---------------+-----------------+------------+--------+
+  //    | byte     | byte          | list[byte]      | byte       | bytes  |
+  //    +----------+---------------+-----------------+------------+--------+
+  //
+  // A RLE column is represented as its encoding followed by the serialized column of its single
+  // value. The compressed values are prefixed with the uncompressed and compressed length in int32.
+
+  private int getMaxColumnSize(Column column) {
+    if (column instanceof RunLengthEncodedColumn) {
+      return Byte.BYTES + getMaxColumnSize(((RunLengthEncodedColumn) column).getValue());
+    }
+    int size = 3 * Byte.BYTES;
+    if (column.mayHaveNull()) {
+      size += (column.getPositionCount() + 7) / 8;
+    }
+    int valuesSize = getValuesSize(column);
+    if (compression) {
+      valuesSize =
+          Math.max(
+              valuesSize, 2 * Integer.BYTES + COMPRESSOR.getMaxBytesForCompression(valuesSize));
+    }
+    return size + valuesSize;
+  }
+
+  private static int getValuesSize(Column column) {
+    int positionCount = column.getPositionCount();
+    switch (column.getDataType()) {
+      case BOOLEAN:
+        return positionCount;
+      case INT32:
+      case FLOAT:
+        return positionCount * Integer.BYTES;
+      case INT64:
+      case DOUBLE:
+        return positionCount * Long.BYTES;
+      case TEXT:
+        int size = positionCount * Integer.BYTES;
+        for (int i = 0; i < positionCount; i++) {
+          if (!column.isNull(i)) {
+            size += column.getBinary(i).getLength();
+          }
+        }
+        return size;
+      default:
+        throw new IllegalArgumentException("Invalid data type: " + column.getDataType());
+    }
+  }
+
+  private void writeColumn(ByteBuffer output, Column column) throws IOException {
+    if (column instanceof RunLengthEncodedColumn) {
+      ColumnEncoding.RLE.serializeTo(output);
+      writeColumn(output, ((RunLengthEncodedColumn) column).getValue());
+      return;
+    }
+    column.getEncoding().serializeTo(output);
+
+    int positionCount = column.getPositionCount();
+    boolean mayHaveNull = column.mayHaveNull();
+    output.put(mayHaveNull ? (byte) 1 : (byte) 0);
+    if (mayHaveNull) {
+      writeNullIndicators(output, column);
+    }
+
+    int valuesSize = getValuesSize(column);
+    if (!compression || valuesSize == 0) {
+      output.put((byte) 0);
+      writeValues(output, column, positionCount);
+      return;
+    }
+
+    ByteBuffer uncompressed = ByteBuffer.allocate(valuesSize);
+    writeValues(uncompressed, column, positionCount);
+    uncompressed.flip();
+
+    int flagPosition = output.position();
+    output.put((byte) 1);
+    output.putInt(valuesSize);
+    int lengthPosition = output.position();
+    output.position(lengthPosition + Integer.BYTES);
+    int compressedSize = COMPRESSOR.compress(uncompressed, output);
+    if (compressedSize + 2 * Integer.BYTES >= valuesSize) {
+      // incompressible, write them as they are
+      output.position(flagPosition);
+      output.put((byte) 0);
+      output.put(uncompressed.array(), 0, valuesSize);
+    } else {
+      output.putInt(lengthPosition, compressedSize);
+    }
+  }
+
+  private static void writeNullIndicators(ByteBuffer output, Column column) {
+    int positionCount = column.getPositionCount();
+    for (int position = 0; position < positionCount; position += 8) {
+      byte value = 0;
+      int mask = 0b1000_0000;
+      for (int i = position; i < Math.min(position + 8, positionCount); i++) {
+        value |= column.isNull(i) ? mask : 0;
+        mask >>>= 1;
+      }
+      output.put(value);
+    }
+  }
+
+  private static void writeValues(ByteBuffer output, Column column, int positionCount) {
+    ByteBuffer values = output.slice().order(VALUE_BYTE_ORDER);
+    if (column instanceof TimeColumn) {
+      TimeColumn timeColumn = (TimeColumn) column;
+      values.asLongBuffer().put(timeColumn.getTimes(), timeColumn.getArrayOffset(), positionCount);
+      values.position(positionCount * Long.BYTES);
+    } else if (column instanceof LongColumn) {
+      LongColumn longColumn = (LongColumn) column;
+      values.asLongBuffer().put(longColumn.getLongs(), longColumn.getArrayOffset(), positionCount);
+      values.position(positionCount * Long.BYTES);
+    } else if (column instanceof DoubleColumn) {
+      DoubleColumn doubleColumn = (DoubleColumn) column;
+      values
+          .asDoubleBuffer()
+          .put(doubleColumn.getDoubles(), doubleColumn.getArrayOffset(), positionCount);
+      values.position(positionCount * Double.BYTES);
+    } else if (column instanceof IntColumn) {
+      IntColumn intColumn = (IntColumn) column;
+      values.asIntBuffer().put(intColumn.getInts(), intColumn.getArrayOffset(), positionCount);
+      values.position(positionCount * Integer.BYTES);
+    } else if (column instanceof FloatColumn) {
+      FloatColumn floatColumn = (FloatColumn) column;
+      values
+          .asFloatBuffer()
+          .put(floatColumn.getFloats(), floatColumn.getArrayOffset(), positionCount);
+      values.position(positionCount * Float.BYTES);
+    } else {
+      writeValuesByPosition(values, column, positionCount);
+    }
+    output.position(output.position() + values.position());
+  }
+
+  private static void writeValuesByPosition(ByteBuffer values, Column column, int positionCount) {
+    switch (column.getDataType()) {
+      case BOOLEAN:
+        for (int i = 0; i < positionCount; i++) {
+          values.put(column.getBoolean(i) ? (byte) 1 : (byte) 0);
+        }
+        break;
+      case INT32:
+        for (int i = 0; i < positionCount; i++) {
+          values.putInt(column.getInt(i));
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < positionCount; i++) {
+          values.putFloat(column.getFloat(i));
+        }
+        break;
+      case INT64:
+        for (int i = 0; i < positionCount; i++) {
+          values.putLong(column.getLong(i));
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < positionCount; i++) {
+          values.putDouble(column.getDouble(i));
+        }
+        break;
+      case TEXT:
+        // all the lengths first, then all the bytes
+        for (int i = 0; i < positionCount; i++) {
+          values.putInt(column.isNull(i) ? 0 : column.getBinary(i).getLength());
+        }
+        for (int i = 0; i < positionCount; i++) {
+          if (!column.isNull(i)) {
+            values.put(column.getBinary(i).getValues());
+          }
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid data type: " + column.getDataType());
+    }
+  }
+
+  private static Column readColumn(ByteBuffer input, TSDataType dataType, int positionCount)
+      throws IOException {
+    ColumnEncoding encoding = ColumnEncoding.deserializeFrom(input);
+    if (encoding == ColumnEncoding.RLE) {
+      return new RunLengthEncodedColumn(readColumn(input, dataType, 1), positionCount);
+    }
+
+    boolean[] valueIsNull = null;
+    if (input.get() != 0) {
+      valueIsNull = ColumnEncoder.deserializeBooleanArray(input, positionCount);
+    }
+
+    ByteBuffer values;
+    boolean compressed = input.get() != 0;
+    if (compressed) {
+      int uncompressedSize = input.getInt();
+      int compressedSize = input.getInt();
+      ByteBuffer compressedValues = input.slice();
+      compressedValues.limit(compressedSize);
+      values = ByteBuffer.allocate(uncompressedSize);
+      UN_COMPRESSOR.uncompress(compressedValues, values);
+      values.flip();
+      input.position(input.position() + compressedSize);
+    } else {
+      values = input.slice();
+    }
+    values.order(VALUE_BYTE_ORDER);
+
+    Column column;
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleans = new boolean[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+          booleans[i] = values.get() != 0;
+        }
+        column = new BooleanColumn(0, positionCount, valueIsNull, booleans);
+        break;
+      case INT32:
+        int[] ints = new int[positionCount];
+        values.asIntBuffer().get(ints);
+        values.position(positionCount * Integer.BYTES);
+        column = new IntColumn(0, positionCount, valueIsNull, ints);
+        break;
+      case FLOAT:
+        float[] floats = new float[positionCount];
+        values.asFloatBuffer().get(floats);
+        values.position(positionCount * Float.BYTES);
+        column = new FloatColumn(0, positionCount, valueIsNull, floats);
+        break;
+      case INT64:
+        long[] longs = new long[positionCount];
+        values.asLongBuffer().get(longs);
+        values.position(positionCount * Long.BYTES);
+        column = new LongColumn(0, positionCount, valueIsNull, longs);
+        break;
+      case DOUBLE:
+        double[] doubles = new double[positionCount];
+        values.asDoubleBuffer().get(doubles);
+        values.position(positionCount * Double.BYTES);
+        column = new DoubleColumn(0, positionCount, valueIsNull, doubles);
+        break;
+      case TEXT:
+        int[] lengths = new int[positionCount];
+        values.asIntBuffer().get(lengths);
+        values.position(positionCount * Integer.BYTES);
+        Binary[] binaries = new Binary[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+          if (valueIsNull == null || !valueIsNull[i]) {
+            byte[] bytes = new byte[lengths[i]];
+            values.get(bytes);
+            binaries[i] = new Binary(bytes);
+          }
+        }
+        column = new BinaryColumn(0, positionCount, valueIsNull, binaries);
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+
+    if (!compressed) {
+      // the values are read from the input buffer directly
+      input.position(input.position() + values.position());
+    }
+    return column;
+  }
+}
@@ -166,4 +166,8 @@ public class DoubleColumn implements Column {
   public int getInstanceSize() {
     return INSTANCE_SIZE;
   }
+
+  int getArrayOffset() {
+    return arrayOffset;
+  }
 }
@@ -164,4 +164,8 @@ public class FloatColumn implements Column {
   public int getInstanceSize() {
     return INSTANCE_SIZE;
   }
+
+  int getArrayOffset() {
+    return arrayOffset;
+  }
 }
@@ -20,6 +20,8 @@ package org.apache.iotdb.tsfile.read.filter.basic;
 
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
 
 import java.io.ByteArrayOutputStream;
@@ -46,6 +48,27 @@ public interface Filter {
    */
   boolean satisfy(long time, Object value);
 
+  /**
+   * To examine a batch of points at once. Only the positions still selected are examined, and the
+   * ones not satisfying the filter are unselected, so that filters can be chained on one selection
+   * bitmap. The positions whose value is null should be unselected by the caller beforehand.
+   *
+   * <p>The default implementation examines the points one by one. Filters on numeric data override
+   * it to compare primitive values directly, without boxing.
+   *
+   * @param timeColumn time of the points
+   * @param valueColumn value of the points, may be null for a time filter
+   * @param selection selection bitmap, whose length is no less than the position count
+   */
+  default void satisfyBatch(TimeColumn timeColumn, Column valueColumn, boolean[] selection) {
+    for (int i = 0, n = timeColumn.getPositionCount(); i < n; i++) {
+      if (selection[i]) {
+        selection[i] =
+            satisfy(timeColumn.getLong(i), valueColumn == null ? null : valueColumn.getObject(i));
+      }
+    }
+  }
+
   /**
    * To examine whether the min time and max time are satisfied with the filter.
    *
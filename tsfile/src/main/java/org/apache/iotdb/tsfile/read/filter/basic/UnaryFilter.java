@@ -18,6 +18,9 @@
  */
 package org.apache.iotdb.tsfile.read.filter.basic;
 
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
@@ -58,6 +61,45 @@ public abstract class UnaryFilter<T extends Comparable<T>> implements Filter, Se
     return filterType;
   }
 
+  @Override
+  public void satisfyBatch(TimeColumn timeColumn, Column valueColumn, boolean[] selection) {
+    Column column = filterType == FilterType.TIME_FILTER ? timeColumn : valueColumn;
+    if (column == null) {
+      Filter.super.satisfyBatch(timeColumn, valueColumn, selection);
+      return;
+    }
+    TSDataType dataType = column.getDataType();
+    if (dataType == TSDataType.INT64 && value instanceof Long) {
+      satisfyLongBatch(column, (Long) value, selection);
+    } else if (dataType == TSDataType.INT32 && value instanceof Integer) {
+      satisfyIntBatch(column, (Integer) value, selection);
+    } else if (dataType == TSDataType.DOUBLE && value instanceof Double) {
+      satisfyDoubleBatch(column, (Double) value, selection);
+    } else if (dataType == TSDataType.FLOAT && value instanceof Float) {
+      satisfyFloatBatch(column, (Float) value, selection);
+    } else {
+      Filter.super.satisfyBatch(timeColumn, valueColumn, selection);
+    }
+  }
+
+  /** Unselect the positions of the INT32 column not satisfying this filter. */
+  protected abstract void satisfyIntBatch(Column column, int value, boolean[] selection);
+
+  /** Unselect the positions of the INT64 or time column not satisfying this filter. */
+  protected abstract void satisfyLongBatch(Column column, long value, boolean[] selection);
+
+  /**
+   * Unselect the positions of the FLOAT column not satisfying this filter. Values are compared by
+   * {@link Float#compare} to keep the semantic of {@link Comparable}, e.g. for NaN.
+   */
+  protected abstract void satisfyFloatBatch(Column column, float value, boolean[] selection);
+
+  /**
+   * Unselect the positions of the DOUBLE column not satisfying this filter. Values are compared by
+   * {@link Double#compare} to keep the semantic of {@link Comparable}, e.g. for NaN.
+   */
+  protected abstract void satisfyDoubleBatch(Column column, double value, boolean[] selection);
+
   @Override
   public abstract String toString();
 
@@ -21,6 +21,8 @@ package org.apache.iotdb.tsfile.read.filter.operator;
 
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
@@ -106,6 +108,48 @@ public class Between<T extends Comparable<T>> implements Filter {
     return (value1.compareTo((T) v) <= 0 && ((T) v).compareTo(value2) <= 0) ^ not;
   }
 
+  @Override
+  public void satisfyBatch(TimeColumn timeColumn, Column valueColumn, boolean[] selection) {
+    Column column = filterType == FilterType.TIME_FILTER ? timeColumn : valueColumn;
+    if (column == null) {
+      Filter.super.satisfyBatch(timeColumn, valueColumn, selection);
+      return;
+    }
+    TSDataType dataType = column.getDataType();
+    int positionCount = column.getPositionCount();
+    if (dataType == TSDataType.INT64 && value1 instanceof Long && value2 instanceof Long) {
+      long min = (Long) value1, max = (Long) value2;
+      for (int i = 0; i < positionCount; i++) {
+        long v = column.getLong(i);
+        selection[i] &= (min <= v && v <= max) ^ not;
+      }
+    } else if (dataType == TSDataType.INT32
+        && value1 instanceof Integer
+        && value2 instanceof Integer) {
+      int min = (Integer) value1, max = (Integer) value2;
+      for (int i = 0; i < positionCount; i++) {
+        int v = column.getInt(i);
+        selection[i] &= (min <= v && v <= max) ^ not;
+      }
+    } else if (dataType == TSDataType.DOUBLE
+        && value1 instanceof Double
+        && value2 instanceof Double) {
+      double min = (Double) value1, max = (Double) value2;
+      for (int i = 0; i < positionCount; i++) {
+        double v = column.getDouble(i);
+        selection[i] &= (Double.compare(min, v) <= 0 && Double.compare(v, max) <= 0) ^ not;
+      }
+    } else if (dataType == TSDataType.FLOAT && value1 instanceof Float && value2 instanceof Float) {
+      float min = (Float) value1, max = (Float) value2;
+      for (int i = 0; i < positionCount; i++) {
+        float v = column.getFloat(i);
+        selection[i] &= (Float.compare(min, v) <= 0 && Float.compare(v, max) <= 0) ^ not;
+      }
+    } else {
+      Filter.super.satisfyBatch(timeColumn, valueColumn, selection);
+    }
+  }
+
   @Override
   public boolean satisfyStartEndTime(long startTime, long endTime) {
     if (filterType == FilterType.TIME_FILTER) {
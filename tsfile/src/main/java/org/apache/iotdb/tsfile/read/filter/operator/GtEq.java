@@ -20,6 +20,7 @@ package org.apache.iotdb.tsfile.read.filter.operator;
 
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.basic.UnaryFilter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
@@ -58,6 +59,34 @@ public class GtEq<T extends Comparable<T>> extends UnaryFilter<T> {
     return this.value.compareTo((T) v) <= 0;
   }
 
+  @Override
+  protected void satisfyIntBatch(Column column, int value, boolean[] selection) {
+    for (int i = 0, n = column.getPositionCount(); i < n; i++) {
+      selection[i] &= column.getInt(i) >= value;
+    }
+  }
+
+  @Override
+  protected void satisfyLongBatch(Column column, long value, boolean[] selection) {
+    for (int i = 0, n = column.getPositionCount(); i < n; i++) {
+      selection[i] &= column.getLong(i) >= value;
+    }
+  }
+
+  @Override
+  protected void satisfyFloatBatch(Column column, float value, boolean[] selection) {
+    for (int i = 0, n = column.getPositionCount(); i < n; i++) {
+      selection[i] &= Float.compare(column.getFloat(i), value) >= 0;
+    }
+  }
+
+  @Override
+  protected void satisfyDoubleBatch(Column column, double value, boolean[] selection) {
+    for (int i = 0, n = column.getPositionCount(); i < n; i++) {
+      selection[i] &= Double.compare(column.getDouble(i), value) >= 0;
+    }
+  }
+
   @Override
   public boolean satisfyStartEndTime(long startTime, long endTime) {
     if (filterType == FilterType.TIME_FILTER) {
@@ -18,7 +18,10 @@
  */
 package org.apache.iotdb.tsfile.read.filter.operator;
 
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
@@ -28,6 +31,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -67,6 +71,91 @@ public class In<T extends Comparable<T>> implements Filter {
     return this.values.contains(v) != not;
   }
 
+  /**
+   * The values are copied into a sorted primitive array and looked up by binary search, which
+   * avoids boxing every value of the column to probe the hash set.
+   */
+  @Override
+  public void satisfyBatch(TimeColumn timeColumn, Column valueColumn, boolean[] selection) {
+    Column column = filterType == FilterType.TIME_FILTER ? timeColumn : valueColumn;
+    if (column == null || !allValuesOf(column.getDataType())) {
+      Filter.super.satisfyBatch(timeColumn, valueColumn, selection);
+      return;
+    }
+    int positionCount = column.getPositionCount();
+    int index = 0;
+    switch (column.getDataType()) {
+      case INT32:
+        int[] intValues = new int[values.size()];
+        for (T value : values) {
+          intValues[index++] = (Integer) value;
+        }
+        Arrays.sort(intValues);
+        for (int i = 0; i < positionCount; i++) {
+          selection[i] &= (Arrays.binarySearch(intValues, column.getInt(i)) >= 0) != not;
+        }
+        break;
+      case INT64:
+        long[] longValues = new long[values.size()];
+        for (T value : values) {
+          longValues[index++] = (Long) value;
+        }
+        Arrays.sort(longValues);
+        for (int i = 0; i < positionCount; i++) {
+          selection[i] &= (Arrays.binarySearch(longValues, column.getLong(i)) >= 0) != not;
+        }
+        break;
+      case FLOAT:
+        float[] floatValues = new float[values.size()];
+        for (T value : values) {
+          floatValues[index++] = (Float) value;
+        }
+        Arrays.sort(floatValues);
+        for (int i = 0; i < positionCount; i++) {
+          selection[i] &= (Arrays.binarySearch(floatValues, column.getFloat(i)) >= 0) != not;
+        }
+        break;
+      case DOUBLE:
+        double[] doubleValues = new double[values.size()];
+        for (T value : values) {
+          doubleValues[index++] = (Double) value;
+        }
+        Arrays.sort(doubleValues);
+        for (int i = 0; i < positionCount; i++) {
+          selection[i] &= (Arrays.binarySearch(doubleValues, column.getDouble(i)) >= 0) != not;
+        }
+        break;
+      default:
+        Filter.super.satisfyBatch(timeColumn, valueColumn, selection);
+    }
+  }
+
+  private boolean allValuesOf(TSDataType dataType) {
+    Class<?> valueClass;
+    switch (dataType) {
+      case INT32:
+        valueClass = Integer.class;
+        break;
+      case INT64:
+        valueClass = Long.class;
+        break;
+      case FLOAT:
+        valueClass = Float.class;
+        break;
+      case DOUBLE:
+        valueClass = Double.class;
+        break;
+      default:
+        return false;
+    }
+    for (T value : values) {
+      if (value == null || value.getClass() != valueClass) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public boolean satisfyStartEndTime(long startTime, long endTime) {
     return true;
@@ -20,6 +20,8 @@ package org.apache.iotdb.tsfile.read.filter.operator;
 
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
@@ -29,6 +31,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -63,6 +66,16 @@ public class NotFilter implements Filter, Serializable {
     return !that.satisfyStartEndTime(startTime, endTime);
   }
 
+  @Override
+  public void satisfyBatch(TimeColumn timeColumn, Column valueColumn, boolean[] selection) {
+    int positionCount = timeColumn.getPositionCount();
+    boolean[] thatSelection = Arrays.copyOf(selection, positionCount);
+    that.satisfyBatch(timeColumn, valueColumn, thatSelection);
+    for (int i = 0; i < positionCount; i++) {
+      selection[i] &= !thatSelection[i];
+    }
+  }
+
   @Override
   public boolean containStartEndTime(long startTime, long endTime) {
     return !that.satisfyStartEndTime(startTime, endTime);
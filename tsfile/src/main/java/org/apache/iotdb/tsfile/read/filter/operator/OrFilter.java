@@ -20,12 +20,15 @@ package org.apache.iotdb.tsfile.read.filter.operator;
 
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -60,6 +63,22 @@ public class OrFilter extends BinaryFilter implements Serializable {
     return left.satisfy(time, value) || right.satisfy(time, value);
   }
 
+  @Override
+  public void satisfyBatch(TimeColumn timeColumn, Column valueColumn, boolean[] selection) {
+    int positionCount = timeColumn.getPositionCount();
+    boolean[] leftSelection = Arrays.copyOf(selection, positionCount);
+    left.satisfyBatch(timeColumn, valueColumn, leftSelection);
+    // the right filter only needs to examine the positions unselected by the left one
+    boolean[] rightSelection = new boolean[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      rightSelection[i] = selection[i] && !leftSelection[i];
+    }
+    right.satisfyBatch(timeColumn, valueColumn, rightSelection);
+    for (int i = 0; i < positionCount; i++) {
+      selection[i] = leftSelection[i] || rightSelection[i];
+    }
+  }
+
   @Override
   public boolean satisfyStartEndTime(long startTime, long endTime) {
     return left.satisfyStartEndTime(startTime, endTime)
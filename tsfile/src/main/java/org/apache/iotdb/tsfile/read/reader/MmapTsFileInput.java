@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * A {@link TsFileInput} reading a sealed TsFile mapped into memory, so that the reads are served
+ * from the page cache without system calls. The whole file is mapped at once, hence its size must
+ * be smaller than 2 GB.
+ *
+ * <p>The mapped memory is released by the given unmapper on closing. Touching it after that may
+ * crash the JVM, so closing waits for the reads in progress, and the data read are always copied
+ * out of the mapped memory.
+ */
+public class MmapTsFileInput implements TsFileInput {
+
+  private final FileChannel channel;
+  private final String filePath;
+  private final MappedByteBuffer mappedBuffer;
+  private final Consumer<MappedByteBuffer> unmapper;
+
+  private long position = 0;
+  private volatile boolean closed = false;
+  // reads hold the read lock, so that the memory is not unmapped while they are copying from it
+  private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+  public MmapTsFileInput(Path file, Consumer<MappedByteBuffer> unmapper) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.filePath = file.toString();
+    this.unmapper = unmapper;
+    try {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(
+            String.format("%s of %d bytes is too large to be mapped", filePath, size));
+      }
+      this.mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public long size() throws IOException {
+    checkOpen();
+    return mappedBuffer.capacity();
+  }
+
+  @Override
+  public long position() throws IOException {
+    checkOpen();
+    return position;
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) throws IOException {
+    checkOpen();
+    if (newPosition < 0) {
+      throw new IllegalArgumentException("Negative position " + newPosition);
+    }
+    position = newPosition;
+    return this;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    int readSize = read(dst, position);
+    if (readSize > 0) {
+      position += readSize;
+    }
+    return readSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    closeLock.readLock().lock();
+    try {
+      checkOpen();
+      if (position >= mappedBuffer.capacity()) {
+        return -1;
+      }
+      int readSize = (int) Math.min(dst.remaining(), mappedBuffer.capacity() - position);
+      ByteBuffer source = mappedBuffer.duplicate();
+      source.position((int) position);
+      source.limit((int) position + readSize);
+      dst.put(source);
+      return readSize;
+    } finally {
+      closeLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    closeLock.readLock().lock();
+    try {
+      checkOpen();
+      if (position >= mappedBuffer.capacity()) {
+        return -1;
+      }
+      return mappedBuffer.get((int) position++) & 0xFF;
+    } finally {
+      closeLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    return read(ByteBuffer.wrap(b, off, len));
+  }
+
+  @Override
+  public FileChannel wrapAsFileChannel() {
+    return channel;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return new InputStream() {
+      @Override
+      public int read() throws IOException {
+        return MmapTsFileInput.this.read();
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+          return 0;
+        }
+        return MmapTsFileInput.this.read(b, off, len);
+      }
+
+      @Override
+      public long skip(long n) throws IOException {
+        long skipped = Math.max(0, Math.min(n, mappedBuffer.capacity() - position));
+        position += skipped;
+        return skipped;
+      }
+
+      @Override
+      public int available() {
+        return (int) Math.max(0, mappedBuffer.capacity() - position);
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    closeLock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        channel.close();
+      } finally {
+        unmapper.accept(mappedBuffer);
+      }
+    } finally {
+      closeLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    closeLock.readLock().lock();
+    try {
+      checkOpen();
+      int value = mappedBuffer.getInt((int) position);
+      position += Integer.BYTES;
+      return value;
+    } finally {
+      closeLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public String readVarIntString(long offset) throws IOException {
+    closeLock.readLock().lock();
+    try {
+      checkOpen();
+      ByteBuffer buffer = mappedBuffer.duplicate();
+      buffer.position((int) offset);
+      int strLength = ReadWriteForEncodingUtils.readVarInt(buffer);
+      if (strLength < 0) {
+        return null;
+      } else if (strLength == 0) {
+        return "";
+      }
+      byte[] bytes = new byte[strLength];
+      buffer.get(bytes);
+      return new String(bytes, 0, strLength);
+    } finally {
+      closeLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public String getFilePath() {
+    return filePath;
+  }
+
+  private void checkOpen() throws IOException {
+    if (closed) {
+      throw new ClosedChannelException();
+    }
+  }
+}
@@ -33,6 +33,7 @@ import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
+import org.apache.iotdb.tsfile.read.reader.IDecompressedPageCache;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.page.AlignedPageReader;
 
@@ -52,6 +53,10 @@ public class AlignedChunkReader implements IChunkReader {
   private final ByteBuffer timeChunkDataBuffer;
   // chunk data of all the sub sensors
   private final List<ByteBuffer> valueChunkDataBufferList = new ArrayList<>();
+  // decompressed page cache of the time column, null if pages are not cached
+  private final IDecompressedPageCache timeDecompressedPageCache;
+  // decompressed page caches of all the sub sensors
+  private final List<IDecompressedPageCache> valueDecompressedPageCacheList = new ArrayList<>();
   private final IUnCompressor unCompressor;
   private final Decoder timeDecoder =
       Decoder.getDecoderByType(
@@ -77,6 +82,7 @@ public class AlignedChunkReader implements IChunkReader {
     this.timeChunkDataBuffer = timeChunk.getData();
     this.valueDeleteIntervalList = new ArrayList<>();
     this.timeChunkHeader = timeChunk.getHeader();
+    this.timeDecompressedPageCache = timeChunk.getDecompressedPageCache();
     this.unCompressor = IUnCompressor.getUnCompressor(timeChunkHeader.getCompressionType());
     this.currentTimestamp = Long.MIN_VALUE;
     List<Statistics> valueChunkStatisticsList = new ArrayList<>();
@@ -84,6 +90,8 @@ public class AlignedChunkReader implements IChunkReader {
         chunk -> {
           valueChunkHeaderList.add(chunk == null ? null : chunk.getHeader());
           valueChunkDataBufferList.add(chunk == null ? null : chunk.getData());
+          valueDecompressedPageCacheList.add(
+              chunk == null ? null : chunk.getDecompressedPageCache());
           valueChunkStatisticsList.add(chunk == null ? null : chunk.getChunkStatistic());
           valueDeleteIntervalList.add(chunk == null ? null : chunk.getDeleteIntervalList());
         });
@@ -101,6 +109,7 @@ public class AlignedChunkReader implements IChunkReader {
     this.timeChunkDataBuffer = timeChunk.getData();
     this.valueDeleteIntervalList = new ArrayList<>();
     this.timeChunkHeader = timeChunk.getHeader();
+    this.timeDecompressedPageCache = timeChunk.getDecompressedPageCache();
     this.unCompressor = IUnCompressor.getUnCompressor(timeChunkHeader.getCompressionType());
     this.currentTimestamp = currentTimestamp;
     List<Statistics> valueChunkStatisticsList = new ArrayList<>();
@@ -108,6 +117,8 @@ public class AlignedChunkReader implements IChunkReader {
         chunk -> {
           valueChunkHeaderList.add(chunk == null ? null : chunk.getHeader());
           valueChunkDataBufferList.add(chunk == null ? null : chunk.getData());
+          valueDecompressedPageCacheList.add(
+              chunk == null ? null : chunk.getDecompressedPageCache());
           valueChunkStatisticsList.add(chunk == null ? null : chunk.getChunkStatistic());
           valueDeleteIntervalList.add(chunk == null ? null : chunk.getDeleteIntervalList());
         });
@@ -194,7 +205,12 @@ public class AlignedChunkReader implements IChunkReader {
   private AlignedPageReader constructPageReaderForNextPage(
       PageHeader timePageHeader, List<PageHeader> valuePageHeader) throws IOException {
     PageInfo timePageInfo = new PageInfo();
-    getPageInfo(timePageHeader, timeChunkDataBuffer, timeChunkHeader, timePageInfo);
+    getPageInfo(
+        timePageHeader,
+        timeChunkDataBuffer,
+        timeChunkHeader,
+        timeDecompressedPageCache,
+        timePageInfo);
     PageInfo valuePageInfo = new PageInfo();
     List<PageHeader> valuePageHeaderList = new ArrayList<>();
     List<ByteBuffer> valuePageDataList = new ArrayList<>();
@@ -215,6 +231,7 @@ public class AlignedChunkReader implements IChunkReader {
             valuePageHeader.get(i),
             valueChunkDataBufferList.get(i),
             valueChunkHeaderList.get(i),
+            valueDecompressedPageCacheList.get(i),
             valuePageInfo);
         valuePageHeaderList.add(valuePageInfo.pageHeader);
         valuePageDataList.add(valuePageInfo.pageData);
@@ -324,15 +341,19 @@ public class AlignedChunkReader implements IChunkReader {
    * @param pageHeader PageHeader for current page
    * @param chunkBuffer current chunk data buffer
    * @param chunkHeader current chunk header
+   * @param decompressedPageCache decompressed page cache of current chunk, may be null
    * @param pageInfo A struct to put the deserialized page into.
    */
   private void getPageInfo(
-      PageHeader pageHeader, ByteBuffer chunkBuffer, ChunkHeader chunkHeader, PageInfo pageInfo)
+      PageHeader pageHeader,
+      ByteBuffer chunkBuffer,
+      ChunkHeader chunkHeader,
+      IDecompressedPageCache decompressedPageCache,
+      PageInfo pageInfo)
       throws IOException {
     pageInfo.pageHeader = pageHeader;
     pageInfo.dataType = chunkHeader.getDataType();
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkBuffer.remaining()) {
       throw new IOException(
@@ -342,23 +363,35 @@ public class AlignedChunkReader implements IChunkReader {
               + chunkBuffer.remaining());
     }
 
-    chunkBuffer.get(compressedPageBody);
     pageInfo.decoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
-    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
-    try {
-      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
-      unCompressor.uncompress(
-          compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
-    } catch (Exception e) {
-      throw new IOException(
-          "Uncompress error! uncompress size: "
-              + pageHeader.getUncompressedSize()
-              + "compressed size: "
-              + pageHeader.getCompressedSize()
-              + "page header: "
-              + pageHeader
-              + e.getMessage());
+    int pageOffset = chunkBuffer.position();
+    byte[] uncompressedPageData =
+        decompressedPageCache == null ? null : decompressedPageCache.get(pageOffset);
+    if (uncompressedPageData != null) {
+      chunkBuffer.position(pageOffset + compressedPageBodyLength);
+    } else {
+      byte[] compressedPageBody = new byte[compressedPageBodyLength];
+      chunkBuffer.get(compressedPageBody);
+      uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+      try {
+        IUnCompressor unCompressor =
+            IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
+        unCompressor.uncompress(
+            compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
+      } catch (Exception e) {
+        throw new IOException(
+            "Uncompress error! uncompress size: "
+                + pageHeader.getUncompressedSize()
+                + "compressed size: "
+                + pageHeader.getCompressedSize()
+                + "page header: "
+                + pageHeader
+                + e.getMessage());
+      }
+      if (decompressedPageCache != null) {
+        decompressedPageCache.put(pageOffset, uncompressedPageData);
+      }
     }
     pageInfo.pageData = ByteBuffer.wrap(uncompressedPageData);
   }
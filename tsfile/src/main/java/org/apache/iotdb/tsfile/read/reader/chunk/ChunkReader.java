@@ -34,6 +34,7 @@ import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
+import org.apache.iotdb.tsfile.read.reader.IDecompressedPageCache;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.v2.file.header.PageHeaderV2;
@@ -62,6 +63,9 @@ public class ChunkReader implements IChunkReader {
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
 
+  /** Decompressed pages of this chunk, null if they are not cached. */
+  private final IDecompressedPageCache decompressedPageCache;
+
   /**
    * constructor of ChunkReader.
    *
@@ -72,6 +76,7 @@ public class ChunkReader implements IChunkReader {
     this.filter = filter;
     this.chunkDataBuffer = chunk.getData();
     this.deleteIntervalList = chunk.getDeleteIntervalList();
+    this.decompressedPageCache = chunk.getDecompressedPageCache();
     this.currentTimestamp = Long.MIN_VALUE;
     chunkHeader = chunk.getHeader();
     this.unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
@@ -90,6 +95,7 @@ public class ChunkReader implements IChunkReader {
     this.filter = filter;
     this.chunkDataBuffer = chunk.getData();
     this.deleteIntervalList = chunk.getDeleteIntervalList();
+    this.decompressedPageCache = chunk.getDecompressedPageCache();
     this.currentTimestamp = currentTimestamp;
     chunkHeader = chunk.getHeader();
     this.unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
@@ -104,6 +110,7 @@ public class ChunkReader implements IChunkReader {
     this.filter = null;
     this.chunkDataBuffer = chunk.getData();
     this.deleteIntervalList = chunk.getDeleteIntervalList();
+    this.decompressedPageCache = chunk.getDecompressedPageCache();
     this.currentTimestamp = Long.MIN_VALUE;
     chunkHeader = chunk.getHeader();
     this.unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
@@ -172,7 +179,6 @@ public class ChunkReader implements IChunkReader {
 
   private PageReader constructPageReaderForNextPage(PageHeader pageHeader) throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
 
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
@@ -183,23 +189,34 @@ public class ChunkReader implements IChunkReader {
               + chunkDataBuffer.remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody);
+    int pageOffset = chunkDataBuffer.position();
+    byte[] uncompressedPageData =
+        decompressedPageCache == null ? null : decompressedPageCache.get(pageOffset);
+    if (uncompressedPageData != null) {
+      skipBytesInStreamByLength(compressedPageBodyLength);
+    } else {
+      byte[] compressedPageBody = new byte[compressedPageBodyLength];
+      chunkDataBuffer.get(compressedPageBody);
+      uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+      try {
+        unCompressor.uncompress(
+            compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
+      } catch (Exception e) {
+        throw new IOException(
+            "Uncompress error! uncompress size: "
+                + pageHeader.getUncompressedSize()
+                + "compressed size: "
+                + pageHeader.getCompressedSize()
+                + "page header: "
+                + pageHeader
+                + e.getMessage());
+      }
+      if (decompressedPageCache != null) {
+        decompressedPageCache.put(pageOffset, uncompressedPageData);
+      }
+    }
     Decoder valueDecoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
-    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
-    try {
-      unCompressor.uncompress(
-          compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
-    } catch (Exception e) {
-      throw new IOException(
-          "Uncompress error! uncompress size: "
-              + pageHeader.getUncompressedSize()
-              + "compressed size: "
-              + pageHeader.getCompressedSize()
-              + "page header: "
-              + pageHeader
-              + e.getMessage());
-    }
 
     ByteBuffer pageData = ByteBuffer.wrap(uncompressedPageData);
     PageReader reader =
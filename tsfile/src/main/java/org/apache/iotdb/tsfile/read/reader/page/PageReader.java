@@ -28,7 +28,9 @@ import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
@@ -177,6 +179,9 @@ public class PageReader implements IPageReader {
 
   @Override
   public TsBlock getAllSatisfiedData() throws IOException {
+    if (filter != null) {
+      return getAllSatisfiedDataInBatch();
+    }
     TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(dataType));
     TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
     ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
@@ -186,7 +191,7 @@ public class PageReader implements IPageReader {
           while (timeDecoder.hasNext(timeBuffer)) {
             long timestamp = timeDecoder.readLong(timeBuffer);
             boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aBoolean))) {
+            if (isDeleted(timestamp)) {
               continue;
             }
             if (paginationController.hasCurOffset()) {
@@ -207,7 +212,7 @@ public class PageReader implements IPageReader {
           while (timeDecoder.hasNext(timeBuffer)) {
             long timestamp = timeDecoder.readLong(timeBuffer);
             int anInt = valueDecoder.readInt(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, anInt))) {
+            if (isDeleted(timestamp)) {
               continue;
             }
             if (paginationController.hasCurOffset()) {
@@ -228,7 +233,7 @@ public class PageReader implements IPageReader {
           while (timeDecoder.hasNext(timeBuffer)) {
             long timestamp = timeDecoder.readLong(timeBuffer);
             long aLong = valueDecoder.readLong(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aLong))) {
+            if (isDeleted(timestamp)) {
               continue;
             }
             if (paginationController.hasCurOffset()) {
@@ -249,7 +254,7 @@ public class PageReader implements IPageReader {
           while (timeDecoder.hasNext(timeBuffer)) {
             long timestamp = timeDecoder.readLong(timeBuffer);
             float aFloat = valueDecoder.readFloat(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aFloat))) {
+            if (isDeleted(timestamp)) {
               continue;
             }
             if (paginationController.hasCurOffset()) {
@@ -270,7 +275,7 @@ public class PageReader implements IPageReader {
           while (timeDecoder.hasNext(timeBuffer)) {
             long timestamp = timeDecoder.readLong(timeBuffer);
             double aDouble = valueDecoder.readDouble(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aDouble))) {
+            if (isDeleted(timestamp)) {
               continue;
             }
             if (paginationController.hasCurOffset()) {
@@ -291,7 +296,7 @@ public class PageReader implements IPageReader {
           while (timeDecoder.hasNext(timeBuffer)) {
             long timestamp = timeDecoder.readLong(timeBuffer);
             Binary aBinary = valueDecoder.readBinary(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aBinary))) {
+            if (isDeleted(timestamp)) {
               continue;
             }
             if (paginationController.hasCurOffset()) {
@@ -315,6 +320,94 @@ public class PageReader implements IPageReader {
     return builder.build();
   }
 
+  /**
+   * Decode the whole page first, then examine all the points by {@link Filter#satisfyBatch} at
+   * once, so that the values are neither boxed nor passed to the filter one by one.
+   */
+  private TsBlock getAllSatisfiedDataInBatch() throws IOException {
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(dataType));
+    if (!pageSatisfy() || !paginationController.hasCurLimit()) {
+      return builder.build();
+    }
+    decodeAll(builder.getTimeColumnBuilder(), builder.getColumnBuilder(0));
+    builder.declarePositions(builder.getTimeColumnBuilder().getPositionCount());
+    TsBlock pageData = builder.build();
+
+    TimeColumn timeColumn = pageData.getTimeColumn();
+    Column valueColumn = pageData.getColumn(0);
+    int positionCount = pageData.getPositionCount();
+    boolean[] selection = new boolean[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      selection[i] = !isDeleted(timeColumn.getLong(i));
+    }
+    filter.satisfyBatch(timeColumn, valueColumn, selection);
+
+    int selectedCount = 0;
+    for (int i = 0; i < positionCount; i++) {
+      if (selection[i]) {
+        selectedCount++;
+      }
+    }
+    if (selectedCount < positionCount) {
+      builder.reset();
+      TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
+      ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
+      for (int i = 0; i < positionCount; i++) {
+        if (selection[i]) {
+          timeBuilder.writeLong(timeColumn.getLong(i));
+          valueBuilder.write(valueColumn, i);
+        }
+      }
+      builder.declarePositions(selectedCount);
+      pageData = builder.build();
+    }
+    return paginationController.applyTsBlock(pageData);
+  }
+
+  private void decodeAll(TimeColumnBuilder timeBuilder, ColumnBuilder valueBuilder)
+      throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          timeBuilder.writeLong(timeDecoder.readLong(timeBuffer));
+          valueBuilder.writeBoolean(valueDecoder.readBoolean(valueBuffer));
+        }
+        break;
+      case INT32:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          timeBuilder.writeLong(timeDecoder.readLong(timeBuffer));
+          valueBuilder.writeInt(valueDecoder.readInt(valueBuffer));
+        }
+        break;
+      case INT64:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          timeBuilder.writeLong(timeDecoder.readLong(timeBuffer));
+          valueBuilder.writeLong(valueDecoder.readLong(valueBuffer));
+        }
+        break;
+      case FLOAT:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          timeBuilder.writeLong(timeDecoder.readLong(timeBuffer));
+          valueBuilder.writeFloat(valueDecoder.readFloat(valueBuffer));
+        }
+        break;
+      case DOUBLE:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          timeBuilder.writeLong(timeDecoder.readLong(timeBuffer));
+          valueBuilder.writeDouble(valueDecoder.readDouble(valueBuffer));
+        }
+        break;
+      case TEXT:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          timeBuilder.writeLong(timeDecoder.readLong(timeBuffer));
+          valueBuilder.writeBinary(valueDecoder.readBinary(valueBuffer));
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
   @Override
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.common.block;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnarTsBlockSerde;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarTsBlockSerdeTest {
+
+  private static final List<TSDataType> DATA_TYPES =
+      Arrays.asList(
+          TSDataType.INT32,
+          TSDataType.FLOAT,
+          TSDataType.INT64,
+          TSDataType.DOUBLE,
+          TSDataType.BOOLEAN,
+          TSDataType.TEXT);
+
+  @Test
+  public void testSerializeAndDeserialize() throws IOException {
+    TsBlock tsBlock = buildTsBlock(1000, false);
+    int uncompressedSize = assertRoundTrip(tsBlock, new ColumnarTsBlockSerde(true, false));
+    int compressedSize = assertRoundTrip(tsBlock, new ColumnarTsBlockSerde(true, true));
+    assertTrue(compressedSize < uncompressedSize);
+  }
+
+  @Test
+  public void testSerializeAndDeserializeWithNulls() throws IOException {
+    TsBlock tsBlock = buildTsBlock(1001, true);
+    assertRoundTrip(tsBlock, new ColumnarTsBlockSerde(true, false));
+    assertRoundTrip(tsBlock, new ColumnarTsBlockSerde(true, true));
+  }
+
+  @Test
+  public void testSerializeRegion() throws IOException {
+    TsBlock tsBlock = buildTsBlock(100, true).getRegion(13, 50);
+    assertRoundTrip(tsBlock, new ColumnarTsBlockSerde(true, false));
+    assertRoundTrip(tsBlock, new ColumnarTsBlockSerde(true, true));
+  }
+
+  @Test
+  public void testSerializeRunLengthEncodedColumn() throws IOException {
+    TsBlock tsBlock =
+        new TsBlock(
+            new TimeColumn(3, new long[] {1, 2, 3}),
+            new RunLengthEncodedColumn(new IntColumn(1, Optional.empty(), new int[] {7}), 3));
+    ColumnarTsBlockSerde serde = new ColumnarTsBlockSerde(true, true);
+    TsBlock deserialized = serde.deserialize(serde.serialize(tsBlock));
+    assertEquals(ColumnEncoding.RLE, deserialized.getColumn(0).getEncoding());
+    assertTsBlockEquals(tsBlock, deserialized);
+  }
+
+  @Test
+  public void testSerializeIncompressibleValues() throws IOException {
+    Random random = new Random(0);
+    TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.INT64));
+    for (int i = 0; i < 100; i++) {
+      builder.getTimeColumnBuilder().writeLong(random.nextLong());
+      builder.getColumnBuilder(0).writeLong(random.nextLong());
+      builder.declarePosition();
+    }
+    assertRoundTrip(builder.build(), new ColumnarTsBlockSerde(true, true));
+  }
+
+  @Test
+  public void testDeserializeRowFormat() throws IOException {
+    TsBlock tsBlock = buildTsBlock(100, true);
+    ByteBuffer rowFormat = new TsBlockSerde().serialize(tsBlock);
+    assertTsBlockEquals(tsBlock, new ColumnarTsBlockSerde(true, true).deserialize(rowFormat));
+
+    ColumnarTsBlockSerde serde = new ColumnarTsBlockSerde(false, false);
+    ByteBuffer serialized = serde.serialize(tsBlock);
+    assertEquals(DATA_TYPES.size(), serialized.getInt(0));
+    assertTsBlockEquals(tsBlock, serde.deserialize(serialized));
+  }
+
+  /** @return the serialized size */
+  private static int assertRoundTrip(TsBlock tsBlock, ColumnarTsBlockSerde serde)
+      throws IOException {
+    ByteBuffer serialized = serde.serialize(tsBlock);
+    assertTrue(serialized.hasArray());
+    int size = serialized.remaining();
+    TsBlock deserialized = serde.deserialize(serialized);
+    assertFalse(serialized.hasRemaining());
+    assertTsBlockEquals(tsBlock, deserialized);
+    return size;
+  }
+
+  private static TsBlock buildTsBlock(int positionCount, boolean withNulls) {
+    TsBlockBuilder builder = new TsBlockBuilder(DATA_TYPES);
+    ColumnBuilder[] valueColumnBuilders = builder.getValueColumnBuilders();
+    for (int i = 0; i < positionCount; i++) {
+      builder.getTimeColumnBuilder().writeLong(i * 10L);
+      for (int j = 0; j < valueColumnBuilders.length; j++) {
+        if (withNulls && (i + j) % 3 == 0) {
+          valueColumnBuilders[j].appendNull();
+          continue;
+        }
+        switch (DATA_TYPES.get(j)) {
+          case INT32:
+            valueColumnBuilders[j].writeInt(i);
+            break;
+          case FLOAT:
+            valueColumnBuilders[j].writeFloat(i + i / 10F);
+            break;
+          case INT64:
+            valueColumnBuilders[j].writeLong(i * 100L);
+            break;
+          case DOUBLE:
+            valueColumnBuilders[j].writeDouble(i + i / 10D);
+            break;
+          case BOOLEAN:
+            valueColumnBuilders[j].writeBoolean(i % 2 == 0);
+            break;
+          case TEXT:
+            valueColumnBuilders[j].writeBinary(new Binary("foo" + i));
+            break;
+          default:
+            throw new IllegalArgumentException();
+        }
+      }
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
+  private static void assertTsBlockEquals(TsBlock expected, TsBlock actual) {
+    assertEquals(expected.getPositionCount(), actual.getPositionCount());
+    assertEquals(expected.getValueColumnCount(), actual.getValueColumnCount());
+    for (int i = 0; i < expected.getPositionCount(); i++) {
+      assertEquals(expected.getTimeByIndex(i), actual.getTimeByIndex(i));
+    }
+    for (int j = 0; j < expected.getValueColumnCount(); j++) {
+      assertEquals(expected.getColumn(j).getDataType(), actual.getColumn(j).getDataType());
+      Object[] expectedValues = new Object[expected.getPositionCount()];
+      Object[] actualValues = new Object[expected.getPositionCount()];
+      for (int i = 0; i < expected.getPositionCount(); i++) {
+        assertEquals(expected.getColumn(j).isNull(i), actual.getColumn(j).isNull(i));
+        if (!expected.getColumn(j).isNull(i)) {
+          expectedValues[i] = expected.getColumn(j).getObject(i);
+          actualValues[i] = actual.getColumn(j).getObject(i);
+        }
+      }
+      assertArrayEquals(expectedValues, actualValues);
+    }
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.FileGenerator;
 import org.apache.iotdb.tsfile.utils.Pair;
@@ -45,6 +46,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -135,6 +137,33 @@ public class TsFileSequenceReaderTest {
     reader.close();
   }
 
+  @Test
+  public void testReadMemChunks() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      List<ChunkMetadata> metadataList = new ArrayList<>();
+      for (List<ChunkMetadata> chunkMetadataList :
+          reader.readChunkMetadataInDevice("d1").values()) {
+        metadataList.addAll(chunkMetadataList);
+      }
+      metadataList.sort(Comparator.comparingLong(ChunkMetadata::getOffsetOfChunkHeader));
+      // skip one chunk so that the range read covers a chunk not requested
+      metadataList.remove(1);
+
+      List<Chunk> chunks = reader.readMemChunks(metadataList);
+      Assert.assertEquals(metadataList.size(), chunks.size());
+      for (int i = 0; i < metadataList.size(); i++) {
+        Chunk expected = reader.readMemChunk(metadataList.get(i));
+        Chunk actual = chunks.get(i);
+        Assert.assertEquals(
+            expected.getHeader().getMeasurementID(), actual.getHeader().getMeasurementID());
+        Assert.assertEquals(
+            expected.getHeader().getSerializedSize(), actual.getHeader().getSerializedSize());
+        Assert.assertEquals(expected.getData(), actual.getData());
+        Assert.assertEquals(expected.getData().remaining(), actual.getData().capacity());
+      }
+    }
+  }
+
   @Test
   public void testReadEmptyPageInSelfCheck() throws IOException, WriteProcessException {
     int oldMaxPagePointNum =
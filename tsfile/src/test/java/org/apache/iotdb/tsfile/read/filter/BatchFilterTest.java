@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.filter;
+
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.FloatColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.LongColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
+import org.apache.iotdb.tsfile.read.filter.operator.Between;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+
+public class BatchFilterTest {
+
+  private static final int SIZE = 100;
+
+  private final TimeColumn timeColumn;
+  private final IntColumn intColumn;
+  private final LongColumn longColumn;
+  private final FloatColumn floatColumn;
+  private final DoubleColumn doubleColumn;
+
+  public BatchFilterTest() {
+    long[] times = new long[SIZE];
+    int[] ints = new int[SIZE];
+    long[] longs = new long[SIZE];
+    float[] floats = new float[SIZE];
+    double[] doubles = new double[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      times[i] = i;
+      ints[i] = i % 10;
+      longs[i] = i % 10;
+      floats[i] = i % 10 + 0.5f;
+      doubles[i] = i % 10 + 0.5;
+    }
+    floats[SIZE - 1] = Float.NaN;
+    doubles[SIZE - 1] = Double.NaN;
+    timeColumn = new TimeColumn(SIZE, times);
+    intColumn = new IntColumn(SIZE, Optional.empty(), ints);
+    longColumn = new LongColumn(SIZE, Optional.empty(), longs);
+    floatColumn = new FloatColumn(SIZE, Optional.empty(), floats);
+    doubleColumn = new DoubleColumn(SIZE, Optional.empty(), doubles);
+  }
+
+  @Test
+  public void testTimeFilter() {
+    assertBatchEquals(TimeFilter.eq(10L), null);
+    assertBatchEquals(TimeFilter.notEq(10L), null);
+    assertBatchEquals(TimeFilter.gt(10L), null);
+    assertBatchEquals(TimeFilter.gtEq(10L), null);
+    assertBatchEquals(TimeFilter.lt(10L), null);
+    assertBatchEquals(TimeFilter.ltEq(10L), null);
+    assertBatchEquals(TimeFilter.between(10L, 20L, false), null);
+    assertBatchEquals(TimeFilter.between(10L, 20L, true), null);
+    assertBatchEquals(TimeFilter.in(new HashSet<>(Arrays.asList(1L, 50L, 99L)), false), null);
+    assertBatchEquals(TimeFilter.not(TimeFilter.gt(50L)), null);
+  }
+
+  @Test
+  public void testIntFilter() {
+    assertBatchEquals(ValueFilter.eq(5), intColumn);
+    assertBatchEquals(ValueFilter.notEq(5), intColumn);
+    assertBatchEquals(ValueFilter.gt(5), intColumn);
+    assertBatchEquals(ValueFilter.gtEq(5), intColumn);
+    assertBatchEquals(ValueFilter.lt(5), intColumn);
+    assertBatchEquals(ValueFilter.ltEq(5), intColumn);
+    assertBatchEquals(new Between<>(3, 6, FilterType.VALUE_FILTER, false), intColumn);
+    assertBatchEquals(ValueFilter.in(new HashSet<>(Arrays.asList(1, 3, 7)), true), intColumn);
+  }
+
+  @Test
+  public void testLongFilter() {
+    assertBatchEquals(ValueFilter.gt(5L), longColumn);
+    assertBatchEquals(ValueFilter.ltEq(5L), longColumn);
+    assertBatchEquals(new Between<>(3L, 6L, FilterType.VALUE_FILTER, true), longColumn);
+    assertBatchEquals(ValueFilter.in(new HashSet<>(Arrays.asList(1L, 3L, 7L)), false), longColumn);
+    // mismatched type falls back to the point by point evaluation
+    assertBatchEquals(ValueFilter.eq(5), longColumn);
+  }
+
+  @Test
+  public void testFloatingFilter() {
+    assertBatchEquals(ValueFilter.gt(5.5f), floatColumn);
+    assertBatchEquals(ValueFilter.lt(5.5f), floatColumn);
+    assertBatchEquals(ValueFilter.eq(Float.NaN), floatColumn);
+    assertBatchEquals(ValueFilter.in(new HashSet<>(Arrays.asList(0.5f, 9.5f)), false), floatColumn);
+    assertBatchEquals(ValueFilter.gtEq(5.5), doubleColumn);
+    assertBatchEquals(ValueFilter.notEq(Double.NaN), doubleColumn);
+    assertBatchEquals(new Between<>(2.0, 8.0, FilterType.VALUE_FILTER, false), doubleColumn);
+  }
+
+  @Test
+  public void testBinaryFilter() {
+    assertBatchEquals(FilterFactory.and(TimeFilter.gt(20L), ValueFilter.lt(5L)), longColumn);
+    assertBatchEquals(FilterFactory.or(TimeFilter.lt(20L), ValueFilter.eq(5L)), longColumn);
+    assertBatchEquals(
+        FilterFactory.or(
+            FilterFactory.and(TimeFilter.gt(20L), ValueFilter.gt(7.0)),
+            FilterFactory.not(ValueFilter.gt(2.0))),
+        doubleColumn);
+  }
+
+  @Test
+  public void testPartialSelection() {
+    boolean[] selection = new boolean[SIZE];
+    for (int i = 0; i < SIZE; i += 2) {
+      selection[i] = true;
+    }
+    ValueFilter.gt(5L).satisfyBatch(timeColumn, longColumn, selection);
+    for (int i = 0; i < SIZE; i++) {
+      Assert.assertEquals(i % 2 == 0 && i % 10 > 5, selection[i]);
+    }
+  }
+
+  private void assertBatchEquals(Filter filter, Column valueColumn) {
+    boolean[] selection = new boolean[SIZE];
+    Arrays.fill(selection, true);
+    filter.satisfyBatch(timeColumn, valueColumn, selection);
+    for (int i = 0; i < SIZE; i++) {
+      Object value = valueColumn == null ? null : valueColumn.getObject(i);
+      Assert.assertEquals(
+          filter + " at " + i, filter.satisfy(timeColumn.getLong(i), value), selection[i]);
+    }
+  }
+}
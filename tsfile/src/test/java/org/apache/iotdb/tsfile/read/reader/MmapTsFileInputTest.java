@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.constant.TestConstant;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.FilePathUtils;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.iotdb.tsfile.common.constant.TsFileConstant.PATH_SEPARATOR;
+
+public class MmapTsFileInputTest {
+
+  private final String testStorageGroup = TsFileGeneratorUtils.testStorageGroup;
+  private final File dir = new File(TestConstant.BASE_OUTPUT_PATH + "mmap");
+  private final int deviceNum = 3;
+  private final int measurementNum = 5;
+  private File file;
+
+  @Before
+  public void setUp() throws IOException, WriteProcessException {
+    if (!dir.exists()) {
+      Assert.assertTrue(dir.mkdirs());
+    }
+    String fileName =
+        System.currentTimeMillis() + FilePathUtils.FILE_NAME_SEPARATOR + "0-0-0.tsfile";
+    file =
+        TsFileGeneratorUtils.generateNonAlignedTsFile(
+            dir.getPath() + File.separator + fileName, deviceNum, measurementNum, 100, 0, 0, 0, 0);
+  }
+
+  @After
+  public void tearDown() {
+    if (file.exists()) {
+      file.delete();
+    }
+    if (dir.exists()) {
+      dir.delete();
+    }
+  }
+
+  @Test
+  public void testRead() throws IOException {
+    AtomicInteger unmapped = new AtomicInteger();
+    MmapTsFileInput mmapInput =
+        new MmapTsFileInput(file.toPath(), buffer -> unmapped.incrementAndGet());
+    TsFileInput localInput = new LocalTsFileInput(file.toPath());
+    try {
+      Assert.assertEquals(localInput.size(), mmapInput.size());
+
+      ByteBuffer expected = ByteBuffer.allocate(20);
+      ByteBuffer actual = ByteBuffer.allocate(20);
+      Assert.assertEquals(localInput.read(expected, 10), mmapInput.read(actual, 10));
+      Assert.assertEquals(expected.flip(), actual.flip());
+      // absolute reads do not move the position
+      Assert.assertEquals(0, mmapInput.position());
+
+      mmapInput.position(5);
+      localInput.position(5);
+      expected.clear();
+      actual.clear();
+      Assert.assertEquals(localInput.read(expected), mmapInput.read(actual));
+      Assert.assertEquals(expected.flip(), actual.flip());
+      Assert.assertEquals(localInput.position(), mmapInput.position());
+
+      InputStream inputStream = mmapInput.wrapAsInputStream();
+      mmapInput.position(5);
+      byte[] bytes = new byte[20];
+      Assert.assertEquals(20, inputStream.read(bytes));
+      Assert.assertEquals(expected, ByteBuffer.wrap(bytes));
+      Assert.assertEquals(25, mmapInput.position());
+
+      // reading at the end of the file
+      actual.clear();
+      Assert.assertEquals(-1, mmapInput.read(actual, mmapInput.size()));
+    } finally {
+      localInput.close();
+      mmapInput.close();
+    }
+    Assert.assertEquals(1, unmapped.get());
+    // closing twice does not unmap again
+    mmapInput.close();
+    Assert.assertEquals(1, unmapped.get());
+    try {
+      mmapInput.read(ByteBuffer.allocate(1), 0);
+      Assert.fail();
+    } catch (ClosedChannelException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testReadTsFile() throws IOException {
+    try (TsFileSequenceReader mmapReader =
+            new TsFileSequenceReader(new MmapTsFileInput(file.toPath(), buffer -> {}));
+        TsFileSequenceReader localReader = new TsFileSequenceReader(file.getPath())) {
+      Assert.assertEquals(localReader.getAllDevices(), mmapReader.getAllDevices());
+      for (int i = 0; i < deviceNum; i++) {
+        for (int j = 0; j < measurementNum; j++) {
+          Path path = new Path(testStorageGroup + PATH_SEPARATOR + "d" + i, "s" + j, true);
+          List<ChunkMetadata> chunkMetadataList = mmapReader.getChunkMetadataList(path);
+          Assert.assertEquals(
+              localReader.getChunkMetadataList(path).size(), chunkMetadataList.size());
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            Chunk expected = localReader.readMemChunk(chunkMetadata);
+            Chunk actual = mmapReader.readMemChunk(chunkMetadata);
+            Assert.assertEquals(
+                expected.getHeader().getMeasurementID(), actual.getHeader().getMeasurementID());
+            Assert.assertEquals(
+                expected.getHeader().getDataSize(), actual.getHeader().getDataSize());
+            Assert.assertEquals(expected.getData(), actual.getData());
+          }
+        }
+      }
+    }
+  }
+}